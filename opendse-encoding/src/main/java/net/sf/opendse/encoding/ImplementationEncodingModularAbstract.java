@@ -17,13 +17,13 @@ import net.sf.opendse.model.Specification;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.optimization.SpecificationWrapper;
 import net.sf.opendse.optimization.constraints.SpecificationConstraints;
+import net.sf.opendse.optimization.encoding.variables.LiteralCache;
 import net.sf.opendse.encoding.application.DependencyEndPointConstraintGenerator;
 import net.sf.opendse.encoding.variables.AllocationVariable;
 import net.sf.opendse.encoding.variables.ApplicationVariable;
 import net.sf.opendse.encoding.variables.InterfaceVariable;
 import net.sf.opendse.encoding.variables.MappingVariable;
 import net.sf.opendse.encoding.variables.RoutingVariable;
-import net.sf.opendse.encoding.variables.Variables;
 
 /**
  * Parent of all implementation encodings. Details the encoding flow and the
@@ -43,12 +43,23 @@ public abstract class ImplementationEncodingModularAbstract implements Implement
 	protected final Set<MappingVariable> mappingVariables;
 	protected final Set<RoutingVariable> routingVariables;
 	protected final Set<AllocationVariable> allocationVariables;
-	protected final Set<Constraint> constraints;
+	protected final SpecificationWrapper specificationWrapper;
+	protected final SpecificationConstraints specConstraints;
+	protected final LiteralCache literalCache;
+	protected Set<Constraint> constraints = null;
 
 	public ImplementationEncodingModularAbstract(SpecificationPreprocessor preprocessor,
 			ApplicationEncoding applicationEncoding, MappingEncoding mappingEncoding, RoutingEncoding routingEncoding,
 			AllocationEncoding allocationEncoding, SpecificationWrapper specificationWrapper,
 			SpecificationConstraints specConstraints) {
+		this(preprocessor, applicationEncoding, mappingEncoding, routingEncoding, allocationEncoding,
+				specificationWrapper, specConstraints, new LiteralCache());
+	}
+
+	public ImplementationEncodingModularAbstract(SpecificationPreprocessor preprocessor,
+			ApplicationEncoding applicationEncoding, MappingEncoding mappingEncoding, RoutingEncoding routingEncoding,
+			AllocationEncoding allocationEncoding, SpecificationWrapper specificationWrapper,
+			SpecificationConstraints specConstraints, LiteralCache literalCache) {
 
 		this.preprocessor = preprocessor;
 		this.applicationEncoding = applicationEncoding;
@@ -60,19 +71,36 @@ public abstract class ImplementationEncodingModularAbstract implements Implement
 		this.mappingVariables = new HashSet<MappingVariable>();
 		this.routingVariables = new HashSet<RoutingVariable>();
 		this.allocationVariables = new HashSet<AllocationVariable>();
-		this.constraints = generateTheConstraints(specificationWrapper.getSpecification());
-		specConstraints.doEncoding(this.constraints);
+		this.specificationWrapper = specificationWrapper;
+		this.specConstraints = specConstraints;
+		this.literalCache = literalCache;
+		// the preprocessed specification is required even if the constraints
+		// are never generated, e.g., if they are loaded from a cache
+		preprocessor.preprocessSpecification(specificationWrapper.getSpecification());
 	}
 
+	/**
+	 * Returns the constraints. They are generated on the first call.
+	 * 
+	 * @return the set of constraints
+	 */
 	@Override
-	public Set<Constraint> toConstraints() {
-		return this.constraints;
+	public synchronized Set<Constraint> toConstraints() {
+		if (constraints == null) {
+			LiteralCache previous = literalCache.activate();
+			try {
+				Set<Constraint> result = generateTheConstraints(specificationWrapper.getSpecification());
+				specConstraints.doEncoding(result);
+				constraints = result;
+			} finally {
+				LiteralCache.restore(previous);
+			}
+		}
+		return constraints;
 	}
 
 	@SuppressWarnings("unchecked")
 	protected Set<Constraint> generateTheConstraints(Specification specification) {
-		Variables.clearCaches();
-		preprocessor.preprocessSpecification(specification);
 		Application<Task, Dependency> application = specification.getApplication();
 		Mappings<Task, Resource> mappings = specification.getMappings();
 		Routings<Task, Resource, Link> routings = specification.getRoutings();
@@ -113,8 +141,15 @@ public abstract class ImplementationEncodingModularAbstract implements Implement
 		cs.removeAll(toRemove);
 	}
 
+	/**
+	 * Returns the interface variables of the constraints. The constraints are
+	 * generated if this has not happened yet.
+	 * 
+	 * @return the set of interface variables
+	 */
 	@Override
-	public Set<InterfaceVariable> getInterfaceVariables() {
+	public synchronized Set<InterfaceVariable> getInterfaceVariables() {
+		toConstraints();
 		Set<InterfaceVariable> result = new HashSet<InterfaceVariable>();
 		result.addAll(applicationVariables);
 		result.addAll(mappingVariables);
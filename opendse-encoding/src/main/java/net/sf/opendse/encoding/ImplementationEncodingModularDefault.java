@@ -9,6 +9,7 @@ import com.google.inject.Inject;
 
 import net.sf.opendse.optimization.SpecificationWrapper;
 import net.sf.opendse.optimization.constraints.SpecificationConstraints;
+import net.sf.opendse.optimization.encoding.variables.LiteralCache;
 
 /**
  * The {@link ImplementationEncodingModularDefault} performs the basic encoding
@@ -19,7 +20,6 @@ import net.sf.opendse.optimization.constraints.SpecificationConstraints;
  */
 public class ImplementationEncodingModularDefault extends ImplementationEncodingModularAbstract {
 
-	@Inject
 	public ImplementationEncodingModularDefault(SpecificationPreprocessor preprocessor,
 			ApplicationEncoding applicationEncoding, MappingEncoding mappingEncoding, RoutingEncoding routingEncoding,
 			AllocationEncoding allocationEncoding, SpecificationWrapper specificationWrapper, SpecificationConstraints specConstraints) {
@@ -27,6 +27,15 @@ public class ImplementationEncodingModularDefault extends ImplementationEncoding
 				specificationWrapper, specConstraints);
 	}
 
+	@Inject
+	public ImplementationEncodingModularDefault(SpecificationPreprocessor preprocessor,
+			ApplicationEncoding applicationEncoding, MappingEncoding mappingEncoding, RoutingEncoding routingEncoding,
+			AllocationEncoding allocationEncoding, SpecificationWrapper specificationWrapper,
+			SpecificationConstraints specConstraints, LiteralCache literalCache) {
+		super(preprocessor, applicationEncoding, mappingEncoding, routingEncoding, allocationEncoding,
+				specificationWrapper, specConstraints, literalCache);
+	}
+
 	@Override
 	protected Set<Constraint> formulateAdditionalConstraints() {
 		// Returns an empty set
@@ -0,0 +1,66 @@
+package net.sf.opendse.encoding;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import net.sf.opendse.encoding.variables.Variable;
+import net.sf.opendse.model.Specification;
+
+/**
+ * The {@link VariableIndex} maps the elements of the {@link Specification}
+ * (e.g., resources or links) onto the {@link Variable}s they are incident to.
+ * Constraint generators build the index in a single pass over the variables
+ * instead of scanning all variables for each object.
+ *
+ * @param <K>
+ *            the type of the indexed objects
+ */
+public class VariableIndex<K> {
+
+	protected final Map<K, Set<Variable>> index = new HashMap<K, Set<Variable>>();
+
+	/**
+	 * Adds the given {@link Variable} as incident to the given key.
+	 *
+	 * @param key
+	 *            the key
+	 * @param variable
+	 *            the incident variable
+	 */
+	public void add(K key, Variable variable) {
+		Set<Variable> variables = index.get(key);
+		if (variables == null) {
+			variables = new HashSet<Variable>();
+			index.put(key, variables);
+		}
+		variables.add(variable);
+	}
+
+	/**
+	 * Returns the {@link Variable}s incident to the given key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the unmodifiable set of incident variables (empty if there is
+	 *         none)
+	 */
+	public Set<Variable> get(K key) {
+		Set<Variable> variables = index.get(key);
+		if (variables == null) {
+			return Collections.emptySet();
+		}
+		return Collections.unmodifiableSet(variables);
+	}
+
+	/**
+	 * Returns the keys with at least one incident {@link Variable}.
+	 *
+	 * @return the unmodifiable set of keys
+	 */
+	public Set<K> keySet() {
+		return Collections.unmodifiableSet(index.keySet());
+	}
+}
@@ -8,6 +8,7 @@ import org.opt4j.satdecoding.Constraint;
 import net.sf.opendse.encoding.AllocationEncoding;
 import net.sf.opendse.encoding.MappingEncoding;
 import net.sf.opendse.encoding.RoutingEncoding;
+import net.sf.opendse.encoding.VariableIndex;
 import net.sf.opendse.encoding.constraints.Constraints;
 import net.sf.opendse.encoding.variables.CLRR;
 import net.sf.opendse.encoding.variables.CR;
@@ -43,89 +44,58 @@ public class AllocationEncodingUtilization implements AllocationEncoding {
 	public Set<Constraint> toConstraints(Set<MappingVariable> mappingVariables, Set<RoutingVariable> routingVariables,
 			Architecture<Resource, Link> architecture) {
 		Set<Constraint> allocationConstraints = new HashSet<Constraint>();
+		VariableIndex<Resource> resourceVariables = new VariableIndex<Resource>();
+		VariableIndex<Link> linkVariables = new VariableIndex<Link>();
+		indexRelevantVariables(mappingVariables, routingVariables, resourceVariables, linkVariables);
 		for (Resource res : architecture) {
 			R rVar = Variables.varR(res);
-			Set<Variable> relevantVars = gatherRelevantVariables(res, mappingVariables, routingVariables);
+			Set<Variable> relevantVars = resourceVariables.get(res);
 			allocationConstraints.addAll(Constraints.generateOrConstraints(relevantVars, rVar));
 		}
 		for (Link link : architecture.getEdges()) {
 			L lVar = Variables.varL(link);
-			Set<Variable> relevantVars = gatherRelevantVariables(link, routingVariables);
+			Set<Variable> relevantVars = linkVariables.get(link);
 			allocationConstraints.addAll(Constraints.generateOrConstraints(relevantVars, lVar));
 		}
 		return allocationConstraints;
 	}
 
 	/**
-	 * * Returns the {@link Set} of {@link Variable}s that are relevant for the
-	 * allocation of the given {@link Link}. A variable is relevant if its
-	 * activation automatically results in the activation of the current resource.
+	 * Indexes the {@link Variable}s that are relevant for the allocation of the
+	 * {@link Resource}s and {@link Link}s in a single pass. A variable is
+	 * relevant if its activation automatically results in the activation of the
+	 * resource or link it is indexed for.
 	 * 
-	 * @param link
-	 *            the current link
-	 * @param routingVariables
-	 *            the set of {@link RoutingVariable}s encoded by the
-	 *            {@link RoutingEncoding}
-	 * @return the {@link Set} of {@link Variable}s that are relevant for the
-	 *         allocation of the given {@link Link}. A variable is relevant if its
-	 *         activation automatically results in the activation of the current
-	 *         resource
-	 */
-	protected Set<Variable> gatherRelevantVariables(Link link, Set<RoutingVariable> routingVariables) {
-		Set<Variable> relevantVariables = new HashSet<Variable>();
-		for (RoutingVariable routingVar : routingVariables) {
-			if (routingVar instanceof CLRR) {
-				CLRR clrrVar = (CLRR) routingVar;
-				if (clrrVar.getLink().equals(link)) {
-					relevantVariables.add(clrrVar);
-				}
-			}
-		}
-		return relevantVariables;
-	}
-
-	/**
-	 * Returns the {@link Set} of {@link Variable}s that are relevant for the
-	 * allocation of the given {@link Resource}. A variable is relevant if its
-	 * activation automatically results in the activation of the current resource.
-	 * 
-	 * @param resource
-	 *            the current resource
 	 * @param mappingVariables
 	 *            the set of {@link MappingVariable}s encoded by the
 	 *            {@link MappingEncoding}
 	 * @param routingVariables
 	 *            the set of {@link RoutingVariable}s encoded by the
 	 *            {@link RoutingEncoding}
-	 * @return the {@link Set} of {@link Variable}s that are relevant for the
-	 *         allocation of the given {@link Resource}. A variable is relevant if
-	 *         its activation automatically results in the activation of the current
-	 *         resource
+	 * @param resourceVariables
+	 *            the index of the variables relevant for the resources
+	 * @param linkVariables
+	 *            the index of the variables relevant for the links
 	 */
-	protected Set<Variable> gatherRelevantVariables(Resource resource, Set<MappingVariable> mappingVariables,
-			Set<RoutingVariable> routingVariables) {
-		Set<Variable> relevantVariables = new HashSet<Variable>();
+	protected void indexRelevantVariables(Set<MappingVariable> mappingVariables,
+			Set<RoutingVariable> routingVariables, VariableIndex<Resource> resourceVariables,
+			VariableIndex<Link> linkVariables) {
 		for (MappingVariable mappingVar : mappingVariables) {
 			if (mappingVar instanceof M) {
 				M mVar = (M) mappingVar;
-				if (mVar.getMapping().getTarget().equals(resource)) {
-					relevantVariables.add(mVar);
-				}
+				resourceVariables.add(mVar.getMapping().getTarget(), mVar);
 			}
 		}
 		for (RoutingVariable routingVar : routingVariables) {
 			if (routingVar instanceof CR) {
 				CR crVar = (CR) routingVar;
-				if (crVar.getResource().equals(resource)) {
-					relevantVariables.add(crVar);
-				}
+				resourceVariables.add(crVar.getResource(), crVar);
 			} else if (routingVar instanceof CLRR) {
 				CLRR clrrVar = (CLRR) routingVar;
-				if (clrrVar.getSource().equals(resource) || clrrVar.getDestination().equals(resource)) {
-					relevantVariables.add(clrrVar);
-				}
+				resourceVariables.add(clrrVar.getSource(), clrrVar);
+				resourceVariables.add(clrrVar.getDestination(), clrrVar);
+				linkVariables.add(clrrVar.getLink(), clrrVar);
 			}
 		}
-		return relevantVariables;
 	}
 }
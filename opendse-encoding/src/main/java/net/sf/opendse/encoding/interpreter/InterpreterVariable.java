@@ -7,6 +7,7 @@ import java.util.Set;
 
 import org.opt4j.core.Individual;
 import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Literal;
 import org.opt4j.satdecoding.Model;
 
 import com.google.inject.Inject;
@@ -44,7 +45,10 @@ import net.sf.opendse.model.Specification;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.model.parameter.ParameterReference;
 import net.sf.opendse.model.parameter.ParameterSelect;
+import net.sf.opendse.optimization.ConstraintCache;
+import net.sf.opendse.optimization.SATConstraints;
 import net.sf.opendse.optimization.constraints.SpecificationConstraints;
+import net.sf.opendse.optimization.encoding.common.ConstraintPreprocessing;
 import net.sf.opendse.optimization.encoding.variables.Variables;
 
 /**
@@ -67,6 +71,7 @@ public class InterpreterVariable extends InterpreterAbstract{
 	
 	protected final SpecificationConstraints specificationConstraints;
 	protected final Set<ParameterReference> activeVariables;
+	protected SATConstraints satConstraints = null;
 
 	@Inject
 	public InterpreterVariable(SpecificationPostProcessor postProcessor, ImplementationEncodingModular implementationEncoding, SpecificationConstraints specificationConstraints) {
@@ -76,6 +81,20 @@ public class InterpreterVariable extends InterpreterAbstract{
 		this.activeVariables = specificationConstraints.getActiveParameters();
 	}
 
+	/**
+	 * Sets the {@link SATConstraints} the {@link InterfaceVariable}s are read
+	 * from. This way, the {@link ImplementationEncodingModular} does not have to
+	 * generate its constraints if they are loaded from the
+	 * {@link ConstraintCache}.
+	 * 
+	 * @param satConstraints
+	 *            the {@link SATConstraints}
+	 */
+	@Inject(optional = true)
+	public void setSATConstraints(SATConstraints satConstraints) {
+		this.satConstraints = satConstraints;
+	}
+
 	@Override
 	public Specification decodeModel(Specification specification, Model model) {
 		if (!variablesInitialized) {
@@ -540,10 +559,36 @@ public class InterpreterVariable extends InterpreterAbstract{
 	}
 
 	/**
-	 * Reads the {@link InterfaceVariable}s from the {@link ImplementationEncodingModular}.
+	 * Returns the {@link InterfaceVariable}s. These are the variables of the
+	 * {@link SATConstraints} (including the ones removed by the preprocessing)
+	 * if set, the ones of the {@link ImplementationEncodingModular} otherwise.
+	 * 
+	 * @return the set of {@link InterfaceVariable}s
+	 */
+	protected Set<InterfaceVariable> getInterfaceVariables() {
+		if (satConstraints == null) {
+			return implementationEncoding.getInterfaceVariables();
+		}
+		Set<Object> variables = new HashSet<Object>(satConstraints.getVariables());
+		ConstraintPreprocessing preprocessing = satConstraints.getPreprocessing();
+		for (Literal unit : preprocessing.getUnits()) {
+			variables.add(unit.variable());
+		}
+		variables.addAll(preprocessing.getEqualities().keySet());
+		Set<InterfaceVariable> result = new HashSet<InterfaceVariable>();
+		for (Object variable : variables) {
+			if (variable instanceof InterfaceVariable) {
+				result.add((InterfaceVariable) variable);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Reads the {@link InterfaceVariable}s, see {@link #getInterfaceVariables()}.
 	 */
 	protected void initializeInterfaceVariables() {
-		for (InterfaceVariable interfaceVariable : implementationEncoding.getInterfaceVariables()) {
+		for (InterfaceVariable interfaceVariable : getInterfaceVariables()) {
 			if (interfaceVariable instanceof ApplicationVariable) {
 				applicationVariables.add((ApplicationVariable) interfaceVariable);
 			} else if (interfaceVariable instanceof MappingVariable) {
@@ -0,0 +1,65 @@
+package net.sf.opendse.encoding.module;
+
+import org.opt4j.core.config.Icons;
+import org.opt4j.core.config.annotations.Icon;
+import org.opt4j.core.config.annotations.Name;
+import org.opt4j.core.config.annotations.Parent;
+import org.opt4j.core.start.Opt4JModule;
+
+import net.sf.opendse.encoding.routing.CycleBreakEncoder;
+import net.sf.opendse.encoding.routing.CycleBreakEncoderColor;
+import net.sf.opendse.encoding.routing.CycleBreakEncoderLevel;
+import net.sf.opendse.encoding.routing.CycleBreakEncoderOrder;
+import net.sf.opendse.optimization.DesignSpaceExplorationModule;
+
+/**
+ * The {@link CycleBreakModule} binds the {@link CycleBreakEncoder} that
+ * prevents cycles in the routings of the communications. It must not be
+ * combined with other modules binding the {@link CycleBreakEncoder}, such as
+ * the {@link RedundantRoutingModule} or the {@link OptimizationNewModule} with
+ * manual cycle removal.
+ *
+ */
+@Parent(DesignSpaceExplorationModule.class)
+@Icon(Icons.PROBLEM)
+public class CycleBreakModule extends Opt4JModule {
+
+	/**
+	 * Different cycle break encodings: COLOR: two- and three-coloring of the
+	 * routing graph, see {@link CycleBreakEncoderColor} ORDER: order of the
+	 * resource pairs, see {@link CycleBreakEncoderOrder} LEVEL: binary encoded
+	 * levels of the resources, see {@link CycleBreakEncoderLevel}
+	 *
+	 */
+	public enum CycleBreakEncoding {
+		COLOR, ORDER, LEVEL
+	}
+
+	@Name("cycle break encoding")
+	protected CycleBreakEncoding cycleBreakEncoding = CycleBreakEncoding.LEVEL;
+
+	public CycleBreakEncoding getCycleBreakEncoding() {
+		return cycleBreakEncoding;
+	}
+
+	public void setCycleBreakEncoding(CycleBreakEncoding cycleBreakEncoding) {
+		this.cycleBreakEncoding = cycleBreakEncoding;
+	}
+
+	@Override
+	protected void config() {
+		switch (cycleBreakEncoding) {
+		case COLOR:
+			bind(CycleBreakEncoder.class).to(CycleBreakEncoderColor.class);
+			break;
+		case ORDER:
+			bind(CycleBreakEncoder.class).to(CycleBreakEncoderOrder.class);
+			break;
+		case LEVEL:
+			bind(CycleBreakEncoder.class).to(CycleBreakEncoderLevel.class);
+			break;
+		default:
+			break;
+		}
+	}
+}
@@ -11,6 +11,8 @@ import net.sf.opendse.encoding.routing.CycleBreakEncoder;
 import net.sf.opendse.encoding.routing.CycleBreakEncoderNone;
 import net.sf.opendse.encoding.routing.RoutingEncodingFlexible;
 import net.sf.opendse.encoding.routing.RoutingEncodingNone;
+import net.sf.opendse.optimization.BatchIndividualCompleter;
+import net.sf.opendse.optimization.ConstraintCache;
 import net.sf.opendse.optimization.DesignSpaceExplorationCreator;
 import net.sf.opendse.optimization.DesignSpaceExplorationDecoder;
 import net.sf.opendse.optimization.DesignSpaceExplorationEvaluator;
@@ -28,14 +30,17 @@ import net.sf.opendse.optimization.constraints.SpecificationConstraints;
 import net.sf.opendse.optimization.constraints.SpecificationConstraintsMulti;
 import net.sf.opendse.optimization.constraints.SpecificationElementsConstraints;
 import net.sf.opendse.optimization.constraints.SpecificationRouterConstraints;
+import net.sf.opendse.optimization.encoding.CommunicationLearn;
 import net.sf.opendse.optimization.encoding.Encoding;
 import net.sf.opendse.optimization.encoding.Encoding.RoutingEncoding;
 import net.sf.opendse.optimization.encoding.ImplementationEncoding;
 import net.sf.opendse.optimization.encoding.Interpreter;
 import net.sf.opendse.optimization.encoding.InterpreterSpecification;
 
+import org.opt4j.core.config.annotations.Info;
 import org.opt4j.core.config.annotations.Parent;
 import org.opt4j.core.config.annotations.Required;
+import org.opt4j.core.optimizer.IndividualCompleter;
 import org.opt4j.core.problem.ProblemModule;
 import org.opt4j.core.start.Constant;
 import org.opt4j.viewer.VisualizationModule;
@@ -94,6 +99,37 @@ public class OptimizationNewModule extends ProblemModule {
 	@Constant(value = "variableorder", namespace = SATCreatorDecoder.class)
 	protected boolean useVariableOrder = true;
 
+	@Constant(value = "cacheSize", namespace = SATCreatorDecoder.class)
+	protected int decodingCacheSize = 0;
+
+	@Constant(value = "threads", namespace = DesignSpaceExplorationEvaluator.class)
+	protected int evaluationThreads = 1;
+
+	@Info("Completes the individuals with the BatchIndividualCompleter. Do not combine with the IndividualCompleterModule.")
+	protected boolean batchEvaluation = false;
+
+	@Required(property = "batchEvaluation", elements = { "TRUE" })
+	@Constant(value = "batchSize", namespace = BatchIndividualCompleter.class)
+	protected int evaluationBatchSize = 0;
+
+	@Constant(value = "threads", namespace = Encoding.class)
+	protected int encodingThreads = 1;
+
+	@Constant(value = "threads", namespace = RoutingEncodingFlexible.class)
+	protected int routingEncodingThreads = 1;
+
+	@Constant(value = "threads", namespace = CommunicationLearn.class)
+	protected int learnThreads = 1;
+
+	@Constant(value = "timeout", namespace = CommunicationLearn.class)
+	protected int learnTimeout = 0;
+
+	@Constant(value = "budget", namespace = CommunicationLearn.class)
+	protected int learnBudget = 0;
+
+	@Constant(value = "directory", namespace = ConstraintCache.class)
+	protected String constraintCacheDirectory = "";
+
 	public boolean isRemoveCyclesManually() {
 		return removeCyclesManually;
 	}
@@ -126,6 +162,86 @@ public class OptimizationNewModule extends ProblemModule {
 		this.usePreprocessing = usePreprocessing;
 	}
 
+	public int getEvaluationThreads() {
+		return evaluationThreads;
+	}
+
+	public void setEvaluationThreads(int evaluationThreads) {
+		this.evaluationThreads = evaluationThreads;
+	}
+
+	public boolean isBatchEvaluation() {
+		return batchEvaluation;
+	}
+
+	public void setBatchEvaluation(boolean batchEvaluation) {
+		this.batchEvaluation = batchEvaluation;
+	}
+
+	public int getEvaluationBatchSize() {
+		return evaluationBatchSize;
+	}
+
+	public void setEvaluationBatchSize(int evaluationBatchSize) {
+		this.evaluationBatchSize = evaluationBatchSize;
+	}
+
+	public int getEncodingThreads() {
+		return encodingThreads;
+	}
+
+	public void setEncodingThreads(int encodingThreads) {
+		this.encodingThreads = encodingThreads;
+	}
+
+	public int getRoutingEncodingThreads() {
+		return routingEncodingThreads;
+	}
+
+	public void setRoutingEncodingThreads(int routingEncodingThreads) {
+		this.routingEncodingThreads = routingEncodingThreads;
+	}
+
+	public int getLearnThreads() {
+		return learnThreads;
+	}
+
+	public void setLearnThreads(int learnThreads) {
+		this.learnThreads = learnThreads;
+	}
+
+	public int getLearnTimeout() {
+		return learnTimeout;
+	}
+
+	public void setLearnTimeout(int learnTimeout) {
+		this.learnTimeout = learnTimeout;
+	}
+
+	public String getConstraintCacheDirectory() {
+		return constraintCacheDirectory;
+	}
+
+	public void setConstraintCacheDirectory(String constraintCacheDirectory) {
+		this.constraintCacheDirectory = constraintCacheDirectory;
+	}
+
+	public int getLearnBudget() {
+		return learnBudget;
+	}
+
+	public void setLearnBudget(int learnBudget) {
+		this.learnBudget = learnBudget;
+	}
+
+	public int getDecodingCacheSize() {
+		return decodingCacheSize;
+	}
+
+	public void setDecodingCacheSize(int decodingCacheSize) {
+		this.decodingCacheSize = decodingCacheSize;
+	}
+
 	public boolean isUseVariableOrder() {
 		return useVariableOrder;
 	}
@@ -170,6 +286,9 @@ public class OptimizationNewModule extends ProblemModule {
 	protected void config() {
 		bindProblem(DesignSpaceExplorationCreator.class, DesignSpaceExplorationDecoder.class,
 				DesignSpaceExplorationEvaluator.class);
+		// the same instance shuts down its threads when the optimization stops
+		bind(DesignSpaceExplorationEvaluator.class).in(SINGLETON);
+		addOptimizerStateListener(DesignSpaceExplorationEvaluator.class);
 
 		VisualizationModule.addIndividualMouseListener(binder(), ImplementationWidgetService.class);
 		VisualizationModule.addToolBarService(binder(), SpecificationToolBarService.class);
@@ -183,6 +302,11 @@ public class OptimizationNewModule extends ProblemModule {
 		scmulti.addBinding().to(SpecificationRouterConstraints.class);
 
 		Multibinder.newSetBinder(binder(), ImplementationEvaluator.class);
+		if (batchEvaluation) {
+			// binds the completer that is otherwise bound by the
+			// IndividualCompleterModule, i.e., both cannot be installed together
+			bind(IndividualCompleter.class).to(BatchIndividualCompleter.class);
+		}
 
 		if (stagnationRestartEnabled) {
 			addOptimizerIterationListener(StagnationRestart.class);
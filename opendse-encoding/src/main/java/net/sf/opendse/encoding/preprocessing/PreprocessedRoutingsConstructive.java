@@ -1,8 +1,10 @@
 package net.sf.opendse.encoding.preprocessing;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -22,72 +24,159 @@ import net.sf.opendse.optimization.SpecificationWrapper;
  * The {@link PreprocessedRoutingsConstructive} is used to find all the routes
  * between a given source and a set of provided destinations.
  * 
+ * The found routings are cached per (source, destinations) pair and the pruned
+ * architecture is cached per set of end points. Both caches can be bounded, in
+ * which case the least recently used entries are evicted.
+ * 
  * @author Fedor Smirnov
  *
  */
 @Singleton
 public class PreprocessedRoutingsConstructive implements PreprocessedRoutings {
 
-	protected class RoutingDescription {
+	protected static class RoutingDescription {
 		protected final Resource src;
 		protected final Set<Resource> destinations;
 		public RoutingDescription(Resource src, Set<Resource> destinations) {
 			this.src = src;
-			this.destinations = destinations;
+			this.destinations = Collections.unmodifiableSet(new HashSet<Resource>(destinations));
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * src.hashCode() + destinations.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof RoutingDescription)) {
+				return false;
+			}
+			RoutingDescription other = (RoutingDescription) obj;
+			return src.equals(other.src) && destinations.equals(other.destinations);
 		}
 	}
 
+	/**
+	 * The default cache size, a value {@code <= 0} disables the eviction.
+	 */
+	public static final int UNBOUNDED = 0;
+
 	protected final Architecture<Resource, Link> specArch;
 	protected Architecture<Resource, Link> preprocessedArch;
 	protected final Map<RoutingDescription, Set<Architecture<Resource, Link>>> routingCache;
+	protected final Map<Set<Resource>, Architecture<Resource, Link>> preprocessedArchCache;
 
 	@Inject
 	public PreprocessedRoutingsConstructive(SpecificationWrapper wrapper) {
+		this(wrapper, UNBOUNDED);
+	}
+
+	/**
+	 * Constructs a {@link PreprocessedRoutingsConstructive} whose caches hold at
+	 * most the given number of entries.
+	 * 
+	 * @param wrapper
+	 *            the specification wrapper
+	 * @param maxCacheSize
+	 *            the maximal number of cached entries ({@code <= 0} for no
+	 *            bound)
+	 */
+	public PreprocessedRoutingsConstructive(SpecificationWrapper wrapper, int maxCacheSize) {
 		this.specArch = wrapper.getSpecification().getArchitecture();
-		this.routingCache = new HashMap<PreprocessedRoutingsConstructive.RoutingDescription, Set<Architecture<Resource, Link>>>();
+		this.routingCache = createCache(maxCacheSize);
+		this.preprocessedArchCache = createCache(maxCacheSize);
+	}
+
+	/**
+	 * Creates an access-ordered map that evicts its least recently used entry
+	 * as soon as it exceeds the given size.
+	 * 
+	 * @param maxSize
+	 *            the maximal size ({@code <= 0} for no bound)
+	 * @return the cache map
+	 */
+	protected static <K, V> Map<K, V> createCache(final int maxSize) {
+		if (maxSize <= 0) {
+			return new HashMap<K, V>();
+		}
+		return new LinkedHashMap<K, V>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > maxSize;
+			}
+		};
 	}
 
 	@Override
-	public Set<Architecture<Resource, Link>> getAllRoutings(Resource source, Set<Resource> destinations) {
+	public synchronized Set<Architecture<Resource, Link>> getAllRoutings(Resource source,
+			Set<Resource> destinations) {
 		RoutingDescription desc = new RoutingDescription(source, destinations);
-		preprocessArch(source, destinations);
-		if (!routingCache.containsKey(desc)) {
-			routingCache.put(desc, findRoutings(source, destinations));
+		Set<Architecture<Resource, Link>> routings = routingCache.get(desc);
+		if (routings == null) {
+			preprocessArch(desc.src, desc.destinations);
+			routings = findRoutings(desc.src, desc.destinations);
+			routingCache.put(desc, routings);
 		}
-		return routingCache.get(desc);
+		return routings;
 	}
-	
+
 	/**
-	 * Throws out all elements that can not be part of the routing.
+	 * Sets the {@link #preprocessedArch} to the architecture pruned for the
+	 * given end points. The pruned architecture is shared between all
+	 * routings with the same end points.
 	 * 
 	 * @param src
 	 * @param destinations
 	 */
-	protected void preprocessArch(Resource src, Set<Resource> destinations){
+	protected void preprocessArch(Resource src, Set<Resource> destinations) {
+		Set<Resource> endPoints = new HashSet<Resource>(destinations);
+		endPoints.add(src);
+		Architecture<Resource, Link> pruned = preprocessedArchCache.get(endPoints);
+		if (pruned == null) {
+			pruned = pruneArch(endPoints);
+			preprocessedArchCache.put(endPoints, pruned);
+		}
+		preprocessedArch = pruned;
+	}
+
+	/**
+	 * Throws out all elements that can not be part of a routing between the
+	 * given end points.
+	 * 
+	 * @param endPoints
+	 *            the source and the destinations
+	 * @return the pruned (undirected) copy of the specification architecture
+	 */
+	protected Architecture<Resource, Link> pruneArch(Set<Resource> endPoints) {
 		// copy the spec arch
-		preprocessedArch = new Architecture<Resource, Link>();
+		Architecture<Resource, Link> result = new Architecture<Resource, Link>();
 		for (Link l : specArch.getEdges()){
 			Resource first = specArch.getEndpoints(l).getFirst();
 			Resource second = specArch.getEndpoints(l).getSecond();
-			preprocessedArch.addEdge(l, first, second, EdgeType.UNDIRECTED);
+			result.addEdge(l, first, second, EdgeType.UNDIRECTED);
 		}
 		for (Resource res : specArch){
-			if (!preprocessedArch.containsVertex(res)){
-				preprocessedArch.addVertex(res);
+			if (!result.containsVertex(res)){
+				result.addVertex(res);
 			}
 		}
-		Set<Resource> endPoints = new HashSet<Resource>(destinations);
-		endPoints.add(src);
 		Set<Resource> toRemove = new HashSet<Resource>();
 		do{
-			preprocessedArch.removeVertices(toRemove);
+			result.removeVertices(toRemove);
 			toRemove.clear();
-			for (Resource res : preprocessedArch){
-				if (Models.getInLinks(preprocessedArch, res).size() == 1 && !endPoints.contains(res)){
+			for (Resource res : result){
+				if (Models.getInLinks(result, res).size() == 1 && !endPoints.contains(res)){
 					toRemove.add(res);
 				}
 			}
 		}while(!toRemove.isEmpty());
+		return result;
 	}
 
 	/**
@@ -102,7 +191,7 @@ public class PreprocessedRoutingsConstructive implements PreprocessedRoutings {
 	 *         destinations
 	 */
 	protected Set<Architecture<Resource, Link>> findRoutings(Resource src, Set<Resource> destinations) {
-		Set<Architecture<Resource, Link>> foundRoutings = new HashSet<Architecture<Resource, Link>>();
+		Map<String, Architecture<Resource, Link>> foundRoutings = new HashMap<String, Architecture<Resource, Link>>();
 		Architecture<Resource, Link> curRouting = new Architecture<Resource, Link>();
 		curRouting.addVertex(src);
 		Map<Resource, Integer> orderMap = new HashMap<Resource, Integer>();
@@ -110,7 +199,7 @@ public class PreprocessedRoutingsConstructive implements PreprocessedRoutings {
 		for (DirectedLink dLink : findConstructiveLinks(curRouting)) {
 			addLinkRecursively(dLink, curRouting, destinations, foundRoutings, orderMap);
 		}
-		return foundRoutings;
+		return new HashSet<Architecture<Resource, Link>>(foundRoutings.values());
 	}
 
 	/**
@@ -127,9 +216,11 @@ public class PreprocessedRoutingsConstructive implements PreprocessedRoutings {
 	 * @param orderMap
 	 *            map mapping the resources onto their order
 	 * @param foundRoutings
+	 *            the routings found so far, mapped by their
+	 *            {@link #getRoutingKey(Architecture)}
 	 */
 	protected void addLinkRecursively(DirectedLink dLink, Architecture<Resource, Link> curRouting,
-			Set<Resource> destinations, Set<Architecture<Resource, Link>> foundRoutings,
+			Set<Resource> destinations, Map<String, Architecture<Resource, Link>> foundRoutings,
 			Map<Resource, Integer> orderMap) {
 		// check if adding the new link violates the order
 		Resource candidate = dLink.getDest();
@@ -142,8 +233,9 @@ public class PreprocessedRoutingsConstructive implements PreprocessedRoutings {
 		Architecture<Resource, Link> nextRouting = addLinkToRouting(dLink, curRouting, nextOrderMap);
 		// check if ready
 		if (routingFinished(nextRouting, destinations)) {
-			if (!isRoutingKnown(nextRouting, foundRoutings)) {
-				foundRoutings.add(nextRouting);
+			String key = getRoutingKey(nextRouting);
+			if (!foundRoutings.containsKey(key)) {
+				foundRoutings.put(key, nextRouting);
 			}
 		}
 		// next recursion level
@@ -152,28 +244,27 @@ public class PreprocessedRoutingsConstructive implements PreprocessedRoutings {
 		}
 	}
 
-	protected boolean isRoutingKnown(Architecture<Resource, Link> routing,
-			Set<Architecture<Resource, Link>> knownRoutings) {
-		for (Architecture<Resource, Link> knownRouting : knownRoutings) {
-			if (areRoutingsSame(knownRouting, routing)) {
-				return true;
-			}
-		}
-		return false;
-	}
-
-	protected boolean areRoutingsSame(Architecture<Resource, Link> routingA, Architecture<Resource, Link> routingB) {
-		Collection<Resource> resA = routingA.getVertices();
-		Collection<Resource> resB = routingB.getVertices();
-		if (!(resA.containsAll(resB) && resB.containsAll(resA))) {
-			return false;
+	/**
+	 * Returns a canonical key of the given routing: the sorted ids of its
+	 * resources followed by the sorted (link, source, destination) triples of
+	 * its directed links. Two routings are the same if their keys are equal.
+	 * 
+	 * @param routing
+	 *            the routing
+	 * @return the canonical key of the routing
+	 */
+	protected String getRoutingKey(Architecture<Resource, Link> routing) {
+		List<String> resources = new ArrayList<String>();
+		for (Resource res : routing) {
+			resources.add(res.getId());
 		}
-		List<DirectedLink> linksA = Models.getLinks(routingA);
-		List<DirectedLink> linksB = Models.getLinks(routingB);
-		if (!(linksA.containsAll(linksB) && linksB.containsAll(linksA))) {
-			return false;
+		List<String> links = new ArrayList<String>();
+		for (Link l : routing.getEdges()) {
+			links.add(l.getId() + ":" + routing.getSource(l).getId() + "->" + routing.getDest(l).getId());
 		}
-		return true;
+		Collections.sort(resources);
+		Collections.sort(links);
+		return resources + "|" + links;
 	}
 
 	/**
@@ -35,6 +35,23 @@ public class PreprocessedRoutingsNonRedundantUnicast implements PreprocessedRout
 			this.dest = dest;
 		}
 
+		@Override
+		public int hashCode() {
+			return 31 * src.hashCode() + dest.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof UniCastRouteDescription)) {
+				return false;
+			}
+			UniCastRouteDescription other = (UniCastRouteDescription) obj;
+			return src.equals(other.src) && dest.equals(other.dest);
+		}
+
 	}
 
 	protected final Architecture<Resource, Link> arch;
@@ -1,5 +1,7 @@
 package net.sf.opendse.encoding.routing;
 
+import java.io.Serializable;
+
 import net.sf.opendse.encoding.variables.DTT;
 import net.sf.opendse.model.Task;
 
@@ -10,7 +12,9 @@ import net.sf.opendse.model.Task;
  * @author Fedor Smirnov
  *
  */
-public class CommunicationFlow {
+public class CommunicationFlow implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	protected final DTT source;
 	protected final DTT destination;
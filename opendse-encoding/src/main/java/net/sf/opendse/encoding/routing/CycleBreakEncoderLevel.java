@@ -0,0 +1,91 @@
+package net.sf.opendse.encoding.routing;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Constraint.Operator;
+
+import net.sf.opendse.encoding.variables.CLRR;
+import net.sf.opendse.encoding.variables.CommNodeLevelBit;
+import net.sf.opendse.encoding.variables.T;
+import net.sf.opendse.encoding.variables.Variables;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Models;
+import net.sf.opendse.model.Models.DirectedLink;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link CycleBreakEncoderLevel} prevents cycles by assigning a level to
+ * each {@link Resource} of the routing graph. The level is a bounded integer
+ * that is binary encoded by {@link CommNodeLevelBit} variables. A directed link
+ * may only be used for the routing of the communication if the level of its
+ * destination is greater than the level of its source. Since the levels
+ * strictly increase along each routing path, no path can return to a resource
+ * it already visited.
+ * <p>
+ * In contrast to the {@link CycleBreakEncoderColor} (pairs of incident links)
+ * and the {@link CycleBreakEncoderOrder} (pairs and triplets of resources),
+ * the encoder formulates a single {@link Constraint} per directed link, i.e.,
+ * the number of constraints grows linearly with the degree of the resources.
+ *
+ */
+public class CycleBreakEncoderLevel implements CycleBreakEncoder {
+
+	@Override
+	public Set<Constraint> toConstraints(T communicationVariable, Architecture<Resource, Link> routing) {
+		Set<Constraint> result = new HashSet<Constraint>();
+		Task comm = communicationVariable.getTask();
+		int bits = getBitCount(routing.getVertexCount());
+		for (DirectedLink dLink : Models.getLinks(routing)) {
+			result.add(makeLevelConstraint(comm, dLink, bits));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of bits that are required to assign a distinct level
+	 * to each resource of a routing path.
+	 * 
+	 * @param resourceCount
+	 *            the number of resources in the routing graph
+	 * @return the number of bits of the level encoding
+	 */
+	protected int getBitCount(int resourceCount) {
+		return Math.max(1, 32 - Integer.numberOfLeadingZeros(resourceCount - 1));
+	}
+
+	/**
+	 * Formulates the {@link Constraint} stating that the given directed link may
+	 * only be used for the routing of the communication if the level of its
+	 * destination is greater than the level of its source. With the source level
+	 * S, the destination level D, and b bits, the constraint is
+	 * D + (2^b - 1 - S) + 2^b * (1 - CLRR) >= 2^b.
+	 * 
+	 * @param comm
+	 *            the communication that is being routed
+	 * @param dLink
+	 *            the directed link
+	 * @param bits
+	 *            the number of bits of the level encoding
+	 * @return the {@link Constraint} stating that the given directed link may
+	 *         only be used for the routing of the communication if the level of
+	 *         its destination is greater than the level of its source
+	 */
+	protected Constraint makeLevelConstraint(Task comm, DirectedLink dLink, int bits) {
+		CLRR linkUsed = Variables.varCLRR(comm, dLink);
+		int bound = 1 << bits;
+		Constraint result = new Constraint(Operator.GE, bound);
+		for (int bit = 0; bit < bits; bit++) {
+			int coefficient = 1 << bit;
+			CommNodeLevelBit sourceBit = Variables.varCommNodeLevelBit(comm, dLink.getSource(), bit);
+			CommNodeLevelBit destBit = Variables.varCommNodeLevelBit(comm, dLink.getDest(), bit);
+			result.add(coefficient, Variables.p(destBit));
+			result.add(coefficient, Variables.n(sourceBit));
+		}
+		result.add(bound, Variables.n(linkUsed));
+		return result;
+	}
+}
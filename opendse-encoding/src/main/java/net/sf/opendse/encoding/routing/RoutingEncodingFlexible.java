@@ -1,11 +1,19 @@
 package net.sf.opendse.encoding.routing;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.opt4j.core.start.Constant;
 import org.opt4j.satdecoding.Constraint;
 
 import com.google.inject.Inject;
@@ -23,6 +31,7 @@ import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Routings;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.model.properties.TaskPropertyService;
+import net.sf.opendse.optimization.encoding.variables.LiteralCache;
 
 /**
  * The {@link RoutingEncodingFlexible} enables picking different
@@ -35,6 +44,7 @@ import net.sf.opendse.model.properties.TaskPropertyService;
 public class RoutingEncodingFlexible implements RoutingEncoding {
 
 	protected final CommunicationRoutingManager routingEncoderManager;
+	protected int threads = 1;
 
 	/**
 	 * Basic constructor
@@ -49,25 +59,140 @@ public class RoutingEncodingFlexible implements RoutingEncoding {
 		this.routingEncoderManager = routingEncoderManager;
 	}
 
+	/**
+	 * Sets the number of threads that encode the routings of the communications.
+	 * With more than one thread, the communications are encoded in parallel
+	 * chunks (the used {@link CommunicationRoutingEncoder}s have to be
+	 * stateless). The constraints are the same as in the sequential encoding.
+	 * 
+	 * @param threads
+	 *            the number of threads
+	 */
+	@Inject(optional = true)
+	public void setThreads(@Constant(value = "threads", namespace = RoutingEncodingFlexible.class) int threads) {
+		this.threads = threads;
+	}
+
 	@Override
 	public Set<Constraint> toConstraints(Set<ApplicationVariable> applicationVariables,
 			Set<MappingVariable> mappingVariables, Routings<Task, Resource, Link> routings) {
-		Set<Constraint> routingConstraints = new HashSet<Constraint>();
 		Map<T, Set<DTT>> dependencyMap = makeDependencyMap(applicationVariables);
+		if (threads > 1 && dependencyMap.size() > 1) {
+			return toConstraintsParallel(dependencyMap, applicationVariables, mappingVariables, routings);
+		}
+		Set<Constraint> routingConstraints = new HashSet<Constraint>();
 		for (Entry<T, Set<DTT>> entry : dependencyMap.entrySet()) {
-			// Gathers the dependencies to communication flows and formulates the routing
-			// constraints for the current message.
-			T communicationVariable = entry.getKey();
-			Set<DTT> dependencyVariables = entry.getValue();
-			Set<CommunicationFlow> communicationFlows = findCommunicationFlows(dependencyVariables);
-			CommunicationRoutingEncoder encoder = routingEncoderManager.getRoutingEncoder(communicationVariable,
-					communicationFlows);
-			routingConstraints.addAll(encoder.toConstraints(communicationVariable, communicationFlows,
-					routings.get(communicationVariable.getTask()), mappingVariables, applicationVariables));
+			encodeCommunication(routingConstraints, entry.getKey(), entry.getValue(), applicationVariables,
+					mappingVariables, routings);
 		}
 		return routingConstraints;
 	}
 
+	/**
+	 * Formulates the routing constraints of a single communication.
+	 * 
+	 * @param routingConstraints
+	 *            the set that the constraints are added to
+	 * @param communicationVariable
+	 *            the {@link T} variable of the communication
+	 * @param dependencyVariables
+	 *            the {@link DTT} variables of the incident dependencies of the
+	 *            communication
+	 * @param applicationVariables
+	 *            all {@link ApplicationVariable}s encoded by the
+	 *            {@link ApplicationEncoding}
+	 * @param mappingVariables
+	 *            all {@link MappingVariable}s
+	 * @param routings
+	 *            the routings
+	 */
+	protected void encodeCommunication(Set<Constraint> routingConstraints, T communicationVariable,
+			Set<DTT> dependencyVariables, Set<ApplicationVariable> applicationVariables,
+			Set<MappingVariable> mappingVariables, Routings<Task, Resource, Link> routings) {
+		// Gathers the dependencies to communication flows and formulates the routing
+		// constraints for the current message.
+		Set<CommunicationFlow> communicationFlows = findCommunicationFlows(dependencyVariables);
+		CommunicationRoutingEncoder encoder = routingEncoderManager.getRoutingEncoder(communicationVariable,
+				communicationFlows);
+		routingConstraints.addAll(encoder.toConstraints(communicationVariable, communicationFlows,
+				routings.get(communicationVariable.getTask()), mappingVariables, applicationVariables));
+	}
+
+	/**
+	 * Formulates the routing constraints with {@link #threads} worker threads.
+	 * Each worker encodes a chunk of communications into its own set. The sets
+	 * are merged by the calling thread once all workers are done. The workers
+	 * intern their literals in the {@link LiteralCache} of the calling thread.
+	 * 
+	 * @param dependencyMap
+	 *            the map of the communications onto their dependency variables
+	 * @param applicationVariables
+	 *            all {@link ApplicationVariable}s
+	 * @param mappingVariables
+	 *            all {@link MappingVariable}s
+	 * @param routings
+	 *            the routings
+	 * @return the routing constraints
+	 */
+	protected Set<Constraint> toConstraintsParallel(Map<T, Set<DTT>> dependencyMap,
+			final Set<ApplicationVariable> applicationVariables, final Set<MappingVariable> mappingVariables,
+			final Routings<Task, Resource, Link> routings) {
+		final LiteralCache literalCache = LiteralCache.getActive();
+		final List<Entry<T, Set<DTT>>> entries = new ArrayList<Entry<T, Set<DTT>>>(dependencyMap.entrySet());
+		int chunkSize = Math.max(1, entries.size() / (threads * 4));
+		List<Callable<Set<Constraint>>> parts = new ArrayList<Callable<Set<Constraint>>>();
+		for (int i = 0; i < entries.size(); i += chunkSize) {
+			final List<Entry<T, Set<DTT>>> chunk = entries.subList(i, Math.min(i + chunkSize, entries.size()));
+			parts.add(new Callable<Set<Constraint>>() {
+				@Override
+				public Set<Constraint> call() {
+					Set<Constraint> constraints = new HashSet<Constraint>();
+					LiteralCache previous = literalCache != null ? literalCache.activate() : null;
+					try {
+						for (Entry<T, Set<DTT>> entry : chunk) {
+							encodeCommunication(constraints, entry.getKey(), entry.getValue(), applicationVariables,
+									mappingVariables, routings);
+						}
+					} finally {
+						if (literalCache != null) {
+							LiteralCache.restore(previous);
+						}
+					}
+					return constraints;
+				}
+			});
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, parts.size()));
+		try {
+			List<Set<Constraint>> results = new ArrayList<Set<Constraint>>();
+			int size = 0;
+			for (Future<Set<Constraint>> future : executor.invokeAll(parts)) {
+				Set<Constraint> result = future.get();
+				results.add(result);
+				size += result.size();
+			}
+			Set<Constraint> routingConstraints = new HashSet<Constraint>(Math.max(16, (int) (size / .75f) + 1));
+			for (Set<Constraint> result : results) {
+				routingConstraints.addAll(result);
+			}
+			return routingConstraints;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 	/**
 	 * Takes the set of the {@link DTT} variables encoding the incident
 	 * {@link Dependency}s of the communication that is being routed and sorts them
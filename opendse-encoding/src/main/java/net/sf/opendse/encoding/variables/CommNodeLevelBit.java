@@ -0,0 +1,31 @@
+package net.sf.opendse.encoding.variables;
+
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link CommNodeLevelBit} {@link Variable} encodes one bit of the binary
+ * encoded level of a {@link Resource} node in a routing {@link Architecture}
+ * graph of a communication {@link Task}.
+ *
+ */
+public class CommNodeLevelBit extends Variable {
+
+	protected CommNodeLevelBit(Task communication, Resource resource, int bit) {
+		super(communication, resource, bit);
+	}
+
+	public Task getCommunication() {
+		return get(0);
+	}
+
+	public Resource getResource() {
+		return get(1);
+	}
+
+	public int getBit() {
+		return (Integer) get(2);
+	}
+
+}
@@ -21,9 +21,12 @@
  *******************************************************************************/
 package net.sf.opendse.encoding.variables;
 
+import java.io.Serializable;
 import java.util.Arrays;
 
-public abstract class Variable {
+public abstract class Variable implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	protected Object[] objects;
 	                 
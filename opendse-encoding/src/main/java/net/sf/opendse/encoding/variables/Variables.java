@@ -1,8 +1,5 @@
 package net.sf.opendse.encoding.variables;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.opt4j.satdecoding.Constraint;
 import org.opt4j.satdecoding.Literal;
 
@@ -13,27 +10,28 @@ import net.sf.opendse.model.Mapping;
 import net.sf.opendse.model.Models.DirectedLink;
 import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.encoding.variables.LiteralCache;
 
 /**
  * {@link Variables} offers contains static methods for the creation and
  * maintenance of the {@link Variable}s used for the encoding of the
- * {@link Constraint}s.
+ * {@link Constraint}s. Literals are interned in the active {@link LiteralCache}.
  * 
  * @author Fedor Smirnov
  *
  */
 public class Variables {
 
-	// TODO refactor to get rid of the global variables and methods
-	protected static final Map<Variable, Literal> pCache = new HashMap<Variable, Literal>();
-	protected static final Map<Variable, Literal> nCache = new HashMap<Variable, Literal>();
-
 	private Variables() {
 	}
 
+	/**
+	 * Literals are no longer cached globally, see {@link LiteralCache}.
+	 * 
+	 * @deprecated the cache of each exploration is released by its owner
+	 */
+	@Deprecated
 	public static void clearCaches() {
-		pCache.clear();
-		nCache.clear();
 	}
 
 	public static AndVariable varAndVariable(Variable... variables) {
@@ -44,6 +42,10 @@ public class Variables {
 		return new ColoredCommNode(comm, res, color);
 	}
 
+	public static CommNodeLevelBit varCommNodeLevelBit(Task comm, Resource res, int bit) {
+		return new CommNodeLevelBit(comm, res, bit);
+	}
+
 	public static ApplicationAlternative varApplicationAlternative(String functionName, String functionId) {
 		return new ApplicationAlternative(functionName, functionId);
 	}
@@ -112,10 +114,7 @@ public class Variables {
 	 * @return the positive literal
 	 */
 	public static Literal p(Variable variable) {
-		if (!pCache.containsKey(variable)) {
-			pCache.put(variable, new Literal(variable, true));
-		}
-		return pCache.get(variable);
+		return LiteralCache.literal(variable, true);
 	}
 
 	/**
@@ -125,9 +124,6 @@ public class Variables {
 	 * @return the negative literal for the given variable
 	 */
 	public static Literal n(Variable variable) {
-		if (!nCache.containsKey(variable)) {
-			nCache.put(variable, new Literal(variable, false));
-		}
-		return nCache.get(variable);
+		return LiteralCache.literal(variable, false);
 	}
 }
@@ -32,6 +32,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -77,9 +78,13 @@ public class DefaultImplementationEncodingTest {
 		SpecificationConstraints mockConstraints = mock(SpecificationConstraints.class);
 		ImplementationEncodingModularDefault encoding = new ImplementationEncodingModularDefault(preprocessor,
 				applicationEncoding, mappingEncoding, routingEncoding, allocationEncoding, wrapper, mockConstraints);
+		// the constraints are generated on the first call
+		verifyZeroInteractions(applicationEncoding, mockConstraints);
 		Set<Constraint> cs = encoding.toConstraints();
 		assertEquals(4, cs.size());
+		assertSame(cs, encoding.toConstraints());
 		verify(applicationEncoding).toConstraints(appl);
+		verify(mockConstraints).doEncoding(cs);
 		verify(mappingEncoding).toConstraints(any(Mappings.class), any(Set.class));
 		verify(routingEncoding).toConstraints(any(Set.class), any(Set.class), any(Routings.class));
 		verify(allocationEncoding).toConstraints(any(Set.class), any(Set.class), any(Architecture.class));
@@ -0,0 +1,44 @@
+package net.sf.opendse.encoding;
+
+import static org.junit.Assert.*;
+
+import java.util.Set;
+
+import org.junit.Test;
+
+import net.sf.opendse.encoding.variables.R;
+import net.sf.opendse.encoding.variables.Variable;
+import net.sf.opendse.encoding.variables.Variables;
+import net.sf.opendse.model.Resource;
+
+public class VariableIndexTest {
+
+	@Test
+	public void testIndex() {
+		Resource r0 = new Resource("r0");
+		Resource r1 = new Resource("r1");
+		R rVar0 = Variables.varR(r0);
+		R rVar1 = Variables.varR(r1);
+		VariableIndex<Resource> index = new VariableIndex<Resource>();
+		index.add(r0, rVar0);
+		index.add(r0, rVar1);
+		index.add(r0, rVar1);
+		index.add(r1, rVar1);
+
+		Set<Variable> variables = index.get(r0);
+		assertEquals(2, variables.size());
+		assertTrue(variables.contains(rVar0));
+		assertTrue(variables.contains(rVar1));
+		assertEquals(1, index.get(r1).size());
+		assertTrue(index.get(new Resource("r2")).isEmpty());
+		assertEquals(2, index.keySet().size());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testUnmodifiable() {
+		Resource r0 = new Resource("r0");
+		VariableIndex<Resource> index = new VariableIndex<Resource>();
+		index.add(r0, Variables.varR(r0));
+		index.get(r0).clear();
+	}
+}
@@ -3,6 +3,7 @@ package net.sf.opendse.encoding.interpreter;
 import static org.junit.Assert.*;
 
 import org.junit.Test;
+import org.opt4j.satdecoding.Literal;
 import org.opt4j.satdecoding.Model;
 
 import edu.uci.ics.jung.graph.util.EdgeType;
@@ -32,18 +33,23 @@ import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Routings;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.SATConstraints;
 import net.sf.opendse.optimization.SpecificationWrapper;
 import net.sf.opendse.optimization.constraints.SpecificationCapacityConstraints;
 import net.sf.opendse.optimization.constraints.SpecificationConstraints;
+import net.sf.opendse.optimization.encoding.common.ConstraintPreprocessing;
 
 import static org.mockito.Mockito.mock;
 
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 public class InterpreterTest {
 
@@ -54,6 +60,28 @@ public class InterpreterTest {
 		return new InterpreterVariable(postProcessor, mockEncoding, mockSpeckConstaints);
 	}
 
+	@Test
+	public void testInterfaceVariablesFromConstraints() {
+		ImplementationEncodingModular encoding = mock(ImplementationEncodingModular.class);
+		InterpreterVariable inter = new InterpreterVariable(new SpecificationPostProcessorMulti(), encoding,
+				mock(SpecificationConstraints.class));
+		T t = mock(T.class);
+		M m = mock(M.class);
+		L l = mock(L.class);
+		R r = mock(R.class);
+		ConstraintPreprocessing preprocessing = new ConstraintPreprocessing();
+		preprocessing.restore(Arrays.asList(new Literal(l, true)), Collections.<Object, Literal> singletonMap(r,
+				new Literal(t, false)));
+		SATConstraints constraints = mock(SATConstraints.class);
+		when(constraints.getVariables()).thenReturn(Arrays.<Object> asList(t, m, "x"));
+		when(constraints.getPreprocessing()).thenReturn(preprocessing);
+		inter.setSATConstraints(constraints);
+
+		Set<InterfaceVariable> variables = inter.getInterfaceVariables();
+		assertEquals(new HashSet<Object>(Arrays.asList(t, m, l, r)), variables);
+		verifyZeroInteractions(encoding);
+	}
+
 	@Test
 	public void testToImplementation() {
 		ImplementationEncodingModular encoding = mock(ImplementationEncodingModular.class);
@@ -2,6 +2,7 @@ package net.sf.opendse.encoding.preprocessing;
 
 import static org.junit.Assert.*;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -27,6 +28,83 @@ public class PreprocessedRoutingsConstructiveTest {
 		return result;
 	}
 
+	protected static Architecture<Resource, Link> makeDiamondArch() {
+		Architecture<Resource, Link> arch = new Architecture<Resource, Link>();
+		Resource r0 = new Resource("r0");
+		Resource r1 = new Resource("r1");
+		Resource r2 = new Resource("r2");
+		Resource r3 = new Resource("r3");
+		arch.addEdge(new Link("l0"), r0, r1, EdgeType.UNDIRECTED);
+		arch.addEdge(new Link("l1"), r0, r2, EdgeType.UNDIRECTED);
+		arch.addEdge(new Link("l2"), r1, r3, EdgeType.UNDIRECTED);
+		arch.addEdge(new Link("l3"), r2, r3, EdgeType.UNDIRECTED);
+		return arch;
+	}
+
+	@Test
+	public void testCacheHitForEqualDestinations() {
+		Architecture<Resource, Link> arch = makeDiamondArch();
+		PreprocessedRoutingsConstructive ppRoutings = new PreprocessedRoutingsConstructive(makeWrapperMock(arch));
+		Resource r0 = arch.getVertex("r0");
+		Set<Resource> destinations = new HashSet<Resource>();
+		destinations.add(arch.getVertex("r3"));
+		Set<Architecture<Resource, Link>> first = ppRoutings.getAllRoutings(r0, destinations);
+		Set<Architecture<Resource, Link>> second = ppRoutings.getAllRoutings(r0,
+				new HashSet<Resource>(destinations));
+		assertSame(first, second);
+		assertEquals(1, ppRoutings.routingCache.size());
+		// mutating the caller's set must not corrupt the cache key
+		destinations.add(arch.getVertex("r1"));
+		assertSame(first, ppRoutings.getAllRoutings(r0, Collections.singleton(arch.getVertex("r3"))));
+	}
+
+	@Test
+	public void testPreprocessedArchShared() {
+		Architecture<Resource, Link> arch = makeDiamondArch();
+		PreprocessedRoutingsConstructive ppRoutings = new PreprocessedRoutingsConstructive(makeWrapperMock(arch));
+		Resource r0 = arch.getVertex("r0");
+		Resource r3 = arch.getVertex("r3");
+		ppRoutings.getAllRoutings(r0, Collections.singleton(r3));
+		Architecture<Resource, Link> pruned = ppRoutings.preprocessedArch;
+		ppRoutings.getAllRoutings(r3, Collections.singleton(r0));
+		assertSame(pruned, ppRoutings.preprocessedArch);
+		assertEquals(1, ppRoutings.preprocessedArchCache.size());
+	}
+
+	@Test
+	public void testBoundedCache() {
+		Architecture<Resource, Link> arch = makeDiamondArch();
+		PreprocessedRoutingsConstructive ppRoutings = new PreprocessedRoutingsConstructive(makeWrapperMock(arch), 1);
+		Resource r0 = arch.getVertex("r0");
+		Set<Architecture<Resource, Link>> toR3 = ppRoutings.getAllRoutings(r0,
+				Collections.singleton(arch.getVertex("r3")));
+		ppRoutings.getAllRoutings(r0, Collections.singleton(arch.getVertex("r1")));
+		assertEquals(1, ppRoutings.routingCache.size());
+		assertEquals(1, ppRoutings.preprocessedArchCache.size());
+		Set<Architecture<Resource, Link>> toR3Again = ppRoutings.getAllRoutings(r0,
+				Collections.singleton(arch.getVertex("r3")));
+		assertNotSame(toR3, toR3Again);
+		assertEquals(toR3.size(), toR3Again.size());
+	}
+
+	@Test
+	public void testRoutingKey() {
+		Architecture<Resource, Link> arch = makeDiamondArch();
+		PreprocessedRoutingsConstructive ppRoutings = new PreprocessedRoutingsConstructive(makeWrapperMock(arch));
+		Resource r0 = arch.getVertex("r0");
+		Resource r1 = arch.getVertex("r1");
+		Link l0 = arch.getEdge("l0");
+		Architecture<Resource, Link> forward = new Architecture<Resource, Link>();
+		forward.addEdge(l0, r0, r1, EdgeType.DIRECTED);
+		Architecture<Resource, Link> forwardCopy = new Architecture<Resource, Link>();
+		forwardCopy.addVertex(r1);
+		forwardCopy.addEdge(l0, r0, r1, EdgeType.DIRECTED);
+		Architecture<Resource, Link> backward = new Architecture<Resource, Link>();
+		backward.addEdge(l0, r1, r0, EdgeType.DIRECTED);
+		assertEquals(ppRoutings.getRoutingKey(forward), ppRoutings.getRoutingKey(forwardCopy));
+		assertNotEquals(ppRoutings.getRoutingKey(forward), ppRoutings.getRoutingKey(backward));
+	}
+
 	@Test
 	public void test4() {
 		Architecture<Resource, Link> arch = new Architecture<Resource, Link>();
@@ -0,0 +1,181 @@
+package net.sf.opendse.encoding.routing;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Constraint.Operator;
+import org.opt4j.satdecoding.Model;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.encoding.variables.ApplicationVariable;
+import net.sf.opendse.encoding.variables.MappingVariable;
+import net.sf.opendse.encoding.variables.Variable;
+import net.sf.opendse.encoding.variables.Variables;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.encoding.common.Solving;
+
+/**
+ * The {@code CycleBreakEncoderBenchmark} compares the {@link CycleBreakEncoder}
+ * implementations ({@link CycleBreakEncoderColor},
+ * {@link CycleBreakEncoderOrder}, and {@link CycleBreakEncoderLevel}) on
+ * crossbar (fully connected) and bus (star) architectures of increasing size.
+ * It reports the number of cycle break constraints, the number of routing
+ * constraints, and the time to encode the routings and to solve the routing
+ * constraints with fixed mappings.
+ *
+ */
+public class CycleBreakEncoderBenchmark {
+
+	protected static final int RUNS = 3;
+	protected static final int COMMUNICATIONS = 4;
+
+	public static void main(String[] args) {
+		int[] sizes = { 4, 8, 16, 24 };
+		CycleBreakEncoder[] encoders = { new CycleBreakEncoderColor(), new CycleBreakEncoderOrder(),
+				new CycleBreakEncoderLevel() };
+
+		// warm-up
+		for (CycleBreakEncoder encoder : encoders) {
+			run(createSpecification(sizes[0], true), encoder);
+		}
+
+		System.out.println("architecture\tresources\tencoder\tcycle break\trouting\tencode [ms]\tsolve [ms]");
+		for (boolean crossbar : new boolean[] { true, false }) {
+			for (int size : sizes) {
+				Specification specification = createSpecification(size, crossbar);
+				for (CycleBreakEncoder encoder : encoders) {
+					double[] result = run(specification, encoder);
+					System.out.printf("%s\t%d\t%s\t%.0f\t%.0f\t%.1f\t%.1f%n", crossbar ? "crossbar" : "bus", size,
+							encoder.getClass().getSimpleName(), result[0], result[1], result[2], result[3]);
+				}
+			}
+		}
+	}
+
+	protected static double[] run(Specification specification, CycleBreakEncoder cycleBreakEncoder) {
+		Set<ApplicationVariable> applicationVariables = new HashSet<ApplicationVariable>();
+		Application<Task, Dependency> application = specification.getApplication();
+		for (Task task : application) {
+			applicationVariables.add(Variables.varT(task));
+		}
+		for (Dependency dependency : application.getEdges()) {
+			applicationVariables.add(Variables.varDTT(dependency, application.getSource(dependency),
+					application.getDest(dependency)));
+		}
+		Set<MappingVariable> mappingVariables = new HashSet<MappingVariable>();
+		for (Mapping<Task, Resource> mapping : specification.getMappings()) {
+			mappingVariables.add(Variables.varM(mapping));
+		}
+
+		int cycleBreak = 0;
+		for (Task task : application) {
+			if (task instanceof Communication) {
+				cycleBreak += cycleBreakEncoder.toConstraints(Variables.varT(task),
+						specification.getRoutings().get(task)).size();
+			}
+		}
+
+		double encode = 0;
+		double solve = 0;
+		int routing = 0;
+		for (int i = 0; i < RUNS; i++) {
+			long start = System.nanoTime();
+			Set<Constraint> constraints = getRoutingEncoding(cycleBreakEncoder).toConstraints(applicationVariables,
+					mappingVariables, specification.getRoutings());
+			encode += System.nanoTime() - start;
+			routing = constraints.size();
+
+			List<Constraint> problem = new ArrayList<Constraint>(constraints);
+			for (ApplicationVariable variable : applicationVariables) {
+				problem.add(unit((Variable) variable));
+			}
+			for (MappingVariable variable : mappingVariables) {
+				problem.add(unit((Variable) variable));
+			}
+			start = System.nanoTime();
+			Model model = new Solving().solve(problem);
+			solve += System.nanoTime() - start;
+			if (model == null) {
+				throw new IllegalStateException("No routing found.");
+			}
+		}
+		double ms = 1e6 * RUNS;
+		return new double[] { cycleBreak, routing, encode / ms, solve / ms };
+	}
+
+	protected static Constraint unit(Variable variable) {
+		Constraint constraint = new Constraint(Operator.GE, 1);
+		constraint.add(Variables.p(variable));
+		return constraint;
+	}
+
+	protected static RoutingEncodingFlexible getRoutingEncoding(CycleBreakEncoder cycleBreakEncoder) {
+		CommunicationFlowRoutingManager communicationFlowManager = new CommunicationFlowRoutingManagerDefault(
+				new ActivationEncoderDefault(), new EndNodeEncoderMapping(), new RoutingResourceEncoderDefault(),
+				new RoutingEdgeEncoderNonRedundant());
+		CommunicationRoutingManagerDefault routingEncoderManager = new CommunicationRoutingManagerDefault(
+				new OneDirectionEncoderDefault(), cycleBreakEncoder, new CommunicationHierarchyEncoderDefault(),
+				communicationFlowManager, new ProxyEncoderCompact(), new AdditionalRoutingConstraintsEncoderMulti());
+		return new RoutingEncodingFlexible(routingEncoderManager);
+	}
+
+	/**
+	 * Creates a specification with {@link #COMMUNICATIONS} messages between
+	 * tasks that are mapped onto the first and the last processor. The
+	 * processors are either fully connected (crossbar) or connected to a shared
+	 * bus resource.
+	 * 
+	 * @param size
+	 *            the number of processors
+	 * @param crossbar
+	 *            whether the processors are fully connected
+	 * @return the specification
+	 */
+	protected static Specification createSpecification(int size, boolean crossbar) {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Resource[] processors = new Resource[size];
+		for (int i = 0; i < size; i++) {
+			processors[i] = new Resource("r" + i);
+			architecture.addVertex(processors[i]);
+		}
+		int links = 0;
+		if (crossbar) {
+			for (int i = 0; i < size; i++) {
+				for (int j = i + 1; j < size; j++) {
+					architecture.addEdge(new Link("l" + links++), processors[i], processors[j], EdgeType.UNDIRECTED);
+				}
+			}
+		} else {
+			Resource bus = new Resource("bus");
+			for (int i = 0; i < size; i++) {
+				architecture.addEdge(new Link("l" + links++), processors[i], bus, EdgeType.UNDIRECTED);
+			}
+		}
+
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		for (int i = 0; i < COMMUNICATIONS; i++) {
+			Task sender = new Task("s" + i);
+			Task receiver = new Task("t" + i);
+			Communication communication = new Communication("c" + i);
+			application.addEdge(new Dependency("d" + i + "a"), sender, communication, EdgeType.DIRECTED);
+			application.addEdge(new Dependency("d" + i + "b"), communication, receiver, EdgeType.DIRECTED);
+			mappings.add(new Mapping<Task, Resource>("m" + i + "a", sender, processors[i % size]));
+			mappings.add(new Mapping<Task, Resource>("m" + i + "b", receiver, processors[size - 1 - i % size]));
+		}
+		return new Specification(application, architecture, mappings);
+	}
+
+}
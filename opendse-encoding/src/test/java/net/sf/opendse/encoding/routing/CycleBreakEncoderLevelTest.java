@@ -0,0 +1,68 @@
+package net.sf.opendse.encoding.routing;
+
+import static org.junit.Assert.*;
+
+import java.util.Set;
+
+import org.junit.Test;
+import org.opt4j.satdecoding.Constraint;
+
+import net.sf.opendse.encoding.variables.T;
+import net.sf.opendse.encoding.variables.Variables;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Models.DirectedLink;
+import net.sf.opendse.model.Resource;
+import verification.ConstraintVerifier;
+
+public class CycleBreakEncoderLevelTest {
+
+	@Test
+	public void testBitCount() {
+		CycleBreakEncoderLevel encoder = new CycleBreakEncoderLevel();
+		assertEquals(1, encoder.getBitCount(1));
+		assertEquals(1, encoder.getBitCount(2));
+		assertEquals(2, encoder.getBitCount(3));
+		assertEquals(2, encoder.getBitCount(4));
+		assertEquals(3, encoder.getBitCount(5));
+		assertEquals(4, encoder.getBitCount(16));
+	}
+
+	@Test
+	public void testConstraintCount() {
+		CycleBreakEncoderLevel encoder = new CycleBreakEncoderLevel();
+		T commVar = Variables.varT(new Communication("comm"));
+		Architecture<Resource, Link> routing = CycleBreakEncoderGeneralTest.makeCycleRouting(7);
+		Set<Constraint> cs = encoder.toConstraints(commVar, routing);
+		// one constraint per directed link
+		assertEquals(14, cs.size());
+	}
+
+	@Test
+	public void testCycleBreak() {
+		CycleBreakEncoder cycleBreaker = new CycleBreakEncoderLevel();
+		Communication comm = new Communication("comm");
+		T commVar = Variables.varT(comm);
+		for (int nodeNum = CycleBreakEncoderGeneralTest.minNodeNumber; nodeNum <= CycleBreakEncoderGeneralTest.maxNodeNumber; nodeNum++) {
+			Architecture<Resource, Link> routing = CycleBreakEncoderGeneralTest.makeCycleRouting(nodeNum);
+			Set<Constraint> cs = cycleBreaker.toConstraints(commVar, routing);
+			Set<DirectedLink> allowedLinks = CycleBreakEncoderGeneralTest.getAllowedLinks(routing, nodeNum);
+			Resource first = routing.getVertex(CycleBreakEncoderGeneralTest.resourceName + "1");
+			Resource last = routing.getVertex(CycleBreakEncoderGeneralTest.resourceName + nodeNum);
+			Link lastLink = routing.getEdge(CycleBreakEncoderGeneralTest.linkName + nodeNum);
+			ConstraintVerifier verifyNoCycles = new ConstraintVerifier(cs);
+			for (DirectedLink allowed : allowedLinks) {
+				verifyNoCycles.activateVariable(Variables.varCLRR(comm, allowed));
+			}
+			verifyNoCycles.verifyVariableDeactivated(Variables.varCLRR(comm, new DirectedLink(lastLink, last, first)));
+
+			// a path without cycles stays feasible
+			ConstraintVerifier verifyPath = new ConstraintVerifier(cs);
+			for (DirectedLink allowed : allowedLinks) {
+				verifyPath.activateVariable(Variables.varCLRR(comm, allowed));
+			}
+			verifyPath.verifyVariableNotFixed(Variables.varCLRR(comm, new DirectedLink(lastLink, first, last)));
+		}
+	}
+}
@@ -2,7 +2,10 @@ package net.sf.opendse.encoding.routing;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -14,6 +17,7 @@ import static org.mockito.Mockito.any;
 import org.junit.Test;
 import org.opt4j.satdecoding.Constraint;
 
+import net.sf.opendse.encoding.routing.res.ProxyRoutingTestRes;
 import net.sf.opendse.encoding.variables.ApplicationVariable;
 import net.sf.opendse.encoding.variables.DTT;
 import net.sf.opendse.encoding.variables.MappingVariable;
@@ -23,9 +27,12 @@ import net.sf.opendse.model.Architecture;
 import net.sf.opendse.model.Communication;
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
 import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
 import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.encoding.variables.LiteralCache;
 
 public class FlexibleRoutingEncodingTest {
 
@@ -76,6 +83,47 @@ public class FlexibleRoutingEncodingTest {
 				any(Set.class));
 	}
 
+	protected static List<String> sorted(Set<Constraint> constraints) {
+		List<String> result = new ArrayList<String>();
+		for (Constraint constraint : constraints) {
+			result.add(constraint.toString());
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	@Test
+	public void testParallel() {
+		Specification spec = ProxyRoutingTestRes.makeSpec();
+		Set<ApplicationVariable> applVars = new HashSet<ApplicationVariable>();
+		for (Task t : spec.getApplication()) {
+			applVars.add(Variables.varT(t));
+		}
+		for (Dependency d : spec.getApplication().getEdges()) {
+			applVars.add(Variables.varDTT(d, spec.getApplication().getSource(d), spec.getApplication().getDest(d)));
+		}
+		Set<MappingVariable> mappingVariables = new HashSet<MappingVariable>();
+		for (Mapping<Task, Resource> m : spec.getMappings()) {
+			mappingVariables.add(Variables.varM(m));
+		}
+		Routings<Task, Resource, Link> routings = spec.getRoutings();
+
+		RoutingEncodingFlexible sequential = (RoutingEncodingFlexible) ProxyRoutingTest.getRoutingEncoding();
+		Set<Constraint> expected = sequential.toConstraints(applVars, mappingVariables, routings);
+
+		LiteralCache cache = new LiteralCache();
+		LiteralCache previous = cache.activate();
+		try {
+			RoutingEncodingFlexible parallel = (RoutingEncodingFlexible) ProxyRoutingTest.getRoutingEncoding();
+			parallel.setThreads(3);
+			Set<Constraint> actual = parallel.toConstraints(applVars, mappingVariables, routings);
+			assertEquals(sorted(expected), sorted(actual));
+			assertTrue(cache.size() > 0);
+		} finally {
+			LiteralCache.restore(previous);
+		}
+	}
+
 	@Test
 	public void testFindCommunicationFlows() {
 		Task t1 = new Task("t1");
@@ -79,6 +79,13 @@ public class ReaderTGFF {
 
 	protected Map<String, List<Task>> tgffTypeMap = new HashMap<String, List<Task>>();
 
+	/**
+	 * The blocks of a tgff-file as distinguished by the {@link StreamParser}.
+	 */
+	protected enum Block {
+		NONE, COMMUN_QUANT, TASK_GRAPH, CORE_ATTRIBUTES, CORE_VALUES, CORE_HEADER, CORE_ROWS, WIRING
+	}
+
 	/**
 	 * Reads a {@link SpecificationTypeBased} from a tgff-file.
 	 * 
@@ -107,27 +114,42 @@ public class ReaderTGFF {
 	}
 
 	/**
-	 * Reads a {@link SpecificationTypeBased} from an {@link InputStream}.
+	 * Reads a {@link SpecificationTypeBased} from an {@link InputStream}. The
+	 * lines are parsed in a single pass without keeping the file in memory
+	 * (see {@link #toSpecification(BufferedReader)}).
 	 * 
 	 * @param in
 	 *            the input stream
 	 * @return the specification
 	 */
 	public SpecificationTypeBased read(InputStream in) {
+		return toSpecification(new BufferedReader(new InputStreamReader(in)));
+	}
 
-		List<String> tgffFile = new ArrayList<String>();
+	/**
+	 * Reads {@link Application}, {@link Mappings}, {@link ResourceTypes} and
+	 * {@link LinkTypes} line by line from a tgff-file and converts it into a
+	 * {@link SpecificationTypeBased}. The result equals the result of
+	 * {@link #toSpecification(List)} for the lines of the file, but each line
+	 * is visited once and split without regular expressions.
+	 * 
+	 * @param reader
+	 *            the reader on the tgff-file
+	 * @return the type-based specification
+	 */
+	public SpecificationTypeBased toSpecification(BufferedReader reader) {
+		tgffTypeMap.clear();
+		StreamParser parser = new StreamParser();
 		try {
-			BufferedReader br = new BufferedReader(new InputStreamReader(in));
-
-			String currentLine;
-			while ((currentLine = br.readLine()) != null) {
-				tgffFile.add(currentLine);
+			String line;
+			while ((line = reader.readLine()) != null) {
+				parser.parse(line);
 			}
-
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
-		return toSpecification(tgffFile);
+		return new SpecificationTypeBased(parser.application, parser.resourceTypes, parser.mappings,
+				parser.linkTypes);
 	}
 
 	/**
@@ -318,8 +340,10 @@ public class ReaderTGFF {
 	 *            the application
 	 */
 	protected void addTask(String line, String suffix, double period, Application<Task, Dependency> application) {
+		addTask(line.trim().split(SEPARATOR), suffix, period, application);
+	}
 
-		String[] entries = line.trim().split(SEPARATOR);
+	protected Task addTask(String[] entries, String suffix, double period, Application<Task, Dependency> application) {
 		assert entries.length >= 4 : "tgff-file \"" + TASK + "\": wrong number of entries";
 
 		String id = entries[1] + suffix;
@@ -340,6 +364,7 @@ public class ReaderTGFF {
 			tgffTypeMap.put(type, taskList);
 		}
 		application.addVertex(task);
+		return task;
 	}
 
 	/**
@@ -357,8 +382,11 @@ public class ReaderTGFF {
 	 */
 	protected void addCommunication(String line, String suffix, double period,
 			Application<Task, Dependency> application) {
+		addCommunication(line.trim().split(SEPARATOR), suffix, period, application);
+	}
 
-		String[] entries = line.trim().split(SEPARATOR);
+	protected void addCommunication(String[] entries, String suffix, double period,
+			Application<Task, Dependency> application) {
 		assert entries.length == 8 : "tgff-file \"ARC\": wrong number of entries in line";
 
 		String id = entries[1];
@@ -394,8 +422,11 @@ public class ReaderTGFF {
 	 */
 	protected void addDeadline(String line, String suffix, Application<Task, Dependency> application,
 			String deadlineType) {
+		addDeadline(line.trim().split(SEPARATOR), suffix, application, deadlineType);
+	}
 
-		String[] entries = line.trim().split(SEPARATOR);
+	protected void addDeadline(String[] entries, String suffix, Application<Task, Dependency> application,
+			String deadlineType) {
 		assert entries.length == 6 : "tgff-file \"" + deadlineType + "\": wrong number of entries";
 
 		Task t = application.getVertex(entries[3] + suffix);
@@ -482,31 +513,58 @@ public class ReaderTGFF {
 
 				String tgffType = values[0];
 
-				// only add mappings to valid resource type
-				boolean validMapping = false;
-
-				if (attributes.contains(VALID)) {
-					validMapping = values[attributes.indexOf(VALID)].equals("1") ? true : false;
-				}
-
 				// if tasks exist that can be mapped to current resource type
-				if (validMapping && tgffTypeMap.containsKey(tgffType)) {
-
+				if (isValid(attributes, values) && tgffTypeMap.containsKey(tgffType)) {
 					for (Task task : tgffTypeMap.get(tgffType)) {
-						String mappingID = "m" + CONNECTOR + task.getId() + CONNECTOR + res.getId();
-						Mapping<Task, Resource> mapping = new Mapping<Task, Resource>(mappingID, task, res);
-
-						// annotate extracted attributes and values
-						for (int i = 0; i < values.length; i++) {
-							mapping.setAttribute(attributes.get(i), Double.valueOf(values[i]));
-						}
-						mappings.add(mapping);
+						addMapping(task, res, attributes, values, mappings);
 					}
 				}
 			}
 		}
 	}
 
+	/**
+	 * Returns {@code true} if the row of a resource type allows mappings (only
+	 * mappings to valid resource types are added).
+	 * 
+	 * @param attributes
+	 *            the attributes of the rows
+	 * @param values
+	 *            the values of the row
+	 * @return {@code true} if the mapping is valid
+	 */
+	protected boolean isValid(List<String> attributes, String[] values) {
+		int index = attributes.indexOf(VALID);
+		return index >= 0 && values[index].equals("1");
+	}
+
+	/**
+	 * Adds the {@link Mapping} of a {@link Task} to a resource type and
+	 * annotates the values of the row.
+	 * 
+	 * @param task
+	 *            the task
+	 * @param res
+	 *            the resource type
+	 * @param attributes
+	 *            the attributes of the rows
+	 * @param values
+	 *            the values of the row
+	 * @param mappings
+	 *            the mappings
+	 */
+	protected void addMapping(Task task, Resource res, List<String> attributes, String[] values,
+			Mappings<Task, Resource> mappings) {
+		String mappingID = "m" + CONNECTOR + task.getId() + CONNECTOR + res.getId();
+		Mapping<Task, Resource> mapping = new Mapping<Task, Resource>(mappingID, task, res);
+
+		// annotate extracted attributes and values
+		for (int i = 0; i < values.length; i++) {
+			mapping.setAttribute(attributes.get(i), Double.valueOf(values[i]));
+		}
+		mappings.add(mapping);
+	}
+
 	/**
 	 * Imports the different message sizes, depending on the type of
 	 * {@link Communication}.
@@ -560,6 +618,258 @@ public class ReaderTGFF {
 		linkTypes.put(WIRE, link);
 	}
 
+	/**
+	 * The {@code StreamParser} imports a tgff-file line by line. Each line is
+	 * handled according to the block it belongs to. The valid rows of the
+	 * resource types are kept by task type such that a {@link Mapping} is
+	 * added as soon as both its {@link Task} and the row are known, regardless
+	 * of whether the task graphs precede the resource types in the file.
+	 */
+	protected class StreamParser {
+
+		protected final Application<Task, Dependency> application = new Application<Task, Dependency>();
+		protected final ResourceTypes<Resource> resourceTypes = new ResourceTypes<Resource>();
+		protected final Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		protected final LinkTypes<Link> linkTypes = new LinkTypes<Link>();
+
+		protected final Map<String, List<Row>> rows = new HashMap<String, List<Row>>();
+
+		protected Block block = Block.NONE;
+		protected String suffix;
+		protected double period;
+		protected Resource resource;
+		protected String[] resAttributes;
+		protected List<String> attributes;
+		protected Link link;
+		protected String property;
+
+		/**
+		 * Parses the next line of the tgff-file.
+		 * 
+		 * @param line
+		 *            the line
+		 */
+		protected void parse(String line) {
+			switch (block) {
+			case NONE:
+				parseHead(line);
+				break;
+			case COMMUN_QUANT:
+				parseMessageSize(line);
+				break;
+			case TASK_GRAPH:
+				parseTaskGraph(line);
+				break;
+			case CORE_ATTRIBUTES:
+				// first line contains attributes of resources
+				resAttributes = tokenize(line, true);
+				block = Block.CORE_VALUES;
+				break;
+			case CORE_VALUES:
+				// second line contains attribute values
+				String[] resValues = tokenize(line, false);
+				assert resAttributes.length == resValues.length : "tgff-file \"" + CORE
+						+ "\": number of values is not equal to required number of resource attributes";
+				for (int i = 0; i < resAttributes.length; i++) {
+					resource.setAttribute(resAttributes[i], Double.valueOf(resValues[i]));
+				}
+				resourceTypes.put(resource.getId(), resource);
+				block = Block.CORE_HEADER;
+				break;
+			case CORE_HEADER:
+				if (!skip(line)) {
+					attributes = new ArrayList<String>();
+					block = Block.CORE_ROWS;
+				}
+				break;
+			case CORE_ROWS:
+				parseRow(line);
+				break;
+			case WIRING:
+				parseWiring(line);
+				break;
+			}
+		}
+
+		protected void parseHead(String line) {
+			String[] entries = tokenize(line, false);
+			if (entries.length == 0) {
+				return;
+			}
+			String key = entries[0];
+
+			if (key.equals(HYPERPERIOD)) {
+				hyperperiod = Double.parseDouble(entries[1]);
+			} else if (key.equals(COMMUN_QUANT)) {
+				messageSizes = new HashMap<String, Double>();
+				block = Block.COMMUN_QUANT;
+			} else if (key.equals(TASK_GRAPH)) {
+				suffix = CONNECTOR + entries[1];
+				period = -1;
+				block = Block.TASK_GRAPH;
+			} else if (key.equals(CORE) || key.equals(PROC) || key.equals(CLIENT_PE) || key.equals(SERVER_PE)) {
+				resource = new Resource("r" + entries[1]);
+				block = Block.CORE_ATTRIBUTES;
+			} else if (key.equals(WIRE)) {
+				link = new Link(WIRE);
+				property = "";
+				block = Block.WIRING;
+			}
+		}
+
+		protected void parseMessageSize(String line) {
+			if (isClosing(line)) {
+				block = Block.NONE;
+			} else if (!isComment(line)) {
+				String[] entries = tokenize(line, false);
+				if (entries.length >= 2) {
+					messageSizes.put(entries[0], Double.valueOf(entries[1]));
+				}
+			}
+		}
+
+		protected void parseTaskGraph(String line) {
+			if (isClosing(line)) {
+				block = Block.NONE;
+				return;
+			} else if (isComment(line)) {
+				return;
+			}
+			String[] entries = tokenize(line, false);
+			if (entries.length == 0) {
+				return;
+			}
+			String key = entries[0];
+
+			if (key.equals(PERIOD)) {
+				period = Double.parseDouble(entries[1]);
+			} else if (key.equals(TASK)) {
+				Task task = addTask(entries, suffix, period, application);
+				List<Row> taskRows = rows.get(task.<String> getAttribute(TGFF_TYPE));
+				if (taskRows != null) {
+					for (Row row : taskRows) {
+						addMapping(task, row.resource, row.attributes, row.values, mappings);
+					}
+				}
+			} else if (key.equals(ARC)) {
+				addCommunication(entries, suffix, period, application);
+			} else if (key.equals(HARD_DEADLINE)) {
+				addDeadline(entries, suffix, application, HARD_DEADLINE);
+			} else if (key.equals(SOFT_DEADLINE)) {
+				addDeadline(entries, suffix, application, SOFT_DEADLINE);
+			}
+		}
+
+		protected void parseRow(String line) {
+			if (isClosing(line)) {
+				block = Block.NONE;
+			} else if (line.contains(TYPE)) {
+				// extract attributes of resource type
+				attributes = Arrays.asList(tokenize(line, true));
+			} else if (!isComment(line)) {
+				// extract values for each attribute
+				String[] values = tokenize(line, false);
+				if (values.length == 0) {
+					return;
+				}
+				assert values.length == attributes.size() : "tgff-file \"" + CORE + "\": number of values is not "
+						+ "equal to required number of attributes";
+
+				if (isValid(attributes, values)) {
+					String tgffType = values[0];
+					List<Row> typeRows = rows.get(tgffType);
+					if (typeRows == null) {
+						typeRows = new ArrayList<Row>();
+						rows.put(tgffType, typeRows);
+					}
+					typeRows.add(new Row(resource, attributes, values));
+
+					List<Task> tasks = tgffTypeMap.get(tgffType);
+					if (tasks != null) {
+						for (Task task : tasks) {
+							addMapping(task, resource, attributes, values, mappings);
+						}
+					}
+				}
+			}
+		}
+
+		protected void parseWiring(String line) {
+			if (isClosing(line)) {
+				linkTypes.put(WIRE, link);
+				block = Block.NONE;
+			} else if (isComment(line)) {
+				// get attribute name
+				property = line.replace(COMMENT, "").trim();
+			} else if (!line.contains("{") && tokenize(line, false).length > 0) {
+				// get corresponding attribute value
+				link.setAttribute(property, Double.valueOf(line));
+			}
+		}
+	}
+
+	/**
+	 * A valid row of a resource type.
+	 */
+	protected static class Row {
+
+		protected final Resource resource;
+		protected final List<String> attributes;
+		protected final String[] values;
+
+		protected Row(Resource resource, List<String> attributes, String[] values) {
+			this.resource = resource;
+			this.attributes = attributes;
+			this.values = values;
+		}
+	}
+
+	/**
+	 * Splits a line into its whitespace separated entries without a regular
+	 * expression. For non-empty lines, the result equals
+	 * {@code line.trim().split(SEPARATOR)}; lines without entries yield an
+	 * empty array.
+	 * 
+	 * @param line
+	 *            the line
+	 * @param removeComment
+	 *            true if the comment characters shall be removed first
+	 * @return the entries
+	 */
+	protected static String[] tokenize(String line, boolean removeComment) {
+		if (removeComment && line.indexOf('#') >= 0) {
+			StringBuilder sb = new StringBuilder(line.length());
+			for (int i = 0; i < line.length(); i++) {
+				char c = line.charAt(i);
+				if (c != '#') {
+					sb.append(c);
+				}
+			}
+			line = sb.toString();
+		}
+
+		List<String> entries = new ArrayList<String>();
+		int start = -1;
+		for (int i = 0; i < line.length(); i++) {
+			if (isSeparator(line.charAt(i))) {
+				if (start >= 0) {
+					entries.add(line.substring(start, i));
+					start = -1;
+				}
+			} else if (start < 0) {
+				start = i;
+			}
+		}
+		if (start >= 0) {
+			entries.add(line.substring(start));
+		}
+		return entries.toArray(new String[entries.size()]);
+	}
+
+	protected static boolean isSeparator(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == 0x0B;
+	}
+
 	protected double importHyperperiod(String line) {
 		return Double.parseDouble(line.replace(HYPERPERIOD, "").trim());
 	}
@@ -0,0 +1,542 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import static net.sf.opendse.io.Common.classMap;
+import static net.sf.opendse.io.Common.setAttributes;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Attributes;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Function;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Node;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.ParameterRange;
+import net.sf.opendse.model.parameter.ParameterRangeDiscrete;
+import net.sf.opendse.model.parameter.ParameterSelect;
+import net.sf.opendse.model.parameter.ParameterUniqueID;
+
+/**
+ * The {@code SpecificationBinaryReader} reads a {@code Specification} in the
+ * binary format of the {@link SpecificationBinaryWriter}. The elements are
+ * constructed as by the {@link SpecificationReader}, i.e., element attributes
+ * refer to the elements of the specification with the same id.
+ * <p>
+ * Files can be read through a memory-mapped buffer with
+ * {@link #read(File, boolean)}.
+ *
+ */
+public class SpecificationBinaryReader extends SpecificationReader {
+
+	protected final Map<Class<?>, Constructor<?>> idConstructors = new HashMap<Class<?>, Constructor<?>>();
+	protected final Map<Class<?>, Constructor<?>> parentConstructors = new HashMap<Class<?>, Constructor<?>>();
+	protected final Map<Class<?>, Constructor<?>> mappingConstructors = new HashMap<Class<?>, Constructor<?>>();
+	protected final Map<Class<?>, Constructor<?>> collectionConstructors = new HashMap<Class<?>, Constructor<?>>();
+
+	/**
+	 * Read specification from a file.
+	 *
+	 * @param file
+	 *            the file
+	 * @param mapped
+	 *            true if the file shall be memory-mapped instead of read
+	 *            through a buffered stream
+	 * @return the specification
+	 */
+	public Specification read(File file, boolean mapped) {
+		if (!mapped) {
+			return read(file);
+		}
+		try {
+			FileInputStream in = new FileInputStream(file);
+			try {
+				FileChannel channel = in.getChannel();
+				ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				return read(new DataInputStream(new ByteBufferInputStream(buffer)));
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	/**
+	 * Read specification from an input stream.
+	 *
+	 * @param in
+	 *            the input stream
+	 * @return the specification
+	 */
+	@Override
+	public Specification read(InputStream in) {
+		return read(new DataInputStream(new BufferedInputStream(in)));
+	}
+
+	protected Specification read(DataInputStream in) {
+		try {
+			if (in.readInt() != SpecificationBinaryWriter.MAGIC) {
+				throw new IllegalArgumentException("The input is not a binary specification.");
+			}
+			Input input = new Input(in);
+			int version = input.readVarInt();
+			if (version != SpecificationBinaryWriter.VERSION) {
+				throw new IllegalArgumentException("Unsupported version of the binary specification: " + version);
+			}
+			return toSpecification(input);
+		} catch (IllegalArgumentException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new IllegalArgumentException(ex);
+		}
+	}
+
+	protected Specification toSpecification(Input input) throws IOException, ClassNotFoundException,
+			InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		Map<String, Resource> resources = new HashMap<String, Resource>();
+		Map<String, Link> links = new HashMap<String, Link>();
+		Map<String, Task> tasks = new HashMap<String, Task>();
+
+		Architecture<Resource, Link> architecture = toArchitecture(input, resources, links);
+		Application<Task, Dependency> application = toApplication(input, tasks);
+		Mappings<Task, Resource> mappings = toMappings(input, resources, tasks);
+
+		Specification specification = null;
+		if (input.in.readBoolean()) {
+			Routings<Task, Resource, Link> routings = toRoutings(input, resources, links, tasks);
+			specification = new Specification(application, architecture, mappings, routings);
+		} else {
+			specification = new Specification(application, architecture, mappings);
+		}
+		setAttributes(specification, toAttributes(input));
+		return specification;
+	}
+
+	protected Architecture<Resource, Link> toArchitecture(Input input, Map<String, Resource> resources,
+			Map<String, Link> links) throws IOException, ClassNotFoundException, InstantiationException,
+			IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+
+		for (int i = input.readVarInt(); i > 0; i--) {
+			Resource resource = toNode(input, "resource", (Resource) null, true);
+			architecture.addVertex(resource);
+			resources.put(resource.getId(), resource);
+		}
+		for (int i = input.readVarInt(); i > 0; i--) {
+			Link link = toEdge(input, "link", (Link) null, input.readString());
+			Resource source = get(resources, input.readString(), "Source of link " + link);
+			Resource destination = get(resources, input.readString(), "Destination of link " + link);
+			EdgeType edgeType = input.in.readBoolean() ? EdgeType.DIRECTED : EdgeType.UNDIRECTED;
+			architecture.addEdge(link, source, destination, edgeType);
+			setAttributes(link, toAttributes(input));
+			links.put(link.getId(), link);
+		}
+
+		return architecture;
+	}
+
+	protected Application<Task, Dependency> toApplication(Input input, Map<String, Task> tasks) throws IOException,
+			ClassNotFoundException, InstantiationException, IllegalAccessException, InvocationTargetException,
+			NoSuchMethodException {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+
+		for (String name : new String[] { "task", "communication" }) {
+			for (int i = input.readVarInt(); i > 0; i--) {
+				Task task = toNode(input, name, (Task) null, true);
+				application.addVertex(task);
+				tasks.put(task.getId(), task);
+			}
+		}
+		for (int i = input.readVarInt(); i > 0; i--) {
+			Dependency dependency = toEdge(input, "dependency", (Dependency) null, input.readString());
+			Task source = get(tasks, input.readString(), "Source of dependency " + dependency);
+			Task destination = get(tasks, input.readString(), "Destination of dependency " + dependency);
+			input.in.readBoolean();
+			application.addEdge(dependency, source, destination, EdgeType.DIRECTED);
+			setAttributes(dependency, toAttributes(input));
+		}
+		for (int i = input.readVarInt(); i > 0; i--) {
+			Task task = tasks.get(input.readString());
+			Function<Task, Dependency> function = application.getFunction(task);
+			setAttributes(function, toAttributes(input));
+		}
+
+		return application;
+	}
+
+	protected Mappings<Task, Resource> toMappings(Input input, Map<String, Resource> resources,
+			Map<String, Task> tasks) throws IOException, ClassNotFoundException, InstantiationException,
+			IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+
+		for (int i = input.readVarInt(); i > 0; i--) {
+			String id = input.readString();
+			Class<Mapping<Task, Resource>> type = getClass(input, "mapping");
+			Task source = get(tasks, input.readString(), "Source of mapping " + id);
+			Resource target = get(resources, input.readString(), "Target of mapping " + id);
+
+			Mapping<Task, Resource> mapping = getConstructor(mappingConstructors, type, String.class, Task.class,
+					Resource.class).newInstance(id, source, target);
+			setAttributes(mapping, toAttributes(input));
+			mappings.add(mapping);
+		}
+
+		return mappings;
+	}
+
+	protected Routings<Task, Resource, Link> toRoutings(Input input, Map<String, Resource> resources,
+			Map<String, Link> links, Map<String, Task> tasks) throws IOException, ClassNotFoundException,
+			InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		Routings<Task, Resource, Link> routings = new Routings<Task, Resource, Link>();
+
+		for (int i = input.readVarInt(); i > 0; i--) {
+			Task source = tasks.get(input.readString());
+			Map<String, Resource> map = new HashMap<String, Resource>();
+			Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
+
+			for (int j = input.readVarInt(); j > 0; j--) {
+				boolean attributes = input.in.readBoolean();
+				String id = input.readString();
+				Resource resource = toNode(input, "resource", resources.get(id), id, attributes);
+				routing.addVertex(resource);
+				map.put(resource.getId(), resource);
+			}
+			for (int j = input.readVarInt(); j > 0; j--) {
+				boolean attributes = input.in.readBoolean();
+				String id = input.readString();
+				Link link = toEdge(input, "link", links.get(id), id);
+				Resource src = map.get(input.readString());
+				Resource dst = map.get(input.readString());
+				EdgeType edgeType = input.in.readBoolean() ? EdgeType.DIRECTED : EdgeType.UNDIRECTED;
+				routing.addEdge(link, src, dst, edgeType);
+				if (attributes) {
+					setAttributes(link, toAttributes(input));
+				}
+			}
+			routings.set(source, routing);
+		}
+
+		return routings;
+	}
+
+	protected <N extends Node> N toNode(Input input, String name, N parent, boolean attributes) throws IOException,
+			ClassNotFoundException, InstantiationException, IllegalAccessException, InvocationTargetException,
+			NoSuchMethodException {
+		return toNode(input, name, parent, input.readString(), attributes);
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <N extends Node> N toNode(Input input, String name, N parent, String id, boolean attributes)
+			throws IOException, ClassNotFoundException, InstantiationException, IllegalAccessException,
+			InvocationTargetException, NoSuchMethodException {
+		Class<N> type = getClass(input, name);
+
+		N node = null;
+
+		if (parent == null) {
+			if (knownElements.containsKey(id)) {
+				node = (N) knownElements.get(id);
+			} else {
+				node = getConstructor(idConstructors, type, String.class).newInstance(id);
+				knownElements.put(node.getId(), node);
+			}
+		} else {
+			node = getConstructor(parentConstructors, type, Element.class).newInstance(parent);
+		}
+
+		if (attributes) {
+			setAttributes(node, toAttributes(input));
+		}
+		return node;
+	}
+
+	/**
+	 * Reads the class of an edge and constructs it. The endpoints and the
+	 * attributes follow the head of the edge and are read by the caller.
+	 */
+	protected <E extends Edge> E toEdge(Input input, String name, E parent, String id) throws IOException,
+			ClassNotFoundException, InstantiationException, IllegalAccessException, InvocationTargetException,
+			NoSuchMethodException {
+		Class<E> type = getClass(input, name);
+
+		E edge = null;
+
+		if (parent == null) {
+			edge = getConstructor(idConstructors, type, String.class).newInstance(id);
+		} else {
+			edge = getConstructor(parentConstructors, type, Element.class).newInstance(parent);
+		}
+
+		return edge;
+	}
+
+	protected <E> E get(Map<String, E> elements, String id, String description) {
+		E element = elements.get(id);
+		if (element == null) {
+			throw new IllegalArgumentException(description + " not found: " + id);
+		}
+		return element;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <C> Class<C> getClass(Input input, String name) throws IOException, ClassNotFoundException {
+		String className = input.readString();
+		Class<C> type = null;
+		if (className != null) {
+			type = (Class<C>) getClass(className);
+		} else {
+			type = (Class<C>) classMap.get(name);
+		}
+		if (type == null) {
+			throw new RuntimeException("Unknown node type for " + name);
+		}
+		return type;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <C> Constructor<C> getConstructor(Map<Class<?>, Constructor<?>> cache, Class<C> type,
+			Class<?>... parameterTypes) throws NoSuchMethodException {
+		Constructor<C> constructor = (Constructor<C>) cache.get(type);
+		if (constructor == null) {
+			constructor = type.getConstructor(parameterTypes);
+			cache.put(type, constructor);
+		}
+		return constructor;
+	}
+
+	protected Attributes toAttributes(Input input) throws IOException, ClassNotFoundException,
+			InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		Attributes attributes = new Attributes();
+		for (int i = input.readVarInt(); i > 0; i--) {
+			String name = input.readString();
+			Object value = toAttribute(input);
+			attributes.put(name, value);
+		}
+		return attributes;
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	protected Object toAttribute(Input input) throws IOException, ClassNotFoundException, InstantiationException,
+			IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		DataInputStream in = input.in;
+		int tag = in.readUnsignedByte();
+
+		switch (tag) {
+		case SpecificationBinaryWriter.NULL:
+			return null;
+		case SpecificationBinaryWriter.INT:
+			return (int) input.readVarLong();
+		case SpecificationBinaryWriter.DOUBLE:
+			return in.readDouble();
+		case SpecificationBinaryWriter.BOOL:
+			return in.readBoolean();
+		case SpecificationBinaryWriter.STRING:
+			return input.readString();
+		case SpecificationBinaryWriter.LONG:
+			return input.readVarLong();
+		case SpecificationBinaryWriter.FLOAT:
+			return in.readFloat();
+		case SpecificationBinaryWriter.SHORT:
+			return (short) input.readVarLong();
+		case SpecificationBinaryWriter.BYTE:
+			return in.readByte();
+		case SpecificationBinaryWriter.CHAR:
+			return in.readChar();
+		case SpecificationBinaryWriter.ELEMENT: {
+			Class<?> clazz = getClass(input.readString());
+			String id = input.readString();
+			return toAttributeObject(id, clazz);
+		}
+		case SpecificationBinaryWriter.ENUM: {
+			Class<? extends Enum> clazz = getClass(input.readString()).asSubclass(Enum.class);
+			return Enum.valueOf(clazz, input.readString());
+		}
+		case SpecificationBinaryWriter.COLLECTION: {
+			Class<?> clazz = getClass(input.readString());
+			Collection collection = (Collection) getConstructor(collectionConstructors, clazz).newInstance();
+			for (int i = input.readVarInt(); i > 0; i--) {
+				collection.add(toAttribute(input));
+			}
+			return collection;
+		}
+		case SpecificationBinaryWriter.RANGE: {
+			double value = in.readDouble();
+			double lb = in.readDouble();
+			double ub = in.readDouble();
+			double granularity = in.readDouble();
+			return new ParameterRange(value, lb, ub, granularity);
+		}
+		case SpecificationBinaryWriter.DISCRETERANGE: {
+			int value = (int) input.readVarLong();
+			int lb = (int) input.readVarLong();
+			int ub = (int) input.readVarLong();
+			return new ParameterRangeDiscrete(value, lb, ub);
+		}
+		case SpecificationBinaryWriter.SELECT: {
+			String reference = input.readString();
+			Object value = toAttribute(input);
+			List<Object> elements = new ArrayList<Object>();
+			for (int i = input.readVarInt(); i > 0; i--) {
+				elements.add(toAttribute(input));
+			}
+			return new ParameterSelect(value, reference, elements);
+		}
+		case SpecificationBinaryWriter.UID: {
+			Integer value = (Integer) toAttribute(input);
+			return new ParameterUniqueID(value, input.readString());
+		}
+		case SpecificationBinaryWriter.SERIALIZABLE: {
+			byte[] bytes = new byte[input.readVarInt()];
+			in.readFully(bytes);
+			ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes));
+			try {
+				return ois.readObject();
+			} finally {
+				ois.close();
+			}
+		}
+		default:
+			throw new IllegalArgumentException("Unknown attribute tag: " + tag);
+		}
+	}
+
+	/**
+	 * The {@code Input} wraps the {@code DataInputStream} and maintains the
+	 * string table.
+	 *
+	 */
+	protected static class Input {
+
+		protected final DataInputStream in;
+		protected final List<String> strings = new ArrayList<String>();
+
+		protected Input(DataInputStream in) {
+			this.in = in;
+		}
+
+		/**
+		 * Reads a string reference (see
+		 * {@link SpecificationBinaryWriter.Output#writeString(String)}).
+		 *
+		 * @return the string (or {@code null})
+		 */
+		protected String readString() throws IOException {
+			int ref = readVarInt();
+			if (ref == 0) {
+				return null;
+			} else if (ref == 1) {
+				byte[] bytes = new byte[readVarInt()];
+				in.readFully(bytes);
+				String string = new String(bytes, "UTF-8");
+				strings.add(string);
+				return string;
+			} else {
+				return strings.get(ref - 2);
+			}
+		}
+
+		protected int readVarInt() throws IOException {
+			int value = 0;
+			int shift = 0;
+			int b;
+			do {
+				b = in.readUnsignedByte();
+				value |= (b & 0x7F) << shift;
+				shift += 7;
+			} while ((b & 0x80) != 0);
+			return value;
+		}
+
+		protected long readVarLong() throws IOException {
+			long v = 0;
+			int shift = 0;
+			int b;
+			do {
+				b = in.readUnsignedByte();
+				v |= (long) (b & 0x7F) << shift;
+				shift += 7;
+			} while ((b & 0x80) != 0);
+			return (v >>> 1) ^ -(v & 1);
+		}
+	}
+
+	/**
+	 * The {@code ByteBufferInputStream} reads from a (memory-mapped)
+	 * {@code ByteBuffer}.
+	 *
+	 */
+	protected static class ByteBufferInputStream extends InputStream {
+
+		protected final ByteBuffer buffer;
+
+		protected ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return buffer.remaining();
+		}
+	}
+
+}
@@ -0,0 +1,518 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import static net.sf.opendse.io.Common.getType;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+import edu.uci.ics.jung.graph.util.Pair;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Attributes;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Function;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Models;
+import net.sf.opendse.model.Node;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.Parameter;
+import net.sf.opendse.model.parameter.ParameterRange;
+import net.sf.opendse.model.parameter.ParameterRangeDiscrete;
+import net.sf.opendse.model.parameter.ParameterSelect;
+import net.sf.opendse.model.parameter.ParameterUniqueID;
+
+/**
+ * The {@code SpecificationBinaryWriter} writes a {@code Specification} in a
+ * compact binary format that is read by the {@link SpecificationBinaryReader}.
+ * The records follow the structure of the XML format of the
+ * {@link SpecificationWriter}:
+ * <ul>
+ * <li>all strings (ids, class names, attribute names, and string values) are
+ * written once to an inline string table and referenced by their index
+ * afterwards,</li>
+ * <li>the attribute values are written with a type tag and their binary
+ * representation (variable-length integers for counts, indices, and integral
+ * values) and</li>
+ * <li>{@link Parameter} attributes are written with their bounds or elements
+ * such that they are read as parameters again (the XML writers write their
+ * current values only).</li>
+ * </ul>
+ * Converting a specification from XML to the binary format and back yields the
+ * same XML document.
+ *
+ */
+public class SpecificationBinaryWriter {
+
+	/**
+	 * The magic number at the start of each file ({@code ODSE}).
+	 */
+	protected static final int MAGIC = 0x4F445345;
+	protected static final int VERSION = 1;
+
+	protected static final int NULL = 0;
+	protected static final int INT = 1;
+	protected static final int DOUBLE = 2;
+	protected static final int BOOL = 3;
+	protected static final int STRING = 4;
+	protected static final int LONG = 5;
+	protected static final int FLOAT = 6;
+	protected static final int SHORT = 7;
+	protected static final int BYTE = 8;
+	protected static final int CHAR = 9;
+	protected static final int ELEMENT = 10;
+	protected static final int ENUM = 11;
+	protected static final int COLLECTION = 12;
+	protected static final int RANGE = 13;
+	protected static final int DISCRETERANGE = 14;
+	protected static final int SELECT = 15;
+	protected static final int UID = 16;
+	protected static final int SERIALIZABLE = 17;
+
+	protected final boolean writeRoutings;
+
+	/**
+	 * Constructs a new {@link SpecificationBinaryWriter} that will always
+	 * export {@link Routings}.
+	 */
+	public SpecificationBinaryWriter() {
+		this(true);
+	}
+
+	/**
+	 * Constructs a new {@link SpecificationBinaryWriter} instance.
+	 *
+	 * @param writeRoutings
+	 *            true if the routings shall be exported
+	 */
+	public SpecificationBinaryWriter(boolean writeRoutings) {
+		this.writeRoutings = writeRoutings;
+	}
+
+	/**
+	 * Write the specification to a file.
+	 *
+	 * @param specification
+	 *            the specification
+	 * @param filename
+	 *            the name of the target file
+	 * @throws IOException
+	 *             thrown in case of an IO error
+	 */
+	public void write(Specification specification, String filename) throws IOException {
+		write(specification, new File(filename));
+	}
+
+	/**
+	 * Write the specification to a file.
+	 *
+	 * @param specification
+	 *            the specification
+	 * @param file
+	 *            the file
+	 * @throws IOException
+	 *             thrown in case of an IO error
+	 */
+	public void write(Specification specification, File file) throws IOException {
+		OutputStream out = new FileOutputStream(file);
+		try {
+			write(specification, out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Write the specification to an output stream.
+	 *
+	 * @param specification
+	 *            the specification
+	 * @param out
+	 *            the output stream
+	 * @throws IOException
+	 *             thrown in case of an IO error or if an attribute cannot be
+	 *             written
+	 */
+	public void write(Specification specification, OutputStream out) throws IOException {
+		Output output = new Output(new DataOutputStream(new BufferedOutputStream(out)));
+		output.out.writeInt(MAGIC);
+		output.writeVarInt(VERSION);
+		write(output, specification);
+		output.out.flush();
+	}
+
+	protected void write(Output output, Specification specification) throws IOException {
+		write(output, specification.getArchitecture());
+		write(output, specification.getApplication());
+		write(output, specification.getMappings());
+		if (specification.getRoutings() != null && writeRoutings) {
+			output.out.writeBoolean(true);
+			write(output, specification.getRoutings(), specification.getArchitecture());
+		} else {
+			output.out.writeBoolean(false);
+		}
+		write(output, specification.getAttributes());
+	}
+
+	protected void write(Output output, Architecture<Resource, Link> architecture) throws IOException {
+		output.writeVarInt(architecture.getVertexCount());
+		for (Resource resource : architecture) {
+			write(output, resource, "resource", false);
+		}
+		output.writeVarInt(architecture.getEdgeCount());
+		for (Link link : architecture.getEdges()) {
+			Pair<Resource> endpoints = architecture.getEndpoints(link);
+			write(output, link, "link", endpoints.getFirst(), endpoints.getSecond(), architecture.getEdgeType(link),
+					false);
+		}
+	}
+
+	protected void write(Output output, Application<Task, Dependency> application) throws IOException {
+		List<Task> processes = new ArrayList<Task>();
+		List<Task> communications = new ArrayList<Task>();
+		for (Task task : application) {
+			if (Models.isProcess(task)) {
+				processes.add(task);
+			} else {
+				communications.add(task);
+			}
+		}
+		output.writeVarInt(processes.size());
+		for (Task task : processes) {
+			write(output, task, "task", false);
+		}
+		output.writeVarInt(communications.size());
+		for (Task task : communications) {
+			write(output, task, "communication", false);
+		}
+		output.writeVarInt(application.getEdgeCount());
+		for (Dependency dependency : application.getEdges()) {
+			Pair<Task> endpoints = application.getEndpoints(dependency);
+			write(output, dependency, "dependency", endpoints.getFirst(), endpoints.getSecond(),
+					application.getEdgeType(dependency), false);
+		}
+		output.writeVarInt(application.getFunctions().size());
+		for (Function<Task, Dependency> function : application.getFunctions()) {
+			Task t = function.getVertices().iterator().next();
+			output.writeString(t.getId());
+			write(output, function.getAttributes());
+		}
+	}
+
+	protected void write(Output output, Mappings<Task, Resource> mappings) throws IOException {
+		output.writeVarInt(mappings.size());
+		for (Mapping<Task, Resource> mapping : mappings) {
+			writeHead(output, mapping, "mapping");
+			output.writeString(mapping.getSource().getId());
+			output.writeString(mapping.getTarget().getId());
+			write(output, mapping.getAttributes());
+		}
+	}
+
+	protected void write(Output output, Routings<Task, Resource, Link> routings,
+			Architecture<Resource, Link> architecture) throws IOException {
+		output.writeVarInt(routings.getTasks().size());
+		for (Task task : routings.getTasks()) {
+			Architecture<Resource, Link> routing = routings.get(task);
+			output.writeString(task.getId());
+			output.writeVarInt(routing.getVertexCount());
+			for (Resource resource : routing) {
+				// the attributes are only written for the local copies of the
+				// architecture elements (as in the SpecificationWriter)
+				boolean attributes = resource.getParent() == architecture.getVertex(resource.getId());
+				output.out.writeBoolean(attributes);
+				write(output, resource, "resource", true, attributes);
+			}
+			output.writeVarInt(routing.getEdgeCount());
+			for (Link link : routing.getEdges()) {
+				Pair<Resource> endpoints = routing.getEndpoints(link);
+				boolean attributes = link.getParent() == architecture.getEdge(link.getId());
+				output.out.writeBoolean(attributes);
+				write(output, link, "link", endpoints.getFirst(), endpoints.getSecond(), routing.getEdgeType(link),
+						true, attributes);
+			}
+		}
+	}
+
+	protected void write(Output output, Node node, String name, boolean local) throws IOException {
+		write(output, node, name, local, true);
+	}
+
+	protected void write(Output output, Node node, String name, boolean local, boolean attributes)
+			throws IOException {
+		writeHead(output, node, name);
+		if (attributes) {
+			write(output, local ? node.getLocalAttributes() : node.getAttributes());
+		}
+	}
+
+	protected void write(Output output, Edge edge, String name, Node source, Node dest, EdgeType edgeType,
+			boolean local) throws IOException {
+		write(output, edge, name, source, dest, edgeType, local, true);
+	}
+
+	protected void write(Output output, Edge edge, String name, Node source, Node dest, EdgeType edgeType,
+			boolean local, boolean attributes) throws IOException {
+		writeHead(output, edge, name);
+		output.writeString(source.getId());
+		output.writeString(dest.getId());
+		output.out.writeBoolean(edgeType == EdgeType.DIRECTED);
+		if (attributes) {
+			write(output, local ? edge.getLocalAttributes() : edge.getAttributes());
+		}
+	}
+
+	/**
+	 * Writes the id and the class of the element. The class is omitted (written
+	 * as {@code null}) if it is the default class of the record.
+	 *
+	 * @param output
+	 *            the output
+	 * @param element
+	 *            the element
+	 * @param name
+	 *            the name of the record
+	 */
+	protected void writeHead(Output output, Element element, String name) throws IOException {
+		output.writeString(element.getId());
+		String type = getType(element.getClass());
+		output.writeString(type.equals(name) ? null : type);
+	}
+
+	/**
+	 * Writes the attributes. The attributes are taken from the map directly
+	 * such that the parameters are not replaced by their values.
+	 *
+	 * @param output
+	 *            the output
+	 * @param attributes
+	 *            the attributes
+	 */
+	protected void write(Output output, Attributes attributes) throws IOException {
+		List<String> names = new ArrayList<String>();
+		for (String attributeName : attributes.getAttributeNames()) {
+			if (attributes.getAttribute(attributeName) != null) {
+				names.add(attributeName);
+			}
+		}
+		output.writeVarInt(names.size());
+		for (String attributeName : names) {
+			output.writeString(attributeName);
+			write(output, attributes.get(attributeName));
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	protected void write(Output output, Object attribute) throws IOException {
+		DataOutputStream out = output.out;
+
+		if (attribute == null) {
+			out.writeByte(NULL);
+			return;
+		}
+
+		Class<?> cls = attribute.getClass();
+
+		if (attribute instanceof Parameter) {
+			write(output, (Parameter) attribute);
+		} else if (cls.equals(Integer.class)) {
+			out.writeByte(INT);
+			output.writeVarLong((Integer) attribute);
+		} else if (cls.equals(Double.class)) {
+			out.writeByte(DOUBLE);
+			out.writeDouble((Double) attribute);
+		} else if (cls.equals(Boolean.class)) {
+			out.writeByte(BOOL);
+			out.writeBoolean((Boolean) attribute);
+		} else if (cls.equals(String.class)) {
+			out.writeByte(STRING);
+			output.writeString((String) attribute);
+		} else if (cls.equals(Long.class)) {
+			out.writeByte(LONG);
+			output.writeVarLong((Long) attribute);
+		} else if (cls.equals(Float.class)) {
+			out.writeByte(FLOAT);
+			out.writeFloat((Float) attribute);
+		} else if (cls.equals(Short.class)) {
+			out.writeByte(SHORT);
+			output.writeVarLong((Short) attribute);
+		} else if (cls.equals(Byte.class)) {
+			out.writeByte(BYTE);
+			out.writeByte((Byte) attribute);
+		} else if (cls.equals(Character.class)) {
+			out.writeByte(CHAR);
+			out.writeChar((Character) attribute);
+		} else if (attribute instanceof Element) {
+			out.writeByte(ELEMENT);
+			output.writeString(getType(cls));
+			output.writeString(((Element) attribute).getId());
+		} else if (Collection.class.isAssignableFrom(cls)) {
+			Collection collection = (Collection) attribute;
+			out.writeByte(COLLECTION);
+			output.writeString(getType(cls));
+			output.writeVarInt(collection.size());
+			for (Object o : collection) {
+				write(output, o);
+			}
+		} else if (cls.isEnum() || attribute instanceof Enum) {
+			Enum e = (Enum) attribute;
+			out.writeByte(ENUM);
+			output.writeString(getType(e.getDeclaringClass()));
+			output.writeString(e.name());
+		} else if (attribute instanceof Serializable) {
+			out.writeByte(SERIALIZABLE);
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			ObjectOutputStream oos = new ObjectOutputStream(baos);
+			oos.writeObject(attribute);
+			oos.close();
+			output.writeVarInt(baos.size());
+			baos.writeTo(out);
+		} else {
+			throw new NotSerializableException("Failed to write attribute " + attribute);
+		}
+	}
+
+	protected void write(Output output, Parameter parameter) throws IOException {
+		DataOutputStream out = output.out;
+
+		if (parameter instanceof ParameterRange) {
+			ParameterRange range = (ParameterRange) parameter;
+			out.writeByte(RANGE);
+			out.writeDouble(range.getValue());
+			out.writeDouble(range.getLowerBound());
+			out.writeDouble(range.getUpperBound());
+			out.writeDouble(range.getGranularity());
+		} else if (parameter instanceof ParameterRangeDiscrete) {
+			ParameterRangeDiscrete range = (ParameterRangeDiscrete) parameter;
+			out.writeByte(DISCRETERANGE);
+			output.writeVarLong(range.getValue());
+			output.writeVarLong(range.getLowerBound());
+			output.writeVarLong(range.getUpperBound());
+		} else if (parameter instanceof ParameterSelect) {
+			ParameterSelect select = (ParameterSelect) parameter;
+			out.writeByte(SELECT);
+			output.writeString(select.getReference());
+			write(output, select.getValue());
+			output.writeVarInt(select.getElements().length);
+			for (Object element : select.getElements()) {
+				write(output, element);
+			}
+		} else if (parameter instanceof ParameterUniqueID) {
+			ParameterUniqueID uid = (ParameterUniqueID) parameter;
+			out.writeByte(UID);
+			write(output, uid.getValue());
+			output.writeString(uid.getIdentifier());
+		} else {
+			// unknown parameters are written with their value as in the XML
+			// format
+			write(output, parameter.getValue());
+		}
+	}
+
+	/**
+	 * The {@code Output} wraps the {@code DataOutputStream} and maintains the
+	 * string table.
+	 *
+	 */
+	protected static class Output {
+
+		protected final DataOutputStream out;
+		protected final Map<String, Integer> strings = new HashMap<String, Integer>();
+
+		protected Output(DataOutputStream out) {
+			this.out = out;
+		}
+
+		/**
+		 * Writes a string as a reference into the string table: {@code 0} for
+		 * {@code null}, {@code 1} followed by the UTF-8 bytes for a new string,
+		 * and the index plus {@code 2} for a known string.
+		 *
+		 * @param string
+		 *            the string (or {@code null})
+		 */
+		protected void writeString(String string) throws IOException {
+			if (string == null) {
+				writeVarInt(0);
+				return;
+			}
+			Integer index = strings.get(string);
+			if (index != null) {
+				writeVarInt(index + 2);
+			} else {
+				strings.put(string, strings.size());
+				byte[] bytes = string.getBytes("UTF-8");
+				writeVarInt(1);
+				writeVarInt(bytes.length);
+				out.write(bytes);
+			}
+		}
+
+		/**
+		 * Writes a non-negative integer with seven bits per byte.
+		 *
+		 * @param value
+		 *            the value
+		 */
+		protected void writeVarInt(int value) throws IOException {
+			while ((value & ~0x7F) != 0) {
+				out.writeByte((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			out.writeByte(value);
+		}
+
+		/**
+		 * Writes a signed integer in zig-zag encoding with seven bits per
+		 * byte.
+		 *
+		 * @param value
+		 *            the value
+		 */
+		protected void writeVarLong(long value) throws IOException {
+			long v = (value << 1) ^ (value >> 63);
+			while ((v & ~0x7FL) != 0) {
+				out.writeByte((int) ((v & 0x7F) | 0x80));
+				v >>>= 7;
+			}
+			out.writeByte((int) v);
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import net.sf.opendse.model.Specification;
+
+/**
+ * The {@code SpecificationConverter} converts specification files between the
+ * XML format and the binary format of the {@link SpecificationBinaryWriter}.
+ * The format of the source file is detected from its content, the format of
+ * the target file from its name (files ending with {@code .xml} are written as
+ * XML).
+ *
+ */
+public class SpecificationConverter {
+
+	/**
+	 * Converts the source file into the target file.
+	 *
+	 * @param source
+	 *            the source file
+	 * @param target
+	 *            the target file
+	 * @throws IOException
+	 *             thrown in case of an IO error
+	 */
+	public static void convert(File source, File target) throws IOException {
+		Specification specification = isBinary(source) ? new SpecificationBinaryReader().read(source)
+				: new SpecificationReader().read(source);
+		if (target.getName().endsWith(".xml")) {
+			new SpecificationWriter().write(specification, target);
+		} else {
+			new SpecificationBinaryWriter().write(specification, target);
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the file starts with the magic number of the
+	 * binary format.
+	 *
+	 * @param file
+	 *            the file
+	 * @return {@code true} if the file is a binary specification
+	 * @throws IOException
+	 *             thrown in case of an IO error
+	 */
+	public static boolean isBinary(File file) throws IOException {
+		DataInputStream in = new DataInputStream(new FileInputStream(file));
+		try {
+			return file.length() >= 4 && in.readInt() == SpecificationBinaryWriter.MAGIC;
+		} finally {
+			in.close();
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: SpecificationConverter <source> <target>");
+			System.exit(1);
+		}
+		convert(new File(args[0]), new File(args[1]));
+	}
+
+}
@@ -0,0 +1,723 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import static net.sf.opendse.io.Common.classMap;
+import static net.sf.opendse.io.Common.setAttributes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Attributes;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Function;
+import net.sf.opendse.model.IAttributes;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Node;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@code SpecificationStreamReader} reads a {@code Specification} with a
+ * StAX pull parser without building a document tree. It produces the same
+ * {@code Specification} as the {@link SpecificationReader} for documents that
+ * follow the element order of the schema (as written by the
+ * {@link SpecificationWriter}).
+ * <p>
+ * Class lookups and constructors are cached per type, the attribute names and
+ * the immutable attribute values (strings and primitive wrappers) are shared
+ * within one document, and the endpoints of links, dependencies, mappings, and
+ * routings are resolved through local id maps.
+ * 
+ */
+public class SpecificationStreamReader extends SpecificationReader {
+
+	protected static final Object UNKNOWN = new Object();
+
+	protected final XMLInputFactory factory;
+
+	protected final Map<String, Object> classes = new HashMap<String, Object>();
+	protected final Map<Class<?>, Constructor<?>> idConstructors = new HashMap<Class<?>, Constructor<?>>();
+	protected final Map<Class<?>, Constructor<?>> parentConstructors = new HashMap<Class<?>, Constructor<?>>();
+	protected final Map<Class<?>, Constructor<?>> mappingConstructors = new HashMap<Class<?>, Constructor<?>>();
+	protected final Map<Class<?>, Constructor<?>> valueConstructors = new HashMap<Class<?>, Constructor<?>>();
+	protected final Map<Class<?>, Constructor<?>> collectionConstructors = new HashMap<Class<?>, Constructor<?>>();
+
+	protected final Map<String, String> names = new HashMap<String, String>();
+	protected final Map<Class<?>, Map<String, Object>> values = new HashMap<Class<?>, Map<String, Object>>();
+
+	/**
+	 * Constructs a {@code SpecificationStreamReader}.
+	 */
+	public SpecificationStreamReader() {
+		super();
+		factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+	}
+
+	/**
+	 * Read specification from an input stream.
+	 * 
+	 * @param in
+	 *            the input stream
+	 * @return the specification
+	 */
+	@Override
+	public Specification read(InputStream in) {
+		XMLStreamReader reader = null;
+		try {
+			reader = factory.createXMLStreamReader(in);
+			reader.nextTag();
+			return toSpecification(reader);
+		} catch (IllegalArgumentException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new IllegalArgumentException(ex);
+		} finally {
+			names.clear();
+			values.clear();
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (XMLStreamException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Convert the XML element at the current position of the reader to a
+	 * specification. The reader is positioned at the end of the element
+	 * afterwards.
+	 * 
+	 * @param reader
+	 *            the reader positioned at the start of the specification element
+	 * @return the specification
+	 */
+	public Specification toSpecification(XMLStreamReader reader) {
+		try {
+			Map<String, Resource> resources = new HashMap<String, Resource>();
+			Map<String, Link> links = new HashMap<String, Link>();
+			Map<String, Task> tasks = new HashMap<String, Task>();
+
+			Architecture<Resource, Link> architecture = null;
+			Application<Task, Dependency> application = null;
+			Mappings<Task, Resource> mappings = null;
+			Routings<Task, Resource, Link> routings = null;
+			Attributes attributes = null;
+
+			while (nextChild(reader)) {
+				if (architecture == null && is(reader, "architecture")) {
+					architecture = toArchitecture(reader, resources, links);
+				} else if (application == null && is(reader, "application")) {
+					application = toApplication(reader, tasks);
+				} else if (mappings == null && is(reader, "mappings")) {
+					checkOrder(architecture, application, "mappings");
+					mappings = toMappings(reader, resources, tasks);
+				} else if (routings == null && is(reader, "routings")) {
+					checkOrder(architecture, application, "routings");
+					routings = toRoutings(reader, resources, links, tasks);
+				} else if (attributes == null && is(reader, "attributes")) {
+					attributes = toAttributes(reader);
+				} else {
+					skip(reader);
+				}
+			}
+
+			if (architecture == null || application == null || mappings == null) {
+				throw new IllegalArgumentException("The specification requires an architecture, application, and mappings.");
+			}
+
+			Specification specification = null;
+			if (routings != null) {
+				specification = new Specification(application, architecture, mappings, routings);
+			} else {
+				specification = new Specification(application, architecture, mappings);
+			}
+			if (attributes != null) {
+				setAttributes(specification, attributes);
+			}
+
+			return specification;
+		} catch (Exception ex) {
+			throw new IllegalArgumentException(ex);
+		}
+	}
+
+	protected void checkOrder(Architecture<Resource, Link> architecture, Application<Task, Dependency> application,
+			String name) {
+		if (architecture == null || application == null) {
+			throw new IllegalArgumentException("The " + name + " have to follow the architecture and application.");
+		}
+	}
+
+	protected Architecture<Resource, Link> toArchitecture(XMLStreamReader reader, Map<String, Resource> resources,
+			Map<String, Link> links) throws XMLStreamException, ClassNotFoundException, InstantiationException,
+			IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+
+		while (nextChild(reader)) {
+			if (is(reader, "resource")) {
+				Resource resource = toNode(reader, (Resource) null);
+				architecture.addVertex(resource);
+				resources.put(resource.getId(), resource);
+			} else if (is(reader, "link")) {
+				Link link = parseLink(reader, architecture, resources);
+				links.put(link.getId(), link);
+			} else {
+				skip(reader);
+			}
+		}
+
+		return architecture;
+	}
+
+	protected Link parseLink(XMLStreamReader reader, Architecture<Resource, Link> architecture,
+			Map<String, Resource> resources) throws XMLStreamException, ClassNotFoundException, InstantiationException,
+			IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		String type = reader.getAttributeValue(null, "orientation");
+		String srcName = reader.getAttributeValue(null, "source");
+		String dstName = reader.getAttributeValue(null, "destination");
+
+		Link link = toEdge(reader, (Link) null);
+
+		EdgeType edgeType = EdgeType.UNDIRECTED;
+		if (type != null) {
+			edgeType = EdgeType.valueOf(type);
+		}
+
+		Resource source = resources.get(srcName);
+		if (source == null) {
+			throw new IllegalArgumentException("Source of link " + link + " not found: " + srcName);
+		}
+		Resource destination = resources.get(dstName);
+		if (destination == null) {
+			throw new IllegalArgumentException("Destination of link " + link + " not found: " + dstName);
+		}
+
+		architecture.addEdge(link, source, destination, edgeType);
+		return link;
+	}
+
+	protected Application<Task, Dependency> toApplication(XMLStreamReader reader, Map<String, Task> tasks)
+			throws XMLStreamException, ClassNotFoundException, InstantiationException, IllegalAccessException,
+			InvocationTargetException, NoSuchMethodException {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		boolean functions = false;
+
+		while (nextChild(reader)) {
+			if (is(reader, "task") || is(reader, "communication")) {
+				Task task = toNode(reader, (Task) null);
+				application.addVertex(task);
+				tasks.put(task.getId(), task);
+			} else if (is(reader, "dependency")) {
+				parseDependency(reader, application, tasks);
+			} else if (!functions && is(reader, "functions")) {
+				functions = true;
+				parseFunctions(reader, application, tasks);
+			} else {
+				skip(reader);
+			}
+		}
+
+		return application;
+	}
+
+	protected void parseDependency(XMLStreamReader reader, Application<Task, Dependency> application,
+			Map<String, Task> tasks) throws XMLStreamException, ClassNotFoundException, InstantiationException,
+			IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		String srcName = reader.getAttributeValue(null, "source");
+		String dstName = reader.getAttributeValue(null, "destination");
+
+		Dependency dependency = toEdge(reader, (Dependency) null);
+
+		Task source = tasks.get(srcName);
+		if (source == null) {
+			throw new IllegalArgumentException("Source of dependency " + dependency + " not found: " + srcName);
+		}
+		Task destination = tasks.get(dstName);
+		if (destination == null) {
+			throw new IllegalArgumentException("Destination of dependency " + dependency + " not found: " + dstName);
+		}
+
+		application.addEdge(dependency, source, destination, EdgeType.DIRECTED);
+	}
+
+	protected void parseFunctions(XMLStreamReader reader, Application<Task, Dependency> application,
+			Map<String, Task> tasks) throws XMLStreamException, ClassNotFoundException, InstantiationException,
+			IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		while (nextChild(reader)) {
+			if (is(reader, "function")) {
+				Task task = tasks.get(reader.getAttributeValue(null, "anchor"));
+				Function<Task, Dependency> function = application.getFunction(task);
+				parseAttributes(reader, function);
+			} else {
+				skip(reader);
+			}
+		}
+	}
+
+	protected Mappings<Task, Resource> toMappings(XMLStreamReader reader, Map<String, Resource> resources,
+			Map<String, Task> tasks) throws XMLStreamException, ClassNotFoundException, InstantiationException,
+			IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+
+		while (nextChild(reader)) {
+			if (is(reader, "mapping")) {
+				String sourceId = reader.getAttributeValue(null, "source");
+				String targetId = reader.getAttributeValue(null, "target");
+
+				Task source = tasks.get(sourceId);
+				Resource target = resources.get(targetId);
+				assert source != null : "Unknown task: " + sourceId;
+				assert target != null : "Unknown resource: " + targetId;
+
+				Mapping<Task, Resource> mapping = toMapping(reader, source, target);
+				mappings.add(mapping);
+			} else {
+				skip(reader);
+			}
+		}
+
+		return mappings;
+	}
+
+	protected Routings<Task, Resource, Link> toRoutings(XMLStreamReader reader, Map<String, Resource> resources,
+			Map<String, Link> links, Map<String, Task> tasks) throws XMLStreamException, ClassNotFoundException,
+			InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		Routings<Task, Resource, Link> routings = new Routings<Task, Resource, Link>();
+
+		while (nextChild(reader)) {
+			if (is(reader, "routing")) {
+				Task source = tasks.get(reader.getAttributeValue(null, "source"));
+				Architecture<Resource, Link> routing = toRouting(reader, resources, links);
+				routings.set(source, routing);
+			} else {
+				skip(reader);
+			}
+		}
+
+		return routings;
+	}
+
+	protected Architecture<Resource, Link> toRouting(XMLStreamReader reader, Map<String, Resource> resources,
+			Map<String, Link> links) throws XMLStreamException, ClassNotFoundException, InstantiationException,
+			IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		Map<String, Resource> map = new HashMap<String, Resource>();
+		Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
+
+		while (nextChild(reader)) {
+			if (is(reader, "resource")) {
+				Resource parent = resources.get(reader.getAttributeValue(null, "id"));
+				Resource resource = toNode(reader, parent);
+				routing.addVertex(resource);
+				map.put(resource.getId(), resource);
+			} else if (is(reader, "link")) {
+				Link parent = links.get(reader.getAttributeValue(null, "id"));
+				String type = reader.getAttributeValue(null, "orientation");
+				String srcName = reader.getAttributeValue(null, "source");
+				String dstName = reader.getAttributeValue(null, "destination");
+
+				Link link = toEdge(reader, parent);
+
+				EdgeType edgeType = EdgeType.UNDIRECTED;
+				if (type != null) {
+					edgeType = EdgeType.valueOf(type);
+				}
+				routing.addEdge(link, map.get(srcName), map.get(dstName), edgeType);
+			} else {
+				skip(reader);
+			}
+		}
+
+		return routing;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <C> Class<C> getClass(XMLStreamReader reader) throws ClassNotFoundException {
+		String name = reader.getAttributeValue(null, "class");
+		Class<C> type = null;
+		if (name != null) {
+			type = (Class<C>) getClass(name);
+		} else {
+			type = (Class<C>) classMap.get(reader.getLocalName());
+		}
+		if (type == null) {
+			throw new RuntimeException("Unknown node type for " + reader.getLocalName());
+		}
+		return type;
+	}
+
+	@Override
+	protected Class<?> getClass(String name) throws ClassNotFoundException {
+		Object type = classes.get(name);
+		if (type == null) {
+			try {
+				type = super.getClass(name);
+			} catch (ClassNotFoundException e) {
+				type = UNKNOWN;
+			}
+			classes.put(name, type);
+		}
+		if (type == UNKNOWN) {
+			throw new ClassNotFoundException(name);
+		}
+		return (Class<?>) type;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <C> Constructor<C> getConstructor(Map<Class<?>, Constructor<?>> cache, Class<C> type,
+			Class<?>... parameterTypes) throws NoSuchMethodException {
+		Constructor<C> constructor = (Constructor<C>) cache.get(type);
+		if (constructor == null) {
+			constructor = type.getConstructor(parameterTypes);
+			cache.put(type, constructor);
+		}
+		return constructor;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <N extends Node> N toNode(XMLStreamReader reader, N parent) throws XMLStreamException,
+			ClassNotFoundException, InstantiationException, IllegalAccessException, InvocationTargetException,
+			NoSuchMethodException {
+		Class<N> type = getClass(reader);
+
+		N node = null;
+
+		if (parent == null) {
+			String id = reader.getAttributeValue(null, "id");
+			if (knownElements.containsKey(id)) {
+				node = (N) knownElements.get(id);
+			} else {
+				node = getConstructor(idConstructors, type, String.class).newInstance(id);
+				knownElements.put(node.getId(), node);
+			}
+		} else {
+			node = getConstructor(parentConstructors, type, Element.class).newInstance(parent);
+		}
+
+		parseAttributes(reader, node);
+		return node;
+	}
+
+	protected <E extends Edge> E toEdge(XMLStreamReader reader, E parent) throws XMLStreamException,
+			ClassNotFoundException, InstantiationException, IllegalAccessException, InvocationTargetException,
+			NoSuchMethodException {
+		Class<E> type = getClass(reader);
+
+		E edge = null;
+
+		if (parent == null) {
+			String id = reader.getAttributeValue(null, "id");
+			edge = getConstructor(idConstructors, type, String.class).newInstance(id);
+		} else {
+			edge = getConstructor(parentConstructors, type, Element.class).newInstance(parent);
+		}
+
+		parseAttributes(reader, edge);
+		return edge;
+	}
+
+	protected <M extends Mapping<?, ?>> M toMapping(XMLStreamReader reader, Task source, Resource target)
+			throws XMLStreamException, ClassNotFoundException, InstantiationException, IllegalAccessException,
+			InvocationTargetException, NoSuchMethodException {
+		Class<M> type = getClass(reader);
+
+		String id = reader.getAttributeValue(null, "id");
+		M mapping = getConstructor(mappingConstructors, type, String.class, Task.class, Resource.class).newInstance(
+				id, source, target);
+
+		parseAttributes(reader, mapping);
+		return mapping;
+	}
+
+	/**
+	 * Sets the attributes of the first {@code attributes} child element and
+	 * skips all other child elements.
+	 * 
+	 * @param reader
+	 *            the reader positioned at the start of the parent element
+	 * @param element
+	 *            the element that receives the attributes
+	 */
+	protected void parseAttributes(XMLStreamReader reader, IAttributes element) throws XMLStreamException,
+			ClassNotFoundException, InstantiationException, IllegalAccessException, InvocationTargetException,
+			NoSuchMethodException {
+		boolean found = false;
+		while (nextChild(reader)) {
+			if (!found && is(reader, "attributes")) {
+				found = true;
+				setAttributes(element, toAttributes(reader));
+			} else {
+				skip(reader);
+			}
+		}
+	}
+
+	protected Attributes toAttributes(XMLStreamReader reader) throws XMLStreamException, ClassNotFoundException,
+			InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		Attributes attributes = new Attributes();
+
+		while (nextChild(reader)) {
+			if (is(reader, "attribute")) {
+				String name = intern(reader.getAttributeValue(null, "name"));
+				Object value = toAttribute(reader);
+				attributes.put(name, value);
+			} else {
+				skip(reader);
+			}
+		}
+
+		return attributes;
+	}
+
+	protected Object toAttribute(XMLStreamReader reader) throws XMLStreamException, ClassNotFoundException,
+			InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException {
+		String parameter = reader.getAttributeValue(null, "parameter");
+		String type = reader.getAttributeValue(null, "type");
+
+		if (type == null) {
+			throw new IllegalArgumentException("no type given for attribute " + reader.getAttributeValue(null, "name"));
+		}
+		if (parameter != null) {
+			String value = readText(reader);
+
+			if (parameter.equals("RANGE")) {
+				return getRange(value);
+			} else if (parameter.equals("DISCRETERANGE")) {
+				return getRangeInt(value);
+			} else if (parameter.equals("SELECT")) {
+				return getSelectRefList(type, value);
+			} else if (parameter.equals("UID")) {
+				return getUniqueID(value);
+			} else {
+				throw new IllegalArgumentException("Unknown parameter type: " + parameter);
+			}
+		} else {
+			Class<?> clazz = null;
+			try {
+				clazz = getClass(type);
+			} catch (ClassNotFoundException e) {
+				String value = readText(reader);
+				System.err.println("Class " + type + " not found. Ignoring attribute value " + value);
+				return null;
+			}
+			if (Collection.class.isAssignableFrom(clazz)) {
+				return toAttributeCollection(reader, clazz);
+			} else {
+				return toAttributeObject(readText(reader), clazz);
+			}
+		}
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	protected Object toAttributeCollection(XMLStreamReader reader, Class<?> clazz) throws XMLStreamException,
+			ClassNotFoundException, InstantiationException, IllegalAccessException, InvocationTargetException,
+			NoSuchMethodException {
+		Collection collectionAttribute = (Collection) getConstructor(collectionConstructors, clazz).newInstance();
+		while (nextChild(reader)) {
+			Object actualEntry = toAttribute(reader);
+			collectionAttribute.add(actualEntry);
+		}
+		return collectionAttribute;
+	}
+
+	@Override
+	protected Object toAttributeObject(String value, Class<?> clazz) throws InstantiationException,
+			IllegalAccessException, InvocationTargetException, NoSuchMethodException, ClassNotFoundException {
+		Object object = null;
+
+		if (Element.class.isAssignableFrom(clazz) && knownElements.containsKey(value)) {
+			object = knownElements.get(value);
+		} else {
+			object = toInstance(value, clazz);
+			if (object instanceof Element) {
+				knownElements.put(value, (Element) object);
+			}
+		}
+
+		// "fallback procedure"
+		if (object == null && clazz.equals(Serializable.class)) {
+			try {
+				object = Common.fromString(value);
+			} catch (IOException e) {
+				e.printStackTrace();
+				return null;
+			}
+		}
+		return object;
+	}
+
+	/**
+	 * Constructs an instance of the class from the value like
+	 * {@link Common#toInstance(String, Class)}, but with cached constructors.
+	 * Instances of immutable classes are shared for equal values.
+	 * 
+	 * @param value
+	 *            the value
+	 * @param clazz
+	 *            the class
+	 * @return the instance
+	 */
+	@SuppressWarnings("rawtypes")
+	protected Object toInstance(String value, Class<?> clazz) throws InstantiationException, IllegalAccessException,
+			InvocationTargetException, NoSuchMethodException {
+		Map<String, Object> pool = null;
+		if (clazz.isEnum() || Common.isPrimitive(clazz) || clazz.equals(String.class)) {
+			pool = values.get(clazz);
+			if (pool == null) {
+				pool = new HashMap<String, Object>();
+				values.put(clazz, pool);
+			}
+			Object object = pool.get(value);
+			if (object != null) {
+				return object;
+			}
+		}
+
+		Object object = null;
+		if (!clazz.isEnum()) {
+			object = getConstructor(valueConstructors, clazz, String.class).newInstance(value.trim());
+		} else {
+			Class<? extends Enum> eclazz = clazz.asSubclass(Enum.class);
+			for (Enum e : eclazz.getEnumConstants()) {
+				if (e.name().equalsIgnoreCase(value.trim())) {
+					object = e;
+					break;
+				}
+			}
+		}
+
+		if (pool != null && object != null) {
+			pool.put(value, object);
+		}
+		return object;
+	}
+
+	protected String intern(String name) {
+		if (name == null) {
+			return null;
+		}
+		String interned = names.get(name);
+		if (interned == null) {
+			names.put(name, name);
+			interned = name;
+		}
+		return interned;
+	}
+
+	/**
+	 * Returns {@code true} if the reader is positioned at an element with the
+	 * given name in the specification namespace.
+	 * 
+	 * @param reader
+	 *            the reader
+	 * @param name
+	 *            the local name
+	 * @return {@code true} if the element matches
+	 */
+	protected static boolean is(XMLStreamReader reader, String name) {
+		return name.equals(reader.getLocalName()) && SpecificationWriter.NS.equals(reader.getNamespaceURI());
+	}
+
+	/**
+	 * Moves the reader to the start of the next child element.
+	 * 
+	 * @param reader
+	 *            the reader positioned at the start of the parent element or
+	 *            the end of a previous child element
+	 * @return {@code true} if a child element was found, {@code false} if the
+	 *         reader reached the end of the parent element
+	 */
+	protected static boolean nextChild(XMLStreamReader reader) throws XMLStreamException {
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				return true;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Skips the current element including all its children.
+	 * 
+	 * @param reader
+	 *            the reader positioned at the start of the element
+	 */
+	protected static void skip(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	/**
+	 * Returns the text of the current element including the text of all its
+	 * children (as {@code nu.xom.Element#getValue()}).
+	 * 
+	 * @param reader
+	 *            the reader positioned at the start of the element
+	 * @return the text
+	 */
+	protected static String readText(XMLStreamReader reader) throws XMLStreamException {
+		StringBuilder sb = new StringBuilder();
+		int depth = 1;
+		while (depth > 0) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			} else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+					|| event == XMLStreamConstants.SPACE) {
+				sb.append(reader.getText());
+			}
+		}
+		return sb.toString();
+	}
+
+}
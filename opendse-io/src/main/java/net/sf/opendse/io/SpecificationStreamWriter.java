@@ -0,0 +1,556 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.io;
+
+import static net.sf.opendse.io.Common.getType;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+import edu.uci.ics.jung.graph.util.Pair;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Attributes;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Edge;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Function;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Models;
+import net.sf.opendse.model.Node;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.Parameter;
+
+/**
+ * The {@code SpecificationStreamWriter} writes {@code Specification}s with a
+ * StAX writer. The elements are emitted while walking each specification such
+ * that no document tree is built and the memory does not depend on the number
+ * of written specifications. The output has the same structure as the output
+ * of the {@link SpecificationWriter}.
+ * <p>
+ * With {@link #open(OutputStream, boolean)}, specifications can be appended
+ * one by one to a {@code specifications} document, e.g., as implementations
+ * enter an archive. Files with the suffix {@code .gz} and streams opened with
+ * {@code gzip} are compressed.
+ * 
+ */
+public class SpecificationStreamWriter {
+
+	protected static final String XSI = "http://www.w3.org/2001/XMLSchema-instance";
+	protected static final String SCHEMA = "http://opendse.sourceforge.net http://opendse.sourceforge.net/schema.xsd";
+
+	protected final boolean writeRoutings;
+	protected final XMLOutputFactory factory = XMLOutputFactory.newInstance();
+
+	/**
+	 * Constructs a new {@link SpecificationStreamWriter} that will always
+	 * export {@link Routings}.
+	 */
+	public SpecificationStreamWriter() {
+		this(true);
+	}
+
+	/**
+	 * Constructs a new {@link SpecificationStreamWriter} instance.
+	 *
+	 * @param writeRoutings
+	 *            true if the routings shall be exported
+	 */
+	public SpecificationStreamWriter(boolean writeRoutings) {
+		this.writeRoutings = writeRoutings;
+	}
+
+	/**
+	 * The {@code Appender} writes a {@code specifications} document to which
+	 * specifications are appended one by one. The document is completed with
+	 * {@link #close()}.
+	 * 
+	 */
+	public class Appender implements Closeable {
+
+		protected final OutputStream out;
+		protected final Output output;
+		protected int count = 0;
+		protected boolean closed = false;
+
+		protected Appender(OutputStream out) throws IOException {
+			this.out = out;
+			try {
+				this.output = new Output(factory.createXMLStreamWriter(out, "UTF-8"));
+				output.writer.writeStartDocument("UTF-8", "1.0");
+				output.writer.writeCharacters("\n");
+				output.start("specifications");
+				output.writer.writeDefaultNamespace(SpecificationWriter.NS);
+				output.writer.flush();
+			} catch (XMLStreamException e) {
+				throw new IOException(e);
+			}
+		}
+
+		/**
+		 * Appends a specification and flushes the output.
+		 * 
+		 * @param specification
+		 *            the specification
+		 * @throws IOException
+		 *             thrown in case of an IO error
+		 */
+		public synchronized void append(Specification specification) throws IOException {
+			if (closed) {
+				throw new IllegalStateException("The appender is already closed.");
+			}
+			try {
+				write(output, specification);
+				output.writer.flush();
+				out.flush();
+				count++;
+			} catch (XMLStreamException e) {
+				throw new IOException(e);
+			}
+		}
+
+		/**
+		 * Returns the number of appended specifications.
+		 * 
+		 * @return the number of appended specifications
+		 */
+		public synchronized int getCount() {
+			return count;
+		}
+
+		/**
+		 * Completes the document and closes the underlying stream.
+		 * 
+		 * @throws IOException
+		 *             thrown in case of an IO error
+		 */
+		@Override
+		public synchronized void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				try {
+					output.end();
+					output.writer.writeEndDocument();
+					output.writer.close();
+				} catch (XMLStreamException e) {
+					throw new IOException(e);
+				} finally {
+					out.close();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Opens an {@link Appender} on a file.
+	 * 
+	 * @param file
+	 *            the file
+	 * @param gzip
+	 *            true if the output shall be compressed
+	 * @return the appender
+	 * @throws IOException
+	 *             thrown in case of an IO error
+	 */
+	public Appender open(File file, boolean gzip) throws IOException {
+		return open(new FileOutputStream(file), gzip);
+	}
+
+	/**
+	 * Opens an {@link Appender} on an output stream. Closing the appender also
+	 * closes the stream.
+	 * 
+	 * @param out
+	 *            the output stream
+	 * @param gzip
+	 *            true if the output shall be compressed
+	 * @return the appender
+	 * @throws IOException
+	 *             thrown in case of an IO error
+	 */
+	public Appender open(OutputStream out, boolean gzip) throws IOException {
+		return new Appender(gzip ? new GZIPOutputStream(out) : out);
+	}
+
+	/**
+	 * Write the specification to a file.
+	 *
+	 * @param specification
+	 *            the specification
+	 * @param filename
+	 *            the name of the target file
+	 * @throws IOException
+	 *             thrown in case of an IO error
+	 */
+	public void write(Specification specification, String filename) throws IOException {
+		write(specification, new File(filename));
+	}
+
+	/**
+	 * Write the specification to a file. The file is compressed if its name
+	 * ends with {@code .gz}.
+	 *
+	 * @param specification
+	 *            the specification
+	 * @param file
+	 *            the file
+	 * @throws IOException
+	 *             thrown in case of an IO error
+	 */
+	public void write(Specification specification, File file) throws IOException {
+		OutputStream out = new FileOutputStream(file);
+		try {
+			if (file.getName().endsWith(".gz")) {
+				out = new GZIPOutputStream(out);
+			}
+			write(specification, out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Write the specification to an output stream.
+	 *
+	 * @param specification
+	 *            the specification
+	 * @param out
+	 *            the output stream
+	 * @throws IOException
+	 *             thrown in case of an IO error
+	 */
+	public void write(Specification specification, OutputStream out) throws IOException {
+		try {
+			Output output = new Output(factory.createXMLStreamWriter(out, "UTF-8"));
+			output.writer.writeStartDocument("UTF-8", "1.0");
+			output.writer.writeCharacters("\n");
+			write(output, specification, true);
+			output.writer.writeEndDocument();
+			output.writer.flush();
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Write a collection of specifications to an output stream.
+	 *
+	 * @param specifications
+	 *            the specifications
+	 * @param out
+	 *            the output stream
+	 * @throws IOException
+	 *             thrown in case of an IO error
+	 */
+	public void write(Collection<Specification> specifications, OutputStream out) throws IOException {
+		Appender appender = new Appender(out) {
+			@Override
+			public synchronized void close() throws IOException {
+				// keep the stream open as the caller owns it
+				closed = true;
+				try {
+					output.end();
+					output.writer.writeEndDocument();
+					output.writer.flush();
+				} catch (XMLStreamException e) {
+					throw new IOException(e);
+				}
+			}
+		};
+		for (Specification specification : specifications) {
+			appender.append(specification);
+		}
+		appender.close();
+	}
+
+	protected void write(Output output, Specification specification) throws XMLStreamException {
+		write(output, specification, false);
+	}
+
+	protected void write(Output output, Specification specification, boolean root) throws XMLStreamException {
+		output.start("specification");
+		if (root) {
+			output.writer.writeDefaultNamespace(SpecificationWriter.NS);
+			output.writer.writeNamespace("xsi", XSI);
+			output.writer.writeAttribute("xsi", XSI, "schemaLocation", SCHEMA);
+		}
+		write(output, specification.getArchitecture());
+		write(output, specification.getApplication());
+		write(output, specification.getMappings());
+		if (specification.getRoutings() != null && writeRoutings) {
+			write(output, specification.getRoutings(), specification.getArchitecture());
+		}
+		if (specification.getAttributes().size() > 0) {
+			write(output, specification.getAttributes(), true);
+		}
+		output.end();
+	}
+
+	protected void write(Output output, Routings<Task, Resource, Link> routings,
+			Architecture<Resource, Link> architecture) throws XMLStreamException {
+		output.start("routings");
+		for (Task task : routings.getTasks()) {
+			output.start("routing");
+			output.attribute("source", task.getId());
+			write(output, routings.get(task), architecture);
+			output.end();
+		}
+		output.end();
+	}
+
+	protected void write(Output output, Architecture<Resource, Link> routing,
+			Architecture<Resource, Link> architecture) throws XMLStreamException {
+		for (Resource resource : routing) {
+			// the attributes are only written for the local copies of the
+			// architecture elements (as in the SpecificationWriter)
+			boolean attributes = resource.getParent() == architecture.getVertex(resource.getId());
+			write(output, resource, "resource", true, attributes);
+		}
+		for (Link link : routing.getEdges()) {
+			Pair<Resource> endpoints = routing.getEndpoints(link);
+			boolean attributes = link.getParent() == architecture.getVertex(link.getId());
+			write(output, link, "link", endpoints.getFirst(), endpoints.getSecond(), routing.getEdgeType(link), true,
+					attributes);
+		}
+	}
+
+	protected void write(Output output, Architecture<Resource, Link> architecture) throws XMLStreamException {
+		output.start("architecture");
+		for (Resource resource : architecture) {
+			write(output, resource, "resource", false, true);
+		}
+		for (Link link : architecture.getEdges()) {
+			Pair<Resource> endpoints = architecture.getEndpoints(link);
+			write(output, link, "link", endpoints.getFirst(), endpoints.getSecond(), architecture.getEdgeType(link),
+					false, true);
+		}
+		output.end();
+	}
+
+	protected void write(Output output, Application<Task, Dependency> application) throws XMLStreamException {
+		output.start("application");
+		for (Task task : application) {
+			if (Models.isProcess(task)) {
+				write(output, task, "task", false, true);
+			}
+		}
+		for (Task task : application) {
+			if (!Models.isProcess(task)) {
+				write(output, task, "communication", false, true);
+			}
+		}
+		for (Dependency dependency : application.getEdges()) {
+			Pair<Task> endpoints = application.getEndpoints(dependency);
+			write(output, dependency, "dependency", endpoints.getFirst(), endpoints.getSecond(),
+					application.getEdgeType(dependency), false, true);
+		}
+		output.start("functions");
+		for (Function<Task, Dependency> function : application.getFunctions()) {
+			output.start("function");
+			Task t = function.getVertices().iterator().next();
+			output.attribute("anchor", t.getId());
+			write(output, function.getAttributes(), true);
+			output.end();
+		}
+		output.end();
+		output.end();
+	}
+
+	protected void write(Output output, Mappings<Task, Resource> mappings) throws XMLStreamException {
+		output.start("mappings");
+		for (Mapping<Task, Resource> mapping : mappings) {
+			output.start("mapping");
+			output.attribute("id", mapping.getId());
+			if (!getType(mapping.getClass()).equals("mapping")) {
+				output.attribute("class", getType(mapping.getClass()));
+			}
+			output.attribute("source", mapping.getSource().getId());
+			output.attribute("target", mapping.getTarget().getId());
+			write(output, mapping.getAttributes(), false);
+			output.end();
+		}
+		output.end();
+	}
+
+	protected void write(Output output, Node node, String name, boolean local, boolean attributes)
+			throws XMLStreamException {
+		output.start(name);
+		output.attribute("id", node.getId());
+		if (!getType(node.getClass()).equals(name)) {
+			output.attribute("class", getType(node.getClass()));
+		}
+		if (attributes) {
+			write(output, local ? node.getLocalAttributes() : node.getAttributes(), false);
+		}
+		output.end();
+	}
+
+	protected void write(Output output, Edge edge, String name, Node source, Node dest, EdgeType edgeType,
+			boolean local, boolean attributes) throws XMLStreamException {
+		output.start(name);
+		output.attribute("id", edge.getId());
+		if (!getType(edge.getClass()).equals(name)) {
+			output.attribute("class", getType(edge.getClass()));
+		}
+		output.attribute("source", source.getId());
+		output.attribute("destination", dest.getId());
+		output.attribute("orientation", edgeType.toString());
+		if (attributes) {
+			write(output, local ? edge.getLocalAttributes() : edge.getAttributes(), false);
+		}
+		output.end();
+	}
+
+	/**
+	 * Writes the attributes.
+	 * 
+	 * @param output
+	 *            the output
+	 * @param attributes
+	 *            the attributes
+	 * @param always
+	 *            true if the element is also written if there are no attributes
+	 */
+	protected void write(Output output, Attributes attributes, boolean always) throws XMLStreamException {
+		List<String> names = new ArrayList<String>();
+		for (String attributeName : attributes.getAttributeNames()) {
+			if (attributes.getAttribute(attributeName) != null) {
+				names.add(attributeName);
+			}
+		}
+		if (always || !names.isEmpty()) {
+			output.start("attributes");
+			for (String attributeName : names) {
+				write(output, attributeName, attributes.getAttribute(attributeName));
+			}
+			output.end();
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	protected void write(Output output, String attributeName, Object attribute) throws XMLStreamException {
+		output.start("attribute");
+		output.attribute("name", attributeName);
+
+		if (attribute != null) {
+			Class<?> cls = attribute.getClass();
+
+			if (attribute instanceof Parameter) {
+				Parameter parameter = (Parameter) attribute;
+				output.attribute("type", getType(cls));
+				output.attribute("parameter", getType(parameter.getClass()));
+				output.text(parameter.toString());
+			} else if (Common.isPrimitive(cls) || cls.equals(String.class)) {
+				output.attribute("type", getType(cls));
+				output.text(attribute.toString());
+			} else if (attribute instanceof Element) {
+				output.attribute("type", getType(cls));
+				output.text(((Element) attribute).getId());
+			} else if (Collection.class.isAssignableFrom(cls)) {
+				output.attribute("type", getType(cls));
+				for (Object o : (Collection) attribute) {
+					write(output, "entry", o);
+				}
+			} else if (cls.isEnum()) {
+				output.attribute("type", getType(cls));
+				output.text(((Enum) attribute).name());
+			} else if (attribute instanceof Serializable) {
+				Serializable s = (Serializable) attribute;
+				output.attribute("type", Serializable.class.getName());
+				try {
+					output.text(Common.toString(s));
+				} catch (IOException e) {
+					throw new XMLStreamException("Failed to write attribute " + attributeName, e);
+				}
+			} else {
+				throw new XMLStreamException("Failed to write attribute " + attributeName + ": " + attribute);
+			}
+		}
+		output.end();
+	}
+
+	/**
+	 * The {@code Output} wraps the {@code XMLStreamWriter} and indents the
+	 * elements.
+	 * 
+	 */
+	protected static class Output {
+
+		protected static final String INDENT = "  ";
+
+		protected final XMLStreamWriter writer;
+		protected int depth = 0;
+		protected boolean children = false;
+
+		protected Output(XMLStreamWriter writer) {
+			this.writer = writer;
+		}
+
+		protected void start(String name) throws XMLStreamException {
+			if (depth > 0) {
+				indent();
+			}
+			writer.writeStartElement("", name, SpecificationWriter.NS);
+			depth++;
+			children = false;
+		}
+
+		protected void end() throws XMLStreamException {
+			depth--;
+			if (children) {
+				indent();
+			}
+			writer.writeEndElement();
+			children = true;
+		}
+
+		protected void attribute(String name, String value) throws XMLStreamException {
+			writer.writeAttribute(name, value);
+		}
+
+		protected void text(String text) throws XMLStreamException {
+			writer.writeCharacters(text);
+		}
+
+		protected void indent() throws XMLStreamException {
+			StringBuilder sb = new StringBuilder("\n");
+			for (int i = 0; i < depth; i++) {
+				sb.append(INDENT);
+			}
+			writer.writeCharacters(sb.toString());
+		}
+	}
+
+}
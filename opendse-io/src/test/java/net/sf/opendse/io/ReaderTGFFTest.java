@@ -1,8 +1,12 @@
 package net.sf.opendse.io;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -612,4 +616,127 @@ public class ReaderTGFFTest {
 		Assert.assertTrue(reader.skip("line to be skipped"));
 		Assert.assertFalse(reader.skip(ReaderTGFF.HEADER));
 	}
+
+	/**
+	 * Test method for
+	 * {@link net.sf.opendse.io.ReaderTGFF#toSpecification(java.io.BufferedReader)}
+	 * on the example file.
+	 */
+	@Test
+	public void testToSpecificationStreamFile() throws IOException {
+
+		List<String> lines = new ArrayList<String>();
+		BufferedReader br = new BufferedReader(new FileReader(testFile));
+		String line;
+		while ((line = br.readLine()) != null) {
+			lines.add(line);
+		}
+		br.close();
+
+		SpecificationTypeBased expected = new ReaderTGFF().toSpecification(lines);
+		SpecificationTypeBased actual = new ReaderTGFF().read(testFile);
+
+		assertEquals(expected, actual);
+	}
+
+	/**
+	 * Test method for
+	 * {@link net.sf.opendse.io.ReaderTGFF#toSpecification(java.io.BufferedReader)}
+	 * with resource types that precede the task graph.
+	 */
+	@Test
+	public void testToSpecificationStreamOrder() {
+
+		List<String> graph = Arrays.asList("@HYPERPERIOD 300", "@COMMUN_QUANT 0 {", "# type    quantity",
+				"0          5", "1          6", "}",
+
+				"@TASK_GRAPH 0 {", "PERIOD 300", "TASK t0_0	TYPE 1", "TASK t0_1	TYPE 2", "TASK t0_2	TYPE 2",
+				"TASK t0_3	TYPE 2", "ARC a0_0 	FROM t0_0  TO  t0_1 TYPE 0", "ARC a0_1 	FROM t0_1  TO  t0_2 TYPE 0",
+				"ARC a0_2 	FROM t0_0  TO  t0_3 TYPE 1", "HARD_DEADLINE d0_0 ON t0_2 AT 300",
+				"SOFT_DEADLINE d0_1 ON t0_3 AT 200", "}");
+		List<String> cores = Arrays.asList("@CORE 0 {", "# price      area", "79.0597    0.219023", "#-----------",
+				"# type version valid      task_time", "0    0       1          10", "1    0       1          7",
+				"2    0       1          11", "}",
+
+				"@CORE 1 {", "# price      area", "72.405     0.166029", "#-----------",
+				"# type version valid      task_time", "0    0       1          8", "1    0       0          9",
+				"2    0       1          11", "}",
+
+				"@WIRING 0", "{", "# max_buffer_size", "491", "}");
+
+		List<String> in = new ArrayList<String>(graph);
+		in.addAll(cores);
+		List<String> reversed = new ArrayList<String>(cores);
+		reversed.addAll(graph);
+
+		SpecificationTypeBased expected = new ReaderTGFF().toSpecification(in);
+		SpecificationTypeBased actual = new ReaderTGFF().toSpecification(toReader(reversed));
+
+		Assert.assertEquals(7, expected.getMappings().size());
+		assertEquals(expected, actual);
+		assertEquals(expected, new ReaderTGFF().toSpecification(toReader(in)));
+	}
+
+	/**
+	 * Test method for
+	 * {@link net.sf.opendse.io.ReaderTGFF#tokenize(java.lang.String, boolean)}.
+	 */
+	@Test
+	public void testTokenize() {
+
+		for (String line : Arrays.asList("TASK t0_0	TYPE 1 ", "  0    0       1          10", "491", "a\t\tb")) {
+			Assert.assertArrayEquals(line.trim().split(ReaderTGFF.SEPARATOR), ReaderTGFF.tokenize(line, false));
+		}
+		Assert.assertArrayEquals(new String[] { "type", "version" },
+				ReaderTGFF.tokenize("# type version", true));
+		Assert.assertEquals(0, ReaderTGFF.tokenize(" \t", false).length);
+	}
+
+	protected static BufferedReader toReader(List<String> lines) {
+		StringBuilder sb = new StringBuilder();
+		for (String line : lines) {
+			sb.append(line).append('\n');
+		}
+		return new BufferedReader(new StringReader(sb.toString()));
+	}
+
+	protected static void assertEquals(SpecificationTypeBased expected, SpecificationTypeBased actual) {
+		Application<Task, Dependency> application = expected.getApplication();
+		Assert.assertEquals(application.getVertexCount(), actual.getApplication().getVertexCount());
+		for (Task task : application) {
+			Task other = actual.getApplication().getVertex(task.getId());
+			Assert.assertEquals(task.getClass(), other.getClass());
+			Assert.assertEquals(task.getAttributes(), other.getAttributes());
+		}
+		Assert.assertEquals(application.getEdgeCount(), actual.getApplication().getEdgeCount());
+		for (Dependency dependency : application.getEdges()) {
+			Dependency other = actual.getApplication().getEdge(dependency.getId());
+			Assert.assertEquals(application.getEndpoints(dependency), actual.getApplication().getEndpoints(other));
+		}
+
+		Assert.assertEquals(expected.getResourceTypes().keySet(), actual.getResourceTypes().keySet());
+		for (Resource resource : expected.getResourceTypes().values()) {
+			Assert.assertEquals(resource.getAttributes(),
+					actual.getResourceTypes().get(resource.getId()).getAttributes());
+		}
+
+		Assert.assertEquals(expected.getMappings().size(), actual.getMappings().size());
+		for (Mapping<Task, Resource> mapping : expected.getMappings()) {
+			Mapping<Task, Resource> other = null;
+			for (Mapping<Task, Resource> m : actual.getMappings()) {
+				if (m.getId().equals(mapping.getId())) {
+					other = m;
+				}
+			}
+			Assert.assertNotNull(other);
+			Assert.assertEquals(mapping.getSource(), other.getSource());
+			Assert.assertEquals(mapping.getTarget(), other.getTarget());
+			Assert.assertEquals(mapping.getAttributes(), other.getAttributes());
+		}
+
+		Assert.assertEquals(expected.getLinkTypes().keySet(), actual.getLinkTypes().keySet());
+		for (Link link : expected.getLinkTypes().values()) {
+			Assert.assertEquals(link.getAttributes(), actual.getLinkTypes().get(link.getId()).getAttributes());
+		}
+	}
 }
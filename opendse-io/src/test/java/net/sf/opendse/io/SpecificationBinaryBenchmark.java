@@ -0,0 +1,152 @@
+package net.sf.opendse.io;
+
+import java.io.File;
+import java.io.IOException;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@code SpecificationBinaryBenchmark} compares the file size and the load
+ * time of the XML format ({@link SpecificationReader} and
+ * {@link SpecificationStreamReader}) and the binary format
+ * ({@link SpecificationBinaryReader}, streamed and memory-mapped) for
+ * generated specifications of increasing size.
+ *
+ */
+public class SpecificationBinaryBenchmark {
+
+	protected static final int RUNS = 5;
+
+	public static void main(String[] args) throws IOException {
+		int[] sizes = { 100, 1000, 10000, 20000 };
+
+		// warm-up
+		run(sizes[0]);
+
+		System.out.println("tasks\txml [kB]\tbin [kB]\tdom [ms]\tstax [ms]\tbin [ms]\tmapped [ms]");
+		for (int size : sizes) {
+			double[] result = run(size);
+			System.out.printf("%d\t%.1f\t%.1f\t%.1f\t%.1f\t%.1f\t%.1f%n", size, result[0], result[1], result[2],
+					result[3], result[4], result[5]);
+		}
+	}
+
+	protected static double[] run(int size) throws IOException {
+		Specification specification = createSpecification(size);
+
+		File xml = File.createTempFile("specification", ".xml");
+		File bin = File.createTempFile("specification", ".bin");
+		try {
+			new SpecificationWriter().write(specification, xml);
+			new SpecificationBinaryWriter().write(specification, bin);
+
+			double dom = 0;
+			double stax = 0;
+			double binary = 0;
+			double mapped = 0;
+			for (int i = 0; i < RUNS; i++) {
+				long start = System.nanoTime();
+				check(new SpecificationReader().read(xml), size);
+				dom += System.nanoTime() - start;
+
+				start = System.nanoTime();
+				check(new SpecificationStreamReader().read(xml), size);
+				stax += System.nanoTime() - start;
+
+				start = System.nanoTime();
+				check(new SpecificationBinaryReader().read(bin), size);
+				binary += System.nanoTime() - start;
+
+				start = System.nanoTime();
+				check(new SpecificationBinaryReader().read(bin, true), size);
+				mapped += System.nanoTime() - start;
+			}
+			double ms = 1e6 * RUNS;
+			return new double[] { xml.length() / 1024.0, bin.length() / 1024.0, dom / ms, stax / ms, binary / ms,
+					mapped / ms };
+		} finally {
+			xml.delete();
+			bin.delete();
+		}
+	}
+
+	protected static void check(Specification specification, int size) {
+		if (specification.getApplication().getVertexCount() != 2 * size - 1) {
+			throw new IllegalStateException("Reading failed.");
+		}
+	}
+
+	/**
+	 * Creates a specification with a chain of {@code size} tasks, a
+	 * ring of {@code size / 10 + 2} resources, two mappings per task, and one
+	 * link per routing.
+	 *
+	 * @param size
+	 *            the number of tasks
+	 * @return the specification
+	 */
+	protected static Specification createSpecification(int size) {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		int resources = size / 10 + 2;
+		Resource[] rs = new Resource[resources];
+		for (int i = 0; i < resources; i++) {
+			rs[i] = new Resource("r" + i);
+			rs[i].setAttribute("cost", 10 + i % 7);
+			rs[i].setAttribute("type", i % 2 == 0 ? "cpu" : "dsp");
+			architecture.addVertex(rs[i]);
+		}
+		for (int i = 0; i < resources; i++) {
+			Link link = new Link("l" + i);
+			link.setAttribute("bandwidth", 100);
+			architecture.addEdge(link, rs[i], rs[(i + 1) % resources], EdgeType.UNDIRECTED);
+		}
+
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Routings<Task, Resource, Link> routings = new Routings<Task, Resource, Link>();
+		Task previous = null;
+		for (int i = 0; i < size; i++) {
+			Task task = new Task("t" + i);
+			task.setAttribute("wcet", 1.5 * (i % 13));
+			application.addVertex(task);
+			if (previous != null) {
+				Communication communication = new Communication("c" + i);
+				communication.setAttribute("size", i % 64);
+				application.addVertex(communication);
+				application.addEdge(new Dependency("d" + i + "a"), previous, communication, EdgeType.DIRECTED);
+				application.addEdge(new Dependency("d" + i + "b"), communication, task, EdgeType.DIRECTED);
+
+				// route over the link between the first targets of both tasks
+				Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
+				int k = (i - 1) % resources;
+				Link link = architecture.getEdge("l" + k);
+				Resource source = new Resource(rs[k]);
+				Resource destination = new Resource(rs[(k + 1) % resources]);
+				routing.addEdge(new Link(link), source, destination, EdgeType.UNDIRECTED);
+				routings.set(communication, routing);
+			}
+			previous = task;
+
+			for (int j = 0; j < 2; j++) {
+				Mapping<Task, Resource> mapping = new Mapping<Task, Resource>("m" + i + "_" + j, task,
+						rs[(i + j) % resources]);
+				mapping.setAttribute("latency", 1.0 + j);
+				mappings.add(mapping);
+			}
+		}
+
+		return new Specification(application, architecture, mappings, routings);
+	}
+
+}
@@ -0,0 +1,145 @@
+package net.sf.opendse.io;
+
+import static net.sf.opendse.io.SpecificationStreamReaderTest.createSpecification;
+import static net.sf.opendse.io.SpecificationStreamReaderTest.write;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.ParameterRange;
+import net.sf.opendse.model.parameter.ParameterRangeDiscrete;
+import net.sf.opendse.model.parameter.ParameterSelect;
+import net.sf.opendse.model.parameter.ParameterUniqueID;
+
+public class SpecificationBinaryReaderTest {
+
+	protected static byte[] writeBinary(Specification specification) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			new SpecificationBinaryWriter().write(specification, out);
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+		return out.toByteArray();
+	}
+
+	protected static Specification readBinary(byte[] bytes) {
+		return new SpecificationBinaryReader().read(new ByteArrayInputStream(bytes));
+	}
+
+	@Test
+	public void testRoundTrip() {
+		Specification specification = createSpecification();
+		Specification actual = readBinary(writeBinary(specification));
+
+		Assert.assertEquals(new String(write(specification)), new String(write(actual)));
+	}
+
+	@Test
+	public void testXMLConversion() {
+		byte[] xml = write(createSpecification());
+		Specification fromXML = new SpecificationReader().read(new ByteArrayInputStream(xml));
+		byte[] binary = writeBinary(fromXML);
+
+		Assert.assertEquals(new String(xml), new String(write(readBinary(binary))));
+		Assert.assertTrue(binary.length < xml.length);
+	}
+
+	@Test
+	public void testParameters() {
+		Specification specification = readBinary(writeBinary(createSpecification()));
+		Resource r2 = specification.getArchitecture().getVertex("r2");
+
+		ParameterRange range = (ParameterRange) r2.getAttributeParameter("range");
+		Assert.assertEquals(0.5, range.getGranularity(), 0.0);
+		Assert.assertEquals(2.0, range.getUpperBound(), 0.0);
+		ParameterRangeDiscrete discrete = (ParameterRangeDiscrete) r2.getAttributeParameter("discrete");
+		Assert.assertEquals(3, discrete.getUpperBound());
+		ParameterSelect select = (ParameterSelect) r2.getAttributeParameter("select");
+		Assert.assertEquals(3, select.getElements().length);
+		Assert.assertEquals(1, select.getValue());
+		ParameterUniqueID uid = (ParameterUniqueID) r2.getAttributeParameter("uid");
+		Assert.assertEquals("bus", uid.getIdentifier());
+	}
+
+	@Test
+	public void testElementAttribute() {
+		Specification specification = readBinary(writeBinary(createSpecification()));
+		Resource r1 = specification.getArchitecture().getVertex("r1");
+
+		Assert.assertSame(specification.getApplication().getVertex("t2"), r1.getAttribute("task"));
+		Assert.assertSame(specification.getArchitecture().getVertex("r2"), specification.getRoutings()
+				.get(specification.getApplication().getVertex("c1")).getVertex("r2").getParent());
+	}
+
+	@Test
+	public void testRoutingLinkAttributes() {
+		Specification specification = createSpecification();
+		Task c1 = specification.getApplication().getVertex("c1");
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c1);
+		Link link = routing.getEdges().iterator().next();
+		link.setAttribute("load", 5);
+
+		Specification actual = readBinary(writeBinary(specification));
+		Architecture<Resource, Link> actualRouting = actual.getRoutings().get(actual.getApplication().getVertex("c1"));
+		Link actualLink = actualRouting.getEdge(link.getId());
+		Assert.assertSame(actual.getArchitecture().getEdge(link.getId()), actualLink.getParent());
+		Assert.assertEquals(5, (int) actualLink.<Integer> getAttribute("load"));
+		Assert.assertNull(actual.getArchitecture().getEdge(link.getId()).getAttribute("load"));
+	}
+
+	@Test(expected = IOException.class)
+	public void testUnsupportedAttribute() throws IOException {
+		Specification specification = createSpecification();
+		specification.setAttribute("unsupported", new Object());
+		new SpecificationBinaryWriter().write(specification, new ByteArrayOutputStream());
+	}
+
+	@Test
+	public void testMapped() throws IOException {
+		Specification specification = createSpecification();
+		File file = File.createTempFile("specification", ".bin");
+		file.deleteOnExit();
+		new SpecificationBinaryWriter().write(specification, file);
+
+		Specification actual = new SpecificationBinaryReader().read(file, true);
+		Assert.assertEquals(new String(write(specification)), new String(write(actual)));
+		file.delete();
+	}
+
+	@Test
+	public void testConverter() throws IOException {
+		File xml = File.createTempFile("specification", ".xml");
+		File bin = File.createTempFile("specification", ".bin");
+		File back = File.createTempFile("specification", ".xml");
+		try {
+			new SpecificationWriter().write(createSpecification(), xml);
+			SpecificationConverter.convert(xml, bin);
+			SpecificationConverter.convert(bin, back);
+
+			Assert.assertFalse(SpecificationConverter.isBinary(xml));
+			Assert.assertTrue(SpecificationConverter.isBinary(bin));
+			Assert.assertEquals(xml.length(), back.length());
+		} finally {
+			xml.delete();
+			bin.delete();
+			back.delete();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoBinarySpecification() {
+		readBinary(write(createSpecification()));
+	}
+
+}
@@ -0,0 +1,155 @@
+package net.sf.opendse.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.Parameters;
+
+public class SpecificationStreamReaderTest {
+
+	protected static Specification createSpecification() {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Resource r1 = new Resource("r1");
+		Resource r2 = new Resource("r2");
+		Resource r3 = new Resource("r3");
+		r1.setAttribute("cost", 10);
+		r1.setAttribute("frequency", 1.5);
+		r1.setAttribute("name", "cpu");
+		r1.setAttribute("shared", true);
+		r2.setAttribute("cost", 10);
+		r2.setAttribute("name", "cpu");
+		r2.setAttribute("range", Parameters.range(1.0, 0.0, 2.0, 0.5));
+		r2.setAttribute("discrete", Parameters.range(1, 0, 3));
+		r2.setAttribute("select", Parameters.select(1, 1, 2, 3));
+		r2.setAttribute("uid", Parameters.uniqueID(0, "bus"));
+		r3.setAttribute("orientation", EdgeType.DIRECTED);
+		Set<String> set = new HashSet<String>();
+		set.add("a");
+		set.add("b");
+		r3.setAttribute("set", set);
+		List<Object> list = new ArrayList<Object>();
+		list.add(1);
+		list.add("x");
+		r3.setAttribute("list", list);
+		architecture.addVertex(r1);
+		architecture.addVertex(r2);
+		architecture.addVertex(r3);
+		Link l1 = new Link("l1");
+		l1.setAttribute("bandwidth", 100);
+		architecture.addEdge(l1, r1, r2, EdgeType.UNDIRECTED);
+		architecture.addEdge(new Link("l2"), r2, r3, EdgeType.DIRECTED);
+
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Task t1 = new Task("t1");
+		Task t2 = new Task("t2");
+		Communication c1 = new Communication("c1");
+		c1.setAttribute("size", 4);
+		application.addVertex(t1);
+		application.addVertex(t2);
+		application.addVertex(c1);
+		application.addEdge(new Dependency("d1"), t1, c1, EdgeType.DIRECTED);
+		application.addEdge(new Dependency("d2"), c1, t2, EdgeType.DIRECTED);
+		application.getFunction(t1).setAttribute("period", 20);
+		r1.setAttribute("task", t2);
+
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Mapping<Task, Resource> m1 = new Mapping<Task, Resource>("m1", t1, r1);
+		m1.setAttribute("latency", 3.0);
+		mappings.add(m1);
+		mappings.add(new Mapping<Task, Resource>("m2", t2, r3));
+
+		Specification specification = new Specification(application, architecture, mappings);
+		specification.setAttribute("version", "1");
+		return specification;
+	}
+
+	protected static byte[] write(Specification specification) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationWriter().write(specification, out);
+		return out.toByteArray();
+	}
+
+	@Test
+	public void testRoundTrip() {
+		byte[] xml = write(createSpecification());
+
+		Specification expected = new SpecificationReader().read(new ByteArrayInputStream(xml));
+		Specification actual = new SpecificationStreamReader().read(new ByteArrayInputStream(xml));
+
+		Assert.assertEquals(new String(write(expected)), new String(write(actual)));
+	}
+
+	@Test
+	public void testStructure() {
+		Specification specification = new SpecificationStreamReader().read(new ByteArrayInputStream(
+				write(createSpecification())));
+
+		Architecture<Resource, Link> architecture = specification.getArchitecture();
+		Application<Task, Dependency> application = specification.getApplication();
+		Resource r1 = architecture.getVertex("r1");
+		Resource r2 = architecture.getVertex("r2");
+
+		Assert.assertEquals(3, architecture.getVertexCount());
+		Assert.assertEquals(EdgeType.DIRECTED, architecture.getEdgeType(architecture.getEdge("l2")));
+		Assert.assertSame(r1, architecture.getEndpoints(architecture.getEdge("l1")).getFirst());
+		Assert.assertEquals(100, (int) architecture.getEdge("l1").<Integer> getAttribute("bandwidth"));
+		Assert.assertSame(application.getVertex("t2"), r1.getAttribute("task"));
+		Assert.assertTrue(application.getVertex("c1") instanceof Communication);
+		Assert.assertEquals(20, (int) application.getFunction(application.getVertex("t1")).<Integer> getAttribute("period"));
+		Assert.assertEquals(2, specification.getMappings().size());
+		Assert.assertSame(r1, specification.getMappings().get(application.getVertex("t1")).iterator().next().getTarget());
+		Assert.assertEquals("1", specification.getAttribute("version"));
+		Assert.assertNotNull(specification.getRoutings().get(application.getVertex("c1")));
+		Assert.assertSame(r2, specification.getRoutings().get(application.getVertex("c1")).getVertex("r2").getParent());
+
+		// equal immutable values are shared
+		Assert.assertSame(r1.getAttribute("name"), r2.getAttribute("name"));
+		Assert.assertEquals(r1.<Integer> getAttribute("cost"), r2.<Integer> getAttribute("cost"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingLinkSource() {
+		String xml = "<specification xmlns=\"" + SpecificationWriter.NS + "\"><architecture>"
+				+ "<resource id=\"r1\"/><link id=\"l\" source=\"r0\" destination=\"r1\" orientation=\"UNDIRECTED\"/>"
+				+ "</architecture><application/><mappings/></specification>";
+		new SpecificationStreamReader().read(new ByteArrayInputStream(xml.getBytes()));
+	}
+
+	@Test
+	public void testMissingDependencySource() {
+		String xml = "<specification xmlns=\"" + SpecificationWriter.NS + "\"><architecture/><application>"
+				+ "<task id=\"t1\"/><dependency id=\"d\" source=\"t0\" destination=\"t1\"/>"
+				+ "</application><mappings/></specification>";
+		try {
+			new SpecificationStreamReader().read(new ByteArrayInputStream(xml.getBytes()));
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			Assert.assertTrue(e.getMessage().endsWith("Source of dependency d not found: t0"));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIncomplete() {
+		String xml = "<specification xmlns=\"" + SpecificationWriter.NS + "\"><architecture/></specification>";
+		new SpecificationStreamReader().read(new ByteArrayInputStream(xml.getBytes()));
+	}
+
+}
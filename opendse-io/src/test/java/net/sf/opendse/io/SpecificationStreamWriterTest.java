@@ -0,0 +1,99 @@
+package net.sf.opendse.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.sf.opendse.model.Specification;
+import nu.xom.Builder;
+import nu.xom.Document;
+import nu.xom.Elements;
+
+public class SpecificationStreamWriterTest {
+
+	protected static String writeDom(Specification specification) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationWriter().write(specification, out);
+		return new String(out.toByteArray());
+	}
+
+	@Test
+	public void testSameAsSpecificationWriter() throws IOException {
+		Specification specification = SpecificationStreamReaderTest.createSpecification();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationStreamWriter().write(specification, out);
+		byte[] streamed = out.toByteArray();
+		byte[] dom = SpecificationStreamReaderTest.write(specification);
+
+		Specification expected = new SpecificationReader().read(new ByteArrayInputStream(dom));
+		Specification actual = new SpecificationReader().read(new ByteArrayInputStream(streamed));
+		Assert.assertEquals(writeDom(expected), writeDom(actual));
+
+		Specification streamReader = new SpecificationStreamReader().read(new ByteArrayInputStream(streamed));
+		Assert.assertEquals(writeDom(expected), writeDom(streamReader));
+	}
+
+	@Test(expected = IOException.class)
+	public void testUnsupportedAttribute() throws IOException {
+		Specification specification = SpecificationStreamReaderTest.createSpecification();
+		specification.getApplication().getVertices().iterator().next().setAttribute("unsupported", new Object());
+		new SpecificationStreamWriter().write(specification, new ByteArrayOutputStream());
+	}
+
+	@Test
+	public void testAppendGzip() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		SpecificationStreamWriter.Appender appender = new SpecificationStreamWriter().open(out, true);
+		for (int i = 0; i < 3; i++) {
+			appender.append(SpecificationStreamReaderTest.createSpecification());
+		}
+		Assert.assertEquals(3, appender.getCount());
+		appender.close();
+
+		List<Specification> specifications = read(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())));
+		Assert.assertEquals(3, specifications.size());
+		String expected = writeDom(SpecificationStreamReaderTest.createSpecification());
+		for (Specification specification : specifications) {
+			Assert.assertEquals(expected, writeDom(specification));
+		}
+	}
+
+	@Test
+	public void testCollection() throws Exception {
+		List<Specification> specifications = new ArrayList<Specification>();
+		specifications.add(SpecificationStreamReaderTest.createSpecification());
+		specifications.add(SpecificationStreamReaderTest.createSpecification());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new SpecificationStreamWriter().write(specifications, out);
+		Assert.assertEquals(2, read(new ByteArrayInputStream(out.toByteArray())).size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testAppendAfterClose() throws IOException {
+		SpecificationStreamWriter.Appender appender = new SpecificationStreamWriter().open(
+				new ByteArrayOutputStream(), false);
+		appender.close();
+		appender.append(SpecificationStreamReaderTest.createSpecification());
+	}
+
+	protected static List<Specification> read(InputStream in) throws Exception {
+		Document document = new Builder().build(in);
+		Assert.assertEquals("specifications", document.getRootElement().getLocalName());
+		Elements elements = document.getRootElement().getChildElements("specification", SpecificationWriter.NS);
+		List<Specification> specifications = new ArrayList<Specification>();
+		for (int i = 0; i < elements.size(); i++) {
+			specifications.add(new SpecificationReader().toSpecification(elements.get(i)));
+		}
+		return specifications;
+	}
+
+}
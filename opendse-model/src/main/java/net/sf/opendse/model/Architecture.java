@@ -21,9 +21,19 @@
  *******************************************************************************/
 package net.sf.opendse.model;
 
+import java.util.List;
+
+import net.sf.opendse.model.Models.DirectedLink;
+
 /**
  * The {@code Architecture} is the default implementation of the architecture
  * graph.
+ * <p>
+ * The architecture caches its {@link DirectedLink} adjacency for
+ * {@link Models#getOutLinks(Architecture, Resource)},
+ * {@link Models#getInLinks(Architecture, Resource)}, and
+ * {@link Models#getLinks(Architecture)}. The cache is rebuilt after each
+ * structural modification.
  * 
  * @author Martin Lukasiewycz
  * 
@@ -36,4 +46,64 @@ public class Architecture<R extends Resource, L extends Link> extends Graph<R, L
 
 	private static final long serialVersionUID = 1L;
 
+	private transient volatile DirectedLinkIndex directedLinks = null;
+
+	/**
+	 * Returns the directed link index. The index is immutable such that
+	 * concurrent rebuilds are benign.
+	 * 
+	 * @return the directed link index
+	 */
+	@SuppressWarnings("unchecked")
+	DirectedLinkIndex getDirectedLinks() {
+		DirectedLinkIndex index = directedLinks;
+		if (index == null || index.modifications != modifications) {
+			index = new DirectedLinkIndex((Architecture<Resource, Link>) this);
+			directedLinks = index;
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the outgoing directed links of a resource.
+	 * 
+	 * @param r0
+	 *            the source
+	 * @return the unmodifiable list of outgoing directed links
+	 */
+	List<DirectedLink> getOutLinks(Resource r0) {
+		return getDirectedLinks().getOutLinks(r0);
+	}
+
+	/**
+	 * Returns the incoming directed links of a resource.
+	 * 
+	 * @param r0
+	 *            the destination
+	 * @return the unmodifiable list of incoming directed links
+	 */
+	List<DirectedLink> getInLinks(Resource r0) {
+		return getDirectedLinks().getInLinks(r0);
+	}
+
+	/**
+	 * Returns all directed links.
+	 * 
+	 * @return the unmodifiable list of all directed links
+	 */
+	List<DirectedLink> getLinks() {
+		return getDirectedLinks().getLinks();
+	}
+
+	/**
+	 * Returns the directed links of a link.
+	 * 
+	 * @param link
+	 *            the link
+	 * @return the unmodifiable list of directed links of the link
+	 */
+	List<DirectedLink> getLinks(Link link) {
+		return getDirectedLinks().getLinks(link);
+	}
+
 }
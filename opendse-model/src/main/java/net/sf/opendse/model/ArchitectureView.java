@@ -0,0 +1,826 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.model;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import net.sf.opendse.model.Models.DirectedLink;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import edu.uci.ics.jung.graph.util.Pair;
+
+/**
+ * The {@code ArchitectureView} is a lightweight {@link Architecture} that is
+ * a filtered view over a shared, immutable {@link Base} of an architecture.
+ * Each view only stores the removed vertices and edges as bit sets such that
+ * many views (e.g., the default routings of all communications) share the
+ * vertices, edges, and adjacency of one architecture. This includes the
+ * {@link DirectedLink} instances and adjacency of {@link Models}, which are
+ * filtered by the removed edges of each view.
+ * <p>
+ * The vertices and edges are the elements of the architecture, unless the
+ * view is created with {@link #copies(Base)}: such a view (e.g., a default
+ * routing) shows its own copy of each element and directed link, which is
+ * created on the first access. Removing vertices and edges is supported by the
+ * view. Adding vertices or edges materializes the view, i.e., the visible graph
+ * is copied into the regular graph structure of the {@link Architecture} and
+ * the view is not used anymore.
+ * 
+ * @param <R>
+ *            the type of vertices
+ * @param <L>
+ *            the type of edges
+ */
+public class ArchitectureView<R extends Resource, L extends Link> extends Architecture<R, L> {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The {@code Base} is an immutable snapshot of the vertices, edges,
+	 * adjacency, and directed links of an architecture that is shared by the
+	 * views.
+	 * 
+	 * @param <R>
+	 *            the type of vertices
+	 * @param <L>
+	 *            the type of edges
+	 */
+	public static final class Base<R extends Resource, L extends Link> implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		final Object[] vertices;
+		final Object[] edges;
+		final Pair<?>[] endpoints;
+		final int[] first;
+		final int[] second;
+		final BitSet directed;
+		final int directedCount;
+		final int[][] in;
+		final int[][] out;
+		final Map<Object, Integer> vertexIndex;
+		final Map<Object, Integer> edgeIndex;
+		final Map<String, Integer> vertexIds;
+		final Map<String, Integer> edgeIds;
+		final DirectedLinkIndex directedLinks;
+
+		/**
+		 * Constructs the {@code Base} of an architecture. Later changes of
+		 * the architecture are not reflected.
+		 * 
+		 * @param architecture
+		 *            the architecture
+		 */
+		public Base(Architecture<R, L> architecture) {
+			int n = architecture.getVertexCount();
+			int m = architecture.getEdgeCount();
+			vertices = new Object[n];
+			edges = new Object[m];
+			endpoints = new Pair<?>[m];
+			first = new int[m];
+			second = new int[m];
+			directed = new BitSet(m);
+			in = new int[n][];
+			out = new int[n][];
+			vertexIndex = new HashMap<Object, Integer>(2 * n);
+			edgeIndex = new HashMap<Object, Integer>(2 * m);
+			vertexIds = new HashMap<String, Integer>(2 * n);
+			edgeIds = new HashMap<String, Integer>(2 * m);
+
+			int i = 0;
+			for (R vertex : architecture.getVertices()) {
+				vertices[i] = vertex;
+				vertexIndex.put(vertex, i);
+				vertexIds.put(vertex.getId(), i);
+				i++;
+			}
+			int j = 0;
+			int directedCount = 0;
+			for (L edge : architecture.getEdges()) {
+				edges[j] = edge;
+				Pair<R> pair = architecture.getEndpoints(edge);
+				endpoints[j] = pair;
+				first[j] = vertexIndex.get(pair.getFirst());
+				second[j] = vertexIndex.get(pair.getSecond());
+				if (architecture.getEdgeType(edge) == EdgeType.DIRECTED) {
+					directed.set(j);
+					directedCount++;
+				}
+				edgeIndex.put(edge, j);
+				edgeIds.put(edge.getId(), j);
+				j++;
+			}
+			this.directedCount = directedCount;
+
+			for (int v = 0; v < n; v++) {
+				@SuppressWarnings("unchecked")
+				R vertex = (R) vertices[v];
+				in[v] = indices(architecture.getInEdges(vertex));
+				out[v] = indices(architecture.getOutEdges(vertex));
+			}
+			directedLinks = architecture.getDirectedLinks();
+		}
+
+		private int[] indices(Collection<L> edges) {
+			int[] indices = new int[edges.size()];
+			int k = 0;
+			for (L edge : edges) {
+				indices[k++] = edgeIndex.get(edge);
+			}
+			return indices;
+		}
+	}
+
+	protected Base<R, L> base;
+	protected BitSet removedVertices;
+	protected BitSet removedEdges;
+	protected int vertexCount;
+	protected int edgeCount;
+	protected int directedEdgeCount;
+	protected boolean materialized = false;
+
+	/**
+	 * The copies of the vertices, edges, and directed links of the base or
+	 * {@code null} if the view shows the elements of the base.
+	 */
+	private AtomicReferenceArray<Object> vertexCopies = null;
+	private AtomicReferenceArray<Object> edgeCopies = null;
+	private ConcurrentMap<DirectedLink, DirectedLink> linkCopies = null;
+
+	private transient List<DirectedLink> links = null;
+	private transient int linksModifications;
+
+	/**
+	 * Constructs an {@code ArchitectureView} of the whole architecture with
+	 * its own {@link Base}.
+	 * 
+	 * @param architecture
+	 *            the architecture
+	 */
+	public ArchitectureView(Architecture<R, L> architecture) {
+		this(new Base<R, L>(architecture));
+	}
+
+	/**
+	 * Constructs an {@code ArchitectureView} of a shared {@link Base}.
+	 * 
+	 * @param base
+	 *            the base
+	 */
+	public ArchitectureView(Base<R, L> base) {
+		super();
+		this.base = base;
+		this.removedVertices = new BitSet(base.vertices.length);
+		this.removedEdges = new BitSet(base.edges.length);
+		this.vertexCount = base.vertices.length;
+		this.edgeCount = base.edges.length;
+		this.directedEdgeCount = base.directedCount;
+	}
+
+	/**
+	 * Constructs an {@code ArchitectureView} of a shared {@link Base} that
+	 * shows a copy of each resource and link of the base (with the element of
+	 * the base as parent). The copies are created on the first access and
+	 * belong to this view only, i.e., attributes that are set on the elements
+	 * of the view are not visible in other views.
+	 * 
+	 * @param base
+	 *            the base
+	 * @return the view
+	 */
+	public static ArchitectureView<Resource, Link> copies(Base<Resource, Link> base) {
+		ArchitectureView<Resource, Link> view = new ArchitectureView<Resource, Link>(base);
+		view.vertexCopies = new AtomicReferenceArray<Object>(base.vertices.length);
+		view.edgeCopies = new AtomicReferenceArray<Object>(base.edges.length);
+		view.linkCopies = new ConcurrentHashMap<DirectedLink, DirectedLink>();
+		return view;
+	}
+
+	/**
+	 * Returns {@code true} if the view was materialized, i.e., the graph is
+	 * stored in the regular graph structure.
+	 * 
+	 * @return {@code true} if the view was materialized
+	 */
+	public boolean isMaterialized() {
+		return materialized;
+	}
+
+	/**
+	 * Copies the visible vertices and edges into the regular graph structure.
+	 */
+	protected void materialize() {
+		if (materialized) {
+			return;
+		}
+		Base<R, L> base = this.base;
+		BitSet removedVertices = this.removedVertices;
+		BitSet removedEdges = this.removedEdges;
+		materialized = true;
+
+		for (int v = 0; v < base.vertices.length; v++) {
+			if (!removedVertices.get(v)) {
+				super.addVertex(vertexAt(v));
+			}
+		}
+		for (int e = 0; e < base.edges.length; e++) {
+			if (!removedEdges.get(e)) {
+				super.addEdge(edgeAt(e), endpointsAt(e), base.directed.get(e) ? EdgeType.DIRECTED
+						: EdgeType.UNDIRECTED);
+			}
+		}
+		this.base = null;
+		this.removedVertices = null;
+		this.removedEdges = null;
+		this.vertexCopies = null;
+		this.edgeCopies = null;
+		this.linkCopies = null;
+		this.links = null;
+	}
+
+	private int vertex(Object vertex) {
+		Integer i = base.vertexIndex.get(vertex);
+		return (i == null || removedVertices.get(i)) ? -1 : i;
+	}
+
+	private int edge(Object edge) {
+		Integer i = base.edgeIndex.get(edge);
+		return (i == null || removedEdges.get(i)) ? -1 : i;
+	}
+
+	/**
+	 * Returns the element of the base or its copy, which is created on the
+	 * first access.
+	 * 
+	 * @param elements
+	 *            the elements of the base
+	 * @param copies
+	 *            the copies of the elements or {@code null}
+	 * @param i
+	 *            the index of the element
+	 * @param vertex
+	 *            {@code true} if the element is a vertex
+	 * @return the element or its copy
+	 */
+	private static Object element(Object[] elements, AtomicReferenceArray<Object> copies, int i, boolean vertex) {
+		if (copies == null) {
+			return elements[i];
+		}
+		Object copy = copies.get(i);
+		if (copy == null) {
+			Element element = (Element) elements[i];
+			copies.compareAndSet(i, null, vertex ? new Resource(element) : new Link(element));
+			copy = copies.get(i);
+		}
+		return copy;
+	}
+
+	@SuppressWarnings("unchecked")
+	private R vertexAt(int v) {
+		return (R) element(base.vertices, vertexCopies, v, true);
+	}
+
+	@SuppressWarnings("unchecked")
+	private L edgeAt(int e) {
+		return (L) element(base.edges, edgeCopies, e, false);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Pair<R> endpointsAt(int e) {
+		if (vertexCopies == null) {
+			return (Pair<R>) base.endpoints[e];
+		}
+		return new Pair<R>(vertexAt(base.first[e]), vertexAt(base.second[e]));
+	}
+
+	private R opposite(int v, int e) {
+		return vertexAt(base.first[e] == v ? base.second[e] : base.first[e]);
+	}
+
+	/**
+	 * Returns the directed links with the copies of the elements (if this view
+	 * has copies).
+	 * 
+	 * @param links
+	 *            the directed links of the base
+	 * @return the directed links of this view
+	 */
+	private List<DirectedLink> toView(List<DirectedLink> links) {
+		ConcurrentMap<DirectedLink, DirectedLink> linkCopies = this.linkCopies;
+		if (linkCopies == null || links.isEmpty()) {
+			return links;
+		}
+		List<DirectedLink> list = new ArrayList<DirectedLink>(links.size());
+		for (DirectedLink link : links) {
+			DirectedLink copy = linkCopies.get(link);
+			if (copy == null) {
+				Link l = edgeAt(base.edgeIndex.get(link.getLink()));
+				Resource r0 = vertexAt(base.vertexIndex.get(link.getSource()));
+				Resource r1 = vertexAt(base.vertexIndex.get(link.getDest()));
+				linkCopies.putIfAbsent(link, new DirectedLink(l, r0, r1));
+				copy = linkCopies.get(link);
+			}
+			list.add(copy);
+		}
+		return Collections.unmodifiableList(list);
+	}
+
+	/**
+	 * The visible elements of the base (all elements or the given indices).
+	 * 
+	 * @param <X>
+	 *            the type of the elements
+	 */
+	private class Visible<X> extends AbstractCollection<X> {
+
+		final Object[] elements;
+		final AtomicReferenceArray<Object> copies;
+		final boolean vertices;
+		final int[] indices;
+		final BitSet removed;
+		final int size;
+
+		Visible(boolean vertices, int[] indices, BitSet removed, int size) {
+			this.elements = vertices ? base.vertices : base.edges;
+			this.copies = vertices ? vertexCopies : edgeCopies;
+			this.vertices = vertices;
+			this.indices = indices;
+			this.removed = removed;
+			this.size = size;
+		}
+
+		@Override
+		public Iterator<X> iterator() {
+			return new Iterator<X>() {
+				int next = advance(0);
+
+				int advance(int i) {
+					int n = indices == null ? elements.length : indices.length;
+					while (i < n && removed.get(indices == null ? i : indices[i])) {
+						i++;
+					}
+					return i;
+				}
+
+				@Override
+				public boolean hasNext() {
+					return next < (indices == null ? elements.length : indices.length);
+				}
+
+				@SuppressWarnings("unchecked")
+				@Override
+				public X next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					X element = (X) element(elements, copies, indices == null ? next : indices[next], vertices);
+					next = advance(next + 1);
+					return element;
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			if (size >= 0) {
+				return size;
+			}
+			int n = 0;
+			for (int i : indices) {
+				if (!removed.get(i)) {
+					n++;
+				}
+			}
+			return n;
+		}
+	}
+
+	@Override
+	public Collection<L> getEdges() {
+		if (materialized) {
+			return super.getEdges();
+		}
+		return new Visible<L>(false, null, removedEdges, edgeCount) {
+			@Override
+			public boolean contains(Object o) {
+				return containsEdge((L) o);
+			}
+		};
+	}
+
+	@Override
+	public Collection<R> getVertices() {
+		if (materialized) {
+			return super.getVertices();
+		}
+		return new Visible<R>(true, null, removedVertices, vertexCount) {
+			@Override
+			public boolean contains(Object o) {
+				return containsVertex((R) o);
+			}
+		};
+	}
+
+	@Override
+	public boolean containsVertex(R vertex) {
+		if (materialized) {
+			return super.containsVertex(vertex);
+		}
+		return vertex(vertex) >= 0;
+	}
+
+	@Override
+	public boolean containsEdge(L edge) {
+		if (materialized) {
+			return super.containsEdge(edge);
+		}
+		return edge(edge) >= 0;
+	}
+
+	@Override
+	public boolean addVertex(R vertex) {
+		materialize();
+		return super.addVertex(vertex);
+	}
+
+	@Override
+	public boolean addEdge(L edge, Pair<? extends R> endpoints, EdgeType edgeType) {
+		materialize();
+		return super.addEdge(edge, endpoints, edgeType);
+	}
+
+	@Override
+	public boolean removeVertex(R vertex) {
+		if (materialized) {
+			return super.removeVertex(vertex);
+		}
+		int v = vertex(vertex);
+		if (v < 0) {
+			return false;
+		}
+		for (int e : base.in[v]) {
+			removeEdge(e);
+		}
+		for (int e : base.out[v]) {
+			removeEdge(e);
+		}
+		removedVertices.set(v);
+		vertexCount--;
+		modifications++;
+		return true;
+	}
+
+	@Override
+	public boolean removeEdge(L edge) {
+		if (materialized) {
+			return super.removeEdge(edge);
+		}
+		int e = edge(edge);
+		if (e < 0) {
+			return false;
+		}
+		removeEdge(e);
+		return true;
+	}
+
+	private void removeEdge(int e) {
+		if (!removedEdges.get(e)) {
+			removedEdges.set(e);
+			edgeCount--;
+			if (base.directed.get(e)) {
+				directedEdgeCount--;
+			}
+			modifications++;
+		}
+	}
+
+	@Override
+	public Collection<L> getInEdges(R vertex) {
+		if (materialized) {
+			return super.getInEdges(vertex);
+		}
+		int v = vertex(vertex);
+		return v < 0 ? null : new Visible<L>(false, base.in[v], removedEdges, -1);
+	}
+
+	@Override
+	public Collection<L> getOutEdges(R vertex) {
+		if (materialized) {
+			return super.getOutEdges(vertex);
+		}
+		int v = vertex(vertex);
+		return v < 0 ? null : new Visible<L>(false, base.out[v], removedEdges, -1);
+	}
+
+	@Override
+	public Collection<R> getPredecessors(R vertex) {
+		if (materialized) {
+			return super.getPredecessors(vertex);
+		}
+		int v = vertex(vertex);
+		return v < 0 ? null : opposites(v, base.in[v], null);
+	}
+
+	@Override
+	public Collection<R> getSuccessors(R vertex) {
+		if (materialized) {
+			return super.getSuccessors(vertex);
+		}
+		int v = vertex(vertex);
+		return v < 0 ? null : opposites(v, base.out[v], null);
+	}
+
+	@Override
+	public Collection<R> getNeighbors(R vertex) {
+		if (materialized) {
+			return super.getNeighbors(vertex);
+		}
+		int v = vertex(vertex);
+		return v < 0 ? null : opposites(v, base.out[v], opposites(v, base.in[v], null));
+	}
+
+	private Set<R> opposites(int v, int[] edges, Set<R> set) {
+		if (set == null) {
+			set = new HashSet<R>();
+		}
+		for (int e : edges) {
+			if (!removedEdges.get(e)) {
+				set.add(opposite(v, e));
+			}
+		}
+		return set;
+	}
+
+	@Override
+	public Collection<L> getIncidentEdges(R vertex) {
+		if (materialized) {
+			return super.getIncidentEdges(vertex);
+		}
+		int v = vertex(vertex);
+		if (v < 0) {
+			return null;
+		}
+		Set<L> set = new HashSet<L>();
+		for (int e : base.in[v]) {
+			if (!removedEdges.get(e)) {
+				set.add(edgeAt(e));
+			}
+		}
+		for (int e : base.out[v]) {
+			if (!removedEdges.get(e)) {
+				set.add(edgeAt(e));
+			}
+		}
+		return set;
+	}
+
+	@Override
+	public L findEdge(R v1, R v2) {
+		if (materialized) {
+			return super.findEdge(v1, v2);
+		}
+		int v = vertex(v1);
+		if (v < 0 || vertex(v2) < 0) {
+			return null;
+		}
+		for (int e : base.out[v]) {
+			if (!removedEdges.get(e) && opposite(v, e).equals(v2)) {
+				return edgeAt(e);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Pair<R> getEndpoints(L edge) {
+		if (materialized) {
+			return super.getEndpoints(edge);
+		}
+		int e = edge(edge);
+		return e < 0 ? null : endpointsAt(e);
+	}
+
+	@Override
+	public R getSource(L edge) {
+		if (materialized) {
+			return super.getSource(edge);
+		}
+		int e = edge(edge);
+		if (e < 0 || !base.directed.get(e)) {
+			return null;
+		}
+		return getEndpoints(edge).getFirst();
+	}
+
+	@Override
+	public R getDest(L edge) {
+		if (materialized) {
+			return super.getDest(edge);
+		}
+		int e = edge(edge);
+		if (e < 0 || !base.directed.get(e)) {
+			return null;
+		}
+		return getEndpoints(edge).getSecond();
+	}
+
+	@Override
+	public boolean isSource(R vertex, L edge) {
+		if (materialized) {
+			return super.isSource(vertex, edge);
+		}
+		if (!containsVertex(vertex)) {
+			return false;
+		}
+		R source = getSource(edge);
+		return source != null && source.equals(vertex);
+	}
+
+	@Override
+	public boolean isDest(R vertex, L edge) {
+		if (materialized) {
+			return super.isDest(vertex, edge);
+		}
+		if (!containsVertex(vertex)) {
+			return false;
+		}
+		R dest = getDest(edge);
+		return dest != null && dest.equals(vertex);
+	}
+
+	@Override
+	public EdgeType getEdgeType(L edge) {
+		if (materialized) {
+			return super.getEdgeType(edge);
+		}
+		int e = edge(edge);
+		return (e >= 0 && base.directed.get(e)) ? EdgeType.DIRECTED : EdgeType.UNDIRECTED;
+	}
+
+	@Override
+	public Collection<L> getEdges(EdgeType edgeType) {
+		if (materialized) {
+			return super.getEdges(edgeType);
+		}
+		List<L> list = new ArrayList<L>();
+		boolean directed = edgeType == EdgeType.DIRECTED;
+		for (int e = 0; e < base.edges.length; e++) {
+			if (!removedEdges.get(e) && base.directed.get(e) == directed) {
+				list.add(edgeAt(e));
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public int getEdgeCount() {
+		if (materialized) {
+			return super.getEdgeCount();
+		}
+		return edgeCount;
+	}
+
+	@Override
+	public int getVertexCount() {
+		if (materialized) {
+			return super.getVertexCount();
+		}
+		return vertexCount;
+	}
+
+	@Override
+	public int getEdgeCount(EdgeType edgeType) {
+		if (materialized) {
+			return super.getEdgeCount(edgeType);
+		}
+		return edgeType == EdgeType.DIRECTED ? directedEdgeCount : edgeCount - directedEdgeCount;
+	}
+
+	@Override
+	public R getVertex(String id) {
+		if (materialized) {
+			return super.getVertex(id);
+		}
+		Integer v = base.vertexIds.get(id);
+		return (v == null || removedVertices.get(v)) ? null : vertexAt(v);
+	}
+
+	@Override
+	public L getEdge(String id) {
+		if (materialized) {
+			return super.getEdge(id);
+		}
+		Integer e = base.edgeIds.get(id);
+		return (e == null || removedEdges.get(e)) ? null : edgeAt(e);
+	}
+
+	@Override
+	List<DirectedLink> getOutLinks(Resource r0) {
+		if (materialized) {
+			return super.getOutLinks(r0);
+		}
+		int v = vertex(r0);
+		return v < 0 ? Collections.<DirectedLink> emptyList()
+				: toView(visible(base.directedLinks.getOutLinks(r0), base.out[v]));
+	}
+
+	@Override
+	List<DirectedLink> getInLinks(Resource r0) {
+		if (materialized) {
+			return super.getInLinks(r0);
+		}
+		int v = vertex(r0);
+		return v < 0 ? Collections.<DirectedLink> emptyList()
+				: toView(visible(base.directedLinks.getInLinks(r0), base.in[v]));
+	}
+
+	@Override
+	List<DirectedLink> getLinks() {
+		if (materialized) {
+			return super.getLinks();
+		}
+		List<DirectedLink> links = this.links;
+		if (links == null || linksModifications != modifications) {
+			links = new ArrayList<DirectedLink>();
+			for (int v = 0; v < base.vertices.length; v++) {
+				if (!removedVertices.get(v)) {
+					links.addAll(getOutLinks(vertexAt(v)));
+				}
+			}
+			links = Collections.unmodifiableList(links);
+			this.links = links;
+			this.linksModifications = modifications;
+		}
+		return links;
+	}
+
+	@Override
+	List<DirectedLink> getLinks(Link link) {
+		if (materialized) {
+			return super.getLinks(link);
+		}
+		return edge(link) < 0 ? Collections.<DirectedLink> emptyList() : toView(base.directedLinks.getLinks(link));
+	}
+
+	/**
+	 * Returns the directed links of the base that belong to visible edges.
+	 * The shared list is returned if no edge is removed.
+	 * 
+	 * @param links
+	 *            the directed links of the base
+	 * @param edges
+	 *            the indices of the corresponding edges
+	 * @return the visible directed links
+	 */
+	private List<DirectedLink> visible(List<DirectedLink> links, int[] edges) {
+		int k = 0;
+		while (k < edges.length && !removedEdges.get(edges[k])) {
+			k++;
+		}
+		if (k == edges.length) {
+			return links;
+		}
+		List<DirectedLink> list = new ArrayList<DirectedLink>(edges.length - 1);
+		list.addAll(links.subList(0, k));
+		for (k++; k < edges.length; k++) {
+			if (!removedEdges.get(edges[k])) {
+				list.add(links.get(k));
+			}
+		}
+		return Collections.unmodifiableList(list);
+	}
+
+}
@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.model;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import net.sf.opendse.model.parameter.Parameter;
+
+/**
+ * The {@code AttributeTable} is an immutable open-addressed hash table of the
+ * flattened (merged) attributes of an {@link Element} and its parents. The
+ * keys are interned such that lookups with literal identifiers are resolved
+ * by reference comparison. The table references the table of the parent it was
+ * built from and records the {@link Attributes#getSharedStamp()} at which it
+ * was last found valid.
+ * 
+ */
+final class AttributeTable {
+
+	/**
+	 * The stamp of the local attributes this table was built from.
+	 */
+	final long stamp;
+
+	/**
+	 * The table of the parent this table was built from.
+	 */
+	final AttributeTable parent;
+
+	/**
+	 * The shared stamp at which this table was last found valid.
+	 */
+	volatile long checked;
+
+	private final String[] keys;
+	private final Object[] values;
+	private final boolean[] parameters;
+	private final int mask;
+	private final int size;
+	private volatile Set<String> names = null;
+
+	/**
+	 * Constructs an {@code AttributeTable} with the entries of the parent
+	 * table that are overridden by the given local attributes.
+	 * 
+	 * @param parent
+	 *            the table of the parent (may be {@code null})
+	 * @param local
+	 *            the local attributes (may be {@code null})
+	 * @param stamp
+	 *            the stamp of the local attributes
+	 * @param checked
+	 *            the shared stamp
+	 */
+	AttributeTable(AttributeTable parent, Attributes local, long stamp, long checked) {
+		this.stamp = stamp;
+		this.parent = parent;
+		this.checked = checked;
+		int n = (parent != null ? parent.size : 0) + (local != null ? local.size() : 0);
+		int capacity = 2;
+		while (capacity < 2 * n) {
+			capacity <<= 1;
+		}
+		keys = new String[capacity];
+		values = new Object[capacity];
+		parameters = new boolean[capacity];
+		mask = capacity - 1;
+
+		int size = 0;
+		if (parent != null) {
+			for (int i = 0; i < parent.keys.length; i++) {
+				if (parent.keys[i] != null) {
+					size += put(parent.keys[i], parent.values[i]);
+				}
+			}
+		}
+		if (local != null) {
+			for (Map.Entry<String, Object> entry : local.entries()) {
+				size += put(entry.getKey().intern(), entry.getValue());
+			}
+		}
+		this.size = size;
+	}
+
+	private int put(String key, Object value) {
+		int i = key.hashCode() & mask;
+		while (keys[i] != null) {
+			if (keys[i] == key || keys[i].equals(key)) {
+				values[i] = value;
+				parameters[i] = value instanceof Parameter;
+				return 0;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = value;
+		parameters[i] = value instanceof Parameter;
+		return 1;
+	}
+
+	private int indexOf(String key) {
+		int i = key.hashCode() & mask;
+		String k;
+		while ((k = keys[i]) != null) {
+			if (k == key || k.equals(key)) {
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the value (the value of a {@link Parameter} is resolved) or
+	 * {@code null} if the key is not defined.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the value
+	 */
+	Object get(String key) {
+		int i = indexOf(key);
+		if (i < 0) {
+			return null;
+		}
+		return parameters[i] ? ((Parameter) values[i]).getValue() : values[i];
+	}
+
+	boolean containsKey(String key) {
+		return indexOf(key) >= 0;
+	}
+
+	/**
+	 * Returns the unmodifiable keys. The set is created once per table.
+	 * 
+	 * @return the keys
+	 */
+	Set<String> keySet() {
+		Set<String> names = this.names;
+		if (names == null) {
+			names = new HashSet<String>();
+			for (String key : keys) {
+				if (key != null) {
+					names.add(key);
+				}
+			}
+			names = Collections.unmodifiableSet(names);
+			this.names = names;
+		}
+		return names;
+	}
+
+	void putAll(Attributes attributes) {
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != null) {
+				attributes.put(keys[i], values[i]);
+			}
+		}
+	}
+
+	int size() {
+		return size;
+	}
+
+}
@@ -21,14 +21,29 @@
  *******************************************************************************/
 package net.sf.opendse.model;
 
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import net.sf.opendse.model.parameter.Parameter;
 
 /**
  * The {@link Attributes} is the default implementation of the
  * {@link IAttributes} interface using a {@code HashMap}.
+ * <p>
+ * Each modification assigns a new globally increasing stamp to the
+ * attributes. The {@link Element} uses the stamps to invalidate its cached
+ * flattened attributes. Therefore, the attributes are only modified by the
+ * methods of the map itself: {@link #keySet()}, {@link #values()}, and
+ * {@link #entrySet()} are unmodifiable views, and the navigable views (e.g.,
+ * {@link #headMap(Object)} or {@link #descendingMap()}) are copies.
  * 
  * @author Martin Lukasiewycz
  * 
@@ -37,6 +52,157 @@ public class Attributes extends TreeMap<String, Object> implements IAttributes {
 
 	private static final long serialVersionUID = 1L;
 
+	private static final AtomicLong stamps = new AtomicLong();
+
+	private static volatile long sharedStamp = 0;
+
+	private transient volatile long stamp = 0;
+
+	private transient volatile boolean shared = false;
+
+	/**
+	 * Returns the stamp of the last modification.
+	 * 
+	 * @return the stamp of the last modification
+	 */
+	long getStamp() {
+		return stamp;
+	}
+
+	/**
+	 * Returns the stamp of the last modification of any shared attributes.
+	 * 
+	 * @return the stamp of the last modification of any shared attributes
+	 */
+	static long getSharedStamp() {
+		return sharedStamp;
+	}
+
+	/**
+	 * Marks the attributes as shared, i.e., as the attributes of a parent
+	 * element whose flattened attributes are cached by a child element.
+	 * Modifications of shared attributes also update the
+	 * {@link #getSharedStamp()}.
+	 */
+	void share() {
+		shared = true;
+	}
+
+	/**
+	 * Marks the attributes as modified.
+	 */
+	protected void modified() {
+		stamp = stamps.incrementAndGet();
+		if (shared) {
+			sharedStamp = stamp;
+		}
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		Object previous = super.put(key, value);
+		modified();
+		return previous;
+	}
+
+	@Override
+	public void putAll(Map<? extends String, ? extends Object> map) {
+		super.putAll(map);
+		modified();
+	}
+
+	@Override
+	public Object remove(Object key) {
+		if (!containsKey(key)) {
+			return null;
+		}
+		Object previous = super.remove(key);
+		modified();
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		if (!isEmpty()) {
+			super.clear();
+			modified();
+		}
+	}
+
+	@Override
+	public Map.Entry<String, Object> pollFirstEntry() {
+		Map.Entry<String, Object> entry = super.pollFirstEntry();
+		if (entry != null) {
+			modified();
+		}
+		return entry;
+	}
+
+	@Override
+	public Map.Entry<String, Object> pollLastEntry() {
+		Map.Entry<String, Object> entry = super.pollLastEntry();
+		if (entry != null) {
+			modified();
+		}
+		return entry;
+	}
+
+	/**
+	 * Returns the modifiable entries without counting a modification.
+	 * 
+	 * @return the entries
+	 */
+	Set<Map.Entry<String, Object>> entries() {
+		return super.entrySet();
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		// the unmodifiable map also protects the values of the entries
+		return Collections.unmodifiableMap(new AbstractMap<String, Object>() {
+			@Override
+			public Set<Map.Entry<String, Object>> entrySet() {
+				return entries();
+			}
+		}).entrySet();
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return Collections.unmodifiableSet(super.navigableKeySet());
+	}
+
+	@Override
+	public Collection<Object> values() {
+		return Collections.unmodifiableCollection(super.values());
+	}
+
+	@Override
+	public NavigableSet<String> navigableKeySet() {
+		return new TreeSet<String>(super.navigableKeySet());
+	}
+
+	@Override
+	public NavigableMap<String, Object> descendingMap() {
+		return new TreeMap<String, Object>(super.descendingMap());
+	}
+
+	@Override
+	public NavigableMap<String, Object> headMap(String toKey, boolean inclusive) {
+		return new TreeMap<String, Object>(super.headMap(toKey, inclusive));
+	}
+
+	@Override
+	public NavigableMap<String, Object> tailMap(String fromKey, boolean inclusive) {
+		return new TreeMap<String, Object>(super.tailMap(fromKey, inclusive));
+	}
+
+	@Override
+	public NavigableMap<String, Object> subMap(String fromKey, boolean fromInclusive, String toKey,
+			boolean toInclusive) {
+		return new TreeMap<String, Object>(super.subMap(fromKey, fromInclusive, toKey, toInclusive));
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.opendse.model.Models.DirectedLink;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import edu.uci.ics.jung.graph.util.Pair;
+
+/**
+ * The {@code DirectedLinkIndex} holds one {@link DirectedLink} instance per
+ * link and direction of an {@link Architecture} and the unmodifiable lists of
+ * the outgoing and incoming directed links of each resource. The lists have
+ * the same order as the lists that are created from the graph. The index is
+ * immutable and may be shared (see {@link ArchitectureView.Base}).
+ * 
+ */
+final class DirectedLinkIndex implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The modifications of the architecture this index was built from.
+	 */
+	final int modifications;
+
+	private final Map<Resource, List<DirectedLink>> outLinks = new HashMap<Resource, List<DirectedLink>>();
+	private final Map<Resource, List<DirectedLink>> inLinks = new HashMap<Resource, List<DirectedLink>>();
+	private final Map<Link, List<DirectedLink>> linkLinks = new HashMap<Link, List<DirectedLink>>();
+	private final List<DirectedLink> links;
+
+	/**
+	 * Constructs the {@code DirectedLinkIndex} of an architecture.
+	 * 
+	 * @param architecture
+	 *            the architecture
+	 */
+	DirectedLinkIndex(Architecture<Resource, Link> architecture) {
+		this.modifications = architecture.getModifications();
+
+		// the directed links of each link (first: from the first endpoint)
+		Map<Link, DirectedLink[]> instances = new HashMap<Link, DirectedLink[]>();
+		for (Link link : architecture.getEdges()) {
+			Pair<Resource> pair = architecture.getEndpoints(link);
+			Resource r0 = pair.getFirst();
+			Resource r1 = pair.getSecond();
+			DirectedLink forward = new DirectedLink(link, r0, r1);
+			List<DirectedLink> list;
+			if (architecture.getEdgeType(link) == EdgeType.UNDIRECTED) {
+				DirectedLink backward = r0.equals(r1) ? forward : new DirectedLink(link, r1, r0);
+				instances.put(link, new DirectedLink[] { forward, backward });
+				list = new ArrayList<DirectedLink>(2);
+				list.add(forward);
+				list.add(backward);
+			} else {
+				instances.put(link, new DirectedLink[] { forward, null });
+				list = Collections.singletonList(forward);
+			}
+			linkLinks.put(link, Collections.unmodifiableList(list));
+		}
+
+		List<DirectedLink> links = new ArrayList<DirectedLink>();
+		for (Resource r0 : architecture.getVertices()) {
+			List<DirectedLink> out = new ArrayList<DirectedLink>();
+			for (Link link : architecture.getOutEdges(r0)) {
+				out.add(get(instances.get(link), r0, true));
+			}
+			List<DirectedLink> in = new ArrayList<DirectedLink>();
+			for (Link link : architecture.getInEdges(r0)) {
+				in.add(get(instances.get(link), r0, false));
+			}
+			outLinks.put(r0, Collections.unmodifiableList(out));
+			inLinks.put(r0, Collections.unmodifiableList(in));
+			links.addAll(out);
+		}
+		this.links = Collections.unmodifiableList(links);
+	}
+
+	private static DirectedLink get(DirectedLink[] instances, Resource r0, boolean source) {
+		DirectedLink forward = instances[0];
+		if ((source ? forward.getSource() : forward.getDest()).equals(r0)) {
+			return forward;
+		}
+		return instances[1];
+	}
+
+	List<DirectedLink> getOutLinks(Resource r0) {
+		List<DirectedLink> list = outLinks.get(r0);
+		return list == null ? Collections.<DirectedLink> emptyList() : list;
+	}
+
+	List<DirectedLink> getInLinks(Resource r0) {
+		List<DirectedLink> list = inLinks.get(r0);
+		return list == null ? Collections.<DirectedLink> emptyList() : list;
+	}
+
+	List<DirectedLink> getLinks(Link link) {
+		List<DirectedLink> list = linkLinks.get(link);
+		return list == null ? Collections.<DirectedLink> emptyList() : list;
+	}
+
+	List<DirectedLink> getLinks() {
+		return links;
+	}
+
+}
@@ -16,7 +16,6 @@
  *******************************************************************************/
 package net.sf.opendse.model;
 
-import java.util.HashSet;
 import java.util.Set;
 
 import net.sf.opendse.model.parameter.Parameter;
@@ -49,6 +48,11 @@ public class Element implements IAttributes {
 	 */
 	protected String id = null;
 
+	/**
+	 * The cached flattened attributes of this element and its parents.
+	 */
+	private AttributeTable table = null;
+
 	/**
 	 * Constructs a new {@code Element}.
 	 * 
@@ -102,6 +106,39 @@ public class Element implements IAttributes {
 			throw new IllegalStateException("Parent element has already been defined.");
 		}
 		this.parent = element;
+		// invalidates the flattened attributes of this element and its children
+		attributes.modified();
+	}
+
+	/**
+	 * Returns the flattened attributes. The table is rebuilt if the local
+	 * attributes of this element or of one of its parents were modified. The
+	 * parents are only checked if the attributes of any parent element were
+	 * modified since the last check, see {@link Attributes#getSharedStamp()}.
+	 * Concurrent rebuilds are benign since the table is immutable.
+	 * 
+	 * @return the flattened attributes
+	 */
+	private AttributeTable getTable() {
+		AttributeTable table = this.table;
+		long stamp = attributes.getStamp();
+		long shared = Attributes.getSharedStamp();
+		if (table != null && table.stamp == stamp) {
+			if (table.checked == shared) {
+				return table;
+			} else if (parent == null || parent.getTable() == table.parent) {
+				table.checked = shared;
+				return table;
+			}
+		}
+		AttributeTable parentTable = null;
+		if (parent != null) {
+			parent.attributes.share();
+			parentTable = parent.getTable();
+		}
+		table = new AttributeTable(parentTable, attributes, stamp, shared);
+		this.table = table;
+		return table;
 	}
 
 	/*
@@ -112,13 +149,7 @@ public class Element implements IAttributes {
 	@SuppressWarnings("unchecked")
 	@Override
 	public <O> O getAttribute(String identifier) {
-		if (attributes.getAttributes().containsKey(identifier)) {
-			return (O) attributes.getAttribute(identifier);
-		} else if (parent != null) {
-			return (O) parent.getAttribute(identifier);
-		} else {
-			return null;
-		}
+		return (O) getTable().get(identifier);
 	}
 
 	/*
@@ -128,13 +159,7 @@ public class Element implements IAttributes {
 	 */
 	@Override
 	public boolean isDefined(String identifier) {
-		if (attributes.isDefined(identifier)) {
-			return true;
-		} else if (parent != null) {
-			return parent.isDefined(identifier);
-		} else {
-			return false;
-		}
+		return getTable().containsKey(identifier);
 	}
 
 	/*
@@ -145,10 +170,7 @@ public class Element implements IAttributes {
 	@Override
 	public Attributes getAttributes() {
 		Attributes map = new Attributes();
-		if (parent != null) {
-			map.putAll(parent.getAttributes());
-		}
-		map.putAll(attributes.getAttributes());
+		getTable().putAll(map);
 		return map;
 	}
 
@@ -247,12 +269,7 @@ public class Element implements IAttributes {
 	 */
 	@Override
 	public Set<String> getAttributeNames() {
-		Set<String> names = new HashSet<String>();
-		if (parent != null) {
-			names.addAll(parent.getAttributeNames());
-		}
-		names.addAll(attributes.getAttributeNames());
-		return names;
+		return getTable().keySet();
 	}
 
 	/**
@@ -17,12 +17,20 @@
 package net.sf.opendse.model;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 
 import edu.uci.ics.jung.graph.SparseMultigraph;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import edu.uci.ics.jung.graph.util.Pair;
 
 /**
  * The {@code Graph} is the default graph implementation.
+ * <p>
+ * The graph maintains an index from the element ids to the vertices and edges
+ * such that {@link #getVertex(String)} and {@link #getEdge(String)} do not
+ * require a scan of the graph.
  * 
  * @author Martin Lukasiewycz
  * 
@@ -35,6 +43,22 @@ public class Graph<V extends Node, E extends Edge> extends SparseMultigraph<V, E
 
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * The index of the vertices by their id.
+	 */
+	protected final Map<String, V> vertexIndex = new HashMap<String, V>();
+
+	/**
+	 * The index of the edges by their id.
+	 */
+	protected final Map<String, E> edgeIndex = new HashMap<String, E>();
+
+	/**
+	 * The number of structural modifications (added or removed vertices and
+	 * edges).
+	 */
+	protected transient int modifications = 0;
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -77,12 +101,7 @@ public class Graph<V extends Node, E extends Edge> extends SparseMultigraph<V, E
 	 * @return the vertex
 	 */
 	public V getVertex(String id) {
-		for (V v : getVertices()) {
-			if (v.getId().equals(id)) {
-				return v;
-			}
-		}
-		return null;
+		return vertexIndex.get(id);
 	}
 
 	/**
@@ -93,12 +112,72 @@ public class Graph<V extends Node, E extends Edge> extends SparseMultigraph<V, E
 	 * @return the edge
 	 */
 	public E getEdge(String id) {
-		for (E e : getEdges()) {
-			if (e.getId().equals(id)) {
-				return e;
-			}
+		return edgeIndex.get(id);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.uci.ics.jung.graph.SparseMultigraph#addVertex(java.lang.Object)
+	 */
+	@Override
+	public boolean addVertex(V vertex) {
+		boolean added = super.addVertex(vertex);
+		if (added) {
+			vertexIndex.put(vertex.getId(), vertex);
+			modifications++;
+		}
+		return added;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.uci.ics.jung.graph.SparseMultigraph#removeVertex(java.lang.Object)
+	 */
+	@Override
+	public boolean removeVertex(V vertex) {
+		boolean removed = super.removeVertex(vertex);
+		if (removed) {
+			modifications++;
+		}
+		if (removed && vertex.equals(vertexIndex.get(vertex.getId()))) {
+			vertexIndex.remove(vertex.getId());
+		}
+		return removed;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.uci.ics.jung.graph.SparseMultigraph#addEdge(java.lang.Object,
+	 * edu.uci.ics.jung.graph.util.Pair, edu.uci.ics.jung.graph.util.EdgeType)
+	 */
+	@Override
+	public boolean addEdge(E edge, Pair<? extends V> endpoints, EdgeType edgeType) {
+		boolean added = super.addEdge(edge, endpoints, edgeType);
+		if (added) {
+			edgeIndex.put(edge.getId(), edge);
+			modifications++;
+		}
+		return added;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see edu.uci.ics.jung.graph.SparseMultigraph#removeEdge(java.lang.Object)
+	 */
+	@Override
+	public boolean removeEdge(E edge) {
+		boolean removed = super.removeEdge(edge);
+		if (removed) {
+			modifications++;
 		}
-		return null;
+		if (removed && edge.equals(edgeIndex.get(edge.getId()))) {
+			edgeIndex.remove(edge.getId());
+		}
+		return removed;
 	}
 
 	/**
@@ -115,4 +194,14 @@ public class Graph<V extends Node, E extends Edge> extends SparseMultigraph<V, E
 		}
 		return b;
 	}
+
+	/**
+	 * Returns the number of structural modifications. Caches of derived
+	 * structures are valid as long as this number is unchanged.
+	 * 
+	 * @return the number of structural modifications
+	 */
+	public int getModifications() {
+		return modifications;
+	}
 }
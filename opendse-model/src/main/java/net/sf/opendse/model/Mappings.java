@@ -29,11 +29,6 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.commons.collections15.Bag;
-import org.apache.commons.collections15.bag.HashBag;
-import org.apache.commons.collections15.functors.InstantiateFactory;
-import org.apache.commons.collections15.map.LazyMap;
-
 /**
  * The {@code Mappings} represent a set of {@link Mapping} elements.
  * 
@@ -44,19 +39,30 @@ import org.apache.commons.collections15.map.LazyMap;
  * @param <R>
  *            the type of resources
  */
-@SuppressWarnings({ "unchecked", "rawtypes" })
+@SuppressWarnings("unchecked")
 public class Mappings<T extends Task, R extends Resource> implements Iterable<Mapping<T, R>> {
 
 	protected Set<Mapping<T, R>> mappings = new HashSet<Mapping<T, R>>();
 
-	protected Map<T, Set<Mapping<T, R>>> taskMappings = LazyMap.decorate(new HashMap<T, Set<Mapping<T, R>>>(),
-			new InstantiateFactory(HashSet.class));
-	protected Map<R, Set<Mapping<T, R>>> resourceMappings = LazyMap.decorate(new HashMap<R, Set<Mapping<T, R>>>(),
-			new InstantiateFactory(HashSet.class));
-	protected Map<T, Bag<R>> targets = LazyMap
-			.decorate(new HashMap<T, Bag<R>>(), new InstantiateFactory(HashBag.class));
-	protected Map<R, Bag<T>> sources = LazyMap
-			.decorate(new HashMap<R, Bag<T>>(), new InstantiateFactory(HashBag.class));
+	/**
+	 * The mappings by task and by resource. Lookups do not insert entries such
+	 * that concurrent reads are safe.
+	 */
+	protected Map<T, Set<Mapping<T, R>>> taskMappings = new HashMap<T, Set<Mapping<T, R>>>();
+	protected Map<R, Set<Mapping<T, R>>> resourceMappings = new HashMap<R, Set<Mapping<T, R>>>();
+
+	/**
+	 * The (task, resource) pair index. The value of a pair is either the
+	 * single {@link Mapping} or a {@code Set} of mappings with the same source
+	 * and target. The key sets of the inner maps are the targets of a task.
+	 */
+	protected Map<T, Map<R, Object>> targets = new HashMap<T, Map<R, Object>>();
+
+	/**
+	 * The inverse of the pair index that shares the values. The key sets of
+	 * the inner maps are the sources of a resource.
+	 */
+	protected Map<R, Map<T, Object>> sources = new HashMap<R, Map<T, Object>>();
 
 	/**
 	 * Adds a mapping.
@@ -65,21 +71,50 @@ public class Mappings<T extends Task, R extends Resource> implements Iterable<Ma
 	 *            the mapping to be added
 	 */
 	public void add(Mapping<T, R> mapping) {
-		mappings.add(mapping);
+		if (!mappings.add(mapping)) {
+			return;
+		}
 		T source = mapping.getSource();
 		R target = mapping.getTarget();
 
 		Set<Mapping<T, R>> s0 = taskMappings.get(source);
+		if (s0 == null) {
+			s0 = new HashSet<Mapping<T, R>>();
+			taskMappings.put(source, s0);
+		}
 		Set<Mapping<T, R>> s1 = resourceMappings.get(target);
+		if (s1 == null) {
+			s1 = new HashSet<Mapping<T, R>>();
+			resourceMappings.put(target, s1);
+		}
 
 		s0.add(mapping);
 		s1.add(mapping);
 
-		Bag<R> ts = targets.get(source);
-		Bag<T> ss = sources.get(target);
+		Map<R, Object> ts = targets.get(source);
+		if (ts == null) {
+			ts = new HashMap<R, Object>(4);
+			targets.put(source, ts);
+		}
+		Map<T, Object> ss = sources.get(target);
+		if (ss == null) {
+			ss = new HashMap<T, Object>(4);
+			sources.put(target, ss);
+		}
 
-		ts.add(target);
-		ss.add(source);
+		Object value = ts.get(target);
+		if (value == null) {
+			value = mapping;
+		} else if (value instanceof Mapping) {
+			Set<Mapping<T, R>> set = new HashSet<Mapping<T, R>>(4);
+			set.add((Mapping<T, R>) value);
+			set.add(mapping);
+			value = set;
+		} else {
+			((Set<Mapping<T, R>>) value).add(mapping);
+		}
+		ts.put(target, value);
+		ss.put(source, value);
 	}
 
 	/**
@@ -100,12 +135,33 @@ public class Mappings<T extends Task, R extends Resource> implements Iterable<Ma
 
 			s0.remove(mapping);
 			s1.remove(mapping);
+			if (s0.isEmpty()) {
+				taskMappings.remove(source);
+			}
+			if (s1.isEmpty()) {
+				resourceMappings.remove(target);
+			}
 
-			Bag<R> ts = targets.get(source);
-			Bag<T> ss = sources.get(target);
+			Map<R, Object> ts = targets.get(source);
+			Map<T, Object> ss = sources.get(target);
 
-			ts.remove(target);
-			ss.remove(source);
+			Object value = ts.get(target);
+			if (value instanceof Set) {
+				Set<Mapping<T, R>> set = (Set<Mapping<T, R>>) value;
+				set.remove(mapping);
+				value = set.size() == 1 ? set.iterator().next() : set;
+				ts.put(target, value);
+				ss.put(source, value);
+			} else {
+				ts.remove(target);
+				ss.remove(source);
+				if (ts.isEmpty()) {
+					targets.remove(source);
+				}
+				if (ss.isEmpty()) {
+					sources.remove(target);
+				}
+			}
 		}
 		return exist;
 	}
@@ -145,7 +201,8 @@ public class Mappings<T extends Task, R extends Resource> implements Iterable<Ma
 	 * @return all mappings with the specified source
 	 */
 	public Set<Mapping<T, R>> get(T source) {
-		return Collections.unmodifiableSet(taskMappings.get(source));
+		Set<Mapping<T, R>> set = taskMappings.get(source);
+		return set == null ? Collections.<Mapping<T, R>> emptySet() : Collections.unmodifiableSet(set);
 	}
 
 	/**
@@ -156,7 +213,8 @@ public class Mappings<T extends Task, R extends Resource> implements Iterable<Ma
 	 * @return all targets
 	 */
 	public Set<R> getTargets(T source) {
-		return targets.get(source).uniqueSet();
+		Map<R, Object> ts = targets.get(source);
+		return ts == null ? Collections.<R> emptySet() : Collections.unmodifiableSet(ts.keySet());
 	}
 
 	/**
@@ -167,7 +225,8 @@ public class Mappings<T extends Task, R extends Resource> implements Iterable<Ma
 	 * @return all mappings with the specified target
 	 */
 	public Set<Mapping<T, R>> get(R target) {
-		return Collections.unmodifiableSet(resourceMappings.get(target));
+		Set<Mapping<T, R>> set = resourceMappings.get(target);
+		return set == null ? Collections.<Mapping<T, R>> emptySet() : Collections.unmodifiableSet(set);
 	}
 
 	/**
@@ -178,7 +237,8 @@ public class Mappings<T extends Task, R extends Resource> implements Iterable<Ma
 	 * @return all sources
 	 */
 	public Set<T> getSources(R target) {
-		return sources.get(target).uniqueSet();
+		Map<T, Object> ss = sources.get(target);
+		return ss == null ? Collections.<T> emptySet() : Collections.unmodifiableSet(ss.keySet());
 	}
 
 	/**
@@ -191,9 +251,15 @@ public class Mappings<T extends Task, R extends Resource> implements Iterable<Ma
 	 * @return the mappings with the specified source and target
 	 */
 	public Set<Mapping<T, R>> get(T source, R target) {
-		Set<Mapping<T, R>> set = new HashSet<Mapping<T, R>>(get(source));
-		set.retainAll(get(target));
-		return Collections.unmodifiableSet(set);
+		Map<R, Object> ts = targets.get(source);
+		Object value = ts == null ? null : ts.get(target);
+		if (value == null) {
+			return Collections.emptySet();
+		} else if (value instanceof Mapping) {
+			return Collections.singleton((Mapping<T, R>) value);
+		} else {
+			return Collections.unmodifiableSet((Set<Mapping<T, R>>) value);
+		}
 	}
 
 	/**
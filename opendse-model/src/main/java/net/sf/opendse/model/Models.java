@@ -16,6 +16,7 @@
  *******************************************************************************/
 package net.sf.opendse.model;
 
+import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -29,7 +30,6 @@ import java.util.Set;
 import org.apache.commons.collections15.Predicate;
 import org.apache.commons.collections15.iterators.FilterIterator;
 
-import edu.uci.ics.jung.graph.util.EdgeType;
 import edu.uci.ics.jung.graph.util.Pair;
 
 /**
@@ -192,10 +192,14 @@ public class Models {
 	 * @author Martin Lukasiewycz
 	 * 
 	 */
-	public static class DirectedLink {
+	public static class DirectedLink implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		final Link l;
 		final Resource r0;
 		final Resource r1;
+		final int hash;
 
 		/**
 		 * Constructs a {@code DirectedLink}.
@@ -212,10 +216,20 @@ public class Models {
 			this.l = l;
 			this.r0 = r0;
 			this.r1 = r1;
+
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((l == null) ? 0 : l.hashCode());
+			result = prime * result + ((r0 == null) ? 0 : r0.hashCode());
+			result = prime * result + ((r1 == null) ? 0 : r1.hashCode());
+			this.hash = result;
 		}
 
 		@Override
 		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
 			if (obj instanceof DirectedLink) {
 				DirectedLink other = (DirectedLink) obj;
 				return (this.l.equals(other.l) && this.r0.equals(other.r0) && this.r1.equals(other.r1));
@@ -225,12 +239,7 @@ public class Models {
 		
 		@Override
 		public int hashCode() {
-			final int prime = 31;
-			int result = 1;
-			result = prime * result + ((l == null) ? 0 : l.hashCode());
-			result = prime * result + ((r0 == null) ? 0 : r0.hashCode());
-			result = prime * result + ((r1 == null) ? 0 : r1.hashCode());
-			return result;
+			return hash;
 		}
 
 		/**
@@ -263,7 +272,8 @@ public class Models {
 
 	/**
 	 * Returns the list of {@code DirectedLink} elements that have a given source
-	 * {code Resource}.
+	 * {code Resource}. The unmodifiable list is cached by the architecture
+	 * until the next structural modification.
 	 * 
 	 * @param architecture
 	 *            the architecture
@@ -276,17 +286,13 @@ public class Models {
 		assert (r0 != null);
 		assert (architecture.containsVertex(r0));
 
-		List<DirectedLink> list = new ArrayList<DirectedLink>();
-		for (Link link : architecture.getOutEdges(r0)) {
-			Resource r1 = architecture.getOpposite(r0, link);
-			list.add(new DirectedLink(link, r0, r1));
-		}
-		return list;
+		return architecture.getOutLinks(r0);
 	}
 
 	/**
 	 * Returns the list of {@code DirectedLink} elements that have a given
-	 * destination {code Resource}.
+	 * destination {code Resource}. The unmodifiable list is cached by the
+	 * architecture until the next structural modification.
 	 * 
 	 * @param architecture
 	 *            the architecture
@@ -295,32 +301,26 @@ public class Models {
 	 * @return all incoming directed links
 	 */
 	public static List<DirectedLink> getInLinks(Architecture<Resource, Link> architecture, Resource r0) {
-		List<DirectedLink> list = new ArrayList<DirectedLink>();
-		for (Link link : architecture.getInEdges(r0)) {
-			Resource r1 = architecture.getOpposite(r0, link);
-			list.add(new DirectedLink(link, r1, r0));
-		}
-		return list;
+		return architecture.getInLinks(r0);
 	}
 
 	/**
-	 * Returns all {@code DirectedLink} elements of an {@code Architecture}.
+	 * Returns all {@code DirectedLink} elements of an {@code Architecture}. The
+	 * unmodifiable list is cached by the architecture until the next
+	 * structural modification.
 	 * 
 	 * @param architecture
 	 *            the architecture
 	 * @return all directed links
 	 */
 	public static List<DirectedLink> getLinks(Architecture<Resource, Link> architecture) {
-		List<DirectedLink> list = new ArrayList<DirectedLink>();
-		for (Resource r0 : architecture.getVertices()) {
-			list.addAll(getOutLinks(architecture, r0));
-		}
-		return list;
+		return architecture.getLinks();
 	}
 
 	/**
 	 * Returns all {@code DirectedLink} elements of an {@code Architecture} for
-	 * given {@code Link}.
+	 * given {@code Link}. The unmodifiable list is cached by the architecture
+	 * until the next structural modification.
 	 * 
 	 * @param architecture
 	 *            the architecture
@@ -329,19 +329,7 @@ public class Models {
 	 * @return all directed links for a given link
 	 */
 	public static List<DirectedLink> getLinks(Architecture<Resource, Link> architecture, Link link) {
-		List<DirectedLink> list = new ArrayList<DirectedLink>();
-		Pair<Resource> pair = architecture.getEndpoints(link);
-		Resource r0 = pair.getFirst();
-		Resource r1 = pair.getSecond();
-
-		if (architecture.getEdgeType(link) == EdgeType.UNDIRECTED) {
-			list.add(new DirectedLink(link, r0, r1));
-			list.add(new DirectedLink(link, r1, r0));
-		} else {
-			list.add(new DirectedLink(link, r0, r1));
-		}
-
-		return list;
+		return architecture.getLinks(link);
 	}
 
 	/**
@@ -60,17 +60,12 @@ public class Specification extends Element {
 		@SuppressWarnings("unchecked")
 		Architecture<Resource, Link> arch = (Architecture<Resource, Link>) architecture;
 
+		// the views share the structure of the architecture; each view has its own copies of the elements
+		ArchitectureView.Base<Resource, Link> base = new ArchitectureView.Base<Resource, Link>(arch);
+
 		for (Task task : application) {
 			if (task instanceof ICommunication) {
-				Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
-
-				for (Resource resource : architecture.getVertices()) {
-					routing.addVertex(new Resource(resource));
-				}
-				for (Link link : architecture.getEdges()) {
-					routing.addEdge(new Link(link), arch.getEndpoints(link), arch.getEdgeType(link));
-				}
-				routings.set(task, routing);
+				routings.set(task, ArchitectureView.copies(base));
 			}
 		}
 
@@ -87,6 +87,15 @@ public class ParameterRange implements Parameter {
 		return ub;
 	}
 
+	/**
+	 * Returns the granularity (step-size).
+	 * 
+	 * @return the granularity
+	 */
+	public double getGranularity() {
+		return granularity;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
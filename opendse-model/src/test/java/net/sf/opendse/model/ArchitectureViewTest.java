@@ -0,0 +1,249 @@
+package net.sf.opendse.model;
+
+import java.util.HashSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Models.DirectedLink;
+
+public class ArchitectureViewTest {
+
+	protected static Architecture<Resource, Link> createArchitecture() {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Resource r0 = new Resource("r0");
+		Resource r1 = new Resource("r1");
+		Resource r2 = new Resource("r2");
+		Resource r3 = new Resource("r3");
+		architecture.addEdge(new Link("l0"), r0, r1, EdgeType.UNDIRECTED);
+		architecture.addEdge(new Link("l1"), r1, r2, EdgeType.DIRECTED);
+		architecture.addEdge(new Link("l2"), r2, r3, EdgeType.UNDIRECTED);
+		architecture.addEdge(new Link("l3"), r3, r0, EdgeType.DIRECTED);
+		return architecture;
+	}
+
+	protected static <X> void assertSameElements(java.util.Collection<X> expected, java.util.Collection<X> actual) {
+		if (expected == null) {
+			Assert.assertNull(actual);
+		} else {
+			Assert.assertEquals(expected.size(), actual.size());
+			Assert.assertEquals(new HashSet<X>(expected), new HashSet<X>(actual));
+		}
+	}
+
+	protected static void assertEqualGraphs(Architecture<Resource, Link> expected, Architecture<Resource, Link> actual) {
+		assertSameElements(expected.getVertices(), actual.getVertices());
+		assertSameElements(expected.getEdges(), actual.getEdges());
+		Assert.assertEquals(expected.getVertexCount(), actual.getVertexCount());
+		Assert.assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+		for (EdgeType type : EdgeType.values()) {
+			assertSameElements(expected.getEdges(type), actual.getEdges(type));
+			Assert.assertEquals(expected.getEdgeCount(type), actual.getEdgeCount(type));
+		}
+		for (Resource r : createArchitecture().getVertices()) {
+			Assert.assertEquals(expected.containsVertex(r), actual.containsVertex(r));
+			assertSameElements(expected.getInEdges(r), actual.getInEdges(r));
+			assertSameElements(expected.getOutEdges(r), actual.getOutEdges(r));
+			assertSameElements(expected.getPredecessors(r), actual.getPredecessors(r));
+			assertSameElements(expected.getSuccessors(r), actual.getSuccessors(r));
+			assertSameElements(expected.getNeighbors(r), actual.getNeighbors(r));
+			assertSameElements(expected.getIncidentEdges(r), actual.getIncidentEdges(r));
+			Assert.assertEquals(expected.getVertex(r.getId()), actual.getVertex(r.getId()));
+			for (Resource s : createArchitecture().getVertices()) {
+				Assert.assertEquals(expected.findEdge(r, s), actual.findEdge(r, s));
+			}
+		}
+		for (Link l : createArchitecture().getEdges()) {
+			Assert.assertEquals(expected.containsEdge(l), actual.containsEdge(l));
+			Assert.assertEquals(expected.getEndpoints(l), actual.getEndpoints(l));
+			Assert.assertEquals(expected.getSource(l), actual.getSource(l));
+			Assert.assertEquals(expected.getDest(l), actual.getDest(l));
+			Assert.assertEquals(expected.getEdge(l.getId()), actual.getEdge(l.getId()));
+			if (expected.containsEdge(l)) {
+				Assert.assertEquals(expected.getEdgeType(l), actual.getEdgeType(l));
+			}
+		}
+		assertSameElements(Models.getLinks(expected), Models.getLinks(actual));
+	}
+
+	@Test
+	public void testQueries() {
+		Architecture<Resource, Link> architecture = createArchitecture();
+		ArchitectureView<Resource, Link> view = new ArchitectureView<Resource, Link>(architecture);
+
+		assertEqualGraphs(architecture, view);
+		Assert.assertSame(architecture.getVertex("r0"), view.getVertex("r0"));
+		Assert.assertFalse(view.isMaterialized());
+	}
+
+	@Test
+	public void testRemove() {
+		Architecture<Resource, Link> architecture = createArchitecture();
+		ArchitectureView.Base<Resource, Link> base = new ArchitectureView.Base<Resource, Link>(architecture);
+		ArchitectureView<Resource, Link> view = new ArchitectureView<Resource, Link>(base);
+		ArchitectureView<Resource, Link> other = new ArchitectureView<Resource, Link>(base);
+
+		int modifications = view.getModifications();
+		Assert.assertTrue(view.removeVertex(view.getVertex("r1")));
+		Assert.assertFalse(view.removeVertex(new Resource("r1")));
+		Assert.assertTrue(view.removeEdge(view.getEdge("l2")));
+		Assert.assertTrue(view.getModifications() > modifications);
+
+		Architecture<Resource, Link> expected = createArchitecture();
+		expected.removeVertex(expected.getVertex("r1"));
+		expected.removeEdge(expected.getEdge("l2"));
+
+		assertEqualGraphs(expected, view);
+		assertEqualGraphs(architecture, other);
+		Assert.assertEquals(4, architecture.getVertexCount());
+		Assert.assertFalse(view.isMaterialized());
+	}
+
+	@Test
+	public void testDirectedLinks() {
+		Architecture<Resource, Link> architecture = createArchitecture();
+		ArchitectureView<Resource, Link> view = new ArchitectureView<Resource, Link>(architecture);
+		Resource r0 = view.getVertex("r0");
+
+		Assert.assertEquals(1, Models.getOutLinks(view, r0).size());
+		Assert.assertEquals(2, Models.getInLinks(view, r0).size());
+		view.removeEdge(view.getEdge("l0"));
+		Assert.assertEquals(0, Models.getOutLinks(view, r0).size());
+		for (DirectedLink link : Models.getInLinks(view, r0)) {
+			Assert.assertEquals("l3", link.getLink().getId());
+		}
+	}
+
+	@Test
+	public void testSharedDirectedLinks() {
+		Architecture<Resource, Link> architecture = createArchitecture();
+		ArchitectureView.Base<Resource, Link> base = new ArchitectureView.Base<Resource, Link>(architecture);
+		ArchitectureView<Resource, Link> view = new ArchitectureView<Resource, Link>(base);
+		ArchitectureView<Resource, Link> other = new ArchitectureView<Resource, Link>(base);
+		Resource r0 = architecture.getVertex("r0");
+
+		// the views share the directed links of the architecture
+		Assert.assertSame(Models.getOutLinks(architecture, r0), Models.getOutLinks(view, r0));
+		Assert.assertSame(Models.getInLinks(view, r0), Models.getInLinks(other, r0));
+		Assert.assertSame(Models.getLinks(view), Models.getLinks(view));
+
+		view.removeVertex(view.getVertex("r1"));
+		view.removeEdge(view.getEdge("l2"));
+		Architecture<Resource, Link> expected = createArchitecture();
+		expected.removeVertex(expected.getVertex("r1"));
+		expected.removeEdge(expected.getEdge("l2"));
+
+		Assert.assertEquals(Models.getLinks(expected), Models.getLinks(view));
+		for (Resource r : expected.getVertices()) {
+			Assert.assertEquals(Models.getOutLinks(expected, r), Models.getOutLinks(view, r));
+			Assert.assertEquals(Models.getInLinks(expected, r), Models.getInLinks(view, r));
+		}
+		for (Link l : createArchitecture().getEdges()) {
+			Assert.assertEquals(Models.getLinks(expected, l), Models.getLinks(view, l));
+		}
+		for (DirectedLink link : Models.getLinks(view)) {
+			Assert.assertTrue(Models.getLinks(architecture).contains(link));
+			Assert.assertSame(link, Models.getLinks(architecture).get(Models.getLinks(architecture).indexOf(link)));
+		}
+		Assert.assertEquals(Models.getLinks(architecture), Models.getLinks(other));
+	}
+
+	@Test
+	public void testMaterialize() {
+		Architecture<Resource, Link> architecture = createArchitecture();
+		ArchitectureView<Resource, Link> view = new ArchitectureView<Resource, Link>(architecture);
+		view.removeVertex(view.getVertex("r3"));
+
+		Resource r4 = new Resource("r4");
+		view.addEdge(new Link("l4"), view.getVertex("r0"), r4, EdgeType.UNDIRECTED);
+		Assert.assertTrue(view.isMaterialized());
+
+		Architecture<Resource, Link> expected = createArchitecture();
+		expected.removeVertex(expected.getVertex("r3"));
+		expected.addEdge(new Link("l4"), expected.getVertex("r0"), r4, EdgeType.UNDIRECTED);
+
+		assertEqualGraphs(expected, view);
+		Assert.assertEquals(4, architecture.getVertexCount());
+		Assert.assertFalse(architecture.containsVertex(r4));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testUnmodifiable() {
+		ArchitectureView<Resource, Link> view = new ArchitectureView<Resource, Link>(createArchitecture());
+		view.getVertices().clear();
+	}
+
+	@Test
+	public void testSpecificationFill() {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Task t0 = new Task("t0");
+		Task t1 = new Task("t1");
+		Communication c0 = new Communication("c0");
+		Communication c1 = new Communication("c1");
+		application.addEdge(new Dependency("d0"), t0, c0, EdgeType.DIRECTED);
+		application.addEdge(new Dependency("d1"), c0, t1, EdgeType.DIRECTED);
+		application.addEdge(new Dependency("d2"), t1, c1, EdgeType.DIRECTED);
+		Architecture<Resource, Link> architecture = createArchitecture();
+
+		Specification specification = new Specification(application, architecture, new Mappings<Task, Resource>());
+		Routings<Task, Resource, Link> routings = specification.getRoutings();
+		Architecture<Resource, Link> routing0 = routings.get(c0);
+		Architecture<Resource, Link> routing1 = routings.get(c1);
+
+		assertEqualGraphs(architecture, routing0);
+		Assert.assertSame(architecture.getVertex("r0"), routing0.getVertex("r0").getParent());
+		Assert.assertSame(architecture.getEdge("l0"), routing0.getEdge("l0").getParent());
+		Assert.assertNotSame(routing0.getVertex("r0"), routing1.getVertex("r0"));
+		Assert.assertNotSame(architecture.getVertex("r0"), routing0.getVertex("r0"));
+
+		// the copies are kept by the view
+		Resource r0 = routing0.getVertex("r0");
+		Link l0 = routing0.getEdge("l0");
+		Assert.assertSame(r0, routing0.getVertex("r0"));
+		Assert.assertSame(r0, routing0.getEndpoints(l0).getFirst());
+		Assert.assertTrue(routing0.getVertices().contains(r0));
+		for (Resource r : routing0.getNeighbors(r0)) {
+			Assert.assertSame(routing0.getVertex(r.getId()), r);
+		}
+		for (DirectedLink link : Models.getLinks(routing0)) {
+			Assert.assertSame(routing0.getEdge(link.getLink().getId()), link.getLink());
+			Assert.assertSame(routing0.getVertex(link.getSource().getId()), link.getSource());
+			Assert.assertSame(routing0.getVertex(link.getDest().getId()), link.getDest());
+		}
+		Assert.assertSame(Models.getOutLinks(routing0, r0).get(0), Models.getOutLinks(routing0, r0).get(0));
+
+		routing0.removeVertex(r0);
+		Assert.assertEquals(3, routing0.getVertexCount());
+		Assert.assertEquals(4, routing1.getVertexCount());
+	}
+
+	@Test
+	public void testSpecificationFillAttributes() {
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Communication c0 = new Communication("c0");
+		Communication c1 = new Communication("c1");
+		application.addVertex(c0);
+		application.addVertex(c1);
+		Architecture<Resource, Link> architecture = createArchitecture();
+		architecture.getVertex("r0").setAttribute("a", 1);
+
+		Specification specification = new Specification(application, architecture, new Mappings<Task, Resource>());
+		Architecture<Resource, Link> routing0 = specification.getRoutings().get(c0);
+		Architecture<Resource, Link> routing1 = specification.getRoutings().get(c1);
+
+		routing0.getVertex("r0").setAttribute("a", 2);
+		routing0.getEdge("l0").setAttribute("b", 3);
+		Assert.assertEquals(2, (int) routing0.getVertex("r0").<Integer> getAttribute("a"));
+		Assert.assertEquals(1, (int) routing1.getVertex("r0").<Integer> getAttribute("a"));
+		Assert.assertEquals(1, (int) architecture.getVertex("r0").<Integer> getAttribute("a"));
+		Assert.assertNull(routing1.getEdge("l0").getAttribute("b"));
+		Assert.assertNull(architecture.getEdge("l0").getAttribute("b"));
+
+		// the attributes of the copies are kept if the view is materialized
+		routing0.addVertex(new Resource("r4"));
+		Assert.assertEquals(2, (int) routing0.getVertex("r0").<Integer> getAttribute("a"));
+		Assert.assertEquals(3, (int) routing0.getEdge("l0").<Integer> getAttribute("b"));
+	}
+
+}
@@ -1,5 +1,9 @@
 package net.sf.opendse.model;
 
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -83,4 +87,96 @@ public class AttributesTest {
 		Assert.assertTrue(attributes.isDefined(id));
 		Assert.assertFalse(attributes.isDefined("other"));
 	}
+
+	/**
+	 * Tests that reading the attributes and their views does not change the
+	 * stamp.
+	 */
+	@Test
+	public void testReadDoesNotModify() {
+		Attributes attributes = new Attributes();
+		attributes.setAttribute("a", 1);
+		attributes.setAttribute("b", 2);
+		long stamp = attributes.getStamp();
+
+		Assert.assertEquals(2, attributes.getAttributeNames().size());
+		Assert.assertEquals(2, attributes.entrySet().size());
+		Assert.assertTrue(attributes.values().contains(2));
+		Assert.assertEquals("a", attributes.descendingKeySet().last());
+		Assert.assertEquals(1, attributes.headMap("b").size());
+		for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+			entry.getValue();
+		}
+		Assert.assertEquals("{a=1, b=2}", attributes.toString());
+		Assert.assertEquals(attributes, attributes.clone());
+		attributes.hashCode();
+		Assert.assertNull(attributes.remove("c"));
+
+		Assert.assertEquals(stamp, attributes.getStamp());
+	}
+
+	/**
+	 * Tests that the views cannot modify the attributes and that the
+	 * navigable views are copies.
+	 */
+	@Test
+	public void testViewsDoNotModify() {
+		Element element = new Task("t");
+		element.setAttribute("a", 1);
+		element.setAttribute("b", 2);
+		element.setAttribute("c", 3);
+		Attributes attributes = element.getLocalAttributes();
+		long stamp = attributes.getStamp();
+		Assert.assertEquals(1, (int) element.<Integer> getAttribute("a"));
+
+		try {
+			attributes.keySet().remove("a");
+			Assert.fail();
+		} catch (UnsupportedOperationException e) {
+		}
+		try {
+			attributes.entrySet().iterator().next().setValue(4);
+			Assert.fail();
+		} catch (UnsupportedOperationException e) {
+		}
+		Iterator<Object> values = attributes.values().iterator();
+		values.next();
+		try {
+			values.remove();
+			Assert.fail();
+		} catch (UnsupportedOperationException e) {
+		}
+
+		NavigableMap<String, Object> head = attributes.headMap("c", false);
+		head.put("a", 5);
+		head.descendingKeySet().pollFirst();
+		Assert.assertEquals(1, head.size());
+
+		Assert.assertEquals(stamp, attributes.getStamp());
+		Assert.assertEquals(1, (int) element.<Integer> getAttribute("a"));
+		Assert.assertEquals(2, (int) element.<Integer> getAttribute("b"));
+		Assert.assertEquals(3, attributes.size());
+	}
+
+	/**
+	 * Tests that the stamp is assigned after the modification.
+	 */
+	@Test
+	public void testModify() {
+		Element element = new Task("t");
+		Attributes attributes = element.getLocalAttributes();
+		attributes.put("a", 1);
+		Assert.assertEquals(1, (int) element.<Integer> getAttribute("a"));
+
+		long stamp = attributes.getStamp();
+		Assert.assertEquals(1, attributes.pollFirstEntry().getValue());
+		Assert.assertTrue(attributes.getStamp() > stamp);
+		Assert.assertNull(element.getAttribute("a"));
+
+		stamp = attributes.getStamp();
+		Assert.assertNull(attributes.pollLastEntry());
+		attributes.clear();
+		Assert.assertEquals(stamp, attributes.getStamp());
+	}
+
 }
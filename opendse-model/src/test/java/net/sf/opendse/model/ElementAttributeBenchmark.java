@@ -0,0 +1,55 @@
+package net.sf.opendse.model;
+
+/**
+ * The {@code ElementAttributeBenchmark} measures the cost of
+ * {@link Element#getAttribute(String)} for elements that are one level deep
+ * over a specification element, i.e., the elements of an implementation,
+ * with an increasing number of attributes.
+ * 
+ */
+public class ElementAttributeBenchmark {
+
+	protected static final int LOOKUPS = 10000000;
+
+	public static void main(String[] args) {
+		int[] sizes = { 1, 5, 10, 50 };
+
+		// warm-up
+		run(sizes[1]);
+
+		System.out.println("attributes\tns/local\tns/parent\tns/missing");
+		for (int size : sizes) {
+			double[] result = run(size);
+			System.out.printf("%d\t%.1f\t%.1f\t%.1f%n", size, result[0], result[1], result[2]);
+		}
+	}
+
+	protected static double[] run(int size) {
+		Resource resource = new Resource("r");
+		for (int i = 0; i < size; i++) {
+			resource.setAttribute("a" + i, i);
+		}
+		Resource implementation = new Resource(resource);
+		implementation.setAttribute("local", 1);
+
+		String parent = "a" + (size - 1);
+		return new double[] { time(implementation, "local"), time(implementation, parent),
+				time(implementation, "missing") };
+	}
+
+	protected static double time(Element element, String identifier) {
+		int found = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < LOOKUPS; i++) {
+			if (element.getAttribute(identifier) != null) {
+				found++;
+			}
+		}
+		long time = System.nanoTime() - start;
+		if (found < 0) {
+			throw new IllegalStateException();
+		}
+		return (double) time / LOOKUPS;
+	}
+
+}
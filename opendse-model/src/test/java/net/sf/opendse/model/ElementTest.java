@@ -1,5 +1,7 @@
 package net.sf.opendse.model;
 
+import java.util.Set;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -230,4 +232,106 @@ public class ElementTest {
 		Assert.assertNotEquals(element, null);
 		Assert.assertEquals(element, parent);
 	}
+
+	/**
+	 * Tests that the flattened attributes are invalidated if an attribute of
+	 * the element or one of its parents is changed.
+	 */
+	@Test
+	public void testGetAttributeAfterModification() {
+		Element root = new Element("id");
+		Element parent = new Element(root);
+		Element element = new Element(parent);
+		root.setAttribute("x", 1);
+		Assert.assertEquals(1, (int) element.<Integer> getAttribute("x"));
+
+		root.setAttribute("x", 2);
+		Assert.assertEquals(2, (int) element.<Integer> getAttribute("x"));
+
+		parent.setAttribute("x", 3);
+		Assert.assertEquals(3, (int) element.<Integer> getAttribute("x"));
+		Assert.assertEquals(2, (int) root.<Integer> getAttribute("x"));
+
+		parent.getLocalAttributes().remove("x");
+		Assert.assertEquals(2, (int) element.<Integer> getAttribute("x"));
+
+		element.getLocalAttributes().put("y", 4);
+		Assert.assertEquals(4, (int) element.<Integer> getAttribute("y"));
+		Assert.assertEquals(2, element.getAttributeNames().size());
+	}
+
+	/**
+	 * Tests that the attribute names are kept until a modification.
+	 */
+	@Test
+	public void testGetAttributeNamesCached() {
+		Element parent = new Element("id");
+		parent.setAttribute("x", 1);
+		Element element = new Element(parent);
+		Set<String> names = element.getAttributeNames();
+		Assert.assertSame(names, element.getAttributeNames());
+
+		// a modification of another element does not invalidate the names
+		new Element("other").setAttribute("y", 2);
+		Assert.assertSame(names, element.getAttributeNames());
+
+		parent.setAttribute("y", 2);
+		Assert.assertEquals(2, element.getAttributeNames().size());
+		Assert.assertEquals(1, names.size());
+	}
+
+	/**
+	 * Tests that a local {@code null} value hides the value of the parent.
+	 */
+	@Test
+	public void testGetAttributeLocalNull() {
+		Element parent = new Element("id");
+		parent.setAttribute("x", 1);
+		Element element = new Element(parent);
+		element.setAttribute("x", null);
+
+		Assert.assertNull(element.getAttribute("x"));
+		Assert.assertTrue(element.isDefined("x"));
+	}
+
+	/**
+	 * Tests that setting the parent of a parent invalidates the flattened
+	 * attributes.
+	 */
+	@Test
+	public void testSetParentInvalidates() {
+		Element parent = new Element("id");
+		Element element = new Element(parent);
+		Assert.assertNull(element.getAttribute("x"));
+
+		Element root = new Element("id");
+		root.setAttribute("x", 1);
+		parent.setParent(root);
+		Assert.assertEquals(1, (int) element.<Integer> getAttribute("x"));
+	}
+
+	/**
+	 * Tests that {@link Element#getAttributes()} returns a copy.
+	 */
+	@Test
+	public void testGetAttributesCopy() {
+		Element element = new Element("id");
+		element.setAttribute("x", 1);
+		element.getAttributes().put("y", 2);
+
+		Assert.assertFalse(element.isDefined("y"));
+		Assert.assertEquals(1, element.getAttributes().size());
+	}
+
+	/**
+	 * Tests that a parameter is resolved.
+	 */
+	@Test
+	public void testGetAttributeParameterValue() {
+		Element parent = new Element("id");
+		parent.setAttribute("parameter", new ParameterRange(1.0, 0.0, 2.0));
+		Element element = new Element(parent);
+
+		Assert.assertEquals(1.0, element.<Double> getAttribute("parameter"), 0.0);
+	}
 }
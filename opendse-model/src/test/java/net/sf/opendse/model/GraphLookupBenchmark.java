@@ -0,0 +1,69 @@
+package net.sf.opendse.model;
+
+/**
+ * The {@code GraphLookupBenchmark} measures the cost of the id based lookup
+ * {@link Graph#getVertex(String)} and {@link Graph#getEdge(String)} for
+ * architectures of increasing size. With the id index, the time per lookup
+ * stays constant as the graph grows.
+ * 
+ */
+public class GraphLookupBenchmark {
+
+	protected static final int LOOKUPS = 1000000;
+
+	public static void main(String[] args) {
+		int[] sizes = { 100, 1000, 10000, 100000 };
+
+		// warm-up
+		run(sizes[0]);
+
+		System.out.println("size\tns/getVertex\tns/getEdge");
+		for (int size : sizes) {
+			double[] result = run(size);
+			System.out.printf("%d\t%.1f\t%.1f%n", size, result[0], result[1]);
+		}
+	}
+
+	protected static double[] run(int size) {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Resource previous = new Resource("r0");
+		architecture.addVertex(previous);
+		for (int i = 1; i < size; i++) {
+			Resource resource = new Resource("r" + i);
+			architecture.addEdge(new Link("l" + i), previous, resource);
+			previous = resource;
+		}
+
+		String[] rids = new String[size];
+		String[] lids = new String[size - 1];
+		for (int i = 0; i < size; i++) {
+			rids[i] = "r" + i;
+		}
+		for (int i = 1; i < size; i++) {
+			lids[i - 1] = "l" + i;
+		}
+
+		int found = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < LOOKUPS; i++) {
+			if (architecture.getVertex(rids[i % rids.length]) != null) {
+				found++;
+			}
+		}
+		long vertexTime = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int i = 0; i < LOOKUPS; i++) {
+			if (architecture.getEdge(lids[i % lids.length]) != null) {
+				found++;
+			}
+		}
+		long edgeTime = System.nanoTime() - start;
+
+		if (found != 2 * LOOKUPS) {
+			throw new IllegalStateException("Lookup failed.");
+		}
+		return new double[] { (double) vertexTime / LOOKUPS, (double) edgeTime / LOOKUPS };
+	}
+
+}
@@ -1,5 +1,6 @@
 package net.sf.opendse.model;
 
+import java.util.Arrays;
 import java.util.Collections;
 
 import org.junit.Assert;
@@ -81,4 +82,70 @@ public class GraphTest {
 		Assert.assertTrue(app.removeVertices(Collections.singleton(task)));
 		Assert.assertEquals(0, app.getVertexCount());
 	}
+
+	@Test
+	public void removeVertexPerId() {
+		Graph<Task, Dependency> app = new Graph<Task, Dependency>();
+		Task task = new Task("x");
+		Task task2 = new Task("y");
+		Dependency e = new Dependency("e");
+		app.addEdge(e, task, task2);
+
+		Assert.assertTrue(app.removeVertex(task));
+		Assert.assertNull(app.getVertex("x"));
+		Assert.assertNull(app.getEdge("e"));
+		Assert.assertEquals(task2, app.getVertex("y"));
+	}
+
+	@Test
+	public void removeEdgePerId() {
+		Graph<Task, Dependency> app = new Graph<Task, Dependency>();
+		Task task = new Task("x");
+		Task task2 = new Task("y");
+		Dependency e = new Dependency("e");
+		app.addEdge(e, task, task2);
+
+		Assert.assertTrue(app.removeEdge(e));
+		Assert.assertNull(app.getEdge("e"));
+		Assert.assertEquals(task, app.getVertex("x"));
+	}
+
+	@Test
+	public void removeVerticesPerId() {
+		Graph<Task, Dependency> app = new Graph<Task, Dependency>();
+		Task task = new Task("x");
+		Task task2 = new Task("y");
+		Task task3 = new Task("z");
+		app.addEdge(new Dependency("e0"), task, task2);
+		app.addEdge(new Dependency("e1"), task2, task3);
+
+		Assert.assertTrue(app.removeVertices(Arrays.asList(task, task2)));
+		Assert.assertNull(app.getVertex("x"));
+		Assert.assertNull(app.getVertex("y"));
+		Assert.assertNull(app.getEdge("e0"));
+		Assert.assertNull(app.getEdge("e1"));
+		Assert.assertEquals(task3, app.getVertex("z"));
+	}
+
+	@Test
+	public void addVertexTwice() {
+		Graph<Task, Dependency> app = new Graph<Task, Dependency>();
+		Task task = new Task("x");
+		app.addVertex(task);
+
+		Assert.assertFalse(app.addVertex(new Task("x")));
+		Assert.assertSame(task, app.getVertex("x"));
+	}
+
+	@Test
+	public void getVertexPerIdInArchitecture() {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Resource r0 = new Resource("r0");
+		Resource r1 = new Resource("r1");
+		Link l = new Link("l");
+		architecture.addEdge(l, r0, r1);
+
+		Assert.assertEquals(r1, architecture.getVertex("r1"));
+		Assert.assertEquals(l, architecture.getEdge("l"));
+	}
 }
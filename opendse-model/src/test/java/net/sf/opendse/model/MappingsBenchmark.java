@@ -0,0 +1,65 @@
+package net.sf.opendse.model;
+
+/**
+ * The {@code MappingsBenchmark} measures the cost of the pair lookup
+ * {@link Mappings#get(Task, Resource)} and the heap of {@link Mappings} with
+ * an increasing number of mappings (each task is mapped to ten resources).
+ * 
+ */
+public class MappingsBenchmark {
+
+	protected static final int LOOKUPS = 1000000;
+
+	public static void main(String[] args) {
+		int[] sizes = { 1000, 10000, 100000, 200000 };
+
+		// warm-up
+		run(sizes[0]);
+
+		System.out.println("mappings\tns/get\theap [MB]");
+		for (int size : sizes) {
+			double[] result = run(size);
+			System.out.printf("%d\t%.1f\t%.1f%n", size, result[0], result[1]);
+		}
+	}
+
+	protected static double[] run(int size) {
+		int resources = 100;
+		Resource[] rs = new Resource[resources];
+		for (int i = 0; i < resources; i++) {
+			rs[i] = new Resource("r" + i);
+		}
+		Task[] ts = new Task[size / 10];
+		for (int i = 0; i < ts.length; i++) {
+			ts[i] = new Task("t" + i);
+		}
+
+		long heap = usedHeap();
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		for (int i = 0; i < size; i++) {
+			Task task = ts[i / 10];
+			mappings.add(new Mapping<Task, Resource>("m" + i, task, rs[(i * 7) % resources]));
+		}
+		heap = usedHeap() - heap;
+
+		int found = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < LOOKUPS; i++) {
+			found += mappings.get(ts[i % ts.length], rs[(i * 7) % resources]).size();
+		}
+		long time = System.nanoTime() - start;
+		if (found == 0) {
+			throw new IllegalStateException();
+		}
+		return new double[] { (double) time / LOOKUPS, heap / (1024.0 * 1024.0) };
+	}
+
+	protected static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+}
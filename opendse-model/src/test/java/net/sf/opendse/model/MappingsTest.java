@@ -1,6 +1,8 @@
 package net.sf.opendse.model;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -74,4 +76,53 @@ public class MappingsTest {
 
 		Assert.assertEquals(Collections.singleton(mapping), mappings.getAll());
 	}
+
+	@Test
+	public void testGetSourceTargetMultiple() {
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Task t = new Task("t");
+		Resource r = new Resource("r");
+		Mapping<Task, Resource> m1 = new Mapping<Task, Resource>("m1", t, r);
+		Mapping<Task, Resource> m2 = new Mapping<Task, Resource>("m2", t, r);
+		Mapping<Task, Resource> m3 = new Mapping<Task, Resource>("m3", t, new Resource("other"));
+		mappings.add(m1);
+		mappings.add(m2);
+		mappings.add(m3);
+
+		Assert.assertEquals(new HashSet<Mapping<Task, Resource>>(Arrays.asList(m1, m2)), mappings.get(t, r));
+		Assert.assertEquals(2, mappings.getTargets(t).size());
+		Assert.assertEquals(Collections.singleton(t), mappings.getSources(r));
+
+		mappings.remove(m1);
+		Assert.assertEquals(Collections.singleton(m2), mappings.get(t, r));
+		mappings.remove(m2);
+		Assert.assertTrue(mappings.get(t, r).isEmpty());
+		Assert.assertEquals(Collections.singleton(new Resource("other")), mappings.getTargets(t));
+		Assert.assertTrue(mappings.getSources(r).isEmpty());
+	}
+
+	@Test
+	public void testGetUnknown() {
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Task t = new Task("t");
+		Resource r = new Resource("r");
+
+		Assert.assertTrue(mappings.get(t, r).isEmpty());
+		Assert.assertTrue(mappings.getTargets(t).isEmpty());
+		Assert.assertTrue(mappings.getSources(r).isEmpty());
+		Assert.assertTrue(mappings.get(t).isEmpty());
+		Assert.assertTrue(mappings.get(r).isEmpty());
+
+		// lookups do not insert entries
+		Assert.assertTrue(mappings.taskMappings.isEmpty());
+		Assert.assertTrue(mappings.resourceMappings.isEmpty());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testGetTargetsUnmodifiable() {
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Task t = new Task("t");
+		mappings.add(new Mapping<Task, Resource>("m", t, new Resource("r")));
+		mappings.getTargets(t).clear();
+	}
 }
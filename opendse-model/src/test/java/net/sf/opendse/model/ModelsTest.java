@@ -1,11 +1,16 @@
 package net.sf.opendse.model;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Models.DirectedLink;
+
 public class ModelsTest {
 	@Test
 	public void filterCommunications() {
@@ -154,4 +159,59 @@ public class ModelsTest {
 		Assert.assertTrue(app2.getOutEdges(task1).iterator().hasNext());
 		Assert.assertTrue(app2.getOutEdges(task1).iterator().next() == dependency);
 	}
+
+	@Test
+	public void directedLinks() {
+		Architecture<Resource, Link> arch = new Architecture<Resource, Link>();
+		Resource r1 = new Resource("r1");
+		Resource r2 = new Resource("r2");
+		Resource r3 = new Resource("r3");
+		Link l1 = new Link("l1");
+		Link l2 = new Link("l2");
+		arch.addEdge(l1, r1, r2, EdgeType.UNDIRECTED);
+		arch.addEdge(l2, r2, r3, EdgeType.DIRECTED);
+
+		List<DirectedLink> out = Models.getOutLinks(arch, r2);
+		Assert.assertEquals(2, out.size());
+		Assert.assertSame(out, Models.getOutLinks(arch, r2));
+		Assert.assertTrue(out.contains(new DirectedLink(l1, r2, r1)));
+		Assert.assertTrue(out.contains(new DirectedLink(l2, r2, r3)));
+		Assert.assertEquals(Collections.singletonList(new DirectedLink(l1, r1, r2)), Models.getInLinks(arch, r2));
+		Assert.assertTrue(Models.getOutLinks(arch, r3).isEmpty());
+		Assert.assertEquals(3, Models.getLinks(arch).size());
+		Assert.assertEquals(2, Models.getLinks(arch, l1).size());
+		Assert.assertEquals(1, Models.getLinks(arch, l2).size());
+
+		// the same instance is shared for each link and direction
+		DirectedLink d = Models.getInLinks(arch, r2).get(0);
+		Assert.assertSame(d, Models.getOutLinks(arch, r1).get(0));
+		Assert.assertTrue(Models.getLinks(arch).contains(d));
+		Assert.assertSame(d, Models.getLinks(arch, l1).get(0));
+	}
+
+	@Test
+	public void directedLinksModification() {
+		Architecture<Resource, Link> arch = new Architecture<Resource, Link>();
+		Resource r1 = new Resource("r1");
+		Resource r2 = new Resource("r2");
+		Link l1 = new Link("l1");
+		arch.addEdge(l1, r1, r2, EdgeType.DIRECTED);
+		Assert.assertEquals(1, Models.getOutLinks(arch, r1).size());
+
+		Link l2 = new Link("l2");
+		arch.addEdge(l2, r1, r2, EdgeType.DIRECTED);
+		Assert.assertEquals(2, Models.getOutLinks(arch, r1).size());
+
+		arch.removeVertex(r2);
+		Assert.assertTrue(Models.getOutLinks(arch, r1).isEmpty());
+		Assert.assertTrue(Models.getLinks(arch).isEmpty());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void directedLinksUnmodifiable() {
+		Architecture<Resource, Link> arch = new Architecture<Resource, Link>();
+		Resource r1 = new Resource("r1");
+		arch.addEdge(new Link("l1"), r1, new Resource("r2"));
+		Models.getOutLinks(arch, r1).clear();
+	}
 }
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization;
+
+import java.util.List;
+
+import net.sf.opendse.model.Specification;
+
+import org.opt4j.core.Objectives;
+
+/**
+ * The {@code BatchImplementationEvaluator} is an {@link ImplementationEvaluator}
+ * that evaluates a batch of implementations at once, e.g., with an external
+ * simulator or a vectorized analytical model. The
+ * {@link DesignSpaceExplorationEvaluator} passes the individuals of an
+ * optimizer iteration in batches if the {@link BatchIndividualCompleter} is
+ * used and evaluates single implementations with
+ * {@link #evaluate(Specification, Objectives)} otherwise.
+ * <p>
+ * If the {@link DesignSpaceExplorationEvaluator} executes a priority level
+ * concurrently, the evaluators of this level receive the same implementation
+ * instances. Thus, an evaluator of such a level must not change the given
+ * implementations but has to return changed copies.
+ * 
+ * @see BatchImplementationEvaluatorAdapter
+ */
+public interface BatchImplementationEvaluator extends ImplementationEvaluator {
+
+	/**
+	 * Evaluates the objectives of each implementation and returns the new
+	 * implementations for the implementations that are changed by the
+	 * evaluator.
+	 * 
+	 * @param implementations
+	 *            the implementations
+	 * @param objectives
+	 *            the objectives of each implementation
+	 * @return the new implementations in the order of the given
+	 *         implementations (with {@code null} entries for the unchanged
+	 *         implementations) or {@code null} if no implementation was
+	 *         changed
+	 */
+	public List<Specification> evaluate(List<Specification> implementations, List<Objectives> objectives);
+
+}
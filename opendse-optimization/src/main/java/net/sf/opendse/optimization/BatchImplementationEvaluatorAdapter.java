@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.opendse.model.Specification;
+
+import org.opt4j.core.Objectives;
+
+/**
+ * The {@code BatchImplementationEvaluatorAdapter} evaluates a batch with an
+ * {@link ImplementationEvaluator} that evaluates one implementation at a
+ * time.
+ * 
+ */
+public class BatchImplementationEvaluatorAdapter implements BatchImplementationEvaluator {
+
+	protected final ImplementationEvaluator evaluator;
+
+	/**
+	 * Constructs a {@code BatchImplementationEvaluatorAdapter}.
+	 * 
+	 * @param evaluator
+	 *            the adapted evaluator
+	 */
+	public BatchImplementationEvaluatorAdapter(ImplementationEvaluator evaluator) {
+		super();
+		this.evaluator = evaluator;
+	}
+
+	/**
+	 * Returns the given evaluator if it is a
+	 * {@link BatchImplementationEvaluator} or an adapter otherwise.
+	 * 
+	 * @param evaluator
+	 *            the evaluator
+	 * @return the batch evaluator
+	 */
+	public static BatchImplementationEvaluator of(ImplementationEvaluator evaluator) {
+		if (evaluator instanceof BatchImplementationEvaluator) {
+			return (BatchImplementationEvaluator) evaluator;
+		}
+		return new BatchImplementationEvaluatorAdapter(evaluator);
+	}
+
+	@Override
+	public List<Specification> evaluate(List<Specification> implementations, List<Objectives> objectives) {
+		List<Specification> results = new ArrayList<Specification>(implementations.size());
+		for (int i = 0; i < implementations.size(); i++) {
+			results.add(evaluator.evaluate(implementations.get(i), objectives.get(i)));
+		}
+		return results;
+	}
+
+	@Override
+	public Specification evaluate(Specification implementation, Objectives objectives) {
+		return evaluator.evaluate(implementation, objectives);
+	}
+
+	@Override
+	public int getPriority() {
+		return evaluator.getPriority();
+	}
+
+	/**
+	 * Returns the adapted evaluator.
+	 * 
+	 * @return the adapted evaluator
+	 */
+	public ImplementationEvaluator getEvaluator() {
+		return evaluator;
+	}
+
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.opt4j.core.Genotype;
+import org.opt4j.core.Individual;
+import org.opt4j.core.Objectives;
+import org.opt4j.core.common.completer.SequentialIndividualCompleter;
+import org.opt4j.core.optimizer.Control;
+import org.opt4j.core.optimizer.TerminationException;
+import org.opt4j.core.problem.Decoder;
+import org.opt4j.core.problem.Evaluator;
+import org.opt4j.core.start.Constant;
+
+import com.google.inject.Inject;
+
+/**
+ * The {@code BatchIndividualCompleter} decodes the individuals of an optimizer
+ * iteration and passes them in batches to the
+ * {@link DesignSpaceExplorationEvaluator} if at least one
+ * {@link BatchImplementationEvaluator} is bound. Otherwise, the individuals
+ * are completed sequentially.
+ * <p>
+ * The completer is bound by the optimization modules if batch evaluation is
+ * enabled. Thus, the {@code IndividualCompleterModule} must not be installed
+ * in this case since both bind the {@code IndividualCompleter}.
+ * 
+ */
+public class BatchIndividualCompleter extends SequentialIndividualCompleter {
+
+	protected final DesignSpaceExplorationEvaluator batchEvaluator;
+
+	protected int batchSize = 0;
+
+	/**
+	 * Constructs a {@code BatchIndividualCompleter}.
+	 * 
+	 * @param control
+	 *            the optimization control
+	 * @param decoder
+	 *            the decoder
+	 * @param evaluator
+	 *            the evaluator
+	 */
+	@Inject
+	public BatchIndividualCompleter(Control control, Decoder<Genotype, Object> decoder, Evaluator<Object> evaluator) {
+		super(control, decoder, evaluator);
+		Evaluator<?> e = evaluator;
+		if (e instanceof DesignSpaceExplorationEvaluator && ((DesignSpaceExplorationEvaluator) e).isBatch()) {
+			this.batchEvaluator = (DesignSpaceExplorationEvaluator) e;
+		} else {
+			this.batchEvaluator = null;
+		}
+	}
+
+	/**
+	 * Sets the maximal number of individuals of one batch ({@code 0} for all
+	 * individuals of an iteration).
+	 * 
+	 * @param batchSize
+	 *            the batch size
+	 */
+	@Inject(optional = true)
+	public void setBatchSize(@Constant(value = "batchSize", namespace = BatchIndividualCompleter.class) int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	@Override
+	public void complete(Iterable<? extends Individual> iterable) throws TerminationException {
+		if (batchEvaluator == null) {
+			super.complete(iterable);
+			return;
+		}
+
+		List<Individual> batch = new ArrayList<Individual>();
+		for (Individual individual : iterable) {
+			if (!individual.isEvaluated()) {
+				control.checkpoint();
+				decode(individual);
+				batch.add(individual);
+				if (batch.size() == batchSize) {
+					evaluate(batch);
+					batch.clear();
+				}
+			}
+		}
+		if (!batch.isEmpty()) {
+			evaluate(batch);
+		}
+	}
+
+	/**
+	 * Evaluates a batch of decoded individuals.
+	 * 
+	 * @param batch
+	 *            the individuals
+	 * @throws TerminationException
+	 *             if the optimization is terminated
+	 */
+	protected void evaluate(List<Individual> batch) throws TerminationException {
+		control.checkpoint();
+		List<ImplementationWrapper> wrappers = new ArrayList<ImplementationWrapper>(batch.size());
+		for (Individual individual : batch) {
+			wrappers.add((ImplementationWrapper) individual.getPhenotype());
+		}
+		List<Objectives> objectives = batchEvaluator.evaluate(wrappers);
+		for (int i = 0; i < batch.size(); i++) {
+			batch.get(i).setObjectives(objectives.get(i));
+		}
+		control.checkpoint();
+	}
+
+}
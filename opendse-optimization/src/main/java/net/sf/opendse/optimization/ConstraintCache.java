@@ -0,0 +1,817 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import net.sf.opendse.io.SpecificationBinaryWriter;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Routings;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.constraints.SpecificationConstraints;
+import net.sf.opendse.optimization.encoding.RoutingFilter;
+import net.sf.opendse.optimization.encoding.common.ConstraintPreprocessing;
+import net.sf.opendse.optimization.encoding.common.ConstraintStore;
+
+import org.opt4j.core.start.Constant;
+import org.opt4j.satdecoding.Constraint.Operator;
+import org.opt4j.satdecoding.Literal;
+
+import com.google.inject.Binding;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Singleton;
+import com.google.inject.spi.ConstructorBinding;
+import com.google.inject.spi.InstanceBinding;
+import com.google.inject.spi.LinkedKeyBinding;
+import com.google.inject.spi.ProviderInstanceBinding;
+import com.google.inject.spi.ProviderKeyBinding;
+import com.google.inject.spi.UntargettedBinding;
+
+/**
+ * The {@code ConstraintCache} is a persistent cache of encoded constraints. An
+ * entry is addressed by a content hash of the {@link Specification} and the
+ * configuration of the encoding and contains the (preprocessed) constraints of
+ * a {@link ConstraintStore} as well as the units and equalities of the
+ * {@link ConstraintPreprocessing} that are required to decorate the models.
+ * An entry also contains the resources of the routings that remain after the
+ * {@link RoutingFilter} such that the filter does not run again on a hit.
+ * <p>
+ * An entry is a binary file in the cache directory. The constraints are
+ * stored as {@code int} arrays, the variables are serialized with the elements
+ * of the specification replaced by references (type and id) that are resolved
+ * against the specification on loading. Each entry carries a format version
+ * and a checksum of its content. Entries that are corrupted, have a different
+ * version, or do not match the specification are ignored.
+ * <p>
+ * The configuration has to identify all settings that change the generated
+ * constraints. If the cache is injected, it is derived from the bindings of
+ * the encoders, the {@link SpecificationConstraints}, and the constants of
+ * the encoding (see {@link #configuration(Injector)}). Settings that are not
+ * visible in these bindings can be added with
+ * {@link #setConfiguration(String)}. The cache is disabled if no directory is
+ * set.
+ * 
+ */
+@Singleton
+public class ConstraintCache {
+
+	protected static final int MAGIC = 0x4f445343;
+	protected static final int VERSION = 2;
+	protected static final String SUFFIX = ".constraints";
+	protected static final String DIGEST = "SHA-256";
+	protected static final String THREADS = "threads";
+
+	protected File directory = null;
+	protected String configuration = "";
+	protected String bindings = "";
+
+	/**
+	 * Constructs a disabled {@code ConstraintCache}.
+	 */
+	public ConstraintCache() {
+		this(null);
+	}
+
+	/**
+	 * Constructs a {@code ConstraintCache}.
+	 * 
+	 * @param directory
+	 *            the cache directory ({@code null} disables the cache)
+	 */
+	public ConstraintCache(File directory) {
+		super();
+		this.directory = directory;
+	}
+
+	@Inject(optional = true)
+	public void setDirectory(@Constant(value = "directory", namespace = ConstraintCache.class) String directory) {
+		this.directory = directory.isEmpty() ? null : new File(directory);
+	}
+
+	@Inject(optional = true)
+	public void setConfiguration(
+			@Constant(value = "configuration", namespace = ConstraintCache.class) String configuration) {
+		this.configuration = configuration;
+	}
+
+	/**
+	 * Sets the configuration that is derived from the bindings of the
+	 * injector, see {@link #configuration(Injector)}.
+	 * 
+	 * @param injector
+	 *            the injector
+	 */
+	@Inject(optional = true)
+	public void setBindings(Injector injector) {
+		this.bindings = configuration(injector);
+	}
+
+	/**
+	 * Returns the configuration of the encoding that is defined by the
+	 * explicit bindings of the injector (and its parents), i.e., the sorted
+	 * targets of the bindings of the encoding types (including all bound
+	 * {@link SpecificationConstraints}) and the values of the constants of
+	 * the encoding types and the {@link SATConstraints}. The {@code threads}
+	 * constants are excluded as they do not change the constraints.
+	 * 
+	 * @param injector
+	 *            the injector
+	 * @return the configuration
+	 */
+	public static String configuration(Injector injector) {
+		List<String> entries = new ArrayList<String>();
+		for (Injector i = injector; i != null; i = i.getParent()) {
+			for (Binding<?> binding : i.getBindings().values()) {
+				String entry = configuration(binding);
+				if (entry != null) {
+					entries.add(entry);
+				}
+			}
+		}
+		Collections.sort(entries);
+		StringBuilder sb = new StringBuilder();
+		for (String entry : entries) {
+			sb.append(entry).append(";");
+		}
+		return sb.toString();
+	}
+
+	protected static String configuration(Binding<?> binding) {
+		Key<?> key = binding.getKey();
+		Annotation annotation = key.getAnnotation();
+		if (annotation instanceof Constant) {
+			Constant constant = (Constant) annotation;
+			if (isEncoding(constant.namespace()) && !constant.value().equals(THREADS)
+					&& binding instanceof InstanceBinding) {
+				return constant.namespace().getName() + "." + constant.value() + "="
+						+ ((InstanceBinding<?>) binding).getInstance();
+			}
+			return null;
+		}
+		Class<?> type = key.getTypeLiteral().getRawType();
+		if (!isEncoding(type)) {
+			return null;
+		}
+		Object target;
+		if (binding instanceof LinkedKeyBinding) {
+			target = ((LinkedKeyBinding<?>) binding).getLinkedKey().getTypeLiteral().getRawType().getName();
+		} else if (binding instanceof ProviderKeyBinding) {
+			target = ((ProviderKeyBinding<?>) binding).getProviderKey().getTypeLiteral().getRawType().getName();
+		} else if (binding instanceof ProviderInstanceBinding) {
+			target = ((ProviderInstanceBinding<?>) binding).getProviderInstance().getClass().getName();
+		} else if (binding instanceof InstanceBinding) {
+			Object instance = ((InstanceBinding<?>) binding).getInstance();
+			target = instance instanceof Enum ? instance : instance.getClass().getName();
+		} else if (binding instanceof ConstructorBinding || binding instanceof UntargettedBinding) {
+			target = type.getName();
+		} else {
+			target = binding.getClass().getSimpleName();
+		}
+		return type.getName() + "=" + target;
+	}
+
+	/**
+	 * Returns {@code true} if the type belongs to the encoding, i.e., it is in
+	 * one of the encoding or constraints packages or it is the
+	 * {@link SATConstraints}.
+	 * 
+	 * @param type
+	 *            the type
+	 * @return {@code true} if the type belongs to the encoding
+	 */
+	protected static boolean isEncoding(Class<?> type) {
+		String name = type.getName();
+		return type == SATConstraints.class || name.startsWith("net.sf.opendse.encoding.")
+				|| name.startsWith("net.sf.opendse.optimization.encoding.")
+				|| name.startsWith("net.sf.opendse.optimization.constraints.");
+	}
+
+	/**
+	 * Returns the cache directory.
+	 * 
+	 * @return the cache directory or {@code null} if the cache is disabled
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Returns {@code true} if a cache directory is set.
+	 * 
+	 * @return {@code true} if the cache is enabled
+	 */
+	public boolean isEnabled() {
+		return directory != null;
+	}
+
+	/**
+	 * Returns the key of the entry for the specification, i.e., the hash of the
+	 * format version, the configuration of this cache (set and derived from
+	 * the bindings), the given configuration, and the specification in binary
+	 * form.
+	 * 
+	 * @param specification
+	 *            the specification
+	 * @param configuration
+	 *            the configuration of the encoding
+	 * @return the key
+	 * @throws IOException
+	 *             thrown if the specification cannot be written, e.g., if an
+	 *             attribute is not serializable
+	 */
+	public String key(Specification specification, String configuration) throws IOException {
+		MessageDigest digest = digest();
+		DataOutputStream out = new DataOutputStream(new DigestOutputStream(new OutputStream() {
+			@Override
+			public void write(int b) {
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+			}
+		}, digest));
+		out.writeInt(VERSION);
+		out.writeUTF(this.configuration);
+		byte[] bindings = this.bindings.getBytes("UTF-8");
+		out.writeInt(bindings.length);
+		out.write(bindings);
+		out.writeUTF(configuration);
+		new SpecificationBinaryWriter().write(specification, out);
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * Returns the file of the entry with the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the file
+	 */
+	public File getFile(String key) {
+		return new File(directory, key + SUFFIX);
+	}
+
+	/**
+	 * Loads the entry with the given key into the (empty) store, restores the
+	 * preprocessing, and filters the routings of the specification. The
+	 * store, the preprocessing, and the specification are not changed if there
+	 * is no valid entry.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param specification
+	 *            the specification the elements are resolved against
+	 * @param store
+	 *            the empty constraint store
+	 * @param pp
+	 *            the preprocessing to restore (may be {@code null})
+	 * @return {@code true} if the entry was loaded
+	 */
+	public boolean load(String key, Specification specification, ConstraintStore store, ConstraintPreprocessing pp) {
+		File file = getFile(key);
+		if (!isEnabled() || !file.isFile() || store.size() > 0 || store.getVariableCount() > 0) {
+			return false;
+		}
+		try {
+			byte[] payload = readPayload(file, key);
+			if (payload == null) {
+				return false;
+			}
+			Entry entry = decode(payload, specification);
+			if (entry == null || (pp == null && entry.hasPreprocessing())) {
+				return false;
+			}
+			entry.apply(store, pp);
+			return true;
+		} catch (IOException e) {
+			return false;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Saves the constraints of the store, the units and equalities of the
+	 * preprocessing, and the filtered routings of the specification as the
+	 * entry with the given key. Nothing is saved if the variables cannot be
+	 * serialized.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param specification
+	 *            the specification with the filtered routings
+	 * @param store
+	 *            the constraint store
+	 * @param pp
+	 *            the applied preprocessing (may be {@code null})
+	 * @return {@code true} if the entry was saved
+	 */
+	public boolean save(String key, Specification specification, ConstraintStore store, ConstraintPreprocessing pp) {
+		if (!isEnabled()) {
+			return false;
+		}
+		File temp = null;
+		try {
+			byte[] payload = encode(specification, store, pp);
+
+			directory.mkdirs();
+			temp = File.createTempFile(key, ".tmp", directory);
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			try {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeUTF(key);
+				out.writeInt(payload.length);
+				out.write(payload);
+				out.write(digest().digest(payload));
+			} finally {
+				out.close();
+			}
+
+			File file = getFile(key);
+			file.delete();
+			if (temp.renameTo(file)) {
+				temp = null;
+				return true;
+			}
+			return false;
+		} catch (IOException e) {
+			return false;
+		} finally {
+			if (temp != null) {
+				temp.delete();
+			}
+		}
+	}
+
+	protected byte[] readPayload(File file, String key) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION || !key.equals(in.readUTF())) {
+				return null;
+			}
+			int length = in.readInt();
+			if (length < 0 || length > file.length()) {
+				return null;
+			}
+			byte[] payload = new byte[length];
+			in.readFully(payload);
+			byte[] checksum = new byte[digest().getDigestLength()];
+			in.readFully(checksum);
+			if (in.read() != -1 || !Arrays.equals(checksum, digest().digest(payload))) {
+				return null;
+			}
+			return payload;
+		} finally {
+			in.close();
+		}
+	}
+
+	protected byte[] encode(Specification specification, ConstraintStore store, ConstraintPreprocessing pp)
+			throws IOException {
+		List<Object> variables = new ArrayList<Object>(store.getVariables());
+		Map<Object, Integer> extra = new HashMap<Object, Integer>();
+
+		Collection<Literal> units = pp == null ? new ArrayList<Literal>() : pp.getUnits();
+		Map<Object, Literal> equalities = pp == null ? new HashMap<Object, Literal>() : pp.getEqualities();
+
+		int[] unitLiterals = new int[units.size()];
+		int i = 0;
+		for (Literal unit : units) {
+			unitLiterals[i++] = literal(unit, store, variables, extra);
+		}
+		int[] equalityVariables = new int[equalities.size()];
+		int[] equalityLiterals = new int[equalities.size()];
+		i = 0;
+		for (Map.Entry<Object, Literal> equality : equalities.entrySet()) {
+			equalityVariables[i] = ConstraintStore.variableOf(literal(new Literal(equality.getKey(), true), store,
+					variables, extra));
+			equalityLiterals[i++] = literal(equality.getValue(), store, variables, extra);
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+
+		ByteArrayOutputStream objects = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ElementOutputStream(objects);
+		oos.writeObject(variables.toArray());
+		oos.close();
+		out.writeInt(store.getVariableCount());
+		out.writeInt(objects.size());
+		objects.writeTo(out);
+
+		out.writeInt(store.size());
+		for (int c = 0; c < store.size(); c++) {
+			int n = store.size(c);
+			out.writeByte(store.getOperator(c).ordinal());
+			out.writeInt(store.getRhs(c));
+			out.writeInt(n);
+			for (int t = 0; t < n; t++) {
+				out.writeInt(store.getCoefficient(c, t));
+				out.writeInt(store.getLiteral(c, t));
+			}
+		}
+
+		out.writeBoolean(pp != null);
+		out.writeInt(unitLiterals.length);
+		for (int unit : unitLiterals) {
+			out.writeInt(unit);
+		}
+		out.writeInt(equalityVariables.length);
+		for (int e = 0; e < equalityVariables.length; e++) {
+			out.writeInt(equalityVariables[e]);
+			out.writeInt(equalityLiterals[e]);
+		}
+
+		Routings<Task, Resource, Link> routings = specification.getRoutings();
+		out.writeInt(routings.getTasks().size());
+		for (Task task : routings.getTasks()) {
+			Architecture<Resource, Link> routing = routings.get(task);
+			out.writeUTF(task.getId());
+			out.writeInt(routing.getVertexCount());
+			for (Resource resource : routing) {
+				out.writeUTF(resource.getId());
+			}
+		}
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	protected static int literal(Literal literal, ConstraintStore store, List<Object> variables,
+			Map<Object, Integer> extra) {
+		Object variable = literal.variable();
+		int index = store.indexOf(variable);
+		if (index < 0) {
+			Integer e = extra.get(variable);
+			if (e == null) {
+				e = variables.size();
+				variables.add(variable);
+				extra.put(variable, e);
+			}
+			index = e;
+		}
+		return ConstraintStore.literal(index, literal.phase());
+	}
+
+	protected Entry decode(byte[] payload, Specification specification) throws IOException,
+			ClassNotFoundException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+
+		int storeVariables = in.readInt();
+		int length = in.readInt();
+		if (length < 0 || length > payload.length) {
+			return null;
+		}
+		byte[] objects = new byte[length];
+		in.readFully(objects);
+		ObjectInputStream ois = new ElementInputStream(new ByteArrayInputStream(objects), elements(specification));
+		Object read = ois.readObject();
+		ois.close();
+		if (!(read instanceof Object[])) {
+			return null;
+		}
+		Object[] variables = (Object[]) read;
+		if (storeVariables < 0 || storeVariables > variables.length) {
+			return null;
+		}
+
+		Entry entry = new Entry(variables, storeVariables);
+		int size = in.readInt();
+		Operator[] operators = Operator.values();
+		for (int c = 0; c < size; c++) {
+			int ordinal = in.readByte();
+			if (ordinal < 0 || ordinal >= operators.length) {
+				return null;
+			}
+			Operator operator = operators[ordinal];
+			int rhs = in.readInt();
+			int n = in.readInt();
+			if (n < 0 || n > payload.length) {
+				return null;
+			}
+			int[] coefficients = new int[n];
+			int[] literals = new int[n];
+			for (int t = 0; t < n; t++) {
+				coefficients[t] = in.readInt();
+				literals[t] = entry.check(in.readInt(), storeVariables);
+			}
+			entry.add(operator, rhs, coefficients, literals);
+		}
+
+		entry.preprocessing = in.readBoolean();
+		int units = in.readInt();
+		for (int u = 0; u < units; u++) {
+			entry.units.add(entry.toLiteral(in.readInt()));
+		}
+		int equalities = in.readInt();
+		for (int e = 0; e < equalities; e++) {
+			Object variable = entry.toLiteral(ConstraintStore.literal(in.readInt(), true)).variable();
+			entry.equalities.put(variable, entry.toLiteral(in.readInt()));
+		}
+		Routings<Task, Resource, Link> routings = specification.getRoutings();
+		int tasks = in.readInt();
+		for (int r = 0; r < tasks; r++) {
+			Task task = specification.getApplication().getVertex(in.readUTF());
+			if (!routings.getTasks().contains(task)) {
+				return null;
+			}
+			Architecture<Resource, Link> routing = routings.get(task);
+			Set<String> resources = new HashSet<String>();
+			for (int i = in.readInt(); i > 0; i--) {
+				String id = in.readUTF();
+				if (routing.getVertex(id) == null) {
+					return null;
+				}
+				resources.add(id);
+			}
+			entry.routings.put(routing, resources);
+		}
+		if (in.read() != -1) {
+			return null;
+		}
+		return entry;
+	}
+
+	/**
+	 * The decoded content of an entry.
+	 */
+	protected static class Entry {
+
+		protected final Object[] variables;
+		protected final int storeVariables;
+		protected final List<Operator> operators = new ArrayList<Operator>();
+		protected final List<Integer> rhs = new ArrayList<Integer>();
+		protected final List<int[]> coefficients = new ArrayList<int[]>();
+		protected final List<int[]> literals = new ArrayList<int[]>();
+		protected boolean preprocessing = false;
+		protected final List<Literal> units = new ArrayList<Literal>();
+		protected final Map<Object, Literal> equalities = new HashMap<Object, Literal>();
+		protected final Map<Architecture<Resource, Link>, Set<String>> routings = new IdentityHashMap<Architecture<Resource, Link>, Set<String>>();
+
+		protected Entry(Object[] variables, int storeVariables) {
+			this.variables = variables;
+			this.storeVariables = storeVariables;
+		}
+
+		protected void add(Operator operator, int rhs, int[] coefficients, int[] literals) {
+			this.operators.add(operator);
+			this.rhs.add(rhs);
+			this.coefficients.add(coefficients);
+			this.literals.add(literals);
+		}
+
+		protected int check(int literal, int bound) throws InvalidObjectException {
+			int variable = ConstraintStore.variableOf(literal);
+			if (variable >= bound) {
+				throw new InvalidObjectException("Unknown variable " + variable);
+			}
+			return literal;
+		}
+
+		protected Literal toLiteral(int literal) throws InvalidObjectException {
+			Object variable = variables[ConstraintStore.variableOf(check(literal, variables.length))];
+			return new Literal(variable, ConstraintStore.phaseOf(literal));
+		}
+
+		protected boolean hasPreprocessing() {
+			return preprocessing;
+		}
+
+		/**
+		 * Validates the entry against the store and the units. Nothing is
+		 * changed if the entry is invalid.
+		 * 
+		 * @param store
+		 *            the store
+		 * @throws InvalidObjectException
+		 *             thrown if the entry is invalid
+		 */
+		protected void validate(ConstraintStore store) throws InvalidObjectException {
+			if (store.size() > 0 || store.getVariableCount() > 0) {
+				throw new InvalidObjectException("The store is not empty.");
+			}
+			Set<Object> distinct = new HashSet<Object>();
+			for (int i = 0; i < storeVariables; i++) {
+				if (!distinct.add(variables[i])) {
+					throw new InvalidObjectException("Duplicate variable " + variables[i]);
+				}
+			}
+			Map<Object, Boolean> phases = new HashMap<Object, Boolean>();
+			for (Literal unit : units) {
+				Boolean phase = phases.put(unit.variable(), unit.phase());
+				if (phase != null && phase != unit.phase()) {
+					throw new InvalidObjectException("Contradicting unit " + unit);
+				}
+			}
+		}
+
+		protected void apply(ConstraintStore store, ConstraintPreprocessing pp) throws InvalidObjectException {
+			validate(store);
+			// restoring fails on a processed preprocessing before any change
+			if (preprocessing) {
+				pp.restore(units, equalities);
+			}
+			for (int i = 0; i < storeVariables; i++) {
+				store.index(variables[i]);
+			}
+			for (int c = 0; c < operators.size(); c++) {
+				store.add(operators.get(c), rhs.get(c), coefficients.get(c), literals.get(c));
+			}
+			store.trimToSize();
+			for (Map.Entry<Architecture<Resource, Link>, Set<String>> entry : routings.entrySet()) {
+				List<Resource> remove = new ArrayList<Resource>();
+				for (Resource resource : entry.getKey()) {
+					if (!entry.getValue().contains(resource.getId())) {
+						remove.add(resource);
+					}
+				}
+				entry.getKey().removeVertices(remove);
+			}
+		}
+	}
+
+	/**
+	 * Returns the elements of the specification by their references. Copies of
+	 * resources and links in the routings resolve to the elements of the
+	 * architecture.
+	 * 
+	 * @param specification
+	 *            the specification
+	 * @return the elements by their references
+	 */
+	protected static Map<ElementReference, Element> elements(Specification specification) {
+		Map<ElementReference, Element> elements = new HashMap<ElementReference, Element>();
+		put(elements, specification.getApplication().getVertices());
+		put(elements, specification.getApplication().getEdges());
+		put(elements, specification.getArchitecture().getVertices());
+		put(elements, specification.getArchitecture().getEdges());
+		for (Mapping<Task, Resource> mapping : specification.getMappings()) {
+			put(elements, mapping);
+		}
+		for (Architecture<Resource, Link> routing : specification.getRoutings().getRoutings()) {
+			put(elements, routing.getVertices());
+			put(elements, routing.getEdges());
+		}
+		return elements;
+	}
+
+	protected static void put(Map<ElementReference, Element> elements, Collection<? extends Element> collection) {
+		for (Element element : collection) {
+			put(elements, element);
+		}
+	}
+
+	protected static void put(Map<ElementReference, Element> elements, Element element) {
+		ElementReference reference = new ElementReference(element);
+		if (!elements.containsKey(reference)) {
+			elements.put(reference, element);
+		}
+	}
+
+	/**
+	 * The serialized reference to an {@link Element} of the specification.
+	 */
+	protected static class ElementReference implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		protected final String type;
+		protected final String id;
+
+		protected ElementReference(Element element) {
+			this.type = element.getClass().getName();
+			this.id = element.getId();
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * type.hashCode() + id.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ElementReference)) {
+				return false;
+			}
+			ElementReference other = (ElementReference) obj;
+			return type.equals(other.type) && id.equals(other.id);
+		}
+
+		@Override
+		public String toString() {
+			return type + "[" + id + "]";
+		}
+	}
+
+	protected static class ElementOutputStream extends ObjectOutputStream {
+
+		protected ElementOutputStream(OutputStream out) throws IOException {
+			super(out);
+			enableReplaceObject(true);
+		}
+
+		@Override
+		protected Object replaceObject(Object obj) throws IOException {
+			if (obj instanceof Element) {
+				return new ElementReference((Element) obj);
+			}
+			return obj;
+		}
+	}
+
+	protected static class ElementInputStream extends ObjectInputStream {
+
+		protected final Map<ElementReference, Element> elements;
+
+		protected ElementInputStream(InputStream in, Map<ElementReference, Element> elements) throws IOException {
+			super(in);
+			this.elements = elements;
+			enableResolveObject(true);
+		}
+
+		@Override
+		protected Object resolveObject(Object obj) throws IOException {
+			if (obj instanceof ElementReference) {
+				Element element = elements.get(obj);
+				if (element == null) {
+					throw new InvalidObjectException("Unknown element " + obj);
+				}
+				return element;
+			}
+			return obj;
+		}
+	}
+
+	protected static MessageDigest digest() {
+		try {
+			return MessageDigest.getInstance(DIGEST);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	protected static String toHex(byte[] bytes) {
+		StringBuilder sb = new StringBuilder();
+		for (byte b : bytes) {
+			sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+			sb.append(Character.forDigit(b & 0xf, 16));
+		}
+		return sb.toString();
+	}
+
+}
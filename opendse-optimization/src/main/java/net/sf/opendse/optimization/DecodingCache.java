@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.opt4j.core.Objectives;
+import org.opt4j.satdecoding.Model;
+
+/**
+ * The {@code DecodingCache} maps the SAT {@link Model} and the decoded
+ * parameters of a genotype to the {@link Objectives} of its evaluated
+ * implementation. Only copies of the objectives are cached: each individual
+ * keeps its own {@link ImplementationWrapper}, and the
+ * {@link DesignSpaceExplorationDecoder} presets the objectives of a wrapper
+ * whose key is cached such that it is not evaluated again. If the
+ * implementation of such a wrapper is requested, it is built from the model
+ * and the parameters and carries the objective attributes, but not other
+ * modifications of the evaluators. The cache is bounded and evicts the least
+ * recently used entries.
+ * 
+ */
+public class DecodingCache {
+
+	/**
+	 * The {@code Key} is a compact representation of a model as a bit set over
+	 * the encoding variables and, optionally, of the decoded parameters.
+	 * 
+	 */
+	public static class Key {
+		protected final long[] bits;
+		protected final Map<?, ?> parameters;
+		protected final int hash;
+
+		protected Key(long[] bits, Map<?, ?> parameters) {
+			this.bits = bits;
+			this.parameters = parameters;
+			this.hash = 31 * Arrays.hashCode(bits) + (parameters == null ? 0 : parameters.hashCode());
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return hash == other.hash && Arrays.equals(bits, other.bits)
+					&& (parameters == null ? other.parameters == null : parameters.equals(other.parameters));
+		}
+	}
+
+	protected final Map<Key, Objectives> cache;
+	protected final AtomicLong hits = new AtomicLong();
+	protected final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Constructs a {@code DecodingCache}.
+	 * 
+	 * @param maxSize
+	 *            the maximal number of cached models
+	 */
+	public DecodingCache(final int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("The size of the cache must be positive: " + maxSize);
+		}
+		this.cache = new LinkedHashMap<Key, Objectives>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Objectives> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns the key of a model with respect to the given encoding variables.
+	 * 
+	 * @param model
+	 *            the model
+	 * @param variables
+	 *            the encoding variables
+	 * @return the key
+	 */
+	public static Key key(Model model, List<Object> variables) {
+		long[] bits = new long[(variables.size() + 63) / 64];
+		for (int i = 0; i < variables.size(); i++) {
+			Boolean value = model.get(variables.get(i));
+			if (value != null && value) {
+				bits[i >> 6] |= 1L << i;
+			}
+		}
+		return new Key(bits, null);
+	}
+
+	/**
+	 * Returns the key of a model key and the decoded parameters.
+	 * 
+	 * @param key
+	 *            the key of the model
+	 * @param parameters
+	 *            the decoded parameters
+	 * @return the key
+	 */
+	public static Key key(Key key, Map<?, ?> parameters) {
+		return new Key(key.bits, new HashMap<Object, Object>(parameters));
+	}
+
+	/**
+	 * Returns a copy of the cached objectives or {@code null} if the key is not
+	 * cached.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return a copy of the cached objectives or {@code null}
+	 */
+	public synchronized Objectives get(Key key) {
+		Objectives objectives = cache.get(key);
+		if (objectives == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		hits.incrementAndGet();
+		return copy(objectives);
+	}
+
+	/**
+	 * Caches a copy of the objectives.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param objectives
+	 *            the objectives
+	 */
+	public synchronized void put(Key key, Objectives objectives) {
+		cache.put(key, copy(objectives));
+	}
+
+	protected static Objectives copy(Objectives objectives) {
+		Objectives copy = new Objectives();
+		copy.addAll(objectives);
+		return copy;
+	}
+
+	/**
+	 * Returns the number of cached objectives.
+	 * 
+	 * @return the number of cached objectives
+	 */
+	public synchronized int size() {
+		return cache.size();
+	}
+
+	/**
+	 * Removes all cached objectives.
+	 */
+	public synchronized void clear() {
+		cache.clear();
+	}
+
+	/**
+	 * Returns the number of cache hits.
+	 * 
+	 * @return the number of hits
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Returns the number of cache misses.
+	 * 
+	 * @return the number of misses
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	@Override
+	public String toString() {
+		return "DecodingCache [size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses() + "]";
+	}
+
+}
@@ -36,11 +36,13 @@ import net.sf.opendse.model.parameter.ParameterReference;
 import net.sf.opendse.model.parameter.ParameterSelect;
 
 import org.opt4j.core.Genotype;
+import org.opt4j.core.Objectives;
 import org.opt4j.core.genotype.CompositeGenotype;
 import org.opt4j.core.problem.Decoder;
 import org.opt4j.satdecoding.ContradictionException;
 
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 
 public class DesignSpaceExplorationDecoder implements
 		Decoder<CompositeGenotype<String, Genotype>, ImplementationWrapper> {
@@ -93,26 +95,53 @@ public class DesignSpaceExplorationDecoder implements
 			throw e;
 		}
 
-		Specification implementation = wrapper.getImplementation();
+		final ParameterMap parameterMap = parameterDecoder.decode(parameterGenotype);
+
+		DecodingCache cache = satDecoder.getCache();
+		if (cache != null && wrapper.getKey() != null) {
+			DecodingCache.Key key = DecodingCache.key(wrapper.getKey(), parameterMap);
+			Objectives objectives = cache.get(key);
+			if (objectives != null) {
+				// an equal genotype was evaluated before
+				wrapper.setObjectives(objectives);
+			} else {
+				wrapper.setKey(key, cache);
+			}
+		}
 
-		if (implementation != null) {
-			decodeParameters(parameterGenotype, implementation);
+		if (wrapper.isMaterialized()) {
+			Specification implementation = wrapper.getImplementation();
+			if (implementation != null) {
+				decodeParameters(parameterMap, implementation);
+			}
+			return wrapper;
 		}
 
+		// the parameters are applied by the same wrapper when the
+		// implementation is materialized
+		final Provider<Specification> satProvider = wrapper.getProvider();
+		wrapper.setProvider(new Provider<Specification>() {
+			@Override
+			public Specification get() {
+				Specification implementation = satProvider.get();
+				if (implementation != null) {
+					decodeParameters(parameterMap, implementation);
+				}
+				return implementation;
+			}
+		});
 		return wrapper;
 	}
 
 	/**
 	 * Decodes the {@link Parameter}s and sets the according {@link Attributes}.
 	 * 
-	 * @param parameterGenotype
-	 *            the parameter genotype
+	 * @param parameterMap
+	 *            the decoded parameters
 	 * @param implementation
 	 *            the corresponding implementation to augment
 	 */
-	private void decodeParameters(CompositeGenotype<String, Genotype> parameterGenotype, Specification implementation) {
-		ParameterMap parameterMap = parameterDecoder.decode(parameterGenotype);
-
+	private void decodeParameters(ParameterMap parameterMap, Specification implementation) {
 		Map<String, Element> elementMap = Models.getElementsMap(implementation);
 
 		if (!parameterMap.isEmpty()) {
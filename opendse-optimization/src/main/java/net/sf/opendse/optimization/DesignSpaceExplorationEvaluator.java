@@ -24,8 +24,18 @@ package net.sf.opendse.optimization;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
 
 import net.sf.opendse.model.Specification;
 
@@ -33,15 +43,53 @@ import org.opt4j.core.DoubleValue;
 import org.opt4j.core.IntegerValue;
 import org.opt4j.core.Objective;
 import org.opt4j.core.Objectives;
+import org.opt4j.core.optimizer.Optimizer;
+import org.opt4j.core.optimizer.OptimizerStateListener;
 import org.opt4j.core.problem.Evaluator;
+import org.opt4j.core.start.Constant;
 
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 
-public class DesignSpaceExplorationEvaluator implements Evaluator<ImplementationWrapper> {
+/**
+ * The {@code DesignSpaceExplorationEvaluator} evaluates the implementation
+ * with all bound {@link ImplementationEvaluator}s in the order of their
+ * priorities.
+ * <p>
+ * With more than one thread (see {@link #setThreads(int)}), the evaluators
+ * that share a priority level are executed concurrently. Each of them
+ * evaluates the implementation of the previous level with its own
+ * {@link Objectives}. The objectives are merged in the order of the
+ * evaluators and the returned implementations are merged with
+ * {@link #merge(List)}. Thus, the evaluators of one level have to be
+ * independent. Moreover, they share the implementation instance of the
+ * previous level: they may read it concurrently, but an evaluator of a
+ * concurrent level must not change the attributes or the graphs of this
+ * instance since the {@link net.sf.opendse.model.Attributes} are not
+ * thread-safe for writes. An evaluator that changes the implementation has to
+ * return its own changed copy or has to be assigned its own priority level.
+ * The threads are daemon threads and are shut down when the optimization
+ * stops.
+ * <p>
+ * The objective attributes ({@code <name>:OBJECTIVE}) are written once to the
+ * final implementation. The time spent in each evaluator is recorded in a
+ * {@link Timing}.
+ * <p>
+ * With {@link #evaluate(List)}, a batch of implementations is evaluated at
+ * once. Each {@link BatchImplementationEvaluator} receives the whole batch
+ * while the other evaluators are called for each implementation through a
+ * {@link BatchImplementationEvaluatorAdapter}.
+ */
+public class DesignSpaceExplorationEvaluator implements Evaluator<ImplementationWrapper>, OptimizerStateListener {
 
 	protected final List<ImplementationEvaluator> evaluators;
+	protected final List<List<ImplementationEvaluator>> levels = new ArrayList<List<ImplementationEvaluator>>();
+	protected final Map<ImplementationEvaluator, BatchImplementationEvaluator> batchEvaluators = new HashMap<ImplementationEvaluator, BatchImplementationEvaluator>();
+	protected final boolean batch;
+	protected final Map<ImplementationEvaluator, Timing> timings = new LinkedHashMap<ImplementationEvaluator, Timing>();
 	protected final Provider<Objectives> objectivesProvider;
+	protected int threads = 1;
+	protected ExecutorService executor = null;
 
 	@Inject
 	public DesignSpaceExplorationEvaluator(Set<ImplementationEvaluator> evaluators, Provider<Objectives> objectivesProvider) {
@@ -56,37 +104,408 @@ public class DesignSpaceExplorationEvaluator implements Evaluator<Implementation
 				return i1.compareTo(i2);
 			}
 		});
+
+		List<ImplementationEvaluator> level = null;
+		for (ImplementationEvaluator evaluator : this.evaluators) {
+			if (level == null || level.get(0).getPriority() != evaluator.getPriority()) {
+				level = new ArrayList<ImplementationEvaluator>();
+				levels.add(level);
+			}
+			level.add(evaluator);
+			timings.put(evaluator, new Timing());
+			batchEvaluators.put(evaluator, BatchImplementationEvaluatorAdapter.of(evaluator));
+		}
+
+		boolean batch = false;
+		for (ImplementationEvaluator evaluator : this.evaluators) {
+			batch |= evaluator instanceof BatchImplementationEvaluator;
+		}
+		this.batch = batch;
+	}
+
+	/**
+	 * Sets the number of threads that execute the evaluators of one priority
+	 * level. With one thread (default), the evaluators are executed
+	 * sequentially.
+	 * 
+	 * @param threads
+	 *            the number of threads
+	 */
+	@Inject(optional = true)
+	public void setThreads(@Constant(value = "threads", namespace = DesignSpaceExplorationEvaluator.class) int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * Returns the timing of each evaluator in the order of execution.
+	 * 
+	 * @return the timings
+	 */
+	public Map<ImplementationEvaluator, Timing> getTimings() {
+		return Collections.unmodifiableMap(timings);
+	}
+
+	/**
+	 * Returns {@code true} if at least one evaluator is a
+	 * {@link BatchImplementationEvaluator}.
+	 * 
+	 * @return {@code true} if batches shall be evaluated
+	 */
+	public boolean isBatch() {
+		return batch;
 	}
 
 	@Override
 	public Objectives evaluate(ImplementationWrapper wrapper) {
 
 		Objectives objectives = objectivesProvider.get();
-		for (ImplementationEvaluator evaluator : evaluators) {
-			Specification impl = evaluator.evaluate(wrapper.getImplementation(), objectives);
-			if (impl != null) {
-				wrapper.setImplementation(impl);
+		Objectives evaluated = wrapper.getObjectives();
+		if (evaluated != null) {
+			// the objectives are known from the decoding cache
+			objectives.addAll(evaluated);
+			setObjectiveAttributes(wrapper, objectives);
+			return objectives;
+		}
+
+		for (List<ImplementationEvaluator> level : levels) {
+			if (threads > 1 && level.size() > 1) {
+				evaluateConcurrently(level, wrapper, objectives);
+			} else {
+				for (ImplementationEvaluator evaluator : level) {
+					Specification impl = evaluate(evaluator, wrapper.getImplementation(), objectives);
+					if (impl != null) {
+						wrapper.setImplementation(impl);
+					}
+				}
 			}
-			for (Objective objective : objectives.getKeys()) {
-
-				String attribute = objective.getName() + ":OBJECTIVE";
-				Object value = objectives.get(objective);
-				if (value instanceof DoubleValue) {
-					value = ((DoubleValue) value).getValue();
-				} else if (value instanceof IntegerValue) {
-					value = ((IntegerValue) value).getValue();
+		}
+
+		setObjectiveAttributes(wrapper, objectives);
+		wrapper.setObjectives(objectives);
+		return objectives;
+	}
+
+	/**
+	 * Executes the evaluators of one priority level concurrently and merges
+	 * their objectives and implementations.
+	 * 
+	 * @param level
+	 *            the evaluators of the level
+	 * @param wrapper
+	 *            the implementation wrapper
+	 * @param objectives
+	 *            the objectives
+	 */
+	protected void evaluateConcurrently(List<ImplementationEvaluator> level, ImplementationWrapper wrapper,
+			Objectives objectives) {
+		final Specification implementation = wrapper.getImplementation();
+		List<Callable<Specification>> tasks = new ArrayList<Callable<Specification>>();
+		final List<Objectives> results = new ArrayList<Objectives>();
+
+		for (final ImplementationEvaluator evaluator : level) {
+			final Objectives result = objectivesProvider.get();
+			results.add(result);
+			tasks.add(new Callable<Specification>() {
+				@Override
+				public Specification call() throws Exception {
+					return evaluate(evaluator, implementation, result);
+				}
+			});
+		}
+
+		List<Specification> implementations = invokeAll(tasks);
+
+		for (Objectives result : results) {
+			objectives.addAll(result);
+		}
+		Specification impl = merge(implementations);
+		if (impl != null) {
+			wrapper.setImplementation(impl);
+		}
+	}
+
+	/**
+	 * Evaluates a batch of implementations. The wrappers that are already
+	 * evaluated (e.g., with objectives from the decoding cache) are skipped.
+	 * 
+	 * @param wrappers
+	 *            the implementation wrappers
+	 * @return the objectives in the order of the wrappers
+	 */
+	public List<Objectives> evaluate(List<ImplementationWrapper> wrappers) {
+		List<Objectives> objectives = new ArrayList<Objectives>(wrappers.size());
+		List<ImplementationWrapper> pending = new ArrayList<ImplementationWrapper>();
+		List<Objectives> pendingObjectives = new ArrayList<Objectives>();
+
+		for (ImplementationWrapper wrapper : wrappers) {
+			Objectives o = objectivesProvider.get();
+			Objectives evaluated = wrapper.getObjectives();
+			if (evaluated != null) {
+				o.addAll(evaluated);
+				setObjectiveAttributes(wrapper, o);
+			} else {
+				pending.add(wrapper);
+				pendingObjectives.add(o);
+			}
+			objectives.add(o);
+		}
+
+		if (!pending.isEmpty()) {
+			for (List<ImplementationEvaluator> level : levels) {
+				if (threads > 1 && level.size() > 1) {
+					evaluateConcurrently(level, pending, pendingObjectives);
 				} else {
-					value = value.toString();
+					for (ImplementationEvaluator evaluator : level) {
+						List<Specification> impls = evaluate(evaluator, getImplementations(pending), pendingObjectives);
+						setImplementations(pending, impls);
+					}
 				}
+			}
+			for (int i = 0; i < pending.size(); i++) {
+				setObjectiveAttributes(pending.get(i), pendingObjectives.get(i));
+				pending.get(i).setObjectives(pendingObjectives.get(i));
+			}
+		}
+		return objectives;
+	}
+
+	/**
+	 * Executes the evaluators of one priority level concurrently on a batch
+	 * and merges their objectives and implementations.
+	 * 
+	 * @param level
+	 *            the evaluators of the level
+	 * @param wrappers
+	 *            the implementation wrappers
+	 * @param objectives
+	 *            the objectives of each wrapper
+	 */
+	protected void evaluateConcurrently(List<ImplementationEvaluator> level, List<ImplementationWrapper> wrappers,
+			List<Objectives> objectives) {
+		final List<Specification> implementations = getImplementations(wrappers);
+		List<Callable<List<Specification>>> tasks = new ArrayList<Callable<List<Specification>>>();
+		final List<List<Objectives>> results = new ArrayList<List<Objectives>>();
 
-				Specification implementation = wrapper.getImplementation();
-				if (implementation != null) {
-					implementation.setAttribute(attribute, value);
+		for (final ImplementationEvaluator evaluator : level) {
+			final List<Objectives> result = new ArrayList<Objectives>();
+			for (int i = 0; i < wrappers.size(); i++) {
+				result.add(objectivesProvider.get());
+			}
+			results.add(result);
+			tasks.add(new Callable<List<Specification>>() {
+				@Override
+				public List<Specification> call() throws Exception {
+					return evaluate(evaluator, implementations, result);
 				}
+			});
+		}
+
+		List<List<Specification>> returned = invokeAll(tasks);
+
+		for (int i = 0; i < wrappers.size(); i++) {
+			List<Specification> candidates = new ArrayList<Specification>();
+			for (int j = 0; j < level.size(); j++) {
+				objectives.get(i).addAll(results.get(j).get(i));
+				candidates.add(returned.get(j) == null ? null : returned.get(j).get(i));
 			}
+			Specification impl = merge(candidates);
+			if (impl != null) {
+				wrappers.get(i).setImplementation(impl);
+			}
+		}
+	}
 
+	protected List<Specification> evaluate(ImplementationEvaluator evaluator, List<Specification> implementations,
+			List<Objectives> objectives) {
+		long start = System.nanoTime();
+		try {
+			return batchEvaluators.get(evaluator).evaluate(implementations, objectives);
+		} finally {
+			timings.get(evaluator).add(implementations.size(), System.nanoTime() - start);
+		}
+	}
+
+	protected List<Specification> getImplementations(List<ImplementationWrapper> wrappers) {
+		List<Specification> implementations = new ArrayList<Specification>(wrappers.size());
+		for (ImplementationWrapper wrapper : wrappers) {
+			implementations.add(wrapper.getImplementation());
+		}
+		return implementations;
+	}
+
+	protected void setImplementations(List<ImplementationWrapper> wrappers, List<Specification> implementations) {
+		if (implementations != null) {
+			for (int i = 0; i < wrappers.size(); i++) {
+				Specification impl = implementations.get(i);
+				if (impl != null) {
+					wrappers.get(i).setImplementation(impl);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Merges the implementations that are returned by the concurrently
+	 * executed evaluators of one priority level. The entries are in the order
+	 * of the evaluators and {@code null} if an evaluator did not change the
+	 * implementation. By default, the last returned implementation is used
+	 * (as in the sequential execution, if only one evaluator of the level
+	 * changes the implementation).
+	 * 
+	 * @param implementations
+	 *            the returned implementations
+	 * @return the merged implementation or {@code null} if the implementation
+	 *         is unchanged
+	 */
+	protected Specification merge(List<Specification> implementations) {
+		Specification merged = null;
+		for (Specification implementation : implementations) {
+			if (implementation != null) {
+				merged = implementation;
+			}
+		}
+		return merged;
+	}
+
+	protected Specification evaluate(ImplementationEvaluator evaluator, Specification implementation,
+			Objectives objectives) {
+		long start = System.nanoTime();
+		try {
+			return evaluator.evaluate(implementation, objectives);
+		} finally {
+			timings.get(evaluator).add(1, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Executes the tasks on the executor and returns their results in the
+	 * order of the tasks.
+	 * 
+	 * @param tasks
+	 *            the tasks
+	 * @return the results
+	 */
+	protected <T> List<T> invokeAll(List<Callable<T>> tasks) {
+		List<T> results = new ArrayList<T>(tasks.size());
+		try {
+			for (Future<T> future : getExecutor().invokeAll(tasks)) {
+				results.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+		return results;
+	}
+
+	/**
+	 * Writes the objectives as attributes {@code <name>:OBJECTIVE} to the
+	 * implementation.
+	 * 
+	 * @param wrapper
+	 *            the implementation wrapper
+	 * @param objectives
+	 *            the objectives
+	 */
+	protected void setObjectiveAttributes(ImplementationWrapper wrapper, Objectives objectives) {
+		for (Objective objective : objectives.getKeys()) {
+
+			String attribute = objective.getName() + ":OBJECTIVE";
+			Object value = objectives.get(objective);
+			if (value instanceof DoubleValue) {
+				value = ((DoubleValue) value).getValue();
+			} else if (value instanceof IntegerValue) {
+				value = ((IntegerValue) value).getValue();
+			} else {
+				value = value.toString();
+			}
+
+			wrapper.setAttribute(attribute, value);
+		}
+	}
+
+	@Override
+	public void optimizationStarted(Optimizer optimizer) {
+		// nothing to do
+	}
+
+	@Override
+	public synchronized void optimizationStopped(Optimizer optimizer) {
+		if (executor != null) {
+			executor.shutdown();
+			executor = null;
+		}
+	}
+
+	protected synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "ImplementationEvaluator");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+
+	/**
+	 * The {@code Timing} records the number of evaluations and the time spent
+	 * in one {@link ImplementationEvaluator}.
+	 */
+	public static class Timing {
+
+		protected final AtomicLong evaluations = new AtomicLong();
+		protected final AtomicLong time = new AtomicLong();
+
+		protected void add(int count, long nanos) {
+			evaluations.addAndGet(count);
+			time.addAndGet(nanos);
+		}
+
+		/**
+		 * Returns the number of evaluated implementations.
+		 * 
+		 * @return the number of evaluations
+		 */
+		public long getEvaluations() {
+			return evaluations.get();
+		}
+
+		/**
+		 * Returns the total evaluation time in nanoseconds.
+		 * 
+		 * @return the total time in nanoseconds
+		 */
+		public long getTime() {
+			return time.get();
+		}
+
+		/**
+		 * Returns the average evaluation time per implementation in
+		 * nanoseconds.
+		 * 
+		 * @return the average time in nanoseconds
+		 */
+		public double getAverageTime() {
+			long n = evaluations.get();
+			return n == 0 ? 0 : (double) time.get() / n;
+		}
+
+		@Override
+		public String toString() {
+			return "evaluations=" + getEvaluations() + " time=" + getTime() / 1000000 + "ms";
 		}
-		return objectives;
 	}
 
 }
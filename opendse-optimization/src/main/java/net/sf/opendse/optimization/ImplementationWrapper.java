@@ -21,23 +21,201 @@
  *******************************************************************************/
 package net.sf.opendse.optimization;
 
+import java.util.Map.Entry;
+
+import net.sf.opendse.model.Attributes;
 import net.sf.opendse.model.Specification;
 
+import org.opt4j.core.Objectives;
+
+import com.google.inject.Provider;
+
+/**
+ * The {@code ImplementationWrapper} is the phenotype of the design space
+ * exploration.
+ * <p>
+ * The wrapper either holds an implementation directly or a {@link Provider}
+ * that materializes the implementation on the first call of
+ * {@link #getImplementation()}. Attributes that are set with
+ * {@link #setAttribute(String, Object)} before the implementation is
+ * materialized are kept in an overlay and applied to the implementation once
+ * it is created. Thus, a full {@link Specification} is only built for the
+ * individuals where it is actually requested.
+ * <p>
+ * Materializing does not create a view: the implementation is still built as
+ * a complete copy of the selected specification elements (see
+ * {@link net.sf.opendse.optimization.encoding.Interpreter}). The
+ * {@link DesignSpaceExplorationEvaluator} requests the implementation of each
+ * evaluated individual, so the copy is only saved for individuals whose
+ * implementation is never requested.
+ * <p>
+ * The wrapper also keeps the {@link Objectives} once it is evaluated. If the
+ * wrapper has a key of a {@link DecodingCache}, a copy of the objectives is
+ * cached under this key.
+ */
 public class ImplementationWrapper {
 
 	protected Specification implementation;
+	protected Provider<Specification> provider = null;
+	protected final Attributes attributes = new Attributes();
+	protected Objectives objectives = null;
+	protected DecodingCache.Key key = null;
+	protected DecodingCache cache = null;
 
 	public ImplementationWrapper(Specification implementation) {
 		super();
 		this.implementation = implementation;
 	}
 
-	public Specification getImplementation() {
+	/**
+	 * Returns an {@code ImplementationWrapper} that materializes the
+	 * implementation lazily.
+	 * 
+	 * @param provider
+	 *            the provider of the implementation
+	 * @return the wrapper
+	 */
+	public static ImplementationWrapper lazy(Provider<Specification> provider) {
+		ImplementationWrapper wrapper = new ImplementationWrapper(null);
+		wrapper.provider = provider;
+		return wrapper;
+	}
+
+	/**
+	 * Returns the implementation. A lazy implementation is materialized on the
+	 * first call and the attribute overlay is applied.
+	 * 
+	 * @return the implementation
+	 */
+	public synchronized Specification getImplementation() {
+		if (provider != null) {
+			Provider<Specification> p = provider;
+			provider = null;
+			implementation = p.get();
+			if (implementation != null) {
+				for (Entry<String, Object> entry : attributes.entrySet()) {
+					implementation.setAttribute(entry.getKey(), entry.getValue());
+				}
+			}
+			attributes.clear();
+		}
 		return implementation;
 	}
-	
-	public void setImplementation(Specification implementation){
+
+	/**
+	 * Returns the provider of a lazy implementation or {@code null} if the
+	 * implementation is already materialized.
+	 * 
+	 * @return the provider or {@code null}
+	 */
+	synchronized Provider<Specification> getProvider() {
+		return provider;
+	}
+
+	/**
+	 * Replaces the provider of a lazy implementation, e.g., by a provider that
+	 * modifies the implementation of the previous provider. Thus, further
+	 * decoding steps are applied to the same wrapper instead of nesting lazy
+	 * wrappers.
+	 * 
+	 * @param provider
+	 *            the provider
+	 */
+	synchronized void setProvider(Provider<Specification> provider) {
+		if (this.provider == null) {
+			throw new IllegalStateException("The implementation is already materialized.");
+		}
+		this.provider = provider;
+	}
+
+	public synchronized void setImplementation(Specification implementation) {
+		this.provider = null;
+		this.attributes.clear();
 		this.implementation = implementation;
 	}
-	
+
+	/**
+	 * Returns {@code true} if the implementation has already been
+	 * materialized.
+	 * 
+	 * @return {@code true} if the implementation has already been materialized
+	 */
+	public synchronized boolean isMaterialized() {
+		return provider == null;
+	}
+
+	/**
+	 * Returns the objectives of the evaluated implementation or {@code null} if
+	 * the implementation has not been evaluated yet.
+	 * 
+	 * @return the objectives or {@code null}
+	 */
+	public synchronized Objectives getObjectives() {
+		return objectives;
+	}
+
+	public synchronized void setObjectives(Objectives objectives) {
+		this.objectives = objectives;
+		if (cache != null && objectives != null) {
+			cache.put(key, objectives);
+		}
+	}
+
+	/**
+	 * Returns the {@link DecodingCache} key of the decoded genotype or
+	 * {@code null} if there is none.
+	 * 
+	 * @return the key or {@code null}
+	 */
+	synchronized DecodingCache.Key getKey() {
+		return key;
+	}
+
+	/**
+	 * Sets the {@link DecodingCache} key of the decoded genotype. If a cache
+	 * is given, the objectives are cached under the key once they are set.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param cache
+	 *            the cache or {@code null}
+	 */
+	synchronized void setKey(DecodingCache.Key key, DecodingCache cache) {
+		this.key = key;
+		this.cache = cache;
+	}
+
+	/**
+	 * Sets an attribute of the implementation. If the implementation is not
+	 * materialized yet, the attribute is stored in the overlay.
+	 * 
+	 * @param identifier
+	 *            the identifier of the attribute
+	 * @param value
+	 *            the value
+	 */
+	public synchronized void setAttribute(String identifier, Object value) {
+		if (provider != null) {
+			attributes.setAttribute(identifier, value);
+		} else if (implementation != null) {
+			implementation.setAttribute(identifier, value);
+		}
+	}
+
+	/**
+	 * Returns an attribute of the implementation without materializing it.
+	 * 
+	 * @param identifier
+	 *            the identifier of the attribute
+	 * @return the value of the attribute or {@code null} if it is not defined
+	 */
+	public synchronized <O> O getAttribute(String identifier) {
+		if (provider != null) {
+			return attributes.getAttribute(identifier);
+		} else if (implementation != null) {
+			return implementation.getAttribute(identifier);
+		}
+		return null;
+	}
+
 }
@@ -27,14 +27,17 @@ import net.sf.opendse.optimization.constraints.SpecificationConstraints;
 import net.sf.opendse.optimization.constraints.SpecificationConstraintsMulti;
 import net.sf.opendse.optimization.constraints.SpecificationElementsConstraints;
 import net.sf.opendse.optimization.constraints.SpecificationRouterConstraints;
+import net.sf.opendse.optimization.encoding.CommunicationLearn;
 import net.sf.opendse.optimization.encoding.Encoding;
 import net.sf.opendse.optimization.encoding.Encoding.RoutingEncoding;
 import net.sf.opendse.optimization.encoding.ImplementationEncoding;
 import net.sf.opendse.optimization.encoding.Interpreter;
 import net.sf.opendse.optimization.encoding.InterpreterSpecification;
 
+import org.opt4j.core.config.annotations.Info;
 import org.opt4j.core.config.annotations.Parent;
 import org.opt4j.core.config.annotations.Required;
+import org.opt4j.core.optimizer.IndividualCompleter;
 import org.opt4j.core.problem.ProblemModule;
 import org.opt4j.core.start.Constant;
 import org.opt4j.viewer.VisualizationModule;
@@ -58,6 +61,34 @@ public class OptimizationModule extends ProblemModule {
 	@Constant(value = "variableorder", namespace = SATCreatorDecoder.class)
 	protected boolean useVariableOrder = true;
 
+	@Constant(value = "cacheSize", namespace = SATCreatorDecoder.class)
+	protected int decodingCacheSize = 0;
+
+	@Constant(value = "threads", namespace = DesignSpaceExplorationEvaluator.class)
+	protected int evaluationThreads = 1;
+
+	@Info("Completes the individuals with the BatchIndividualCompleter. Do not combine with the IndividualCompleterModule.")
+	protected boolean batchEvaluation = false;
+
+	@Required(property = "batchEvaluation", elements = { "TRUE" })
+	@Constant(value = "batchSize", namespace = BatchIndividualCompleter.class)
+	protected int evaluationBatchSize = 0;
+
+	@Constant(value = "threads", namespace = Encoding.class)
+	protected int encodingThreads = 1;
+
+	@Constant(value = "threads", namespace = CommunicationLearn.class)
+	protected int learnThreads = 1;
+
+	@Constant(value = "timeout", namespace = CommunicationLearn.class)
+	protected int learnTimeout = 0;
+
+	@Constant(value = "budget", namespace = CommunicationLearn.class)
+	protected int learnBudget = 0;
+
+	@Constant(value = "directory", namespace = ConstraintCache.class)
+	protected String constraintCacheDirectory = "";
+
 	public RoutingEncoding getRoutingEncoding() {
 		return routingEncoding;
 	}
@@ -74,6 +105,78 @@ public class OptimizationModule extends ProblemModule {
 		this.usePreprocessing = usePreprocessing;
 	}
 
+	public int getEvaluationThreads() {
+		return evaluationThreads;
+	}
+
+	public void setEvaluationThreads(int evaluationThreads) {
+		this.evaluationThreads = evaluationThreads;
+	}
+
+	public boolean isBatchEvaluation() {
+		return batchEvaluation;
+	}
+
+	public void setBatchEvaluation(boolean batchEvaluation) {
+		this.batchEvaluation = batchEvaluation;
+	}
+
+	public int getEvaluationBatchSize() {
+		return evaluationBatchSize;
+	}
+
+	public void setEvaluationBatchSize(int evaluationBatchSize) {
+		this.evaluationBatchSize = evaluationBatchSize;
+	}
+
+	public int getEncodingThreads() {
+		return encodingThreads;
+	}
+
+	public void setEncodingThreads(int encodingThreads) {
+		this.encodingThreads = encodingThreads;
+	}
+
+	public int getLearnThreads() {
+		return learnThreads;
+	}
+
+	public void setLearnThreads(int learnThreads) {
+		this.learnThreads = learnThreads;
+	}
+
+	public int getLearnTimeout() {
+		return learnTimeout;
+	}
+
+	public void setLearnTimeout(int learnTimeout) {
+		this.learnTimeout = learnTimeout;
+	}
+
+	public int getLearnBudget() {
+		return learnBudget;
+	}
+
+	public void setLearnBudget(int learnBudget) {
+		this.learnBudget = learnBudget;
+	}
+
+	public String getConstraintCacheDirectory() {
+		return constraintCacheDirectory;
+	}
+
+	public void setConstraintCacheDirectory(String constraintCacheDirectory) {
+		this.constraintCacheDirectory = constraintCacheDirectory;
+	}
+
+	public int getDecodingCacheSize() {
+		return decodingCacheSize;
+	}
+
+	public void setDecodingCacheSize(int decodingCacheSize) {
+		this.decodingCacheSize = decodingCacheSize;
+	}
+
 	public boolean isUseVariableOrder() {
 		return useVariableOrder;
 	}
@@ -102,6 +205,9 @@ public class OptimizationModule extends ProblemModule {
 	protected void config() {
 		bindProblem(DesignSpaceExplorationCreator.class, DesignSpaceExplorationDecoder.class,
 				DesignSpaceExplorationEvaluator.class);
+		// the same instance shuts down its threads when the optimization stops
+		bind(DesignSpaceExplorationEvaluator.class).in(SINGLETON);
+		addOptimizerStateListener(DesignSpaceExplorationEvaluator.class);
 
 		VisualizationModule.addIndividualMouseListener(binder(), ImplementationWidgetService.class);
 		VisualizationModule.addToolBarService(binder(), SpecificationToolBarService.class);
@@ -115,6 +221,11 @@ public class OptimizationModule extends ProblemModule {
 		scmulti.addBinding().to(SpecificationRouterConstraints.class);
 
 		Multibinder.newSetBinder(binder(), ImplementationEvaluator.class);
+		if (batchEvaluation) {
+			// binds the completer that is otherwise bound by the
+			// IndividualCompleterModule, i.e., both cannot be installed together
+			bind(IndividualCompleter.class).to(BatchIndividualCompleter.class);
+		}
 
 		if (stagnationRestartEnabled) {
 			addOptimizerIterationListener(StagnationRestart.class);
@@ -21,9 +21,9 @@
  *******************************************************************************/
 package net.sf.opendse.optimization;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -33,6 +33,8 @@ import net.sf.opendse.optimization.encoding.Encoding;
 import net.sf.opendse.optimization.encoding.ImplementationEncoding;
 import net.sf.opendse.optimization.encoding.RoutingFilter;
 import net.sf.opendse.optimization.encoding.common.ConstraintPreprocessing;
+import net.sf.opendse.optimization.encoding.common.ConstraintStore;
+import net.sf.opendse.optimization.encoding.variables.LiteralCache;
 
 import org.opt4j.core.start.Constant;
 import org.opt4j.satdecoding.Constraint;
@@ -44,7 +46,12 @@ import com.google.inject.Singleton;
 
 /**
  * The {@code SATConstraints} objects initializes constraints and applies the
- * preprocessing.
+ * preprocessing. The literals are interned in the {@link LiteralCache} of the
+ * exploration which is released once the constraints are built. The resulting
+ * constraints are kept in a compact {@link ConstraintStore}. If a
+ * {@link ConstraintCache} is enabled, the constraints and the preprocessing
+ * results are loaded from the cache if the same specification was encoded
+ * before with the same configuration.
  * 
  * @author martin.lukasiewycz
  *
@@ -53,81 +60,159 @@ import com.google.inject.Singleton;
 public class SATConstraints {
 
 	protected final SpecificationWrapper specificationWrapper;
-	protected final List<Constraint> constraints = new ArrayList<Constraint>();
-	protected final List<Object> variables = new ArrayList<Object>();
+	protected final ConstraintStore store = new ConstraintStore();
 	protected final ConstraintPreprocessing pp;
 	protected final boolean usePreprocessing;
+	protected final LiteralCache literalCache;
 	protected boolean isInit = false;
 	protected ImplementationEncoding encoding;
+	protected CommunicationLearn communicationLearn = new CommunicationLearn();
+	protected ConstraintCache constraintCache = null;
+	protected List<Constraint> constraints = null;
 
 	@Inject
-	public SATConstraints(SpecificationWrapper specificationWrapper, ImplementationEncoding encoding, @Constant(value = "preprocessing", namespace = SATConstraints.class) boolean usePreprocessing) {
+	public SATConstraints(SpecificationWrapper specificationWrapper, ImplementationEncoding encoding, @Constant(value = "preprocessing", namespace = SATConstraints.class) boolean usePreprocessing, LiteralCache literalCache) {
 		this(specificationWrapper, encoding, new ConstraintPreprocessing(true, true,
-				new Encoding.VariableComparator(), null, true), usePreprocessing);
+				new Encoding.VariableComparator(), null, true), usePreprocessing, literalCache);
 		
 	}
 
+	public SATConstraints(SpecificationWrapper specificationWrapper, ImplementationEncoding encoding, boolean usePreprocessing) {
+		this(specificationWrapper, encoding, usePreprocessing, new LiteralCache());
+	}
+
 	public SATConstraints(SpecificationWrapper specificationWrapper, ImplementationEncoding encoding, ConstraintPreprocessing pp, boolean usePreprocessing) {
+		this(specificationWrapper, encoding, pp, usePreprocessing, new LiteralCache());
+	}
+
+	public SATConstraints(SpecificationWrapper specificationWrapper, ImplementationEncoding encoding, ConstraintPreprocessing pp, boolean usePreprocessing, LiteralCache literalCache) {
 		super();
 		this.specificationWrapper = specificationWrapper;
 		this.encoding = encoding;
 		this.pp = pp;
 		this.usePreprocessing = usePreprocessing;
+		this.literalCache = literalCache;
 	}
 
+	@Inject(optional = true)
+	public void setCommunicationLearn(CommunicationLearn communicationLearn) {
+		this.communicationLearn = communicationLearn;
+	}
+
+	@Inject(optional = true)
+	public void setConstraintCache(ConstraintCache constraintCache) {
+		this.constraintCache = constraintCache;
+	}
+
+	/**
+	 * Returns the configuration of the encoding that is part of the key of the
+	 * {@link ConstraintCache}. The learned units depend on the timeout and the
+	 * budget of the {@link CommunicationLearn}. The settings of the encoders
+	 * are taken from the bindings by the {@link ConstraintCache}.
+	 * 
+	 * @return the configuration
+	 */
+	protected String getConfiguration() {
+		return encoding.getClass().getName() + ";" + communicationLearn.getClass().getName() + ";timeout="
+				+ communicationLearn.getTimeout() + ";budget=" + communicationLearn.getBudget() + ";preprocessing="
+				+ usePreprocessing;
+	}
+
+	/**
+	 * Returns the unmodifiable constraints in object form. The objects are
+	 * created from the {@link ConstraintStore} on the first call and kept for
+	 * later calls. Use {@link #getConstraintStore()} to avoid the objects.
+	 * 
+	 * @return the constraints
+	 */
 	public synchronized List<Constraint> getConstraints() {
 		if (!isInit) {
 			init();
 		}
+		if (constraints == null) {
+			constraints = Collections.unmodifiableList(store.toConstraints());
+		}
 		return constraints;
 	}
 
+	/**
+	 * Returns the compact representation of the constraints.
+	 * 
+	 * @return the constraint store
+	 */
+	public synchronized ConstraintStore getConstraintStore() {
+		if (!isInit) {
+			init();
+		}
+		return store;
+	}
+
 	public synchronized List<Object> getVariables() {
 		if (!isInit) {
 			init();
 		}
-		return variables;
+		return store.getVariables();
 	}
 
 	public synchronized void init() {
 		if (!isInit) {
-			// TODO rewrite this
-			Specification specification = specificationWrapper.getSpecification();
-			RoutingFilter.filter(specification);
-
-			Collection<Constraint> constraints = encoding.toConstraints();
-
-			CommunicationLearn clearn = new CommunicationLearn();
-			Set<Literal> learned = clearn.learn(constraints);
-			for (Literal literal : learned) {
-				Constraint constraint = new Constraint("=", 1);
-				constraint.add(literal);
-				constraints.add(constraint);
-			}
-			/*
-			 * for (Constraint constraint : constraints) {
-			 * System.out.println(constraint); }
-			 */
-			// this.constraints.addAll(constraints);
-			
-			if(usePreprocessing){
-				this.constraints.addAll(pp.process(constraints));
-			} else {
-				this.constraints.addAll(constraints);
-			}
+			LiteralCache previous = literalCache.activate();
+			try {
+				// TODO rewrite this
+				Specification specification = specificationWrapper.getSpecification();
+				String key = null;
+				if (constraintCache != null && constraintCache.isEnabled()) {
+					try {
+						key = constraintCache.key(specification, getConfiguration());
+					} catch (IOException e) {
+						// the specification is not serializable and not cached
+					}
+				}
 
-			Set<Object> variables = new HashSet<Object>();
-			for (Constraint constraint : this.constraints) {
-				for (Literal literal : constraint.getLiterals()) {
-					variables.add(literal.variable());
+				ConstraintPreprocessing cached = usePreprocessing ? pp : null;
+				if (key == null || !constraintCache.load(key, specification, store, cached)) {
+					RoutingFilter.filter(specification);
+					encode();
+					if (key != null) {
+						constraintCache.save(key, specification, store, cached);
+					}
 				}
+			} finally {
+				LiteralCache.restore(previous);
+				literalCache.release();
 			}
-			this.variables.addAll(variables);
 
 			isInit = true;
 		}
 	}
 
+	/**
+	 * Encodes the constraints, learns the communication units, and applies the
+	 * preprocessing.
+	 */
+	protected void encode() {
+		Collection<Constraint> constraints = encoding.toConstraints();
+
+		Set<Literal> learned = communicationLearn.learn(constraints);
+		for (Literal literal : learned) {
+			Constraint constraint = new Constraint("=", 1);
+			constraint.add(literal);
+			constraints.add(constraint);
+		}
+		/*
+		 * for (Constraint constraint : constraints) {
+		 * System.out.println(constraint); }
+		 */
+		// this.constraints.addAll(constraints);
+	
+		if(usePreprocessing){
+			pp.process(constraints, store);
+		} else {
+			store.addAll(constraints);
+		}
+		store.trimToSize();
+	}
+
 	public synchronized Model decorate(Model model) {
 		if (!isInit) {
 			init();
@@ -40,6 +40,7 @@ import org.opt4j.satdecoding.Model;
 import org.opt4j.satdecoding.SATManager;
 
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 import com.google.inject.Singleton;
 
 @Singleton
@@ -53,6 +54,7 @@ public class SATCreatorDecoder extends AbstractSATDecoder<Genotype, Implementati
 	protected final SpecificationWrapper specificationWrapper;
 	protected final Interpreter interpreter;
 	protected final Control control;
+	protected DecodingCache cache = null;
 
 	@Inject
 	public SATCreatorDecoder(VariableClassOrder order, SATManager manager, Rand random, SATConstraints constraints,
@@ -66,23 +68,55 @@ public class SATCreatorDecoder extends AbstractSATDecoder<Genotype, Implementati
 		this.control = control;
 	}
 
+	/**
+	 * Sets the size of the {@link DecodingCache}. A size of {@code 0} disables
+	 * the cache. The decoder only attaches the key of the model to each
+	 * wrapper; the cache is used by the {@link DesignSpaceExplorationDecoder}
+	 * that also knows the decoded parameters.
+	 * 
+	 * @param cacheSize
+	 *            the maximal number of cached models
+	 */
+	@Inject(optional = true)
+	public void setCacheSize(@Constant(value = "cacheSize", namespace = SATCreatorDecoder.class) int cacheSize) {
+		this.cache = cacheSize > 0 ? new DecodingCache(cacheSize) : null;
+	}
+
+	/**
+	 * Returns the {@link DecodingCache} or {@code null} if it is disabled.
+	 * 
+	 * @return the cache or {@code null}
+	 */
+	public DecodingCache getCache() {
+		return cache;
+	}
+
 	@Override
-	public ImplementationWrapper convertModel(Model model) {
+	public ImplementationWrapper convertModel(final Model model) {
 		if (model == null) {
 			control.doTerminate();
 			System.err.println("No feasible implementation exists.");
 			return new ImplementationWrapper(null);
 		}
-		model = constraints.decorate(model);
-		Specification specification = specificationWrapper.getSpecification();
-		Specification implementation = interpreter.toImplementation(specification, model);
-		ImplementationWrapper wrapper = new ImplementationWrapper(implementation);
+		final Specification specification = specificationWrapper.getSpecification();
+		// the model is only decorated and the implementation only built once
+		// it is requested, i.e., not for a cached genotype
+		ImplementationWrapper wrapper = ImplementationWrapper.lazy(new Provider<Specification>() {
+			@Override
+			public Specification get() {
+				return interpreter.toImplementation(specification, constraints.decorate(model));
+			}
+		});
+		if (cache != null) {
+			wrapper.setKey(DecodingCache.key(model, constraints.getVariables()), null);
+		}
 		return wrapper;
 	}
 
 	@Override
 	public Set<Constraint> createConstraints() {
-		Set<Constraint> constraints = new HashSet<Constraint>(this.constraints.getConstraints());
+		// the object form is only created for the solver
+		Set<Constraint> constraints = new HashSet<Constraint>(this.constraints.getConstraintStore().asConstraints());
 		return constraints;
 	}
 
@@ -24,24 +24,45 @@ package net.sf.opendse.optimization.encoding;
 import static net.sf.opendse.optimization.encoding.variables.Variables.n;
 import static net.sf.opendse.optimization.encoding.variables.Variables.p;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
 
 import net.sf.opendse.model.ICommunication;
 import net.sf.opendse.optimization.encoding.common.BinaryReachability;
 import net.sf.opendse.optimization.encoding.variables.CommunicationVariable;
+import net.sf.opendse.optimization.encoding.variables.LiteralCache;
 
 import org.apache.commons.collections15.functors.InstantiateFactory;
 import org.apache.commons.collections15.map.LazyMap;
+import org.opt4j.core.start.Constant;
 import org.opt4j.satdecoding.Constraint;
 import org.opt4j.satdecoding.Literal;
 
+import com.google.inject.Inject;
+
 /**
  * The {@code CommunicationLearn} learns units from the communication variables.
  * This is done by a {@link BinaryReachability} search.
+ * <p>
+ * The searches of the communications are independent and can be executed
+ * concurrently. Each search can be limited by a timeout and all searches by a
+ * common time budget. The units of the searches that did not finish in time
+ * are dropped, the units of all other searches are kept. The remaining time
+ * also bounds each solver call of a search. The time of each search is
+ * available via {@link #getTimings()}.
  * 
  * 
  * @author Martin Lukasiewycz
@@ -49,14 +70,125 @@ import org.opt4j.satdecoding.Literal;
  */
 public class CommunicationLearn {
 
+	protected ExecutorService executor = null;
+	protected int threads = 1;
+	protected int timeout = 0;
+	protected int budget = 0;
+
+	protected final Map<ICommunication, Long> timings = Collections
+			.synchronizedMap(new LinkedHashMap<ICommunication, Long>());
+	protected final Set<ICommunication> incomplete = Collections.synchronizedSet(new HashSet<ICommunication>());
+
+	private static final Logger logger = Logger.getLogger(CommunicationLearn.class.getName());
+
+	public CommunicationLearn() {
+		super();
+	}
+
+	/**
+	 * Constructs a {@code CommunicationLearn} that runs the searches on the
+	 * given executor.
+	 * 
+	 * @param executor
+	 *            the executor (not shut down by this class)
+	 * @param timeout
+	 *            the timeout of each search in milliseconds ({@code 0} for no
+	 *            timeout)
+	 * @param budget
+	 *            the time budget of all searches in milliseconds ({@code 0}
+	 *            for no budget)
+	 */
+	public CommunicationLearn(ExecutorService executor, int timeout, int budget) {
+		super();
+		this.executor = executor;
+		this.timeout = timeout;
+		this.budget = budget;
+	}
+
+	/**
+	 * Sets the number of threads if no executor is given.
+	 * 
+	 * @param threads
+	 *            the number of threads
+	 */
+	@Inject(optional = true)
+	public void setThreads(@Constant(value = "threads", namespace = CommunicationLearn.class) int threads) {
+		this.threads = threads;
+	}
+
+	/**
+	 * Sets the timeout of each search.
+	 * 
+	 * @param timeout
+	 *            the timeout in milliseconds ({@code 0} for no timeout)
+	 */
+	@Inject(optional = true)
+	public void setTimeout(@Constant(value = "timeout", namespace = CommunicationLearn.class) int timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Sets the time budget of all searches.
+	 * 
+	 * @param budget
+	 *            the budget in milliseconds ({@code 0} for no budget)
+	 */
+	@Inject(optional = true)
+	public void setBudget(@Constant(value = "budget", namespace = CommunicationLearn.class) int budget) {
+		this.budget = budget;
+	}
+
+	/**
+	 * Returns the timeout of each search.
+	 * 
+	 * @return the timeout in milliseconds ({@code 0} for no timeout)
+	 */
+	public int getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Returns the time budget of all searches.
+	 * 
+	 * @return the budget in milliseconds ({@code 0} for no budget)
+	 */
+	public int getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Returns the time of the search of each communication in milliseconds.
+	 * 
+	 * @return the timings of the last call of {@link #learn(Collection)}
+	 */
+	public Map<ICommunication, Long> getTimings() {
+		synchronized (timings) {
+			return new LinkedHashMap<ICommunication, Long>(timings);
+		}
+	}
+
+	/**
+	 * Returns the communications whose search did not finish within the
+	 * timeout or the budget.
+	 * 
+	 * @return the communications without learned units
+	 */
+	public Set<ICommunication> getIncomplete() {
+		synchronized (incomplete) {
+			return new HashSet<ICommunication>(incomplete);
+		}
+	}
+
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public Set<Literal> learn(Collection<Constraint> constraints) {
 		Set<Literal> learned = new HashSet<Literal>();
+		timings.clear();
+		incomplete.clear();
 
-		Map<Object, Set<Constraint>> map = LazyMap.decorate(new HashMap<Object, Set<Constraint>>(),
+		final Map<Object, Set<Constraint>> map = LazyMap.decorate(new HashMap<Object, Set<Constraint>>(),
 				new InstantiateFactory(HashSet.class));
 
-		Map<ICommunication, Set<CommunicationVariable>> cvars = LazyMap.decorate(
+		final Map<ICommunication, Set<CommunicationVariable>> cvars = LazyMap.decorate(
 				new HashMap<ICommunication, Set<CommunicationVariable>>(), new InstantiateFactory(HashSet.class));
 
 		for (Constraint constraint : constraints) {
@@ -70,50 +202,130 @@ public class CommunicationLearn {
 			}
 		}
 
-		for (ICommunication communication : cvars.keySet()) {
-			// System.out.println("communication "+communication);
-			Set<Constraint> cs = new HashSet<Constraint>();
+		final long deadline = budget > 0 ? System.currentTimeMillis() + budget : Long.MAX_VALUE;
+		final LiteralCache literalCache = LiteralCache.getActive();
 
-			Set<Object> visited = new HashSet<Object>();
-			Set<Object> vars = new HashSet<Object>(cvars.get(communication));
-
-			final int depth = 2;
-
-			for (int i = 0; i < depth; i++) {
-				Set<Constraint> css = new HashSet<Constraint>(); // new
-																	// constraints
-				for (Object var : vars) {
-					visited.add(var);
-					css.addAll(map.get(var));
-				}
-				css.removeAll(cs);
-				cs.addAll(css);
-				vars.clear();
-
-				if (i - 1 < depth) {
-					for (Constraint constraint : css) {
-						for (Literal lit : constraint.getLiterals()) {
-							Object var = lit.variable();
-							if (!(var instanceof CommunicationVariable) && !visited.contains(var)) {
-								vars.add(var); // new variables
-							}
+		List<Callable<Set<Literal>>> searches = new ArrayList<Callable<Set<Literal>>>();
+		for (final ICommunication communication : cvars.keySet()) {
+			searches.add(new Callable<Set<Literal>>() {
+				@Override
+				public Set<Literal> call() {
+					LiteralCache previous = literalCache != null ? literalCache.activate() : null;
+					try {
+						return learn(communication, map, cvars.get(communication), deadline);
+					} finally {
+						if (literalCache != null) {
+							LiteralCache.restore(previous);
 						}
 					}
 				}
+			});
+		}
+
+		if (executor == null && threads <= 1) {
+			for (Callable<Set<Literal>> search : searches) {
+				try {
+					learned.addAll(search.call());
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
 			}
+		} else {
+			ExecutorService executor = this.executor != null ? this.executor : Executors.newFixedThreadPool(threads);
+			try {
+				for (Future<Set<Literal>> future : executor.invokeAll(searches)) {
+					learned.addAll(future.get());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			} catch (ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			} finally {
+				if (executor != this.executor) {
+					executor.shutdown();
+				}
+			}
+		}
 
-			Set<Literal> lits = new HashSet<Literal>();
-			for (CommunicationVariable var : cvars.get(communication)) {
-				lits.add(p(var));
-				lits.add(n(var));
+		if (!incomplete.isEmpty()) {
+			logger.warning("Learning incomplete for " + incomplete.size() + " of " + searches.size()
+					+ " communications in preprocessing: " + this.getClass());
+		}
+
+		return learned;
+	}
+
+	/**
+	 * Learns the units of a single communication.
+	 * 
+	 * @param communication
+	 *            the communication
+	 * @param map
+	 *            the constraints of each variable
+	 * @param communicationVariables
+	 *            the variables of the communication
+	 * @param deadline
+	 *            the time when the budget is exhausted
+	 * @return the learned units (empty if the search did not finish in time)
+	 */
+	protected Set<Literal> learn(ICommunication communication, Map<Object, Set<Constraint>> map,
+			Set<CommunicationVariable> communicationVariables, long deadline) {
+		long start = System.currentTimeMillis();
+		if (start >= deadline) {
+			incomplete.add(communication);
+			return Collections.emptySet();
+		}
+		if (timeout > 0) {
+			deadline = Math.min(deadline, start + timeout);
+		}
+
+		// System.out.println("communication "+communication);
+		Set<Constraint> cs = new HashSet<Constraint>();
+
+		Set<Object> visited = new HashSet<Object>();
+		Set<Object> vars = new HashSet<Object>(communicationVariables);
+
+		final int depth = 2;
+
+		for (int i = 0; i < depth; i++) {
+			Set<Constraint> css = new HashSet<Constraint>(); // new
+																// constraints
+			for (Object var : vars) {
+				visited.add(var);
+				css.addAll(map.get(var));
 			}
+			css.removeAll(cs);
+			cs.addAll(css);
+			vars.clear();
 
-			BinaryReachability binaryReachability = new BinaryReachability();
-			Set<Literal> learn = binaryReachability.search(cs, lits);
+			if (i - 1 < depth) {
+				for (Constraint constraint : css) {
+					for (Literal lit : constraint.getLiterals()) {
+						Object var = lit.variable();
+						if (!(var instanceof CommunicationVariable) && !visited.contains(var)) {
+							vars.add(var); // new variables
+						}
+					}
+				}
+			}
+		}
 
-			learned.addAll(learn);
+		Set<Literal> lits = new HashSet<Literal>();
+		for (CommunicationVariable var : communicationVariables) {
+			lits.add(p(var));
+			lits.add(n(var));
 		}
 
-		return learned;
+		BinaryReachability binaryReachability = new BinaryReachability();
+		Set<Literal> learn = binaryReachability.search(cs, lits, deadline);
+
+		timings.put(communication, System.currentTimeMillis() - start);
+
+		if (learn == null) {
+			incomplete.add(communication);
+			return Collections.emptySet();
+		}
+		return learn;
 	}
 }
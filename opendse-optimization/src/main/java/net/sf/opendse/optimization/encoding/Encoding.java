@@ -36,6 +36,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import net.sf.opendse.model.Application;
 import net.sf.opendse.model.Architecture;
@@ -53,7 +58,9 @@ import net.sf.opendse.optimization.SpecificationWrapper;
 import net.sf.opendse.optimization.constraints.SpecificationConstraints;
 import net.sf.opendse.optimization.encoding.variables.CLRR;
 import net.sf.opendse.optimization.encoding.variables.CR;
+import net.sf.opendse.optimization.encoding.variables.LiteralCache;
 
+import org.opt4j.core.start.Constant;
 import org.opt4j.satdecoding.Constraint;
 
 import com.google.inject.Inject;
@@ -63,6 +70,12 @@ import edu.uci.ics.jung.graph.util.Pair;
 /**
  * The {@code Encoding} transforms the exploration problem into a set of
  * constraints.
+ * <p>
+ * Each equation that iterates the communications has an overload with an
+ * additional communication {@code Task c} that formulates the constraints of
+ * this single communication only. The overload over all communications
+ * delegates to it, such that the communications can be encoded in parallel
+ * (see {@link #toConstraints()}).
  * 
  * @author Martin Lukasiewycz
  * 
@@ -101,6 +114,9 @@ public class Encoding implements ImplementationEncoding{
 	protected final SpecificationConstraints specificationConstraints;
 	protected final RoutingEncoding routingEncoding;
 	protected final Specification specification;
+	protected final boolean isUnicast = false;
+	protected static final int Tmax = 10;
+	protected int threads = 1;
 
 	@Inject
 	public Encoding(SpecificationConstraints specificationConstraints, RoutingEncoding routingEncoding, SpecificationWrapper specificationWrapper) {
@@ -109,6 +125,20 @@ public class Encoding implements ImplementationEncoding{
 		this.specification = specificationWrapper.getSpecification();
 	}
 
+	/**
+	 * Sets the number of threads that formulate the constraints. With more
+	 * than one thread, the constraints are the same as in the sequential
+	 * encoding. They are grouped by communication instead of by equation, but
+	 * their order is the same for each run and each number of threads.
+	 * 
+	 * @param threads
+	 *            the number of threads
+	 */
+	@Inject(optional = true)
+	public void setThreads(@Constant(value = "threads", namespace = Encoding.class) int threads) {
+		this.threads = threads;
+	}
+
 	/**
 	 * For each process task in the application graph, exactly one mapping edge
 	 * has to be activated in the implementation.
@@ -218,13 +248,17 @@ public class Encoding implements ImplementationEncoding{
 	 */
 	protected void EQ6(List<Constraint> constraints, Specification specification) {
 		for (Task c : filterCommunications(specification.getApplication())) {
-			Architecture<Resource, Link> routing = specification.getRoutings().get(c);
-			for (Resource r : routing) {
-				Constraint constraint = new Constraint(">=", 0);
-				constraint.add(p(r));
-				constraint.add(-1, p(var(c, r)));
-				constraints.add(constraint);
-			}
+			EQ6(constraints, specification, c);
+		}
+	}
+
+	protected void EQ6(List<Constraint> constraints, Specification specification, Task c) {
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+		for (Resource r : routing) {
+			Constraint constraint = new Constraint(">=", 0);
+			constraint.add(p(r));
+			constraint.add(-1, p(var(c, r)));
+			constraints.add(constraint);
 		}
 	}
 
@@ -237,13 +271,17 @@ public class Encoding implements ImplementationEncoding{
 	 */
 	protected void EQ7(List<Constraint> constraints, Specification specification) {
 		for (Task c : filterCommunications(specification.getApplication())) {
-			Architecture<Resource, Link> routing = specification.getRoutings().get(c);
-			for (DirectedLink lrr : getLinks(routing)) {
-				Constraint constraint = new Constraint(">=", 0);
-				constraint.add(p(lrr.getLink()));
-				constraint.add(-1, p(var(c, lrr)));
-				constraints.add(constraint);
-			}
+			EQ7(constraints, specification, c);
+		}
+	}
+
+	protected void EQ7(List<Constraint> constraints, Specification specification, Task c) {
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+		for (DirectedLink lrr : getLinks(routing)) {
+			Constraint constraint = new Constraint(">=", 0);
+			constraint.add(p(lrr.getLink()));
+			constraint.add(-1, p(var(c, lrr)));
+			constraints.add(constraint);
 		}
 	}
 
@@ -256,17 +294,21 @@ public class Encoding implements ImplementationEncoding{
 	 */
 	protected void EQ8(List<Constraint> constraints, Specification specification) {
 		for (Task c : filterCommunications(specification.getApplication())) {
-			Architecture<Resource, Link> routing = specification.getRoutings().get(c);
-			for (DirectedLink lrr : getLinks(routing)) {
-				Resource r0 = lrr.getSource();
-				Resource r1 = lrr.getDest();
+			EQ8(constraints, specification, c);
+		}
+	}
 
-				Constraint constraint = new Constraint(">=", 0);
-				constraint.add(-2, p(var(c, lrr)));
-				constraint.add(p(var(c, r0)));
-				constraint.add(p(var(c, r1)));
-				constraints.add(constraint);
-			}
+	protected void EQ8(List<Constraint> constraints, Specification specification, Task c) {
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+		for (DirectedLink lrr : getLinks(routing)) {
+			Resource r0 = lrr.getSource();
+			Resource r1 = lrr.getDest();
+
+			Constraint constraint = new Constraint(">=", 0);
+			constraint.add(-2, p(var(c, lrr)));
+			constraint.add(p(var(c, r0)));
+			constraint.add(p(var(c, r1)));
+			constraints.add(constraint);
 		}
 	}
 
@@ -281,19 +323,23 @@ public class Encoding implements ImplementationEncoding{
 	 */
 	protected void EQ9(List<Constraint> constraints, Specification specification) {
 		for (Task c : filterCommunications(specification.getApplication())) {
-			Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+			EQ9(constraints, specification, c);
+		}
+	}
 
-			for (Link l : routing.getEdges()) {
-				if (routing.getEdgeType(l) == UNDIRECTED) {
-					Pair<Resource> endpoints = routing.getEndpoints(l);
-					Resource r0 = endpoints.getFirst();
-					Resource r1 = endpoints.getSecond();
+	protected void EQ9(List<Constraint> constraints, Specification specification, Task c) {
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
 
-					Constraint constraint = new Constraint("<=", 1);
-					constraint.add(p(var(c, l, r0, r1)));
-					constraint.add(p(var(c, l, r1, r0)));
-					constraints.add(constraint);
-				}
+		for (Link l : routing.getEdges()) {
+			if (routing.getEdgeType(l) == UNDIRECTED) {
+				Pair<Resource> endpoints = routing.getEndpoints(l);
+				Resource r0 = endpoints.getFirst();
+				Resource r1 = endpoints.getSecond();
+
+				Constraint constraint = new Constraint("<=", 1);
+				constraint.add(p(var(c, l, r0, r1)));
+				constraint.add(p(var(c, l, r1, r0)));
+				constraints.add(constraint);
 			}
 		}
 	}
@@ -307,28 +353,32 @@ public class Encoding implements ImplementationEncoding{
 	protected void EQ10EQ11(List<Constraint> constraints, Specification specification) {
 		// iterate over all communications
 		for (Task c : filterCommunications(specification.getApplication())) {
-			// iterate over all flows of the current communication
-			for (Task p : filterProcesses(specification.getApplication().getNeighbors(c))) {
-				// iterate over all possible mapping targets of the current
-				// communication flow
-				for (Mapping<Task, Resource> m : specification.getMappings().get(p)) {
-					Resource r = m.getTarget();
-					if (specification.getRoutings().get(c).containsVertex(r)) {
-						// case where the resource is part of the routing graph
-						// : if the mapping of the comm flow on the resource is
-						// activated, the communication has to be routed over
-						// the resource
-						Constraint constraint = new Constraint(">=", 0); // EQ10
-						constraint.add(p(var(c, r)));
-						constraint.add(-1, p(m));
-						constraints.add(constraint);
-					} else {
-						// case where the resource is not in the routing graph :
-						// the mapping must not be activated
-						Constraint constraint = new Constraint("=", 0); // EQ11
-						constraint.add(p(m));
-						constraints.add(constraint);
-					}
+			EQ10EQ11(constraints, specification, c);
+		}
+	}
+
+	protected void EQ10EQ11(List<Constraint> constraints, Specification specification, Task c) {
+		// iterate over all flows of the current communication
+		for (Task p : filterProcesses(specification.getApplication().getNeighbors(c))) {
+			// iterate over all possible mapping targets of the current
+			// communication flow
+			for (Mapping<Task, Resource> m : specification.getMappings().get(p)) {
+				Resource r = m.getTarget();
+				if (specification.getRoutings().get(c).containsVertex(r)) {
+					// case where the resource is part of the routing graph
+					// : if the mapping of the comm flow on the resource is
+					// activated, the communication has to be routed over
+					// the resource
+					Constraint constraint = new Constraint(">=", 0); // EQ10
+					constraint.add(p(var(c, r)));
+					constraint.add(-1, p(m));
+					constraints.add(constraint);
+				} else {
+					// case where the resource is not in the routing graph :
+					// the mapping must not be activated
+					Constraint constraint = new Constraint("=", 0); // EQ11
+					constraint.add(p(m));
+					constraints.add(constraint);
 				}
 			}
 		}
@@ -344,19 +394,23 @@ public class Encoding implements ImplementationEncoding{
 	 */
 	protected void EQ12(List<Constraint> constraints, Specification specification) {
 		for (Task c : filterCommunications(specification.getApplication())) {
-			for (Task p : filterProcesses(specification.getApplication().getPredecessors(c))) {
-				for (Mapping<Task, Resource> m : specification.getMappings().get(p)) {
-					Resource r0 = m.getTarget();
-					Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+			EQ12(constraints, specification, c);
+		}
+	}
 
-					for (DirectedLink lrr : getInLinks(routing, r0)) {
-						Constraint constraint = new Constraint("<=", 1);
-						constraint.add(p(m));
-						constraint.add(p(var(c, lrr)));
-						constraints.add(constraint);
-					}
+	protected void EQ12(List<Constraint> constraints, Specification specification, Task c) {
+		for (Task p : filterProcesses(specification.getApplication().getPredecessors(c))) {
+			for (Mapping<Task, Resource> m : specification.getMappings().get(p)) {
+				Resource r0 = m.getTarget();
+				Architecture<Resource, Link> routing = specification.getRoutings().get(c);
 
+				for (DirectedLink lrr : getInLinks(routing, r0)) {
+					Constraint constraint = new Constraint("<=", 1);
+					constraint.add(p(m));
+					constraint.add(p(var(c, lrr)));
+					constraints.add(constraint);
 				}
+
 			}
 		}
 	}
@@ -369,15 +423,19 @@ public class Encoding implements ImplementationEncoding{
 	 */
 	protected void EQ13(List<Constraint> constraints, Specification specification) {
 		for (Task c : filterCommunications(specification.getApplication())) {
-			Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+			EQ13(constraints, specification, c);
+		}
+	}
 
-			for (Resource r0 : routing) {
-				Constraint constraint = new Constraint("<=", 1);
-				for (DirectedLink lrr : getInLinks(routing, r0)) {
-					constraint.add(p(var(c, lrr)));
-				}
-				constraints.add(constraint);
+	protected void EQ13(List<Constraint> constraints, Specification specification, Task c) {
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+
+		for (Resource r0 : routing) {
+			Constraint constraint = new Constraint("<=", 1);
+			for (DirectedLink lrr : getInLinks(routing, r0)) {
+				constraint.add(p(var(c, lrr)));
 			}
+			constraints.add(constraint);
 		}
 	}
 
@@ -391,22 +449,26 @@ public class Encoding implements ImplementationEncoding{
 	 */
 	protected void EQ14(List<Constraint> constraints, Specification specification) {
 		for (Task c : filterCommunications(specification.getApplication())) {
-			Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+			EQ14(constraints, specification, c);
+		}
+	}
 
-			for (Resource r0 : routing) {
-				Constraint constraint = new Constraint(">=", 0);
-				constraint.add(-1, p(var(c, r0)));
+	protected void EQ14(List<Constraint> constraints, Specification specification, Task c) {
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
 
-				for (Task p : filterProcesses(specification.getApplication().getSuccessors(c))) {
-					for (Mapping<Task, Resource> m : specification.getMappings().get(p, r0)) {
-						constraint.add(p(m));
-					}
-				}
-				for (DirectedLink lrr : getOutLinks(routing, r0)) {
-					constraint.add(p(var(c, lrr)));
+		for (Resource r0 : routing) {
+			Constraint constraint = new Constraint(">=", 0);
+			constraint.add(-1, p(var(c, r0)));
+
+			for (Task p : filterProcesses(specification.getApplication().getSuccessors(c))) {
+				for (Mapping<Task, Resource> m : specification.getMappings().get(p, r0)) {
+					constraint.add(p(m));
 				}
-				constraints.add(constraint);
 			}
+			for (DirectedLink lrr : getOutLinks(routing, r0)) {
+				constraint.add(p(var(c, lrr)));
+			}
+			constraints.add(constraint);
 		}
 	}
 
@@ -420,23 +482,27 @@ public class Encoding implements ImplementationEncoding{
 	 */
 	protected void EQ15(List<Constraint> constraints, Specification specification) {
 		for (Task c : filterCommunications(specification.getApplication())) {
-			Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+			EQ15(constraints, specification, c);
+		}
+	}
 
-			for (Resource r0 : routing) {
-				Constraint constraint = new Constraint(">=", 0);
-				constraint.add(-1, p(var(c, r0)));
+	protected void EQ15(List<Constraint> constraints, Specification specification, Task c) {
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
 
-				for (Task p : filterProcesses(specification.getApplication().getPredecessors(c))) {
-					for (Mapping<Task, Resource> m : specification.getMappings().get(p, r0)) {
-						constraint.add(p(m));
-					}
-				}
-				for (DirectedLink lrr : getInLinks(routing, r0)) {
-					constraint.add(p(var(c, lrr)));
-				}
+		for (Resource r0 : routing) {
+			Constraint constraint = new Constraint(">=", 0);
+			constraint.add(-1, p(var(c, r0)));
 
-				constraints.add(constraint);
+			for (Task p : filterProcesses(specification.getApplication().getPredecessors(c))) {
+				for (Mapping<Task, Resource> m : specification.getMappings().get(p, r0)) {
+					constraint.add(p(m));
+				}
 			}
+			for (DirectedLink lrr : getInLinks(routing, r0)) {
+				constraint.add(p(var(c, lrr)));
+			}
+
+			constraints.add(constraint);
 		}
 	}
 
@@ -450,15 +516,19 @@ public class Encoding implements ImplementationEncoding{
 	 */
 	protected void EQ16(List<Constraint> constraints, Specification specification) {
 		for (Task c : filterCommunications(specification.getApplication())) {
-			Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+			EQ16(constraints, specification, c);
+		}
+	}
 
-			for (Resource r0 : routing) {
-				Constraint constraint = new Constraint("<=", 1);
-				for (DirectedLink lrr : getOutLinks(routing, r0)) {
-					constraint.add(p(var(c, lrr)));
-				}
-				constraints.add(constraint);
+	protected void EQ16(List<Constraint> constraints, Specification specification, Task c) {
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+
+		for (Resource r0 : routing) {
+			Constraint constraint = new Constraint("<=", 1);
+			for (DirectedLink lrr : getOutLinks(routing, r0)) {
+				constraint.add(p(var(c, lrr)));
 			}
+			constraints.add(constraint);
 		}
 	}
 
@@ -475,34 +545,38 @@ public class Encoding implements ImplementationEncoding{
 	 * @param specification
 	 */
 	protected void EQ17(List<Constraint> constraints, Specification specification) {
+		for (Task c : filterCommunications(specification.getApplication())) {
+			EQ17(constraints, specification, c);
+		}
+	}
+
+	protected void EQ17(List<Constraint> constraints, Specification specification, Task c) {
 		final Application<Task, Dependency> application = specification.getApplication();
 
-		for (Task c : filterCommunications(application)) {
-			assert (application.getPredecessorCount(c) == 1);
-			assert (application.getSuccessorCount(c) == 1);
+		assert (application.getPredecessorCount(c) == 1);
+		assert (application.getSuccessorCount(c) == 1);
 
-			Task p0 = application.getPredecessors(c).iterator().next();
-			Task p1 = application.getSuccessors(c).iterator().next();
+		Task p0 = application.getPredecessors(c).iterator().next();
+		Task p1 = application.getSuccessors(c).iterator().next();
 
-			Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
 
-			for (Resource r0 : routing) {
-				Constraint constraint = new Constraint("=", 0);
+		for (Resource r0 : routing) {
+			Constraint constraint = new Constraint("=", 0);
 
-				for (DirectedLink lrr : getOutLinks(routing, r0)) {
-					constraint.add(1, p(var(c, lrr)));
-				}
-				for (DirectedLink lrr : getInLinks(routing, r0)) {
-					constraint.add(-1, p(var(c, lrr)));
-				}
-				for (Mapping<Task, Resource> m : specification.getMappings().get(p0, r0)) {
-					constraint.add(-1, p(m));
-				}
-				for (Mapping<Task, Resource> m : specification.getMappings().get(p1, r0)) {
-					constraint.add(1, p(m));
-				}
-				constraints.add(constraint);
+			for (DirectedLink lrr : getOutLinks(routing, r0)) {
+				constraint.add(1, p(var(c, lrr)));
+			}
+			for (DirectedLink lrr : getInLinks(routing, r0)) {
+				constraint.add(-1, p(var(c, lrr)));
+			}
+			for (Mapping<Task, Resource> m : specification.getMappings().get(p0, r0)) {
+				constraint.add(-1, p(m));
 			}
+			for (Mapping<Task, Resource> m : specification.getMappings().get(p1, r0)) {
+				constraint.add(1, p(m));
+			}
+			constraints.add(constraint);
 		}
 	}
 
@@ -515,21 +589,25 @@ public class Encoding implements ImplementationEncoding{
 	 * @param specification
 	 */
 	protected void EQ18(List<Constraint> constraints, Specification specification) {
+		for (Task c : filterCommunications(specification.getApplication())) {
+			EQ18(constraints, specification, c);
+		}
+	}
+
+	protected void EQ18(List<Constraint> constraints, Specification specification, Task c) {
 		final Application<Task, Dependency> application = specification.getApplication();
 
-		for (Task c : filterCommunications(application)) {
-			for (Task p0 : filterProcesses(application.getPredecessors(c))) {
-				for (Task p1 : filterProcesses(application.getSuccessors(c))) {
-					for (Mapping<Task, Resource> m : specification.getMappings().get(p0)) {
-						Resource r0 = m.getTarget();
-						Architecture<Resource, Link> routing = specification.getRoutings().get(c);
-
-						for (DirectedLink lrr : getInLinks(routing, r0)) {
-							Constraint constraint = new Constraint("<=", 1);
-							constraint.add(p(m));
-							constraint.add(p(var(c, lrr, p1)));
-							constraints.add(constraint);
-						}
+		for (Task p0 : filterProcesses(application.getPredecessors(c))) {
+			for (Task p1 : filterProcesses(application.getSuccessors(c))) {
+				for (Mapping<Task, Resource> m : specification.getMappings().get(p0)) {
+					Resource r0 = m.getTarget();
+					Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+
+					for (DirectedLink lrr : getInLinks(routing, r0)) {
+						Constraint constraint = new Constraint("<=", 1);
+						constraint.add(p(m));
+						constraint.add(p(var(c, lrr, p1)));
+						constraints.add(constraint);
 					}
 				}
 			}
@@ -544,19 +622,23 @@ public class Encoding implements ImplementationEncoding{
 	 * @param specification
 	 */
 	protected void EQ19(List<Constraint> constraints, Specification specification) {
+		for (Task c : filterCommunications(specification.getApplication())) {
+			EQ19(constraints, specification, c);
+		}
+	}
+
+	protected void EQ19(List<Constraint> constraints, Specification specification, Task c) {
 		final Application<Task, Dependency> application = specification.getApplication();
 
-		for (Task c : filterCommunications(application)) {
-			for (Task p : filterProcesses(application.getSuccessors(c))) {
-				Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+		for (Task p : filterProcesses(application.getSuccessors(c))) {
+			Architecture<Resource, Link> routing = specification.getRoutings().get(c);
 
-				for (Resource r0 : routing) {
-					Constraint constraint = new Constraint("<=", 1);
-					for (DirectedLink lrr : getInLinks(routing, r0)) {
-						constraint.add(p(var(c, lrr, p)));
-					}
-					constraints.add(constraint);
+			for (Resource r0 : routing) {
+				Constraint constraint = new Constraint("<=", 1);
+				for (DirectedLink lrr : getInLinks(routing, r0)) {
+					constraint.add(p(var(c, lrr, p)));
 				}
+				constraints.add(constraint);
 			}
 		}
 	}
@@ -569,20 +651,24 @@ public class Encoding implements ImplementationEncoding{
 	 * @param specification
 	 */
 	protected void EQ20(List<Constraint> constraints, Specification specification) {
+		for (Task c : filterCommunications(specification.getApplication())) {
+			EQ20(constraints, specification, c);
+		}
+	}
+
+	protected void EQ20(List<Constraint> constraints, Specification specification, Task c) {
 		final Application<Task, Dependency> application = specification.getApplication();
 
-		for (Task c : filterCommunications(application)) {
-			for (Task p : filterProcesses(application.getSuccessors(c))) {
-				Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+		for (Task p : filterProcesses(application.getSuccessors(c))) {
+			Architecture<Resource, Link> routing = specification.getRoutings().get(c);
 
-				for (Resource r0 : routing) {
-					Constraint constraint = new Constraint("<=", 1);
-					for (Link l : routing.getOutEdges(r0)) {
-						Resource r1 = routing.getOpposite(r0, l);
-						constraint.add(p(var(c, l, r0, r1, p)));
-					}
-					constraints.add(constraint);
+			for (Resource r0 : routing) {
+				Constraint constraint = new Constraint("<=", 1);
+				for (Link l : routing.getOutEdges(r0)) {
+					Resource r1 = routing.getOpposite(r0, l);
+					constraint.add(p(var(c, l, r0, r1, p)));
 				}
+				constraints.add(constraint);
 			}
 		}
 	}
@@ -598,31 +684,35 @@ public class Encoding implements ImplementationEncoding{
 	 * @param specification
 	 */
 	protected void EQ21(List<Constraint> constraints, Specification specification) {
+		for (Task c : filterCommunications(specification.getApplication())) {
+			EQ21(constraints, specification, c);
+		}
+	}
+
+	protected void EQ21(List<Constraint> constraints, Specification specification, Task c) {
 		final Application<Task, Dependency> application = specification.getApplication();
 
-		for (Task c : filterCommunications(application)) {
-			assert (application.getPredecessorCount(c) == 1);
-			Task p0 = application.getPredecessors(c).iterator().next();
-			for (Task p1 : filterProcesses(application.getSuccessors(c))) {
-				Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+		assert (application.getPredecessorCount(c) == 1);
+		Task p0 = application.getPredecessors(c).iterator().next();
+		for (Task p1 : filterProcesses(application.getSuccessors(c))) {
+			Architecture<Resource, Link> routing = specification.getRoutings().get(c);
 
-				for (Resource r0 : routing) {
-					Constraint constraint = new Constraint("=", 0);
+			for (Resource r0 : routing) {
+				Constraint constraint = new Constraint("=", 0);
 
-					for (DirectedLink lrr : getOutLinks(routing, r0)) {
-						constraint.add(1, p(var(c, lrr, p1)));
-					}
-					for (DirectedLink lrr : getInLinks(routing, r0)) {
-						constraint.add(-1, p(var(c, lrr, p1)));
-					}
-					for (Mapping<Task, Resource> m : specification.getMappings().get(p0, r0)) {
-						constraint.add(-1, p(m));
-					}
-					for (Mapping<Task, Resource> m : specification.getMappings().get(p1, r0)) {
-						constraint.add(1, p(m));
-					}
-					constraints.add(constraint);
+				for (DirectedLink lrr : getOutLinks(routing, r0)) {
+					constraint.add(1, p(var(c, lrr, p1)));
+				}
+				for (DirectedLink lrr : getInLinks(routing, r0)) {
+					constraint.add(-1, p(var(c, lrr, p1)));
 				}
+				for (Mapping<Task, Resource> m : specification.getMappings().get(p0, r0)) {
+					constraint.add(-1, p(m));
+				}
+				for (Mapping<Task, Resource> m : specification.getMappings().get(p1, r0)) {
+					constraint.add(1, p(m));
+				}
+				constraints.add(constraint);
 			}
 		}
 	}
@@ -635,17 +725,21 @@ public class Encoding implements ImplementationEncoding{
 	 * @param specification
 	 */
 	protected void EQ22(List<Constraint> constraints, Specification specification) {
+		for (Task c : filterCommunications(specification.getApplication())) {
+			EQ22(constraints, specification, c);
+		}
+	}
+
+	protected void EQ22(List<Constraint> constraints, Specification specification, Task c) {
 		final Application<Task, Dependency> application = specification.getApplication();
-		for (Task c : filterCommunications(application)) {
-			Architecture<Resource, Link> routing = specification.getRoutings().get(c);
-			for (DirectedLink lrr : getLinks(routing)) {
-				Constraint constraint = new Constraint(">=", 0);
-				constraint.add(-1, p(var(c, lrr)));
-				for (Task p : filterProcesses(application.getSuccessors(c))) {
-					constraint.add(p(var(c, lrr, p)));
-				}
-				constraints.add(constraint);
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+		for (DirectedLink lrr : getLinks(routing)) {
+			Constraint constraint = new Constraint(">=", 0);
+			constraint.add(-1, p(var(c, lrr)));
+			for (Task p : filterProcesses(application.getSuccessors(c))) {
+				constraint.add(p(var(c, lrr, p)));
 			}
+			constraints.add(constraint);
 		}
 	}
 
@@ -657,16 +751,190 @@ public class Encoding implements ImplementationEncoding{
 	 * @param specification
 	 */
 	protected void EQ23(List<Constraint> constraints, Specification specification) {
+		for (Task c : filterCommunications(specification.getApplication())) {
+			EQ23(constraints, specification, c);
+		}
+	}
+
+	protected void EQ23(List<Constraint> constraints, Specification specification, Task c) {
 		final Application<Task, Dependency> application = specification.getApplication();
-		for (Task c : filterCommunications(application)) {
-			for (Task p : filterProcesses(application.getSuccessors(c))) {
-				Architecture<Resource, Link> routing = specification.getRoutings().get(c);
-				for (DirectedLink lrr : getLinks(routing)) {
-					Constraint constraint = new Constraint(">=", 0);
-					constraint.add(-1, p(var(c, lrr, p)));
-					constraint.add(p(var(c, lrr)));
-					constraints.add(constraint);
+		for (Task p : filterProcesses(application.getSuccessors(c))) {
+			Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+			for (DirectedLink lrr : getLinks(routing)) {
+				Constraint constraint = new Constraint(">=", 0);
+				constraint.add(-1, p(var(c, lrr, p)));
+				constraint.add(p(var(c, lrr)));
+				constraints.add(constraint);
+			}
+		}
+	}
+
+	/**
+	 * The first hop of a communication has to start at the mapping target of
+	 * its predecessor (HOP encoding).
+	 * 
+	 * @param constraints
+	 * @param specification
+	 */
+	protected void EQ24(List<Constraint> constraints, Specification specification) {
+		for (Task c : filterCommunications(specification.getApplication())) {
+			EQ24(constraints, specification, c);
+		}
+	}
+
+	protected void EQ24(List<Constraint> constraints, Specification specification, Task c) {
+		Task p = specification.getApplication().getPredecessors(c).iterator().next();
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+
+		for (DirectedLink lrr : getLinks(routing)) {
+			Constraint constraint = new Constraint(">=", 0);
+			constraint.add(-1, p(var(c, lrr, 1)));
+			Resource r0 = lrr.getSource();
+			for (Mapping<Task, Resource> m : specification.getMappings().get(p, r0)) {
+				constraint.add(p(m));
+			}
+			constraints.add(constraint);
+		}
+	}
+
+	/**
+	 * The first hops of a communication must not start at two different
+	 * mapping targets of its predecessor (HOP encoding, redundant).
+	 * 
+	 * @param constraints
+	 * @param specification
+	 */
+	protected void EQ25(List<Constraint> constraints, Specification specification) {
+		for (Task c : filterCommunications(specification.getApplication())) {
+			EQ25(constraints, specification, c);
+		}
+	}
+
+	protected void EQ25(List<Constraint> constraints, Specification specification, Task c) {
+		Task p = specification.getApplication().getPredecessors(c).iterator().next();
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+
+		List<Resource> rs = new ArrayList<Resource>(specification.getMappings().getTargets(p));
+
+		for (int i = 0; i < rs.size(); i++) {
+			for (int j = i + 1; j < rs.size(); j++) {
+				Resource r0 = rs.get(i);
+				Resource r1 = rs.get(j);
+
+				for (DirectedLink lrr0 : getOutLinks(routing, r0)) {
+					for (DirectedLink lrr1 : getOutLinks(routing, r1)) {
+						Constraint constraint = new Constraint("<=", 1);
+						constraint.add(p(var(c, lrr0, 1)));
+						constraint.add(p(var(c, lrr1, 1)));
+						constraints.add(constraint);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * A directed link can only be the hop {@code t} of a communication if one
+	 * of the in-links of its source is the hop {@code t-1} (HOP encoding).
+	 * 
+	 * @param constraints
+	 * @param specification
+	 */
+	protected void EQ26(List<Constraint> constraints, Specification specification) {
+		for (Task c : filterCommunications(specification.getApplication())) {
+			EQ26(constraints, specification, c);
+		}
+	}
+
+	protected void EQ26(List<Constraint> constraints, Specification specification, Task c) {
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+
+		for (DirectedLink lrr0 : getLinks(routing)) {
+			for (int t = 2; t <= Tmax; t++) {
+
+				Constraint constraint = new Constraint(">=", 0);
+				constraint.add(-1, p(var(c, lrr0, t)));
+				for (DirectedLink lrr1 : getInLinks(routing, lrr0.getSource())) {
+					constraint.add(p(var(c, lrr1, t - 1)));
 				}
+				constraints.add(constraint);
+			}
+		}
+	}
+
+	/**
+	 * A directed link is used for at most one hop of a communication (HOP
+	 * encoding).
+	 * 
+	 * @param constraints
+	 * @param specification
+	 */
+	protected void EQ27(List<Constraint> constraints, Specification specification) {
+		for (Task c : filterCommunications(specification.getApplication())) {
+			EQ27(constraints, specification, c);
+		}
+	}
+
+	protected void EQ27(List<Constraint> constraints, Specification specification, Task c) {
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+
+		for (DirectedLink lrr : getLinks(routing)) {
+			Constraint constraint = new Constraint("<=", 1);
+			for (int t = 1; t <= Tmax; t++) {
+				constraint.add(p(var(c, lrr, t)));
+			}
+			constraints.add(constraint);
+		}
+	}
+
+	/**
+	 * An activated directed link of a communication has to be one of its hops
+	 * (HOP encoding).
+	 * 
+	 * @param constraints
+	 * @param specification
+	 */
+	protected void EQ28(List<Constraint> constraints, Specification specification) {
+		for (Task c : filterCommunications(specification.getApplication())) {
+			EQ28(constraints, specification, c);
+		}
+	}
+
+	protected void EQ28(List<Constraint> constraints, Specification specification, Task c) {
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+
+		for (DirectedLink lrr : getLinks(routing)) {
+			Constraint constraint = new Constraint(">=", 0);
+			constraint.add(-1, p(var(c, lrr)));
+
+			for (int t = 1; t <= Tmax; t++) {
+				constraint.add(p(var(c, lrr, t)));
+			}
+			constraints.add(constraint);
+		}
+	}
+
+	/**
+	 * A hop of a communication activates the directed link (HOP encoding).
+	 * 
+	 * @param constraints
+	 * @param specification
+	 */
+	protected void EQ29(List<Constraint> constraints, Specification specification) {
+		for (Task c : filterCommunications(specification.getApplication())) {
+			EQ29(constraints, specification, c);
+		}
+	}
+
+	protected void EQ29(List<Constraint> constraints, Specification specification, Task c) {
+		Architecture<Resource, Link> routing = specification.getRoutings().get(c);
+
+		for (DirectedLink lrr : getLinks(routing)) {
+			for (int t = 1; t <= Tmax; t++) {
+				Constraint constraint = new Constraint(">=", 0);
+				constraint.add(-1, p(var(c, lrr, t)));
+				constraint.add(p(var(c, lrr)));
+				constraints.add(constraint);
 			}
 		}
 	}
@@ -703,151 +971,205 @@ public class Encoding implements ImplementationEncoding{
 
 	@Override
 	public List<Constraint> toConstraints() {
-		List<Constraint> constraints = new ArrayList<Constraint>();
-
-		Application<Task, Dependency> application = specification.getApplication();
-		Mappings<Task, Resource> mappings = specification.getMappings();
-		Routings<Task, Resource, Link> routings = specification.getRoutings();
+		List<Constraint> constraints;
+
+		if (threads > 1) {
+			constraints = toConstraintsParallel();
+		} else {
+			constraints = new ArrayList<Constraint>();
+
+			EQ1(constraints, specification);
+			EQ2(constraints, specification);
+			EQ3EQ4(constraints, specification);
+			EQ5(constraints, specification);
+			EQ6(constraints, specification);
+
+			EQ7(constraints, specification);
+			EQ8(constraints, specification);
+			EQ9(constraints, specification);
+			EQ10EQ11(constraints, specification);
+			EQ12(constraints, specification);
+			EQ13(constraints, specification);
+			EQ14(constraints, specification);
+			EQ15(constraints, specification);
+
+			if (isUnicast) {
+				EQ16(constraints, specification);
+				EQ17(constraints, specification);
+			}
+			if (routingEncoding.equals(RoutingEncoding.FLOW)) {
+				EQ18(constraints, specification);
+				EQ19(constraints, specification);
+				EQ20(constraints, specification);
+				EQ21(constraints, specification);
+				EQ22(constraints, specification);
+				EQ23(constraints, specification);
+			}
+			if (routingEncoding.equals(RoutingEncoding.HOP)) {
+				EQ24(constraints, specification);
+				EQ25(constraints, specification);
+				EQ26(constraints, specification);
+				EQ27(constraints, specification);
+				EQ28(constraints, specification);
+				EQ29(constraints, specification);
+			}
 
-		EQ1(constraints, specification);
-		EQ2(constraints, specification);
-		EQ3EQ4(constraints, specification);
-		EQ5(constraints, specification);
-		EQ6(constraints, specification);
+			EQ30(constraints, specification);
+		}
 
-		EQ7(constraints, specification);
-		EQ8(constraints, specification);
-		EQ9(constraints, specification);
-		EQ10EQ11(constraints, specification);
-		EQ12(constraints, specification);
-		EQ13(constraints, specification);
-		EQ14(constraints, specification);
-		EQ15(constraints, specification);
+		specificationConstraints.doEncoding(constraints);
 
-		boolean isUnicast = false;
+		return constraints;
+	}
 
-		final int Tmax = 10;
+	/**
+	 * Formulates all constraints of a single communication.
+	 * 
+	 * @param constraints
+	 * @param specification
+	 * @param c
+	 *            the communication
+	 */
+	protected void encodeCommunication(List<Constraint> constraints, Specification specification, Task c) {
+		EQ6(constraints, specification, c);
+		EQ7(constraints, specification, c);
+		EQ8(constraints, specification, c);
+		EQ9(constraints, specification, c);
+		EQ10EQ11(constraints, specification, c);
+		EQ12(constraints, specification, c);
+		EQ13(constraints, specification, c);
+		EQ14(constraints, specification, c);
+		EQ15(constraints, specification, c);
 
 		if (isUnicast) {
-			EQ16(constraints, specification);
-			EQ17(constraints, specification);
+			EQ16(constraints, specification, c);
+			EQ17(constraints, specification, c);
 		}
 		if (routingEncoding.equals(RoutingEncoding.FLOW)) {
-			EQ18(constraints, specification);
-			EQ19(constraints, specification);
-			EQ20(constraints, specification);
-			EQ21(constraints, specification);
-			EQ22(constraints, specification);
-			EQ23(constraints, specification);
+			EQ18(constraints, specification, c);
+			EQ19(constraints, specification, c);
+			EQ20(constraints, specification, c);
+			EQ21(constraints, specification, c);
+			EQ22(constraints, specification, c);
+			EQ23(constraints, specification, c);
 		}
-
 		if (routingEncoding.equals(RoutingEncoding.HOP)) {
+			EQ24(constraints, specification, c);
+			EQ25(constraints, specification, c);
+			EQ26(constraints, specification, c);
+			EQ27(constraints, specification, c);
+			EQ28(constraints, specification, c);
+			EQ29(constraints, specification, c);
+		}
+	}
 
-			// EQ24
-			for (Task c : filterCommunications(application)) {
-				Task p = application.getPredecessors(c).iterator().next();
-				Architecture<Resource, Link> routing = routings.get(c);
-
-				for (DirectedLink lrr : getLinks(routing)) {
-					Constraint constraint = new Constraint(">=", 0);
-					constraint.add(-1, p(var(c, lrr, 1)));
-					Resource r0 = lrr.getSource();
-					for (Mapping<Task, Resource> m : mappings.get(p, r0)) {
-						constraint.add(p(m));
-					}
-					constraints.add(constraint);
-				}
-			}
-
-			// EQ25 TODO (redundant)
-			for (Task c : filterCommunications(application)) {
-				Task p = application.getPredecessors(c).iterator().next();
-				Architecture<Resource, Link> routing = routings.get(c);
-
-				List<Resource> rs = new ArrayList<Resource>(mappings.getTargets(p));
+	/**
+	 * A part of the encoding that is formulated by one worker thread.
+	 */
+	protected abstract class EncodingPart implements Callable<List<Constraint>> {
 
-				for (int i = 0; i < rs.size(); i++) {
-					for (int j = i + 1; j < rs.size(); j++) {
-						Resource r0 = rs.get(i);
-						Resource r1 = rs.get(j);
+		protected final LiteralCache literalCache = LiteralCache.getActive();
 
-						for (DirectedLink lrr0 : getOutLinks(routing, r0)) {
-							for (DirectedLink lrr1 : getOutLinks(routing, r1)) {
-								Constraint constraint = new Constraint("<=", 1);
-								constraint.add(p(var(c, lrr0, 1)));
-								constraint.add(p(var(c, lrr1, 1)));
-								constraints.add(constraint);
-							}
-						}
-					}
+		@Override
+		public List<Constraint> call() {
+			List<Constraint> constraints = new ArrayList<Constraint>();
+			LiteralCache previous = literalCache != null ? literalCache.activate() : null;
+			try {
+				encode(constraints);
+			} finally {
+				if (literalCache != null) {
+					LiteralCache.restore(previous);
 				}
 			}
+			return constraints;
+		}
 
-			// EQ26
-			for (Task c : filterCommunications(application)) {
-				Architecture<Resource, Link> routing = routings.get(c);
+		protected abstract void encode(List<Constraint> constraints);
+	}
 
-				for (DirectedLink lrr0 : getLinks(routing)) {
-					for (int t = 2; t <= Tmax; t++) {
+	/**
+	 * Formulates the constraints with {@link #threads} worker threads. The
+	 * global equations are formulated as one part each while the equations of
+	 * the communications are formulated in chunks of communications. The parts
+	 * are merged in a fixed order, such that the result does not depend on the
+	 * scheduling of the threads.
+	 * <p>
+	 * The workers only read the specification. The {@link Mappings} lookups do
+	 * not insert entries, and the routings of all communications are looked up
+	 * (and thereby created if missing) before the workers start, since
+	 * {@link Routings#get(Task)} inserts missing routings.
+	 * 
+	 * @return the constraints
+	 */
+	protected List<Constraint> toConstraintsParallel() {
+		List<Task> communications = new ArrayList<Task>();
+		for (Task c : filterCommunications(specification.getApplication())) {
+			communications.add(c);
+			specification.getRoutings().get(c);
+		}
 
-						Constraint constraint = new Constraint(">=", 0);
-						constraint.add(-1, p(var(c, lrr0, t)));
-						for (DirectedLink lrr1 : getInLinks(routing, lrr0.getSource())) {
-							constraint.add(p(var(c, lrr1, t - 1)));
-						}
-						constraints.add(constraint);
-					}
-				}
+		List<EncodingPart> parts = new ArrayList<EncodingPart>();
+		parts.add(new EncodingPart() {
+			@Override
+			protected void encode(List<Constraint> constraints) {
+				EQ1(constraints, specification);
+				EQ2(constraints, specification);
 			}
-
-			// EQ27
-			for (Task c : filterCommunications(application)) {
-				Architecture<Resource, Link> routing = routings.get(c);
-
-				for (DirectedLink lrr : getLinks(routing)) {
-					Constraint constraint = new Constraint("<=", 1);
-					for (int t = 1; t <= Tmax; t++) {
-						constraint.add(p(var(c, lrr, t)));
-					}
-					constraints.add(constraint);
-				}
+		});
+		parts.add(new EncodingPart() {
+			@Override
+			protected void encode(List<Constraint> constraints) {
+				EQ3EQ4(constraints, specification);
 			}
-
-			// EQ28
-			for (Task c : filterCommunications(application)) {
-				Architecture<Resource, Link> routing = routings.get(c);
-
-				for (DirectedLink lrr : getLinks(routing)) {
-					Constraint constraint = new Constraint(">=", 0);
-					constraint.add(-1, p(var(c, lrr)));
-
-					for (int t = 1; t <= Tmax; t++) {
-						constraint.add(p(var(c, lrr, t)));
-					}
-					constraints.add(constraint);
-				}
+		});
+		parts.add(new EncodingPart() {
+			@Override
+			protected void encode(List<Constraint> constraints) {
+				EQ5(constraints, specification);
 			}
-
-			// EQ29
-			for (Task c : filterCommunications(application)) {
-				Architecture<Resource, Link> routing = routings.get(c);
-
-				for (DirectedLink lrr : getLinks(routing)) {
-					for (int t = 1; t <= Tmax; t++) {
-						Constraint constraint = new Constraint(">=", 0);
-						constraint.add(-1, p(var(c, lrr, t)));
-						constraint.add(p(var(c, lrr)));
-						constraints.add(constraint);
+		});
+
+		int chunkSize = Math.max(1, communications.size() / (threads * 4));
+		for (int i = 0; i < communications.size(); i += chunkSize) {
+			final List<Task> chunk = communications.subList(i, Math.min(i + chunkSize, communications.size()));
+			parts.add(new EncodingPart() {
+				@Override
+				protected void encode(List<Constraint> constraints) {
+					for (Task c : chunk) {
+						encodeCommunication(constraints, specification, c);
 					}
 				}
-			}
+			});
 		}
 
-		EQ30(constraints, specification);
-
-		specificationConstraints.doEncoding(constraints);
+		parts.add(new EncodingPart() {
+			@Override
+			protected void encode(List<Constraint> constraints) {
+				EQ30(constraints, specification);
+			}
+		});
 
-		return constraints;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Constraint> constraints = new ArrayList<Constraint>();
+			for (Future<List<Constraint>> future : executor.invokeAll(parts)) {
+				constraints.addAll(future.get());
+			}
+			return constraints;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		} finally {
+			executor.shutdown();
+		}
 	}
 
 }
@@ -30,6 +30,7 @@ import java.lang.reflect.Constructor;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.sf.opendse.model.Application;
 import net.sf.opendse.model.Architecture;
@@ -71,11 +72,21 @@ import edu.uci.ics.jung.graph.util.Pair;
  */
 public class InterpreterSpecification implements Interpreter {
 
+	/**
+	 * The copy constructors of the element classes.
+	 */
+	protected final Map<Class<?>, Constructor<?>> elementConstructors = new ConcurrentHashMap<Class<?>, Constructor<?>>();
+
+	/**
+	 * The copy constructors of the mapping classes.
+	 */
+	protected final Map<Class<?>, Constructor<?>> mappingConstructors = new ConcurrentHashMap<Class<?>, Constructor<?>>();
+
 	@SuppressWarnings("unchecked")
 	public <E extends Element> E copy(Element element) {
 		try {
-			Constructor<? extends Element> cstr = element.getClass().getConstructor(Element.class);
-			Element copy = cstr.newInstance(element);
+			Constructor<?> cstr = getConstructor(elementConstructors, element.getClass(), Element.class);
+			Element copy = (Element) cstr.newInstance(element);
 			return (E) copy;
 		} catch (Exception e) {
 			throw new RuntimeException(e);
@@ -85,15 +96,38 @@ public class InterpreterSpecification implements Interpreter {
 	@SuppressWarnings("unchecked")
 	public <M extends Mapping<?, ?>> M copy(Mapping<?, ?> mapping) {
 		try {
-			Constructor<? extends Element> cstr = mapping.getClass().getConstructor(Element.class, Task.class,
+			Constructor<?> cstr = getConstructor(mappingConstructors, mapping.getClass(), Element.class, Task.class,
 					Resource.class);
-			Element copy = cstr.newInstance(mapping, mapping.getSource(), mapping.getTarget());
+			Element copy = (Element) cstr.newInstance(mapping, mapping.getSource(), mapping.getTarget());
 			return (M) copy;
 		} catch (Exception e) {
 			throw new RuntimeException(e);
 		}
 	}
 
+	/**
+	 * Returns the (cached) constructor of the given class.
+	 * 
+	 * @param cache
+	 *            the cache of the constructors
+	 * @param clazz
+	 *            the class
+	 * @param parameterTypes
+	 *            the parameter types of the constructor
+	 * @return the constructor
+	 * @throws NoSuchMethodException
+	 *             if the constructor does not exist
+	 */
+	protected static Constructor<?> getConstructor(Map<Class<?>, Constructor<?>> cache, Class<?> clazz,
+			Class<?>... parameterTypes) throws NoSuchMethodException {
+		Constructor<?> cstr = cache.get(clazz);
+		if (cstr == null) {
+			cstr = clazz.getConstructor(parameterTypes);
+			cache.put(clazz, cstr);
+		}
+		return cstr;
+	}
+
 	protected final SpecificationConstraints specificationConstraints;
 	protected final Set<ParameterReference> activeVariables;
 
@@ -23,6 +23,7 @@ package net.sf.opendse.optimization.encoding;
 
 import net.sf.opendse.model.Application;
 import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.ArchitectureView;
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.ICommunication;
 import net.sf.opendse.model.Link;
@@ -46,7 +47,8 @@ public class RoutingGenerator {
 	}
 
 	/**
-	 * Create full routings graphs.
+	 * Create full routings graphs. The routings are {@link ArchitectureView}s
+	 * that share the vertices, edges, and adjacency of the architecture.
 	 * 
 	 * @param application
 	 *            the application
@@ -57,18 +59,11 @@ public class RoutingGenerator {
 	public Routings<Task, Resource, Link> fill(Application<Task, Dependency> application,
 			Architecture<Resource, Link> architecture) {
 		Routings<Task, Resource, Link> routings = new Routings<Task, Resource, Link>();
+		ArchitectureView.Base<Resource, Link> base = new ArchitectureView.Base<Resource, Link>(architecture);
 
 		for (Task task : application) {
 			if (task instanceof ICommunication) {
-				Architecture<Resource, Link> routing = new Architecture<Resource, Link>();
-				
-				for (Resource resource: architecture.getVertices()){
-					routing.addVertex(resource);
-				}
-				for (Link link : architecture.getEdges()) {
-					routing.addEdge(link, architecture.getEndpoints(link), architecture.getEdgeType(link));
-				}
-				routings.set(task, routing);
+				routings.set(task, new ArchitectureView<Resource, Link>(base));
 			}
 		}
 
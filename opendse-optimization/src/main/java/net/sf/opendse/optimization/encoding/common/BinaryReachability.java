@@ -24,6 +24,13 @@ package net.sf.opendse.optimization.encoding.common;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.opt4j.satdecoding.Constraint;
 import org.opt4j.satdecoding.ContradictionException;
@@ -41,9 +48,38 @@ import org.opt4j.satdecoding.VarOrder;
  */
 public class BinaryReachability {
 
+	/**
+	 * The daemon threads that run the solver calls with a timeout.
+	 */
+	protected static final ExecutorService solving = Executors.newCachedThreadPool(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "BinaryReachability");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
 	protected final Solver solver = new DefaultSolver(); 
 	
 	public Set<Literal> search(Set<Constraint> constraints, Set<Literal> literals) {
+		return search(constraints, literals, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Performs the search until the given deadline.
+	 * 
+	 * @param constraints
+	 *            the constraints
+	 * @param literals
+	 *            the candidate literals
+	 * @param deadline
+	 *            the deadline in milliseconds (see
+	 *            {@link System#currentTimeMillis()})
+	 * @return the learned literals or {@code null} if the search did not finish
+	 *         before the deadline or a solver call timed out
+	 */
+	public Set<Literal> search(Set<Constraint> constraints, Set<Literal> literals, long deadline) {
 		
 		Collection<Literal> candidates = new HashSet<Literal>(literals);
 		
@@ -53,6 +89,10 @@ public class BinaryReachability {
 			}
 
 			while (candidates.size() > 0) {
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					return null;
+				}
 				Constraint constraint = new Constraint(">=", 1);
 
 				for (Literal literal : candidates) {
@@ -60,7 +100,7 @@ public class BinaryReachability {
 				}
 				solver.addConstraint(constraint);
 
-				Model model = solve();
+				Model model = solve(deadline == Long.MAX_VALUE ? 0 : remaining);
 				
 
 				if (model == null) {
@@ -81,6 +121,8 @@ public class BinaryReachability {
 
 		} catch (ContradictionException e) {
 
+		} catch (TimeoutException e) {
+			return null;
 		}
 
 		Set<Literal> lits = new HashSet<Literal>();
@@ -91,15 +133,49 @@ public class BinaryReachability {
 		return lits;
 	}
 
-	protected Model solve() {
-
+	/**
+	 * Solves the added constraints within the given timeout. A solver call
+	 * cannot be interrupted, thus, a call that exceeds the timeout is
+	 * abandoned to its daemon thread.
+	 * 
+	 * @param timeout
+	 *            the timeout in milliseconds ({@code 0} for no timeout)
+	 * @return the model or {@code null} if the constraints are unsatisfiable
+	 * @throws TimeoutException
+	 *             if the call did not finish in time
+	 */
+	protected Model solve(long timeout) throws TimeoutException {
+		if (timeout <= 0) {
+			return solve();
+		}
+		Future<Model> future = solving.submit(new Callable<Model>() {
+			@Override
+			public Model call() throws TimeoutException {
+				return solve();
+			}
+		});
 		try {
-			return solver.solve(new VarOrder());
-		} catch (TimeoutException e) {
-			System.err.println("Timeout in preprocessing: " + this.getClass());
+			return future.get(timeout, TimeUnit.MILLISECONDS);
+		} catch (java.util.concurrent.TimeoutException e) {
+			future.cancel(true);
+			throw new TimeoutException();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new TimeoutException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof TimeoutException) {
+				throw (TimeoutException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new RuntimeException(cause);
 		}
+	}
 
-		return null;
+	protected Model solve() throws TimeoutException {
+		return solver.solve(new VarOrder());
 	}
 
 }
@@ -25,13 +25,17 @@ import java.io.Serializable;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.logging.Logger;
 
 import org.apache.commons.collections15.Predicate;
 import org.opt4j.operators.crossover.Pair;
@@ -44,6 +48,13 @@ import org.opt4j.satdecoding.Term;
 
 /**
  * The {@code ConstraintPreprocessing} performs a preprocessing on constraints.
+ * <p>
+ * Units and equalities are learned incrementally: a worklist holds the
+ * constraints that were changed in the previous round (together with the
+ * binary constraints sharing a variable with them) and only these are
+ * examined again, instead of rescanning all constraints until a fixpoint is
+ * reached. The effort of the preprocessing is recorded in the
+ * {@link Statistics}.
  * 
  * @author Martin Lukasiewycz
  * 
@@ -96,9 +107,221 @@ public class ConstraintPreprocessing {
 	Set<Constraint> constraints = new HashSet<Constraint>();
 	Map<Object, Set<Constraint>> variables = new HashMap<Object, Set<Constraint>>();
 
+	Set<Object> changed = new HashSet<Object>();
+
 	Map<Object, Boolean> units = new HashMap<Object, Boolean>();
 	Map<Object, Literal> equalities = new HashMap<Object, Literal>();
 
+	/**
+	 * The variables of the processed constraints, which are kept once the
+	 * processed constraints are released.
+	 */
+	protected Set<Object> processedVariables = null;
+
+	protected final Statistics statistics = new Statistics();
+
+	private static final Logger logger = Logger.getLogger(ConstraintPreprocessing.class.getName());
+
+	/**
+	 * The {@code Statistics} of a preprocessing run. The sizes before and
+	 * after the preprocessing are only determined in verbose mode.
+	 * 
+	 */
+	public static class Statistics {
+		protected int rounds = 0;
+		protected int examined = 0;
+		protected int unitPropagations = 0;
+		protected int equalityPropagations = 0;
+		protected int simplifications = 0;
+		protected int units = 0;
+		protected int equalities = 0;
+
+		protected long initTime = 0;
+		protected long unitTime = 0;
+		protected long simplifyTime = 0;
+		protected long equalityTime = 0;
+		protected long finishTime = 0;
+
+		protected int[] before = null;
+		protected int[] after = null;
+
+		/**
+		 * Resets all counters and times for a new preprocessing run.
+		 */
+		protected void reset() {
+			rounds = 0;
+			examined = 0;
+			unitPropagations = 0;
+			equalityPropagations = 0;
+			simplifications = 0;
+			units = 0;
+			equalities = 0;
+
+			initTime = 0;
+			unitTime = 0;
+			simplifyTime = 0;
+			equalityTime = 0;
+			finishTime = 0;
+
+			before = null;
+			after = null;
+		}
+
+		/**
+		 * Returns the number of worklist rounds.
+		 * 
+		 * @return the number of rounds
+		 */
+		public int getRounds() {
+			return rounds;
+		}
+
+		/**
+		 * Returns the number of constraints taken from the worklist.
+		 * 
+		 * @return the number of examined constraints
+		 */
+		public int getExamined() {
+			return examined;
+		}
+
+		/**
+		 * Returns the number of propagated units.
+		 * 
+		 * @return the number of unit propagations
+		 */
+		public int getUnitPropagations() {
+			return unitPropagations;
+		}
+
+		/**
+		 * Returns the number of propagated equalities.
+		 * 
+		 * @return the number of equality propagations
+		 */
+		public int getEqualityPropagations() {
+			return equalityPropagations;
+		}
+
+		/**
+		 * Returns the number of constraints that were simplified.
+		 * 
+		 * @return the number of simplifications
+		 */
+		public int getSimplifications() {
+			return simplifications;
+		}
+
+		/**
+		 * Returns the number of learned units.
+		 * 
+		 * @return the number of units
+		 */
+		public int getUnits() {
+			return units;
+		}
+
+		/**
+		 * Returns the number of learned equalities.
+		 * 
+		 * @return the number of equalities
+		 */
+		public int getEqualities() {
+			return equalities;
+		}
+
+		/**
+		 * Returns the time (in nanoseconds) spent to split and add the
+		 * constraints and to propagate the initial units.
+		 * 
+		 * @return the initialization time
+		 */
+		public long getInitTime() {
+			return initTime;
+		}
+
+		/**
+		 * Returns the time (in nanoseconds) spent to learn and propagate units.
+		 * 
+		 * @return the unit time
+		 */
+		public long getUnitTime() {
+			return unitTime;
+		}
+
+		/**
+		 * Returns the time (in nanoseconds) spent to simplify constraints.
+		 * 
+		 * @return the simplification time
+		 */
+		public long getSimplifyTime() {
+			return simplifyTime;
+		}
+
+		/**
+		 * Returns the time (in nanoseconds) spent to learn and propagate
+		 * equalities.
+		 * 
+		 * @return the equality time
+		 */
+		public long getEqualityTime() {
+			return equalityTime;
+		}
+
+		/**
+		 * Returns the time (in nanoseconds) spent to flatten the equalities,
+		 * minimize the objects, and find the don't care variables.
+		 * 
+		 * @return the finishing time
+		 */
+		public long getFinishTime() {
+			return finishTime;
+		}
+
+		/**
+		 * Returns the number of constraints, literals, and variables before the
+		 * preprocessing or {@code null} if not in verbose mode.
+		 * 
+		 * @return the sizes before the preprocessing
+		 */
+		public int[] getBefore() {
+			return before;
+		}
+
+		/**
+		 * Returns the number of constraints, literals, and variables after the
+		 * preprocessing or {@code null} if not in verbose mode.
+		 * 
+		 * @return the sizes after the preprocessing
+		 */
+		public int[] getAfter() {
+			return after;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			if (before != null && after != null) {
+				DecimalFormat format = new DecimalFormat("#.#");
+				String[] names = { "Constraints", "Literals", "Variables" };
+				for (int i = 0; i < names.length; i++) {
+					double percent = (double) after[i] * 100 / before[i];
+					sb.append(names[i] + " [" + format.format(percent) + "%] " + after[i] + "\n");
+				}
+			}
+			sb.append("Units " + units + " Equalities " + equalities + "\n");
+			sb.append("Rounds " + rounds + " Examined " + examined + " Propagations " + unitPropagations + "/"
+					+ equalityPropagations + " Simplifications " + simplifications + "\n");
+			sb.append("Time [ms] init " + ms(initTime) + " units " + ms(unitTime) + " simplify "
+					+ ms(simplifyTime) + " equalities " + ms(equalityTime) + " finish " + ms(finishTime));
+			return sb.toString();
+		}
+
+		protected static long ms(long nanos) {
+			return nanos / 1000000;
+		}
+	}
+
 	class Stats {
 		final int cons;
 		final int lits;
@@ -118,6 +341,10 @@ public class ConstraintPreprocessing {
 			this.lits = lits;
 			this.vars = vars.size();
 		}
+
+		int[] toArray() {
+			return new int[] { cons, lits, vars };
+		}
 	}
 
 	protected synchronized void close() {
@@ -129,7 +356,16 @@ public class ConstraintPreprocessing {
 		}
 	}
 
+	/**
+	 * Returns the variables of the constraints. After the processing, these
+	 * are the variables of the processed constraints.
+	 * 
+	 * @return the variables
+	 */
 	public Set<Object> variables() {
+		if (processedVariables != null) {
+			return new HashSet<Object>(processedVariables);
+		}
 		Set<Object> variables = new HashSet<Object>();
 		for (Constraint constraint : this.constraints) {
 			for (Literal literal : constraint.getLiterals()) {
@@ -139,16 +375,88 @@ public class ConstraintPreprocessing {
 		return variables;
 	}
 
+	/**
+	 * Returns the {@link Statistics} of the preprocessing.
+	 * 
+	 * @return the statistics
+	 */
+	public Statistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Processes the constraints of a {@link ConstraintStore}. The returned store
+	 * shares the variable dictionary with the given store. The constraints are
+	 * read one at a time from the store and the processed constraints are
+	 * written directly into the returned store, i.e., no list of all
+	 * constraints is created.
+	 * 
+	 * @param store
+	 *            the constraints
+	 * @return the processed constraints
+	 */
+	public ConstraintStore process(ConstraintStore store) {
+		ConstraintStore processed = new ConstraintStore(store);
+		process(store.asConstraints(), processed);
+		processed.trimToSize();
+		return processed;
+	}
+
+	/**
+	 * Processes the constraints and adds the processed constraints to the
+	 * given {@link ConstraintStore}.
+	 * 
+	 * @param constraints
+	 *            the constraints
+	 * @param store
+	 *            the store of the processed constraints
+	 */
+	public void process(Collection<Constraint> constraints, ConstraintStore store) {
+		store.addAll(preprocess(constraints));
+		release();
+	}
+
+	/**
+	 * Processes the constraints. The given collection is cleared.
+	 * 
+	 * @param constraints
+	 *            the constraints
+	 * @return the processed constraints
+	 */
 	public Collection<Constraint> process(Collection<Constraint> constraints) {
-		close();
+		List<Constraint> list = new ArrayList<Constraint>(preprocess(constraints));
+		release();
+		constraints.clear();
+		return list;
+	}
 
-		Stats s0 = null;
-		Stats s1 = null;
+	/**
+	 * Releases the processed constraints, which are owned by the caller after
+	 * the processing. Their variables are kept for {@link #variables()}.
+	 */
+	protected void release() {
+		processedVariables = variables();
+		this.constraints.clear();
+	}
+
+	/**
+	 * Processes the constraints and returns the set of processed constraints
+	 * of this preprocessing.
+	 * 
+	 * @param constraints
+	 *            the constraints
+	 * @return the processed constraints
+	 */
+	protected Collection<Constraint> preprocess(Collection<Constraint> constraints) {
+		close();
+		statistics.reset();
 
 		if (verbose) {
-			s0 = new Stats(constraints);
+			statistics.before = new Stats(constraints).toArray();
 		}
 
+		long time = System.nanoTime();
+
 		for (Constraint constraint : constraints) {
 			if (constraint.getOperator() == Operator.EQ) {
 				Pair<Constraint> pair = split(constraint);
@@ -164,8 +472,11 @@ public class ConstraintPreprocessing {
 		for (Literal unit : getUnits()) {
 			propagateUnit(unit);
 		}
+		statistics.initTime += System.nanoTime() - time;
 
 		process();
+
+		time = System.nanoTime();
 		simplifyEqualities();
 		minimizeObjects();
 
@@ -182,27 +493,18 @@ public class ConstraintPreprocessing {
 			}
 		}
 
-		if (verbose) {
-			s1 = new Stats(this.constraints);
-
-			DecimalFormat format = new DecimalFormat("#.#");
-			double pcons = (double) s1.cons * 100 / s0.cons;
-			double plits = (double) s1.lits * 100 / s0.lits;
-			double pvars = (double) s1.vars * 100 / s0.vars;
+		statistics.finishTime += System.nanoTime() - time;
+		statistics.units = units.size();
+		statistics.equalities = equalities.size();
 
-			System.out.println("Constraints [" + format.format(pcons) + "%] " + s1.cons);
-			System.out.println("Literals [" + format.format(plits) + "%] " + s1.lits);
-			System.out.println("Variables [" + format.format(pvars) + "%] " + s1.vars);
-			System.out.println("Units " + units.size() + " Equalities " + equalities.size());
+		if (verbose) {
+			statistics.after = new Stats(this.constraints).toArray();
+			logger.info(statistics.toString());
 		}
 
-		List<Constraint> list = new ArrayList<Constraint>(this.constraints);
-
-		constraints.clear();
 		variables.clear();
 
-		return list;
-
+		return this.constraints;
 	}
 
 	protected void simplifyEqualities() {
@@ -279,22 +581,55 @@ public class ConstraintPreprocessing {
 	}
 
 	protected void process() {
-		Set<Constraint> adds = new HashSet<Constraint>(constraints);
-		Collection<Constraint> learned = null;
-		do {
-			Collection<Constraint> cs = new HashSet<Constraint>(this.constraints);
-			learned = learnFrom(cs);
-
-			adds.clear();
-			adds.addAll(learned);
-
-		} while (!learned.isEmpty());
+		Collection<Constraint> worklist = new ArrayList<Constraint>(constraints);
+		changed.clear();
+
+		while (!worklist.isEmpty()) {
+			statistics.rounds++;
+			statistics.examined += worklist.size();
+			Collection<Constraint> learned = learnFrom(worklist);
+			worklist = touched(learned);
+		}
+	}
 
+	/**
+	 * Returns the constraints that have to be examined again after the given
+	 * constraints were changed. Besides the changed constraints, these are the
+	 * binary constraints on the variables of changed or removed constraints
+	 * since the equality of their variables may now be detectable.
+	 * 
+	 * @param learned
+	 *            the changed constraints
+	 * @return the constraints for the next round
+	 */
+	protected Collection<Constraint> touched(Collection<Constraint> learned) {
+		// constraints are mutable, thus identity is used to avoid duplicates
+		Set<Constraint> seen = Collections.newSetFromMap(new IdentityHashMap<Constraint, Boolean>());
+		List<Constraint> worklist = new LinkedList<Constraint>();
+
+		for (Constraint constraint : learned) {
+			if (seen.add(constraint)) {
+				worklist.add(constraint);
+			}
+		}
+		for (Object var : changed) {
+			Set<Constraint> occurrences = variables.get(var);
+			if (occurrences != null) {
+				for (Constraint other : occurrences) {
+					if (other.size() == 2 && seen.add(other)) {
+						worklist.add(other);
+					}
+				}
+			}
+		}
+		changed.clear();
+		return worklist;
 	}
 
 	protected Collection<Constraint> learnFrom(Collection<Constraint> constraints) {
 		List<Constraint> set = new ArrayList<Constraint>();
 
+		long time = System.nanoTime();
 		if (searchUnits) {
 			for (Constraint constraint : constraints) {
 				if (this.constraints.contains(constraint)) {
@@ -302,12 +637,17 @@ public class ConstraintPreprocessing {
 				}
 			}
 		}
-		for (Constraint constraint : constraints) {
+		long t1 = System.nanoTime();
+		statistics.unitTime += t1 - time;
 
+		for (Constraint constraint : constraints) {
 			if (this.constraints.contains(constraint)) {
 				set.addAll(simplify(constraint));
 			}
 		}
+		long t2 = System.nanoTime();
+		statistics.simplifyTime += t2 - t1;
+
 		if (searchEqualities) {
 			for (Constraint constraint : constraints) {
 				if (this.constraints.contains(constraint)) {
@@ -315,6 +655,7 @@ public class ConstraintPreprocessing {
 				}
 			}
 		}
+		statistics.equalityTime += System.nanoTime() - t2;
 
 		return set;
 	}
@@ -366,6 +707,7 @@ public class ConstraintPreprocessing {
 
 		if (suma - mincoeff < rhs) {
 			// all terms must be sat
+			statistics.simplifications++;
 			remove(constraint);
 
 			for (Term term : constraint) {
@@ -376,6 +718,7 @@ public class ConstraintPreprocessing {
 
 		} else if (0 < sum && sum < rhs) {
 			// small terms have no effect
+			statistics.simplifications++;
 			remove(constraint);
 
 			while (true) {
@@ -418,6 +761,7 @@ public class ConstraintPreprocessing {
 	protected Collection<Constraint> propagateUnit(Literal lit) {
 		Object var = lit.variable();
 		List<Constraint> added = new ArrayList<Constraint>();
+		statistics.unitPropagations++;
 
 		List<Constraint> constraints = new ArrayList<Constraint>();
 		if (variables.containsKey(var)) {
@@ -460,7 +804,7 @@ public class ConstraintPreprocessing {
 			Term t2 = constraint.get(1);
 			Object v1 = t1.getLiteral().variable();
 			Object v2 = t2.getLiteral().variable();
-			learnEquality(v1, v2);
+			set.addAll(learnEquality(v1, v2));
 		}
 
 		return set;
@@ -521,6 +865,7 @@ public class ConstraintPreprocessing {
 		if (eqComparator.compare(v1, v2) <= 0) {
 
 			List<Constraint> list = new ArrayList<Constraint>();
+			statistics.equalityPropagations++;
 
 			Literal lit = new Literal(v1, l1.phase() == l2.phase());
 			equalities.put(v2, lit);
@@ -554,6 +899,9 @@ public class ConstraintPreprocessing {
 		constraints.remove(constraint);
 		for (Literal lit : constraint.getLiterals()) {
 			Object var = lit.variable();
+			if (searchEqualities) {
+				changed.add(var);
+			}
 			Set<Constraint> set = variables.get(var);
 			set.remove(constraint);
 			if (set.isEmpty()) {
@@ -572,7 +920,7 @@ public class ConstraintPreprocessing {
 				sum += coeff;
 			}
 			if (sum < rhs) {
-				System.err.println("contradiction " + constraint);
+				logger.fine("contradiction " + constraint);
 				throw new ContradictionException();
 			} else {
 				constraints.add(constraint);
@@ -620,7 +968,7 @@ public class ConstraintPreprocessing {
 			if (p == null) {
 				units.put(var, phase);
 			} else if (p != phase) {
-				System.err.print(var + " to " + p + " (is already " + !phase + ")");
+				logger.fine("contradiction " + var + " to " + p + " (is already " + !phase + ")");
 				throw new ContradictionException();
 			} // else p=phase
 		}
@@ -634,6 +982,36 @@ public class ConstraintPreprocessing {
 		return list;
 	}
 
+	/**
+	 * Returns the learned equalities, i.e., the removed variables and the
+	 * literals they are equal to.
+	 * 
+	 * @return the unmodifiable map of equalities
+	 */
+	public Map<Object, Literal> getEqualities() {
+		return Collections.unmodifiableMap(equalities);
+	}
+
+	/**
+	 * Restores the units and equalities of a previous preprocessing of the
+	 * same constraints (e.g., from a
+	 * {@link net.sf.opendse.optimization.ConstraintCache}) such that
+	 * {@link #decorate(Model)} can be used without processing the constraints
+	 * again.
+	 * 
+	 * @param units
+	 *            the units
+	 * @param equalities
+	 *            the equalities
+	 */
+	public void restore(Collection<Literal> units, Map<Object, Literal> equalities) {
+		close();
+		addUnits(units.toArray(new Literal[units.size()]));
+		this.equalities.putAll(equalities);
+		statistics.units = this.units.size();
+		statistics.equalities = this.equalities.size();
+	}
+
 	class ModelDecorator extends Model {
 
 		final Model model;
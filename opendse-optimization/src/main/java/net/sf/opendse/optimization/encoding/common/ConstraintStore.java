@@ -0,0 +1,424 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.encoding.common;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Constraint.Operator;
+import org.opt4j.satdecoding.Literal;
+import org.opt4j.satdecoding.Term;
+
+/**
+ * The {@code ConstraintStore} is a compact representation of a set of
+ * pseudo-Boolean constraints. The variables are numbered densely and the terms
+ * of all constraints are stored in parallel {@code int} arrays. A literal is
+ * encoded as {@code (variable << 1) | phase}. The object form of a constraint
+ * is only created on request, e.g., for the solver or for export.
+ * 
+ */
+public class ConstraintStore {
+
+	protected static final Operator[] OPERATORS = Operator.values();
+
+	protected final List<Object> variables;
+	protected final Map<Object, Integer> indices;
+
+	protected int size = 0;
+	protected int terms = 0;
+
+	protected int[] offsets = new int[16 + 1];
+	protected byte[] operators = new byte[16];
+	protected int[] rhs = new int[16];
+	protected int[] coefficients = new int[64];
+	protected int[] literals = new int[64];
+
+	/**
+	 * Constructs an empty {@code ConstraintStore}.
+	 */
+	public ConstraintStore() {
+		this.variables = new ArrayList<Object>();
+		this.indices = new HashMap<Object, Integer>();
+	}
+
+	/**
+	 * Constructs an empty {@code ConstraintStore} that shares the variable
+	 * dictionary with the given store, i.e., the same variables have the same
+	 * numbers in both stores.
+	 * 
+	 * @param store
+	 *            the store to share the dictionary with
+	 */
+	public ConstraintStore(ConstraintStore store) {
+		this.variables = store.variables;
+		this.indices = store.indices;
+	}
+
+	/**
+	 * Encodes a literal.
+	 * 
+	 * @param variable
+	 *            the number of the variable
+	 * @param phase
+	 *            the phase
+	 * @return the encoded literal
+	 */
+	public static int literal(int variable, boolean phase) {
+		return (variable << 1) | (phase ? 1 : 0);
+	}
+
+	/**
+	 * Returns the number of the variable of an encoded literal.
+	 * 
+	 * @param literal
+	 *            the encoded literal
+	 * @return the number of the variable
+	 */
+	public static int variableOf(int literal) {
+		return literal >>> 1;
+	}
+
+	/**
+	 * Returns the phase of an encoded literal.
+	 * 
+	 * @param literal
+	 *            the encoded literal
+	 * @return the phase
+	 */
+	public static boolean phaseOf(int literal) {
+		return (literal & 1) != 0;
+	}
+
+	/**
+	 * Returns the number of the variable and assigns a new number if the
+	 * variable is not known yet.
+	 * 
+	 * @param variable
+	 *            the variable
+	 * @return the number of the variable
+	 */
+	public int index(Object variable) {
+		Integer index = indices.get(variable);
+		if (index == null) {
+			index = variables.size();
+			variables.add(variable);
+			indices.put(variable, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the number of the variable or {@code -1} if the variable is not
+	 * known.
+	 * 
+	 * @param variable
+	 *            the variable
+	 * @return the number of the variable or {@code -1}
+	 */
+	public int indexOf(Object variable) {
+		Integer index = indices.get(variable);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Returns the variable with the given number.
+	 * 
+	 * @param index
+	 *            the number of the variable
+	 * @return the variable
+	 */
+	public Object getVariable(int index) {
+		return variables.get(index);
+	}
+
+	/**
+	 * Returns the variables of the dictionary, ordered by their number.
+	 * 
+	 * @return the variables
+	 */
+	public List<Object> getVariables() {
+		return Collections.unmodifiableList(variables);
+	}
+
+	/**
+	 * Returns the number of variables in the dictionary.
+	 * 
+	 * @return the number of variables
+	 */
+	public int getVariableCount() {
+		return variables.size();
+	}
+
+	/**
+	 * Adds a constraint.
+	 * 
+	 * @param constraint
+	 *            the constraint
+	 * @return the number of the added constraint
+	 */
+	public int add(Constraint constraint) {
+		int n = constraint.size();
+		ensureConstraintCapacity(size + 1);
+		ensureTermCapacity(terms + n);
+
+		for (Term term : constraint) {
+			Literal literal = term.getLiteral();
+			coefficients[terms] = term.getCoefficient();
+			literals[terms] = literal(index(literal.variable()), literal.phase());
+			terms++;
+		}
+		operators[size] = (byte) constraint.getOperator().ordinal();
+		rhs[size] = constraint.getRhs();
+		offsets[size + 1] = terms;
+		return size++;
+	}
+
+	/**
+	 * Adds a constraint in encoded form, i.e., the literals are encoded as
+	 * {@code (variable << 1) | phase} and refer to the numbers of the variables
+	 * of this store.
+	 * 
+	 * @param operator
+	 *            the operator
+	 * @param rhs
+	 *            the right hand side
+	 * @param coefficients
+	 *            the coefficients
+	 * @param literals
+	 *            the encoded literals
+	 * @return the number of the added constraint
+	 */
+	public int add(Operator operator, int rhs, int[] coefficients, int[] literals) {
+		int n = literals.length;
+		ensureConstraintCapacity(size + 1);
+		ensureTermCapacity(terms + n);
+
+		System.arraycopy(coefficients, 0, this.coefficients, terms, n);
+		System.arraycopy(literals, 0, this.literals, terms, n);
+		terms += n;
+		operators[size] = (byte) operator.ordinal();
+		this.rhs[size] = rhs;
+		offsets[size + 1] = terms;
+		return size++;
+	}
+
+	/**
+	 * Adds all constraints.
+	 * 
+	 * @param constraints
+	 *            the constraints
+	 */
+	public void addAll(Collection<Constraint> constraints) {
+		for (Constraint constraint : constraints) {
+			add(constraint);
+		}
+	}
+
+	/**
+	 * Returns the number of constraints.
+	 * 
+	 * @return the number of constraints
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of terms of all constraints.
+	 * 
+	 * @return the number of terms
+	 */
+	public int getTermCount() {
+		return terms;
+	}
+
+	/**
+	 * Returns the number of terms of a constraint.
+	 * 
+	 * @param constraint
+	 *            the number of the constraint
+	 * @return the number of terms
+	 */
+	public int size(int constraint) {
+		check(constraint);
+		return offsets[constraint + 1] - offsets[constraint];
+	}
+
+	/**
+	 * Returns the coefficient of a term.
+	 * 
+	 * @param constraint
+	 *            the number of the constraint
+	 * @param term
+	 *            the position of the term
+	 * @return the coefficient
+	 */
+	public int getCoefficient(int constraint, int term) {
+		return coefficients[position(constraint, term)];
+	}
+
+	/**
+	 * Returns the encoded literal of a term.
+	 * 
+	 * @param constraint
+	 *            the number of the constraint
+	 * @param term
+	 *            the position of the term
+	 * @return the encoded literal
+	 */
+	public int getLiteral(int constraint, int term) {
+		return literals[position(constraint, term)];
+	}
+
+	/**
+	 * Returns the operator of a constraint.
+	 * 
+	 * @param constraint
+	 *            the number of the constraint
+	 * @return the operator
+	 */
+	public Operator getOperator(int constraint) {
+		check(constraint);
+		return OPERATORS[operators[constraint]];
+	}
+
+	/**
+	 * Returns the right hand side of a constraint.
+	 * 
+	 * @param constraint
+	 *            the number of the constraint
+	 * @return the right hand side
+	 */
+	public int getRhs(int constraint) {
+		check(constraint);
+		return rhs[constraint];
+	}
+
+	/**
+	 * Creates the object form of a constraint.
+	 * 
+	 * @param constraint
+	 *            the number of the constraint
+	 * @return the constraint
+	 */
+	public Constraint get(int constraint) {
+		check(constraint);
+		Constraint c = new Constraint(getOperator(constraint), rhs[constraint]);
+		for (int i = offsets[constraint]; i < offsets[constraint + 1]; i++) {
+			int literal = literals[i];
+			c.add(new Term(coefficients[i], new Literal(variables.get(variableOf(literal)), phaseOf(literal))));
+		}
+		return c;
+	}
+
+	/**
+	 * Returns a view of the constraints in object form. Each access creates a
+	 * new object, thus the view should only be used for the solver, for
+	 * debugging, or for export.
+	 * 
+	 * @return the view of the constraints
+	 */
+	public List<Constraint> asConstraints() {
+		return new AbstractList<Constraint>() {
+			@Override
+			public Constraint get(int index) {
+				return ConstraintStore.this.get(index);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Returns the constraints in object form.
+	 * 
+	 * @return the constraints
+	 */
+	public List<Constraint> toConstraints() {
+		return new ArrayList<Constraint>(asConstraints());
+	}
+
+	/**
+	 * Reduces the capacity of the arrays to the current size.
+	 */
+	public void trimToSize() {
+		offsets = Arrays.copyOf(offsets, size + 1);
+		operators = Arrays.copyOf(operators, size);
+		rhs = Arrays.copyOf(rhs, size);
+		coefficients = Arrays.copyOf(coefficients, terms);
+		literals = Arrays.copyOf(literals, terms);
+	}
+
+	/**
+	 * Returns the estimated memory (in bytes) of the constraints, excluding the
+	 * variable dictionary.
+	 * 
+	 * @return the estimated memory
+	 */
+	public long getEstimatedMemory() {
+		return 4L * offsets.length + operators.length + 4L * rhs.length + 4L * coefficients.length + 4L
+				* literals.length;
+	}
+
+	protected int position(int constraint, int term) {
+		check(constraint);
+		int position = offsets[constraint] + term;
+		if (term < 0 || position >= offsets[constraint + 1]) {
+			throw new IndexOutOfBoundsException("Term " + term + " of constraint " + constraint);
+		}
+		return position;
+	}
+
+	protected void check(int constraint) {
+		if (constraint < 0 || constraint >= size) {
+			throw new IndexOutOfBoundsException("Constraint " + constraint + " of " + size);
+		}
+	}
+
+	protected void ensureConstraintCapacity(int capacity) {
+		if (capacity > rhs.length) {
+			int length = Math.max(capacity, rhs.length * 2);
+			offsets = Arrays.copyOf(offsets, length + 1);
+			operators = Arrays.copyOf(operators, length);
+			rhs = Arrays.copyOf(rhs, length);
+		}
+	}
+
+	protected void ensureTermCapacity(int capacity) {
+		if (capacity > literals.length) {
+			int length = Math.max(capacity, literals.length * 2);
+			coefficients = Arrays.copyOf(coefficients, length);
+			literals = Arrays.copyOf(literals, length);
+		}
+	}
+
+}
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.encoding.variables;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.opt4j.satdecoding.Literal;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * The {@code LiteralCache} interns the {@link Literal}s of one exploration. It
+ * is a singleton per injector, so each exploration gets its own cache.
+ * <p>
+ * The static {@code p} and {@code n} methods of the {@code Variables} classes
+ * use the cache that is active on the calling thread (see
+ * {@link #activate()}). Without an active cache, literals are created without
+ * interning. Once the SAT problem is built, the cache can be released. After
+ * that it no longer interns anything.
+ */
+@Singleton
+public class LiteralCache {
+
+	/**
+	 * Rough size of one cached entry (map entry plus literal) in bytes.
+	 */
+	protected static final int ENTRY_SIZE = 64;
+
+	protected static final ThreadLocal<LiteralCache> active = new ThreadLocal<LiteralCache>();
+
+	protected final ConcurrentMap<Object, Literal> positive = new ConcurrentHashMap<Object, Literal>();
+	protected final ConcurrentMap<Object, Literal> negative = new ConcurrentHashMap<Object, Literal>();
+	protected final AtomicLong hits = new AtomicLong();
+	protected final AtomicLong misses = new AtomicLong();
+	protected volatile boolean released = false;
+
+	@Inject
+	public LiteralCache() {
+		super();
+	}
+
+	/**
+	 * Returns the cache that is active on the current thread.
+	 * 
+	 * @return the active cache or {@code null} if there is none
+	 */
+	public static LiteralCache getActive() {
+		return active.get();
+	}
+
+	/**
+	 * Returns the literal for the given variable and phase, interned in the
+	 * active cache if there is one.
+	 * 
+	 * @param variable
+	 *            the variable
+	 * @param phase
+	 *            the phase
+	 * @return the literal
+	 */
+	public static Literal literal(Object variable, boolean phase) {
+		LiteralCache cache = active.get();
+		if (cache == null) {
+			return new Literal(variable, phase);
+		}
+		return cache.get(variable, phase);
+	}
+
+	/**
+	 * Makes this cache the active cache of the current thread.
+	 * 
+	 * @return the previously active cache (to be passed to
+	 *         {@link #restore(LiteralCache)})
+	 */
+	public LiteralCache activate() {
+		LiteralCache previous = active.get();
+		active.set(this);
+		return previous;
+	}
+
+	/**
+	 * Restores the previously active cache of the current thread.
+	 * 
+	 * @param previous
+	 *            the cache returned by {@link #activate()}
+	 */
+	public static void restore(LiteralCache previous) {
+		if (previous == null) {
+			active.remove();
+		} else {
+			active.set(previous);
+		}
+	}
+
+	/**
+	 * Returns the interned literal for the given variable and phase.
+	 * 
+	 * @param variable
+	 *            the variable
+	 * @param phase
+	 *            the phase
+	 * @return the literal
+	 */
+	public Literal get(Object variable, boolean phase) {
+		if (released) {
+			return new Literal(variable, phase);
+		}
+		ConcurrentMap<Object, Literal> cache = phase ? positive : negative;
+		Literal literal = cache.get(variable);
+		if (literal == null) {
+			Literal created = new Literal(variable, phase);
+			literal = cache.putIfAbsent(variable, created);
+			if (literal == null) {
+				misses.incrementAndGet();
+				return created;
+			}
+		}
+		hits.incrementAndGet();
+		return literal;
+	}
+
+	public Literal p(Object variable) {
+		return get(variable, true);
+	}
+
+	public Literal n(Object variable) {
+		return get(variable, false);
+	}
+
+	/**
+	 * Drops all cached literals. Subsequent lookups create literals without
+	 * interning them.
+	 */
+	public void release() {
+		released = true;
+		positive.clear();
+		negative.clear();
+	}
+
+	public boolean isReleased() {
+		return released;
+	}
+
+	/**
+	 * Returns the number of cached literals.
+	 * 
+	 * @return the number of cached literals
+	 */
+	public int size() {
+		return positive.size() + negative.size();
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Returns a rough estimate of the memory held by the cache in bytes.
+	 * 
+	 * @return the estimated memory in bytes
+	 */
+	public long getEstimatedMemory() {
+		return (long) size() * ENTRY_SIZE;
+	}
+
+	@Override
+	public String toString() {
+		return "LiteralCache[size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses() + ", memory~"
+				+ (getEstimatedMemory() / 1024) + "kB" + (released ? ", released" : "") + "]";
+	}
+}
@@ -21,9 +21,6 @@
  *******************************************************************************/
 package net.sf.opendse.optimization.encoding.variables;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Edge;
 import net.sf.opendse.model.Element;
@@ -37,37 +34,24 @@ import org.opt4j.satdecoding.Literal;
 
 /**
  * The {@code Variables} contains static methods to generate variable objects.
+ * Literals are interned in the active {@link LiteralCache}.
  * 
  * @author Martin Lukasiewycz
  * 
  */
 public class Variables {
 
-	static Map<Literal, Literal> cache = new HashMap<Literal, Literal>();
-
 	private Variables() {
 	}
 
 	public static Literal p(Object obj) {
-		Literal literal = new Literal(obj, true);
-		if (cache.containsKey(literal)) {
-			return cache.get(literal);
-		} else {
-			cache.put(literal, literal);
-			return literal;
-		}
+		return LiteralCache.literal(obj, true);
 	}
 
 	public static Literal n(Object obj) {
-		Literal literal = new Literal(obj, false);
-		if (cache.containsKey(literal)) {
-			return cache.get(literal);
-		} else {
-			cache.put(literal, literal);
-			return literal;
-		}
+		return LiteralCache.literal(obj, false);
 	}
-	
+
 	public static DM var(Dependency dep, Mapping<Task, Resource> mapping) {
 		return new DM(dep, mapping);
 	}
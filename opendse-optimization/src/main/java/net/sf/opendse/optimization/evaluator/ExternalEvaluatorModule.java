@@ -23,7 +23,9 @@ package net.sf.opendse.optimization.evaluator;
 
 import net.sf.opendse.optimization.ImplementationEvaluator;
 
+import org.opt4j.core.config.annotations.Info;
 import org.opt4j.core.config.annotations.Multi;
+import org.opt4j.core.config.annotations.Required;
 
 import com.google.inject.multibindings.Multibinder;
 
@@ -33,6 +35,11 @@ public class ExternalEvaluatorModule extends EvaluatorModule {
 	protected String command = "java -jar C:/Users/lukasiew/eclipse/workspace1/CustomEvaluator/build/jar/myeval-0.1.jar area power";
 	protected int priority = 0;
 	protected Type type = Type.FILE;
+	@Required(property = "type", elements = { "POOL" })
+	protected int workers = Runtime.getRuntime().availableProcessors();
+	@Required(property = "type", elements = { "POOL" })
+	@Info("The time in milliseconds a worker has to answer a request before it is restarted (0 for no timeout).")
+	protected int timeout = (int) ExternalEvaluatorPool.DEFAULT_TIMEOUT;
 
 	public Type getType() {
 		return type;
@@ -43,7 +50,7 @@ public class ExternalEvaluatorModule extends EvaluatorModule {
 	}
 
 	public enum Type {
-		FILE, STREAM;
+		FILE, STREAM, POOL;
 	}
 
 	public String getCommand() {
@@ -54,6 +61,22 @@ public class ExternalEvaluatorModule extends EvaluatorModule {
 		this.command = command;
 	}
 
+	public int getWorkers() {
+		return workers;
+	}
+
+	public void setWorkers(int workers) {
+		this.workers = workers;
+	}
+
+	public int getTimeout() {
+		return timeout;
+	}
+
+	public void setTimeout(int timeout) {
+		this.timeout = timeout;
+	}
+
 	public int getPriority() {
 		return priority;
 	}
@@ -69,6 +92,9 @@ public class ExternalEvaluatorModule extends EvaluatorModule {
 		case STREAM:
 			evaluator = new ExternalEvaluatorStream(command, priority);
 			break;
+		case POOL:
+			evaluator = new ExternalEvaluatorPool(command, priority, workers, 1, timeout);
+			break;
 		default: // FILE
 			evaluator = new ExternalEvaluatorFile(command, priority);
 			break;
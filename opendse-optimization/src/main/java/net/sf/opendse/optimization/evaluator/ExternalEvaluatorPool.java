@@ -0,0 +1,513 @@
+/*******************************************************************************
+ * Copyright (c) 2015 OpenDSE
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package net.sf.opendse.optimization.evaluator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import net.sf.opendse.io.SpecificationWriter;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.optimization.BatchImplementationEvaluator;
+
+import org.opt4j.core.Objective;
+import org.opt4j.core.Objectives;
+
+/**
+ * The {@link ExternalEvaluatorPool} keeps a pool of long-lived external
+ * evaluator processes instead of starting a new process for each
+ * implementation (see {@link ExternalEvaluatorStream}).
+ * <p>
+ * The workers communicate via framed messages on stdin/stdout. Each frame
+ * consists of the payload length in bytes as a decimal number terminated by a
+ * newline, followed by the payload. A request carries the implementation as
+ * {@code <specification>} document and is answered with a {@code <result>}
+ * document. An empty request is a ping that is answered with a
+ * {@code <result>} declaring the objectives; it is used for the initialization
+ * and as health check. Workers that exit or fail to answer are restarted.
+ * <p>
+ * If a timeout is set, each request is answered within the timeout or the
+ * worker is considered unresponsive: its process is killed and the worker is
+ * restarted like a crashed one.
+ * <p>
+ * A single call of {@link #evaluate(Specification, Objectives)} occupies one
+ * worker, i.e., the workers only evaluate in parallel if the pool is called
+ * concurrently (e.g., by the concurrent evaluators of the
+ * {@link net.sf.opendse.optimization.DesignSpaceExplorationEvaluator}). A
+ * batch passed to {@link #evaluate(List, List)} is distributed over all
+ * workers.
+ */
+public class ExternalEvaluatorPool extends AbstractExternalEvaluator implements BatchImplementationEvaluator {
+
+	/**
+	 * The default timeout of a request in milliseconds.
+	 */
+	public static final long DEFAULT_TIMEOUT = 60000;
+
+	protected final int size;
+	protected final int maxRetries;
+	protected final long timeout;
+	protected final List<Worker> workers = new ArrayList<Worker>();
+	protected final BlockingQueue<Worker> idleWorkers = new LinkedBlockingQueue<Worker>();
+
+	protected volatile boolean isInit = false;
+	protected ExecutorService readers = null;
+	protected ExecutorService dispatchers = null;
+	protected Thread shutdownHook = null;
+
+	/**
+	 * A single persistent external evaluator process.
+	 */
+	protected class Worker {
+
+		protected Process process = null;
+		protected InputStream in;
+		protected OutputStream out;
+
+		protected void start() throws IOException {
+			process = Runtime.getRuntime().exec(command);
+			in = process.getInputStream();
+			out = process.getOutputStream();
+			Thread errorReader = new ErrorThread(process.getErrorStream());
+			errorReader.setDaemon(true);
+			errorReader.start();
+		}
+
+		protected void restart() throws IOException {
+			destroy();
+			start();
+		}
+
+		protected void destroy() {
+			if (process != null) {
+				process.destroy();
+				process = null;
+			}
+		}
+
+		protected boolean isAlive() {
+			if (process == null) {
+				return false;
+			}
+			try {
+				process.exitValue();
+				return false;
+			} catch (IllegalThreadStateException e) {
+				return true;
+			}
+		}
+
+		/**
+		 * Sends a request and waits for the response. If the worker does not
+		 * answer within the timeout, its process is killed.
+		 * 
+		 * @param payload
+		 *            the request payload
+		 * @return the response payload
+		 * @throws IOException
+		 *             if the worker fails or does not answer in time
+		 */
+		protected byte[] request(final byte[] payload) throws IOException {
+			final InputStream in = this.in;
+			final OutputStream out = this.out;
+			if (timeout <= 0) {
+				writeFrame(out, payload);
+				return readFrame(in);
+			}
+
+			Future<byte[]> future = readers.submit(new Callable<byte[]>() {
+				@Override
+				public byte[] call() throws IOException {
+					writeFrame(out, payload);
+					return readFrame(in);
+				}
+			});
+			try {
+				return future.get(timeout, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				future.cancel(true);
+				destroy();
+				throw new IOException("External evaluator did not answer within " + timeout + " ms: " + command);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				future.cancel(true);
+				destroy();
+				throw new InterruptedIOException();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				} else if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new IOException(cause);
+			}
+		}
+	}
+
+	public ExternalEvaluatorPool(String command, int priority, int size) {
+		this(command, priority, size, 1);
+	}
+
+	public ExternalEvaluatorPool(String command, int priority, int size, int maxRetries) {
+		this(command, priority, size, maxRetries, DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * Constructs an {@code ExternalEvaluatorPool}.
+	 * 
+	 * @param command
+	 *            the command that starts a worker
+	 * @param priority
+	 *            the priority of the evaluator
+	 * @param size
+	 *            the number of workers
+	 * @param maxRetries
+	 *            the number of retries of a failed request
+	 * @param timeout
+	 *            the timeout of a request in milliseconds ({@code 0} for no
+	 *            timeout)
+	 */
+	public ExternalEvaluatorPool(String command, int priority, int size, int maxRetries, long timeout) {
+		super(command, priority);
+		if (size < 1) {
+			throw new IllegalArgumentException("The pool requires at least one worker: " + size);
+		}
+		this.size = size;
+		this.maxRetries = maxRetries;
+		this.timeout = timeout;
+	}
+
+	private synchronized void init() {
+		if (!isInit) {
+			dispatchers = Executors.newFixedThreadPool(size, new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "ExternalEvaluatorPool dispatcher");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			if (timeout > 0) {
+				readers = Executors.newCachedThreadPool(new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable, "ExternalEvaluatorPool reader");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+			}
+			try {
+				for (int i = 0; i < size; i++) {
+					Worker worker = new Worker();
+					worker.start();
+					byte[] response = worker.request(new byte[0]);
+					if (i == 0) {
+						ResultElement resultElement = getResultElement(new ByteArrayInputStream(response));
+						for (ObjectiveElement objectiveElement : resultElement.getObjectiveElements()) {
+							Objective objective = toObjective(objectiveElement);
+							objectiveMap.put(objective.getName(), objective);
+						}
+					}
+					workers.add(worker);
+					idleWorkers.add(worker);
+				}
+			} catch (IOException e) {
+				close();
+				throw new RuntimeException(e);
+			}
+			shutdownHook = new Thread() {
+				@Override
+				public void run() {
+					close();
+				}
+			};
+			Runtime.getRuntime().addShutdownHook(shutdownHook);
+			isInit = true;
+		}
+	}
+
+	@Override
+	public Specification evaluate(Specification implementation, Objectives objectives) {
+		if (!isInit) {
+			init();
+		}
+
+		ByteArrayOutputStream request = new ByteArrayOutputStream();
+		SpecificationWriter writer = new SpecificationWriter();
+		writer.write(implementation, request);
+
+		byte[] response = process(request.toByteArray());
+
+		ResultElement resultElement = getResultElement(new ByteArrayInputStream(response));
+
+		for (ObjectiveElement objectiveElement : resultElement.getObjectiveElements()) {
+			Objective objective = objectiveMap.get(objectiveElement.getName());
+			objectives.add(objective, objectiveElement.getValue());
+		}
+
+		Specification spec = resultElement.getSpecification();
+
+		return spec;
+	}
+
+	/**
+	 * Evaluates the batch with all workers, i.e., each implementation is sent
+	 * to the next idle worker.
+	 */
+	@Override
+	public List<Specification> evaluate(List<Specification> implementations, final List<Objectives> objectives) {
+		if (!isInit) {
+			init();
+		}
+
+		List<Callable<Specification>> tasks = new ArrayList<Callable<Specification>>(implementations.size());
+		for (int i = 0; i < implementations.size(); i++) {
+			final Specification implementation = implementations.get(i);
+			final Objectives o = objectives.get(i);
+			tasks.add(new Callable<Specification>() {
+				@Override
+				public Specification call() {
+					return evaluate(implementation, o);
+				}
+			});
+		}
+
+		List<Specification> results = new ArrayList<Specification>(implementations.size());
+		try {
+			for (Future<Specification> future : dispatchers.invokeAll(tasks)) {
+				results.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+		return results;
+	}
+
+	/**
+	 * Sends the request to the next idle worker and returns its response. A
+	 * worker that has exited or fails during the request is restarted and the
+	 * request is repeated up to {@code maxRetries} times.
+	 * 
+	 * @param request
+	 *            the request payload
+	 * @return the response payload
+	 */
+	protected byte[] process(byte[] request) {
+		Worker worker = checkout();
+		try {
+			IOException failure = null;
+			for (int attempt = 0; attempt <= maxRetries; attempt++) {
+				try {
+					if (!worker.isAlive()) {
+						worker.restart();
+					}
+					return worker.request(request);
+				} catch (IOException e) {
+					failure = e;
+					worker.destroy();
+				}
+			}
+			throw new RuntimeException("External evaluator failed: " + command, failure);
+		} finally {
+			release(worker);
+		}
+	}
+
+	/**
+	 * Pings all idle workers and restarts the ones that have exited or do not
+	 * answer.
+	 * 
+	 * @return the number of restarted workers
+	 */
+	public int checkHealth() {
+		if (!isInit) {
+			init();
+		}
+		List<Worker> checked = new ArrayList<Worker>();
+		idleWorkers.drainTo(checked);
+		int restarted = 0;
+		try {
+			for (Worker worker : checked) {
+				try {
+					if (worker.isAlive()) {
+						worker.request(new byte[0]);
+						continue;
+					}
+				} catch (IOException e) {
+					// fall through to the restart
+				}
+				restarted++;
+				try {
+					worker.restart();
+				} catch (IOException e) {
+					worker.destroy();
+				}
+			}
+		} finally {
+			for (Worker worker : checked) {
+				release(worker);
+			}
+		}
+		return restarted;
+	}
+
+	/**
+	 * Terminates all worker processes and removes the shutdown hook. The pool
+	 * is initialized again on the next request.
+	 */
+	public synchronized void close() {
+		isInit = false;
+		for (Worker worker : workers) {
+			worker.destroy();
+		}
+		workers.clear();
+		idleWorkers.clear();
+		if (readers != null) {
+			readers.shutdownNow();
+			readers = null;
+		}
+		if (dispatchers != null) {
+			dispatchers.shutdownNow();
+			dispatchers = null;
+		}
+		if (shutdownHook != null) {
+			if (Thread.currentThread() != shutdownHook) {
+				try {
+					Runtime.getRuntime().removeShutdownHook(shutdownHook);
+				} catch (IllegalStateException e) {
+					// the virtual machine is already shutting down
+				}
+			}
+			shutdownHook = null;
+		}
+	}
+
+	/**
+	 * Returns a worker to the idle workers or terminates it if it does not
+	 * belong to the pool anymore, i.e., the pool was closed in the meantime.
+	 * 
+	 * @param worker
+	 *            the worker
+	 */
+	protected synchronized void release(Worker worker) {
+		if (workers.contains(worker)) {
+			idleWorkers.add(worker);
+		} else {
+			worker.destroy();
+		}
+	}
+
+	protected Worker checkout() {
+		try {
+			return idleWorkers.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Reads a single frame (decimal length, newline, payload) from the given
+	 * stream.
+	 * 
+	 * @param in
+	 *            the input stream
+	 * @return the payload
+	 * @throws IOException
+	 *             if the stream ends or the header is malformed
+	 */
+	public static byte[] readFrame(InputStream in) throws IOException {
+		int length = 0;
+		int digits = 0;
+		int c;
+		while ((c = in.read()) != '\n') {
+			if (c == -1) {
+				throw new EOFException("External evaluator closed the stream");
+			} else if (c == '\r' && digits > 0) {
+				continue;
+			} else if (c < '0' || c > '9' || digits > 9) {
+				throw new IOException("Malformed frame header from external evaluator");
+			}
+			length = length * 10 + (c - '0');
+			digits++;
+		}
+		if (digits == 0) {
+			throw new IOException("Malformed frame header from external evaluator");
+		}
+		byte[] payload = new byte[length];
+		int offset = 0;
+		while (offset < length) {
+			int read = in.read(payload, offset, length - offset);
+			if (read == -1) {
+				throw new EOFException("External evaluator closed the stream");
+			}
+			offset += read;
+		}
+		return payload;
+	}
+
+	/**
+	 * Writes a single frame to the given stream.
+	 * 
+	 * @param out
+	 *            the output stream
+	 * @param payload
+	 *            the payload
+	 * @throws IOException
+	 *             if the stream cannot be written
+	 */
+	public static void writeFrame(OutputStream out, byte[] payload) throws IOException {
+		out.write((payload.length + "\n").getBytes("US-ASCII"));
+		out.write(payload);
+		out.flush();
+	}
+
+}
@@ -21,13 +21,16 @@
  *******************************************************************************/
 package net.sf.opendse.optimization.evaluator;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
 import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Attributes;
 import net.sf.opendse.model.Element;
 import net.sf.opendse.model.Link;
 import net.sf.opendse.model.Mappings;
@@ -35,23 +38,167 @@ import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.model.Task;
 import net.sf.opendse.optimization.ImplementationEvaluator;
+import net.sf.opendse.optimization.SpecificationWrapper;
 
 import org.opt4j.core.Objective;
 import org.opt4j.core.Objectives;
 
+import com.google.inject.Inject;
+
+/**
+ * The {@code SumEvaluator} sums up the attributes of the allocated resources
+ * and links and the mappings of an implementation. An attribute
+ * {@code name} or {@code name.suffix} contributes to the objective
+ * {@code name}.
+ * <p>
+ * In the precompiled mode, the attribute names are matched once against the
+ * specification (see {@link #compile(Specification)}) and the contribution of
+ * each element is cached by its id. Only the attributes that are parameters
+ * in the specification are read from the implementation. An element with a
+ * local value of a summed attribute that is not such a parameter (e.g., set by
+ * an evaluator of a higher priority) is summed up with the per-element lookup
+ * instead, i.e., both modes yield the same sums.
+ */
 public class SumEvaluator implements ImplementationEvaluator {
 
 	protected final Map<String, Objective> map = new HashMap<String, Objective>();
 
 	protected int priority;
 
+	protected final boolean precompiled;
+
+	protected final List<String> attributes = new ArrayList<String>();
+	protected final List<Objective> objectiveList = new ArrayList<Objective>();
+
+	protected Map<String, Contribution> index = null;
+
+	/**
+	 * The {@code Contribution} of an element to each objective.
+	 * 
+	 */
+	protected static class Contribution {
+
+		/**
+		 * The constant contribution to each objective.
+		 */
+		protected final double[] values;
+
+		/**
+		 * The names of the parameter attributes that are read from the
+		 * implementation.
+		 */
+		protected final String[] parameters;
+
+		/**
+		 * The objective index of each parameter attribute.
+		 */
+		protected final int[] parameterObjectives;
+
+		protected Contribution(double[] values, String[] parameters, int[] parameterObjectives) {
+			this.values = values;
+			this.parameters = parameters;
+			this.parameterObjectives = parameterObjectives;
+		}
+	}
+
 	public SumEvaluator(String sum, int priority, boolean min) {
+		this(sum, priority, min, false);
+	}
+
+	/**
+	 * Constructs a {@code SumEvaluator}.
+	 * 
+	 * @param sum
+	 *            the comma separated attribute names
+	 * @param priority
+	 *            the priority
+	 * @param min
+	 *            {@code true} if the sums are minimized
+	 * @param precompiled
+	 *            {@code true} if the attributes are matched once against the
+	 *            specification
+	 */
+	public SumEvaluator(String sum, int priority, boolean min, boolean precompiled) {
 		super();
 		for (String s : sum.split(",")) {
 			Objective obj = new Objective(s, min?Objective.Sign.MIN:Objective.Sign.MAX);
 			map.put(s, obj);
 		}
+		for (Entry<String, Objective> entry : map.entrySet()) {
+			attributes.add(entry.getKey());
+			objectiveList.add(entry.getValue());
+		}
 		this.priority = priority;
+		this.precompiled = precompiled;
+	}
+
+	/**
+	 * Compiles the attribute index against the specification if the
+	 * precompiled mode is enabled.
+	 * 
+	 * @param specificationWrapper
+	 *            the specification wrapper
+	 */
+	@Inject(optional = true)
+	public void setSpecificationWrapper(SpecificationWrapper specificationWrapper) {
+		if (precompiled) {
+			compile(specificationWrapper.getSpecification());
+		}
+	}
+
+	/**
+	 * Matches the attribute names of all resources, links, and mappings of the
+	 * specification to the objectives and caches the contribution of each
+	 * element by its id.
+	 * 
+	 * @param specification
+	 *            the specification
+	 */
+	public void compile(Specification specification) {
+		Map<String, Contribution> index = new HashMap<String, Contribution>();
+		Architecture<Resource, Link> architecture = specification.getArchitecture();
+		compile(architecture.getVertices(), index);
+		compile(architecture.getEdges(), index);
+		compile(specification.getMappings().getAll(), index);
+		this.index = index;
+	}
+
+	protected void compile(Iterable<? extends Element> elements, Map<String, Contribution> index) {
+		for (Element e : elements) {
+			double[] values = new double[attributes.size()];
+			List<String> parameters = new ArrayList<String>();
+			List<Integer> parameterObjectives = new ArrayList<Integer>();
+			boolean contributes = false;
+
+			for (String attributeName : e.getAttributeNames()) {
+				for (int i = 0; i < attributes.size(); i++) {
+					if (matches(attributeName, attributes.get(i))) {
+						contributes = true;
+						if (e.getAttributeParameter(attributeName) != null) {
+							parameters.add(attributeName);
+							parameterObjectives.add(i);
+						} else {
+							values[i] += ((Number) e.getAttribute(attributeName)).doubleValue();
+						}
+					}
+				}
+			}
+
+			if (contributes) {
+				int[] objectives = new int[parameterObjectives.size()];
+				for (int i = 0; i < objectives.length; i++) {
+					objectives[i] = parameterObjectives.get(i);
+				}
+				index.put(e.getId(),
+						new Contribution(values, parameters.toArray(new String[parameters.size()]), objectives));
+			}
+		}
+	}
+
+	protected static boolean matches(String attributeName, String attribute) {
+		return (attributeName.contains(".") && attributeName.substring(0, attributeName.indexOf(".")).equals(
+				attribute))
+				|| attributeName.equals(attribute);
 	}
 
 	@Override
@@ -60,6 +207,18 @@ public class SumEvaluator implements ImplementationEvaluator {
 		Architecture<Resource, Link> architecture = implementation.getArchitecture();
 		Mappings<Task, Resource> mappings = implementation.getMappings();
 
+		if (index != null) {
+			double[] values = new double[attributes.size()];
+			sum(architecture.getVertices(), values);
+			sum(architecture.getEdges(), values);
+			sum(mappings.getAll(), values);
+
+			for (int i = 0; i < values.length; i++) {
+				objectives.add(objectiveList.get(i), values[i]);
+			}
+			return null;
+		}
+
 		Set<Element> elements = new HashSet<Element>();
 		elements.addAll(architecture.getVertices());
 		elements.addAll(architecture.getEdges());
@@ -73,9 +232,7 @@ public class SumEvaluator implements ImplementationEvaluator {
 
 			for (Element e : elements) {
 				for (String attributeName : e.getAttributeNames()) {
-					if ((attributeName.contains(".") && attributeName.substring(0, attributeName.indexOf(".")).equals(
-							attribute))
-							|| attributeName.equals(attribute)) {
+					if (matches(attributeName, attribute)) {
 						value += ((Number) e.getAttribute(attributeName)).doubleValue();
 					}
 				}
@@ -87,9 +244,92 @@ public class SumEvaluator implements ImplementationEvaluator {
 		return null;
 	}
 
+	protected void sum(Iterable<? extends Element> elements, double[] values) {
+		for (Element e : elements) {
+			Contribution contribution = index.get(e.getId());
+			if (isOverridden(e, contribution)) {
+				sum(e, values);
+			} else if (contribution != null) {
+				double[] v = contribution.values;
+				for (int i = 0; i < v.length; i++) {
+					values[i] += v[i];
+				}
+				String[] parameters = contribution.parameters;
+				for (int i = 0; i < parameters.length; i++) {
+					values[contribution.parameterObjectives[i]] += ((Number) e.getAttribute(parameters[i]))
+							.doubleValue();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sums up the attributes of a single element without the index.
+	 * 
+	 * @param e
+	 *            the element
+	 * @param values
+	 *            the sums of the objectives
+	 */
+	protected void sum(Element e, double[] values) {
+		for (String attributeName : e.getAttributeNames()) {
+			for (int i = 0; i < attributes.size(); i++) {
+				if (matches(attributeName, attributes.get(i))) {
+					values[i] += ((Number) e.getAttribute(attributeName)).doubleValue();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the element has a local value of a summed
+	 * attribute that is not read from the implementation by the contribution.
+	 * 
+	 * @param e
+	 *            the element
+	 * @param contribution
+	 *            the contribution of the element or {@code null}
+	 * @return {@code true} if the index is not valid for the element
+	 */
+	protected boolean isOverridden(Element e, Contribution contribution) {
+		Attributes local = e.getLocalAttributes();
+		if (local.isEmpty()) {
+			return false;
+		}
+		for (String attributeName : local.keySet()) {
+			if (contribution != null && isParameter(attributeName, contribution)) {
+				continue;
+			}
+			for (String attribute : attributes) {
+				if (matches(attributeName, attribute)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	protected static boolean isParameter(String attributeName, Contribution contribution) {
+		for (String parameter : contribution.parameters) {
+			if (parameter.equals(attributeName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	@Override
 	public int getPriority() {
 		return priority;
 	}
 
+	/**
+	 * Returns {@code true} if the precompiled mode is enabled.
+	 * 
+	 * @return {@code true} if the precompiled mode is enabled
+	 */
+	public boolean isPrecompiled() {
+		return precompiled;
+	}
+
 }
@@ -37,6 +37,8 @@ public class SumEvaluatorModule extends EvaluatorModule {
 	protected int priority = 0;
 	@Order(1)
 	protected Type type = Type.MIN;
+	@Order(3)
+	protected boolean precompiled = false;
 	
 	public enum Type {
 		MIN,MAX;
@@ -66,9 +68,17 @@ public class SumEvaluatorModule extends EvaluatorModule {
 		this.priority = priority;
 	}
 
+	public boolean isPrecompiled() {
+		return precompiled;
+	}
+
+	public void setPrecompiled(boolean precompiled) {
+		this.precompiled = precompiled;
+	}
+
 	@Override
 	protected void config() {
-		SumEvaluator evaluator = new SumEvaluator(sum, priority, type == Type.MIN);
+		SumEvaluator evaluator = new SumEvaluator(sum, priority, type == Type.MIN, precompiled);
 		
 		Multibinder<ImplementationEvaluator> multibinder = Multibinder.newSetBinder(binder(),
 				ImplementationEvaluator.class);
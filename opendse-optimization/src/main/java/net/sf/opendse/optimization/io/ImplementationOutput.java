@@ -22,17 +22,18 @@
 package net.sf.opendse.optimization.io;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Set;
 
-import net.sf.opendse.io.SpecificationWriter;
+import net.sf.opendse.io.SpecificationStreamWriter;
 import net.sf.opendse.model.Specification;
 import net.sf.opendse.optimization.ImplementationWrapper;
 
 import org.opt4j.core.Individual;
+import org.opt4j.core.IndividualSet;
+import org.opt4j.core.IndividualSetListener;
 import org.opt4j.core.optimizer.Archive;
 import org.opt4j.core.optimizer.Optimizer;
 import org.opt4j.core.optimizer.OptimizerStateListener;
@@ -40,10 +41,23 @@ import org.opt4j.core.start.Constant;
 
 import com.google.inject.Inject;
 
-public class ImplementationOutput implements OptimizerStateListener {
+/**
+ * The {@code ImplementationOutput} writes the implementations of the archive
+ * to a file once the optimization stops. The implementations are streamed with
+ * the {@link SpecificationStreamWriter}, thus the memory does not depend on the
+ * size of the archive.
+ * <p>
+ * In the incremental mode, each implementation is appended to the file as soon
+ * as it enters the archive, i.e., the file contains all implementations that
+ * were ever archived. Optionally, the output is compressed with gzip.
+ */
+public class ImplementationOutput implements OptimizerStateListener, IndividualSetListener {
 
 	protected final Archive archive;
 	protected final String filename;
+	protected boolean gzip = false;
+	protected boolean incremental = false;
+	protected SpecificationStreamWriter.Appender appender = null;
 
 	@Inject
 	public ImplementationOutput(Archive archive,
@@ -53,33 +67,78 @@ public class ImplementationOutput implements OptimizerStateListener {
 		this.filename = filename;
 	}
 
+	@Inject(optional = true)
+	public void setGzip(@Constant(namespace = ImplementationOutput.class, value = "gzip") boolean gzip) {
+		this.gzip = gzip;
+	}
+
+	@Inject(optional = true)
+	public void setIncremental(
+			@Constant(namespace = ImplementationOutput.class, value = "incremental") boolean incremental) {
+		this.incremental = incremental;
+	}
+
 	@Override
 	public void optimizationStarted(Optimizer optimizer) {
-		// TODO Auto-generated method stub
-
+		if (incremental) {
+			try {
+				appender = new SpecificationStreamWriter().open(new File(filename), gzip);
+				archive.addListener(this);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
 	}
 
 	@Override
 	public void optimizationStopped(Optimizer optimizer) {
-		File file = new File(filename);
 		try {
-			FileOutputStream out = new FileOutputStream(file);
-
-			Set<Specification> implementations = new HashSet<Specification>();
-			for (Individual individual : archive) {
-				ImplementationWrapper wrapper = (ImplementationWrapper) individual.getPhenotype();
-				implementations.add(wrapper.getImplementation());
+			if (appender != null) {
+				archive.removeListener(this);
+				appender.close();
+				appender = null;
+			} else if (!incremental) {
+				SpecificationStreamWriter.Appender out = new SpecificationStreamWriter().open(new File(filename),
+						gzip);
+				try {
+					// an implementation may be shared by several individuals
+					Set<Specification> written = Collections
+							.newSetFromMap(new IdentityHashMap<Specification, Boolean>());
+					for (Individual individual : archive) {
+						Specification implementation = getImplementation(individual);
+						if (implementation != null && written.add(implementation)) {
+							out.append(implementation);
+						}
+					}
+				} finally {
+					out.close();
+				}
 			}
-			SpecificationWriter writer = new SpecificationWriter();
-			writer.write(implementations, out);
-			out.close();
-
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
+	}
+
+	@Override
+	public void individualAdded(IndividualSet collection, Individual individual) {
+		Specification implementation = getImplementation(individual);
+		if (appender != null && implementation != null) {
+			try {
+				appender.append(implementation);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	@Override
+	public void individualRemoved(IndividualSet collection, Individual individual) {
+		// appended implementations are kept
+	}
 
+	protected Specification getImplementation(Individual individual) {
+		ImplementationWrapper wrapper = (ImplementationWrapper) individual.getPhenotype();
+		return wrapper == null ? null : wrapper.getImplementation();
 	}
 
 }
@@ -30,6 +30,28 @@ public class OutputModule extends IOModule {
 	@Constant(namespace = ImplementationOutput.class, value = "filename")
 	protected String filename = "";
 
+	@Constant(namespace = ImplementationOutput.class, value = "gzip")
+	protected boolean gzip = false;
+
+	@Constant(namespace = ImplementationOutput.class, value = "incremental")
+	protected boolean incremental = false;
+
+	public boolean isGzip() {
+		return gzip;
+	}
+
+	public void setGzip(boolean gzip) {
+		this.gzip = gzip;
+	}
+
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+
 	public String getFilename() {
 		return filename;
 	}
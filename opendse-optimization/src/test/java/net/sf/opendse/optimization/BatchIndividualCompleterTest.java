@@ -0,0 +1,146 @@
+package net.sf.opendse.optimization;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.opt4j.core.Genotype;
+import org.opt4j.core.Individual;
+import org.opt4j.core.Objectives;
+import org.opt4j.core.optimizer.Control;
+import org.opt4j.core.optimizer.TerminationException;
+import org.opt4j.core.problem.Decoder;
+import org.opt4j.core.problem.Evaluator;
+
+import net.sf.opendse.optimization.DesignSpaceExplorationEvaluatorTest.TestBatchEvaluator;
+import net.sf.opendse.optimization.DesignSpaceExplorationEvaluatorTest.TestEvaluator;
+
+public class BatchIndividualCompleterTest {
+
+	protected static class CountingDecoder implements Decoder<Genotype, Object> {
+
+		protected int decodings = 0;
+
+		@Override
+		public Object decode(Genotype genotype) {
+			decodings++;
+			return null;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	protected static BatchIndividualCompleter completer(Decoder<Genotype, Object> decoder,
+			Evaluator<?> evaluator, int batchSize) {
+		BatchIndividualCompleter completer = new BatchIndividualCompleter(new Control(), decoder,
+				(Evaluator<Object>) evaluator);
+		completer.setBatchSize(batchSize);
+		return completer;
+	}
+
+	protected static DesignSpaceExplorationEvaluator evaluator(ImplementationEvaluator... evaluators) {
+		return new DesignSpaceExplorationEvaluator(new HashSet<ImplementationEvaluator>(Arrays.asList(evaluators)),
+				DesignSpaceExplorationEvaluatorTest.provider);
+	}
+
+	protected static List<Individual> individuals(int n, boolean evaluated) {
+		List<Individual> individuals = new ArrayList<Individual>();
+		for (int i = 0; i < n; i++) {
+			Individual individual = mock(Individual.class);
+			when(individual.isEvaluated()).thenReturn(evaluated);
+			when(individual.getPhenotype()).thenReturn(
+					new ImplementationWrapper(DesignSpaceExplorationEvaluatorTest.specification()));
+			individuals.add(individual);
+		}
+		return individuals;
+	}
+
+	protected static Objectives objectives(Individual individual) {
+		ArgumentCaptor<Objectives> captor = ArgumentCaptor.forClass(Objectives.class);
+		verify(individual).setObjectives(captor.capture());
+		return captor.getValue();
+	}
+
+	@Test
+	public void testBatchPerIteration() throws TerminationException {
+		TestBatchEvaluator batch = new TestBatchEvaluator("a", 0);
+		CountingDecoder decoder = new CountingDecoder();
+		BatchIndividualCompleter completer = completer(decoder, evaluator(batch), 0);
+
+		List<Individual> individuals = individuals(4, false);
+		Individual evaluated = individuals(1, true).get(0);
+		List<Individual> iteration = new ArrayList<Individual>(individuals);
+		iteration.add(evaluated);
+		completer.complete(iteration);
+
+		// all individuals of the iteration are evaluated in one batch
+		assertEquals(1, batch.batches);
+		assertEquals(4, decoder.decodings);
+		for (Individual individual : individuals) {
+			assertEquals(1, objectives(individual).size());
+		}
+		verify(evaluated, never()).setObjectives(any(Objectives.class));
+
+		// the next iteration is a new batch
+		completer.complete(individuals(3, false));
+		assertEquals(2, batch.batches);
+	}
+
+	@Test
+	public void testBatchSize() throws TerminationException {
+		TestBatchEvaluator batch = new TestBatchEvaluator("a", 0);
+		BatchIndividualCompleter completer = completer(new CountingDecoder(), evaluator(batch), 2);
+		assertEquals(2, completer.getBatchSize());
+
+		List<Individual> individuals = individuals(5, false);
+		completer.complete(individuals);
+
+		assertEquals(3, batch.batches);
+		for (Individual individual : individuals) {
+			assertEquals(1, objectives(individual).size());
+		}
+	}
+
+	@Test
+	public void testSequentialWithoutBatchEvaluator() throws TerminationException {
+		TestEvaluator single = new TestEvaluator("a", 0, null, null);
+		DesignSpaceExplorationEvaluator evaluator = evaluator(single);
+		CountingDecoder decoder = new CountingDecoder();
+		BatchIndividualCompleter completer = completer(decoder, evaluator, 0);
+
+		List<Individual> individuals = individuals(3, false);
+		completer.complete(individuals);
+
+		assertEquals(3, decoder.decodings);
+		assertEquals(3, evaluator.getTimings().get(single).getEvaluations());
+		for (Individual individual : individuals) {
+			assertEquals(1, objectives(individual).size());
+		}
+	}
+
+	@Test
+	public void testSequentialWithOtherEvaluator() throws TerminationException {
+		final List<Object> phenotypes = new ArrayList<Object>();
+		Evaluator<Object> evaluator = new Evaluator<Object>() {
+			@Override
+			public Objectives evaluate(Object phenotype) {
+				phenotypes.add(phenotype);
+				return new Objectives();
+			}
+		};
+		BatchIndividualCompleter completer = completer(new CountingDecoder(), evaluator, 0);
+
+		completer.complete(individuals(2, false));
+		assertEquals(2, phenotypes.size());
+	}
+
+}
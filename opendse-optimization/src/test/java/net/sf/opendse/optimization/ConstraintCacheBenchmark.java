@@ -0,0 +1,72 @@
+package net.sf.opendse.optimization;
+
+import java.io.File;
+import java.io.IOException;
+
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.optimization.encoding.Encoding.RoutingEncoding;
+import net.sf.opendse.optimization.encoding.EncodingTest;
+import net.sf.opendse.optimization.io.SpecificationWrapperInstance;
+
+/**
+ * The {@code ConstraintCacheBenchmark} compares the time of
+ * {@link SATConstraints#init()} without a cache entry (encoding, learning,
+ * preprocessing, and saving the entry) and with a cache entry (hashing the
+ * specification and loading the entry) for specifications with an increasing
+ * number of messages.
+ *
+ */
+public class ConstraintCacheBenchmark {
+
+	public static void main(String[] args) throws IOException {
+		int[] sizes = { 25, 50, 100 };
+
+		// warm-up
+		run(sizes[0]);
+
+		System.out.println("messages\tconstraints\tentry [kB]\tms/miss\tms/hit\tspeedup");
+		for (int size : sizes) {
+			double[] result = run(size);
+			System.out.printf("%d\t%d\t%.1f\t%.1f\t%.1f\t%.1f%n", size, (int) result[0], result[1], result[2],
+					result[3], result[2] / result[3]);
+		}
+	}
+
+	protected static double[] run(int size) throws IOException {
+		File directory = File.createTempFile("constraints", "");
+		directory.delete();
+		try {
+			ConstraintCache cache = new ConstraintCache(directory);
+
+			long start = System.nanoTime();
+			SATConstraints miss = constraints(EncodingTest.createSpecification(size + 1, 8), cache);
+			miss.init();
+			double missTime = (System.nanoTime() - start) / 1e6;
+
+			start = System.nanoTime();
+			SATConstraints hit = constraints(EncodingTest.createSpecification(size + 1, 8), cache);
+			hit.init();
+			double hitTime = (System.nanoTime() - start) / 1e6;
+
+			int n = miss.getConstraintStore().size();
+			if (n != hit.getConstraintStore().size()) {
+				throw new IllegalStateException("Different number of constraints.");
+			}
+			File[] files = directory.listFiles();
+			return new double[] { n, files[0].length() / 1024.0, missTime, hitTime };
+		} finally {
+			for (File file : directory.listFiles()) {
+				file.delete();
+			}
+			directory.delete();
+		}
+	}
+
+	protected static SATConstraints constraints(Specification specification, ConstraintCache cache) {
+		SATConstraints constraints = new SATConstraints(new SpecificationWrapperInstance(specification),
+				EncodingTest.createEncoding(specification, RoutingEncoding.FLOW, 1), true);
+		constraints.setConstraintCache(cache);
+		return constraints;
+	}
+
+}
@@ -0,0 +1,411 @@
+package net.sf.opendse.optimization;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opt4j.core.start.Constant;
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Constraint.Operator;
+import org.opt4j.satdecoding.Literal;
+
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.constraints.SpecificationConstraints;
+import net.sf.opendse.optimization.constraints.SpecificationElementsConstraints;
+import net.sf.opendse.optimization.encoding.CommunicationLearn;
+import net.sf.opendse.optimization.encoding.Encoding;
+import net.sf.opendse.optimization.encoding.Encoding.RoutingEncoding;
+import net.sf.opendse.optimization.encoding.EncodingTest;
+import net.sf.opendse.optimization.encoding.ImplementationEncoding;
+import net.sf.opendse.optimization.encoding.RoutingFilter;
+import net.sf.opendse.optimization.encoding.common.ConstraintPreprocessing;
+import net.sf.opendse.optimization.encoding.common.ConstraintStore;
+import net.sf.opendse.optimization.encoding.variables.Variable;
+import net.sf.opendse.optimization.io.SpecificationWrapperInstance;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.multibindings.Multibinder;
+
+public class ConstraintCacheTest {
+
+	protected static class CountingEncoding implements ImplementationEncoding {
+
+		protected final ImplementationEncoding encoding;
+		protected int calls = 0;
+
+		protected CountingEncoding(Specification specification) {
+			this.encoding = EncodingTest.createEncoding(specification, RoutingEncoding.FLOW, 1);
+		}
+
+		@Override
+		public Collection<Constraint> toConstraints() {
+			calls++;
+			return encoding.toConstraints();
+		}
+	}
+
+	public static class OtherCommunicationLearn extends CommunicationLearn {
+	}
+
+	protected static class Constants {
+		@Constant(value = "timeout", namespace = CommunicationLearn.class)
+		protected int timeout;
+		@Constant(value = "directory", namespace = ConstraintCache.class)
+		protected String directory;
+		@Constant(value = "threads", namespace = Encoding.class)
+		protected int threads;
+	}
+
+	protected static class Bindings extends AbstractModule {
+
+		protected final int timeout;
+		protected final boolean learn;
+		protected final String directory;
+		protected final int threads;
+
+		protected Bindings(int timeout, boolean learn, String directory) {
+			this(timeout, learn, directory, 1);
+		}
+
+		protected Bindings(int timeout, boolean learn, String directory, int threads) {
+			this.timeout = timeout;
+			this.learn = learn;
+			this.directory = directory;
+			this.threads = threads;
+		}
+
+		@Override
+		protected void configure() {
+			try {
+				bindConstant().annotatedWith(Constants.class.getDeclaredField("timeout").getAnnotation(Constant.class))
+						.to(timeout);
+				bindConstant()
+						.annotatedWith(Constants.class.getDeclaredField("directory").getAnnotation(Constant.class))
+						.to(directory);
+				bindConstant().annotatedWith(Constants.class.getDeclaredField("threads").getAnnotation(Constant.class))
+						.to(threads);
+			} catch (NoSuchFieldException e) {
+				throw new RuntimeException(e);
+			}
+			bind(SpecificationWrapper.class)
+					.toInstance(new SpecificationWrapperInstance(EncodingTest.createSpecification(4, 2)));
+			Multibinder.newSetBinder(binder(), SpecificationConstraints.class).addBinding()
+					.to(SpecificationElementsConstraints.class);
+			if (learn) {
+				bind(CommunicationLearn.class).to(OtherCommunicationLearn.class);
+			}
+		}
+	}
+
+	protected File directory;
+
+	@Before
+	public void createDirectory() throws IOException {
+		directory = File.createTempFile("constraints", "");
+		directory.delete();
+		directory.mkdir();
+	}
+
+	@After
+	public void deleteDirectory() {
+		for (File file : directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	protected SATConstraints constraints(Specification specification) {
+		SATConstraints constraints = new SATConstraints(new SpecificationWrapperInstance(specification),
+				new CountingEncoding(specification), true);
+		constraints.setConstraintCache(new ConstraintCache(directory));
+		return constraints;
+	}
+
+	protected static int calls(SATConstraints constraints) {
+		return ((CountingEncoding) constraints.encoding).calls;
+	}
+
+	protected File entry() {
+		File[] files = directory.listFiles();
+		assertEquals(1, files.length);
+		assertTrue(files[0].getName().endsWith(ConstraintCache.SUFFIX));
+		return files[0];
+	}
+
+	protected static void assertEqualConstraints(SATConstraints expected, SATConstraints actual) {
+		assertEquals(expected.getVariables(), actual.getVariables());
+		assertEquals(expected.getConstraints().toString(), actual.getConstraints().toString());
+		assertEquals(new HashSet<Object>(expected.getPreprocessing().getUnits()),
+				new HashSet<Object>(actual.getPreprocessing().getUnits()));
+		assertEquals(expected.getPreprocessing().getEqualities(), actual.getPreprocessing().getEqualities());
+	}
+
+	protected static String routings(Specification specification) {
+		StringBuilder sb = new StringBuilder();
+		for (Task task : specification.getRoutings().getTasks()) {
+			Set<String> ids = new TreeSet<String>();
+			for (Resource resource : specification.getRoutings().get(task)) {
+				ids.add(resource.getId());
+			}
+			sb.append(task.getId()).append(ids).append(";");
+		}
+		return sb.toString();
+	}
+
+	protected static void modify(File file, long position) throws IOException {
+		RandomAccessFile access = new RandomAccessFile(file, "rw");
+		try {
+			access.seek(position);
+			int b = access.read();
+			access.seek(position);
+			access.write(b ^ 0xff);
+		} finally {
+			access.close();
+		}
+	}
+
+	@Test
+	public void testHit() {
+		SATConstraints first = constraints(EncodingTest.createSpecification(12, 4));
+		first.init();
+		assertEquals(1, calls(first));
+		entry();
+
+		Specification specification = EncodingTest.createSpecification(12, 4);
+		SATConstraints second = constraints(specification);
+		second.init();
+		assertEquals(0, calls(second));
+		assertEqualConstraints(first, second);
+		assertFalse(second.getPreprocessing().getEqualities().isEmpty());
+		assertSame(second.getConstraints(), second.getConstraints());
+
+		// the elements in the variables are the elements of the specification
+		Task communication = specification.getApplication().getVertex("c4");
+		Set<Object> mappings = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		mappings.addAll(specification.getMappings().getAll());
+		boolean found = false;
+		for (Object variable : second.getVariables()) {
+			if (variable instanceof Mapping) {
+				assertTrue(mappings.contains(variable));
+			} else if (variable instanceof Variable && ((Variable) variable).get(0) == communication) {
+				found = true;
+			}
+		}
+		assertTrue(found);
+	}
+
+	/**
+	 * Returns a specification where all tasks of the communication c1 are
+	 * mapped to r1 only such that the {@link RoutingFilter} reduces the routing
+	 * of c1 to r1.
+	 * 
+	 * @return the specification
+	 */
+	protected static Specification createFilteredSpecification() {
+		Specification specification = EncodingTest.createSpecification(12, 4);
+		for (String task : new String[] { "t1", "t2" }) {
+			for (Mapping<Task, Resource> mapping : new ArrayList<Mapping<Task, Resource>>(
+					specification.getMappings().get(specification.getApplication().getVertex(task)))) {
+				if (!mapping.getTarget().getId().equals("r1")) {
+					specification.getMappings().remove(mapping);
+				}
+			}
+		}
+		return specification;
+	}
+
+	@Test
+	public void testRoutings() {
+		Specification specification = createFilteredSpecification();
+		Specification unfiltered = createFilteredSpecification();
+		constraints(specification).init();
+		assertEquals(1, specification.getRoutings().get(specification.getApplication().getVertex("c1"))
+				.getVertexCount());
+
+		// the hit filters the routings as the encoding did
+		Specification other = createFilteredSpecification();
+		SATConstraints second = constraints(other);
+		second.init();
+		assertEquals(0, calls(second));
+		assertEquals(routings(specification), routings(other));
+		assertFalse(routings(unfiltered).equals(routings(other)));
+	}
+
+	@Test
+	public void testUnknownRouting() throws IOException {
+		Specification specification = EncodingTest.createSpecification(12, 4);
+		constraints(specification).init();
+		ConstraintCache cache = new ConstraintCache(directory);
+		String key = entry().getName().replace(ConstraintCache.SUFFIX, "");
+
+		// same elements but a missing resource of a filtered routing
+		Task communication = specification.getApplication().getVertex("c4");
+		String id = specification.getRoutings().get(communication).iterator().next().getId();
+		Specification other = EncodingTest.createSpecification(12, 4);
+		Architecture<Resource, Link> routing = other.getRoutings().get(other.getApplication().getVertex("c4"));
+		routing.removeVertex(routing.getVertex(id));
+		ConstraintStore store = new ConstraintStore();
+		assertFalse(cache.load(key, other, store, new ConstraintPreprocessing()));
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	public void testNotSerializable() {
+		Specification specification = EncodingTest.createSpecification(12, 4);
+		specification.getApplication().getVertex("t1").setAttribute("object", new Object());
+		SATConstraints constraints = constraints(specification);
+		constraints.init();
+		assertEquals(1, calls(constraints));
+		assertEquals(0, directory.listFiles().length);
+	}
+
+	@Test
+	public void testDifferentSpecification() {
+		constraints(EncodingTest.createSpecification(12, 4)).init();
+
+		Specification specification = EncodingTest.createSpecification(12, 4);
+		Task task = specification.getApplication().getVertex("t1");
+		Resource resource = specification.getArchitecture().getVertex("r0");
+		specification.getMappings().add(new Mapping<Task, Resource>("m1_2", task, resource));
+		SATConstraints second = constraints(specification);
+		second.init();
+		assertEquals(1, calls(second));
+		assertEquals(2, directory.listFiles().length);
+	}
+
+	@Test
+	public void testCorrupted() throws IOException {
+		SATConstraints first = constraints(EncodingTest.createSpecification(12, 4));
+		first.init();
+		File file = entry();
+		modify(file, file.length() / 2);
+
+		SATConstraints second = constraints(EncodingTest.createSpecification(12, 4));
+		second.init();
+		assertEquals(1, calls(second));
+		assertEquals(first.getConstraintStore().size(), second.getConstraintStore().size());
+
+		// the corrupted entry is replaced
+		SATConstraints third = constraints(EncodingTest.createSpecification(12, 4));
+		third.init();
+		assertEquals(0, calls(third));
+		assertEqualConstraints(second, third);
+	}
+
+	@Test
+	public void testVersion() throws IOException {
+		constraints(EncodingTest.createSpecification(12, 4)).init();
+		// the version follows the magic number
+		modify(entry(), 7);
+
+		SATConstraints second = constraints(EncodingTest.createSpecification(12, 4));
+		second.init();
+		assertEquals(1, calls(second));
+	}
+
+	@Test
+	public void testUnknownElement() {
+		Specification specification = EncodingTest.createSpecification(12, 4);
+		SATConstraints first = constraints(specification);
+		first.init();
+		ConstraintCache cache = new ConstraintCache(directory);
+		String key = entry().getName().replace(ConstraintCache.SUFFIX, "");
+
+		ConstraintStore store = new ConstraintStore();
+		assertFalse(cache.load(key, EncodingTest.createSpecification(10, 4), store, new ConstraintPreprocessing()));
+		assertEquals(0, store.size());
+		assertEquals(0, store.getVariableCount());
+	}
+
+	@Test
+	public void testInvalidEntry() {
+		ConstraintCache.Entry entry = new ConstraintCache.Entry(new Object[] { "a", "b", "a" }, 3);
+		entry.add(Operator.LE, 1, new int[] { 1, 1 }, new int[] { ConstraintStore.literal(0, true),
+				ConstraintStore.literal(1, true) });
+
+		ConstraintStore store = new ConstraintStore();
+		ConstraintPreprocessing pp = new ConstraintPreprocessing();
+		try {
+			entry.apply(store, pp);
+			fail();
+		} catch (InvalidObjectException e) {
+		}
+		assertEquals(0, store.size());
+		assertEquals(0, store.getVariableCount());
+
+		entry = new ConstraintCache.Entry(new Object[] { "a", "b" }, 2);
+		entry.preprocessing = true;
+		entry.units.add(new Literal("a", true));
+		entry.units.add(new Literal("a", false));
+		try {
+			entry.apply(store, pp);
+			fail();
+		} catch (InvalidObjectException e) {
+		}
+		assertEquals(0, store.getVariableCount());
+		assertTrue(pp.getUnits().isEmpty());
+	}
+
+	@Test
+	public void testConfigurationFromBindings() throws IOException {
+		Injector injector = Guice.createInjector(new Bindings(100, true, directory.getPath()));
+		String configuration = ConstraintCache.configuration(injector);
+		assertTrue(configuration.contains(CommunicationLearn.class.getName() + ".timeout=100;"));
+		assertTrue(configuration.contains(
+				CommunicationLearn.class.getName() + "=" + OtherCommunicationLearn.class.getName() + ";"));
+		assertTrue(configuration.contains(
+				SpecificationConstraints.class.getName() + "=" + SpecificationElementsConstraints.class.getName()));
+		// the directory does not change the constraints
+		assertFalse(configuration.contains(directory.getPath()));
+		assertEquals(configuration,
+				ConstraintCache.configuration(Guice.createInjector(new Bindings(100, true, "other"))));
+		// the number of threads does not change the constraints
+		assertEquals(configuration,
+				ConstraintCache.configuration(Guice.createInjector(new Bindings(100, true, directory.getPath(), 4))));
+
+		assertFalse(configuration
+				.equals(ConstraintCache.configuration(Guice.createInjector(new Bindings(200, true, "")))));
+		assertFalse(configuration
+				.equals(ConstraintCache.configuration(Guice.createInjector(new Bindings(100, false, "")))));
+
+		// the injected cache uses the configuration in the key
+		ConstraintCache cache = injector.getInstance(ConstraintCache.class);
+		ConstraintCache other = Guice.createInjector(new Bindings(200, true, directory.getPath()))
+				.getInstance(ConstraintCache.class);
+		assertEquals(directory, cache.getDirectory());
+		Specification specification = EncodingTest.createSpecification(4, 2);
+		assertFalse(cache.key(specification, "").equals(other.key(specification, "")));
+	}
+
+	@Test
+	public void testDisabled() {
+		SATConstraints constraints = new SATConstraints(
+				new SpecificationWrapperInstance(EncodingTest.createSpecification(12, 4)),
+				new CountingEncoding(EncodingTest.createSpecification(12, 4)), true);
+		constraints.setConstraintCache(new ConstraintCache());
+		constraints.init();
+		assertEquals(1, calls(constraints));
+		assertEquals(0, directory.listFiles().length);
+	}
+
+}
@@ -0,0 +1,113 @@
+package net.sf.opendse.optimization;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.opt4j.core.Objective;
+import org.opt4j.core.Objectives;
+import org.opt4j.satdecoding.Model;
+
+public class DecodingCacheTest {
+
+	protected static final Objective OBJECTIVE = new Objective("o");
+	protected static final Objective OTHER = new Objective("other");
+
+	protected static Model model(boolean... values) {
+		Model model = new Model();
+		for (int i = 0; i < values.length; i++) {
+			model.set("v" + i, values[i]);
+		}
+		return model;
+	}
+
+	protected static List<Object> variables(int n) {
+		Object[] variables = new Object[n];
+		for (int i = 0; i < n; i++) {
+			variables[i] = "v" + i;
+		}
+		return Arrays.asList(variables);
+	}
+
+	@Test
+	public void testKey() {
+		List<Object> variables = variables(70);
+		boolean[] values = new boolean[70];
+		values[3] = true;
+		values[69] = true;
+		DecodingCache.Key k1 = DecodingCache.key(model(values), variables);
+		DecodingCache.Key k2 = DecodingCache.key(model(values), variables);
+		values[69] = false;
+		DecodingCache.Key k3 = DecodingCache.key(model(values), variables);
+
+		assertEquals(k1, k2);
+		assertEquals(k1.hashCode(), k2.hashCode());
+		assertNotEquals(k1, k3);
+	}
+
+	@Test
+	public void testParameterKey() {
+		List<Object> variables = variables(2);
+		DecodingCache.Key model = DecodingCache.key(model(true, false), variables);
+		Map<String, Object> parameters = new HashMap<String, Object>();
+		parameters.put("p", 1.0);
+		DecodingCache.Key k1 = DecodingCache.key(model, parameters);
+		DecodingCache.Key k2 = DecodingCache.key(DecodingCache.key(model(true, false), variables), parameters);
+		parameters.put("p", 2.0);
+		DecodingCache.Key k3 = DecodingCache.key(model, parameters);
+
+		assertEquals(k1, k2);
+		assertEquals(k1.hashCode(), k2.hashCode());
+		assertNotEquals(k1, k3);
+		assertNotEquals(model, k1);
+	}
+
+	@Test
+	public void testEviction() {
+		List<Object> variables = variables(2);
+		DecodingCache cache = new DecodingCache(2);
+		DecodingCache.Key k0 = DecodingCache.key(model(false, false), variables);
+		DecodingCache.Key k1 = DecodingCache.key(model(true, false), variables);
+		DecodingCache.Key k2 = DecodingCache.key(model(false, true), variables);
+		Objectives o0 = new Objectives();
+		o0.add(OBJECTIVE, 0);
+
+		cache.put(k0, o0);
+		cache.put(k1, new Objectives());
+		assertEquals(0, cache.get(k0).get(OBJECTIVE).getDouble(), 0.0);
+		cache.put(k2, new Objectives());
+
+		assertEquals(2, cache.size());
+		assertNotNull(cache.get(k0));
+		assertNull(cache.get(k1));
+		assertEquals(2, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void testCopies() {
+		DecodingCache cache = new DecodingCache(2);
+		DecodingCache.Key key = DecodingCache.key(model(true), variables(1));
+		Objectives objectives = new Objectives();
+		objectives.add(OBJECTIVE, 1);
+		cache.put(key, objectives);
+		objectives.add(OTHER, 2);
+
+		Objectives cached = cache.get(key);
+		assertNotSame(objectives, cached);
+		assertEquals(1, cached.get(OBJECTIVE).getDouble(), 0.0);
+		assertNull(cached.get(OTHER));
+		cached.add(OTHER, 3);
+		assertNull(cache.get(key).get(OTHER));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSize() {
+		new DecodingCache(0);
+	}
+
+}
@@ -0,0 +1,184 @@
+package net.sf.opendse.optimization;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.opt4j.core.Genotype;
+import org.opt4j.core.Objective;
+import org.opt4j.core.Objectives;
+import org.opt4j.core.common.random.Rand;
+import org.opt4j.core.genotype.CompositeGenotype;
+import org.opt4j.core.optimizer.Control;
+import org.opt4j.satdecoding.Model;
+import org.opt4j.satdecoding.SATManager;
+
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.ParameterReference;
+import net.sf.opendse.optimization.encoding.Interpreter;
+
+public class DesignSpaceExplorationDecoderTest {
+
+	protected static final Objective COST = new Objective("cost");
+
+	protected static class CountingEvaluator implements ImplementationEvaluator {
+
+		protected int calls = 0;
+
+		@Override
+		public Specification evaluate(Specification implementation, Objectives objectives) {
+			calls++;
+			Task task = implementation.getApplication().getVertex("t");
+			objectives.add(COST, (Double) task.getAttribute("value"));
+			task.setAttribute("evaluated", calls);
+			return null;
+		}
+
+		@Override
+		public int getPriority() {
+			return 0;
+		}
+	}
+
+	protected final Map<Genotype, Model> models = new HashMap<Genotype, Model>();
+	protected SATCreatorDecoder satDecoder;
+	protected ParameterDecoder parameterDecoder;
+	protected DesignSpaceExplorationDecoder decoder;
+	protected CountingEvaluator countingEvaluator;
+	protected DesignSpaceExplorationEvaluator evaluator;
+
+	protected static Specification specification() {
+		Specification specification = DesignSpaceExplorationEvaluatorTest.specification();
+		specification.getApplication().addVertex(new Task("t"));
+		return specification;
+	}
+
+	@Before
+	public void createDecoder() {
+		SATConstraints constraints = mock(SATConstraints.class);
+		when(constraints.getVariables()).thenReturn(Arrays.<Object> asList("a", "b"));
+		Interpreter interpreter = mock(Interpreter.class);
+		when(interpreter.toImplementation(any(Specification.class), Matchers.<Model> any()))
+				.thenAnswer(new Answer<Specification>() {
+					@Override
+					public Specification answer(InvocationOnMock invocation) {
+						return specification();
+					}
+				});
+		SpecificationWrapper specificationWrapper = mock(SpecificationWrapper.class);
+		when(specificationWrapper.getSpecification()).thenReturn(specification());
+
+		satDecoder = new SATCreatorDecoder(mock(VariableClassOrder.class), mock(SATManager.class), mock(Rand.class),
+				constraints, specificationWrapper, interpreter, mock(Control.class), true) {
+			@Override
+			public ImplementationWrapper decode(Genotype genotype) {
+				return convertModel(models.get(genotype));
+			}
+		};
+		satDecoder.setCacheSize(10);
+		parameterDecoder = mock(ParameterDecoder.class);
+		decoder = new DesignSpaceExplorationDecoder(satDecoder, parameterDecoder, specificationWrapper);
+
+		countingEvaluator = new CountingEvaluator();
+		evaluator = DesignSpaceExplorationEvaluatorTest.evaluator(1, countingEvaluator);
+	}
+
+	@SuppressWarnings("unchecked")
+	protected CompositeGenotype<String, Genotype> genotype(boolean a, boolean b, double value) {
+		Model model = new Model();
+		model.set("a", a);
+		model.set("b", b);
+		Genotype sat = mock(Genotype.class);
+		models.put(sat, model);
+
+		CompositeGenotype<String, Genotype> parameters = mock(CompositeGenotype.class);
+		ParameterMap parameterMap = new ParameterMap();
+		parameterMap.put(new ParameterReference("t", "value", null), value);
+		when(parameterDecoder.decode(parameters)).thenReturn(parameterMap);
+
+		CompositeGenotype<String, Genotype> genotype = mock(CompositeGenotype.class);
+		doReturn(sat).when(genotype).get("SAT");
+		doReturn(parameters).when(genotype).get("PARAMETER");
+		return genotype;
+	}
+
+	protected static double cost(Objectives objectives) {
+		return objectives.get(COST).getDouble();
+	}
+
+	@Test
+	public void testCachedObjectives() {
+		ImplementationWrapper w1 = decoder.decode(genotype(true, false, 1.0));
+		assertEquals(1.0, cost(evaluator.evaluate(w1)), 0.0);
+		assertEquals(1, countingEvaluator.calls);
+
+		// same model and parameters: the objectives are reused
+		ImplementationWrapper w2 = decoder.decode(genotype(true, false, 1.0));
+		assertNotSame(w1, w2);
+		assertNotNull(w2.getObjectives());
+		assertEquals(1.0, cost(evaluator.evaluate(w2)), 0.0);
+		assertEquals(1, countingEvaluator.calls);
+
+		// same model, different parameters
+		ImplementationWrapper w3 = decoder.decode(genotype(true, false, 2.0));
+		assertNull(w3.getObjectives());
+		assertEquals(2.0, cost(evaluator.evaluate(w3)), 0.0);
+		assertEquals(2, countingEvaluator.calls);
+
+		// different model, same parameters
+		ImplementationWrapper w4 = decoder.decode(genotype(false, false, 1.0));
+		assertNull(w4.getObjectives());
+
+		DecodingCache cache = satDecoder.getCache();
+		assertEquals(1, cache.getHits());
+		assertEquals(3, cache.getMisses());
+	}
+
+	@Test
+	public void testImplementationsAreNotShared() {
+		ImplementationWrapper w1 = decoder.decode(genotype(true, false, 1.0));
+		evaluator.evaluate(w1);
+		ImplementationWrapper w2 = decoder.decode(genotype(true, false, 1.0));
+		evaluator.evaluate(w2);
+		assertNotSame(w1.getObjectives(), w2.getObjectives());
+
+		Specification i1 = w1.getImplementation();
+		Specification i2 = w2.getImplementation();
+		assertNotSame(i1, i2);
+		assertEquals(1.0, (Double) i2.getApplication().getVertex("t").getAttribute("value"), 0.0);
+		assertEquals(1.0, (Double) i2.getAttribute("cost:OBJECTIVE"), 0.0);
+
+		i1.getApplication().getVertex("t").setAttribute("value", 3.0);
+		assertEquals(1.0, (Double) i2.getApplication().getVertex("t").getAttribute("value"), 0.0);
+	}
+
+	@Test
+	public void testCachedImplementationDiscardsEvaluatorChanges() {
+		ImplementationWrapper w1 = decoder.decode(genotype(true, false, 1.0));
+		evaluator.evaluate(w1);
+		assertEquals(1, (int) w1.getImplementation().getApplication().getVertex("t").<Integer> getAttribute("evaluated"));
+
+		// a hit rebuilds the implementation with the objective attributes only
+		ImplementationWrapper w2 = decoder.decode(genotype(true, false, 1.0));
+		evaluator.evaluate(w2);
+		assertEquals(1, countingEvaluator.calls);
+		assertFalse(w2.isMaterialized());
+		Specification i2 = w2.getImplementation();
+		assertEquals(1.0, (Double) i2.getAttribute("cost:OBJECTIVE"), 0.0);
+		assertEquals(1.0, (Double) i2.getApplication().getVertex("t").getAttribute("value"), 0.0);
+		assertNull(i2.getApplication().getVertex("t").getAttribute("evaluated"));
+	}
+
+}
@@ -0,0 +1,238 @@
+package net.sf.opendse.optimization;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.opt4j.core.Objective;
+import org.opt4j.core.Objective.Sign;
+import org.opt4j.core.Objectives;
+
+import com.google.inject.Provider;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+
+public class DesignSpaceExplorationEvaluatorTest {
+
+	protected static final Provider<Objectives> provider = new Provider<Objectives>() {
+		@Override
+		public Objectives get() {
+			return new Objectives();
+		}
+	};
+
+	protected static Specification specification() {
+		return new Specification(new Application<Task, Dependency>(), new Architecture<Resource, Link>(),
+				new Mappings<Task, Resource>());
+	}
+
+	protected static class TestEvaluator implements ImplementationEvaluator {
+
+		protected final String name;
+		protected final int priority;
+		protected final Specification result;
+		protected final CyclicBarrier barrier;
+
+		protected TestEvaluator(String name, int priority, Specification result, CyclicBarrier barrier) {
+			this.name = name;
+			this.priority = priority;
+			this.result = result;
+			this.barrier = barrier;
+		}
+
+		@Override
+		public Specification evaluate(Specification implementation, Objectives objectives) {
+			if (barrier != null) {
+				try {
+					barrier.await(5, TimeUnit.SECONDS);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+			objectives.add(new Objective(name, Sign.MIN), priority);
+			return result;
+		}
+
+		@Override
+		public int getPriority() {
+			return priority;
+		}
+	}
+
+	protected static class TestBatchEvaluator extends TestEvaluator implements BatchImplementationEvaluator {
+
+		protected int batches = 0;
+
+		protected TestBatchEvaluator(String name, int priority) {
+			super(name, priority, null, null);
+		}
+
+		@Override
+		public List<Specification> evaluate(List<Specification> implementations, List<Objectives> objectives) {
+			batches++;
+			for (int i = 0; i < implementations.size(); i++) {
+				objectives.get(i).add(new Objective(name, Sign.MIN), i);
+			}
+			return null;
+		}
+	}
+
+	protected static DesignSpaceExplorationEvaluator evaluator(int threads, ImplementationEvaluator... evaluators) {
+		DesignSpaceExplorationEvaluator evaluator = new DesignSpaceExplorationEvaluator(
+				new HashSet<ImplementationEvaluator>(Arrays.asList(evaluators)), provider);
+		evaluator.setThreads(threads);
+		return evaluator;
+	}
+
+	@Test
+	public void testSequential() {
+		Specification replaced = specification();
+		DesignSpaceExplorationEvaluator evaluator = evaluator(1, new TestEvaluator("a", 0, replaced, null),
+				new TestEvaluator("b", 1, null, null));
+		ImplementationWrapper wrapper = new ImplementationWrapper(specification());
+
+		Objectives objectives = evaluator.evaluate(wrapper);
+
+		assertEquals(2, objectives.size());
+		assertSame(replaced, wrapper.getImplementation());
+		assertEquals(0, replaced.<Integer> getAttribute("a:OBJECTIVE").intValue());
+		assertEquals(1, replaced.<Integer> getAttribute("b:OBJECTIVE").intValue());
+		assertSame(objectives, wrapper.getObjectives());
+	}
+
+	@Test
+	public void testConcurrentLevel() {
+		CyclicBarrier barrier = new CyclicBarrier(2);
+		TestEvaluator first = new TestEvaluator("energy", 0, null, barrier);
+		TestEvaluator second = new TestEvaluator("cost", 0, null, barrier);
+		TestEvaluator third = new TestEvaluator("latency", 1, null, null);
+		DesignSpaceExplorationEvaluator evaluator = evaluator(2, first, second, third);
+		ImplementationWrapper wrapper = new ImplementationWrapper(specification());
+
+		// the barrier is only passed if both evaluators of level 0 run
+		// concurrently
+		Objectives objectives = evaluator.evaluate(wrapper);
+
+		assertEquals(3, objectives.size());
+		assertNotNull(wrapper.getAttribute("energy:OBJECTIVE"));
+		assertNotNull(wrapper.getAttribute("cost:OBJECTIVE"));
+		assertNotNull(wrapper.getAttribute("latency:OBJECTIVE"));
+		for (ImplementationEvaluator e : Arrays.asList(first, second, third)) {
+			assertEquals(1, evaluator.getTimings().get(e).getEvaluations());
+		}
+	}
+
+	@Test
+	public void testConcurrentMerge() {
+		Specification s1 = specification();
+		Specification s2 = specification();
+		DesignSpaceExplorationEvaluator evaluator = evaluator(2, new TestEvaluator("a", 0, s1, null),
+				new TestEvaluator("b", 0, null, null));
+		ImplementationWrapper wrapper = new ImplementationWrapper(specification());
+
+		evaluator.evaluate(wrapper);
+		assertSame(s1, wrapper.getImplementation());
+		assertNotNull(s1.getAttribute("b:OBJECTIVE"));
+
+		assertSame(s2, evaluator.merge(Arrays.asList(s1, null, s2)));
+		assertNull(evaluator.merge(Arrays.<Specification> asList(null, null)));
+	}
+
+	@Test
+	public void testShutdownWhenStopped() {
+		DesignSpaceExplorationEvaluator evaluator = evaluator(2, new TestEvaluator("a", 0, null, null),
+				new TestEvaluator("b", 0, null, null));
+		evaluator.evaluate(new ImplementationWrapper(specification()));
+		ExecutorService executor = evaluator.executor;
+		assertNotNull(executor);
+
+		evaluator.optimizationStopped(null);
+		assertTrue(executor.isShutdown());
+		assertNull(evaluator.executor);
+
+		// a new executor is created on demand
+		assertEquals(2, evaluator.evaluate(new ImplementationWrapper(specification())).size());
+		evaluator.optimizationStopped(null);
+	}
+
+	@Test
+	public void testCached() {
+		DesignSpaceExplorationEvaluator evaluator = evaluator(1, new TestEvaluator("a", 0, null, null));
+		ImplementationWrapper wrapper = new ImplementationWrapper(specification());
+
+		Objectives objectives = evaluator.evaluate(wrapper);
+		Objectives cached = evaluator.evaluate(wrapper);
+
+		assertNotSame(objectives, cached);
+		assertEquals(1, cached.size());
+		assertEquals(1, evaluator.getTimings().values().iterator().next().getEvaluations());
+	}
+
+	@Test
+	public void testBatch() {
+		TestBatchEvaluator batch = new TestBatchEvaluator("a", 0);
+		Specification replaced = specification();
+		TestEvaluator single = new TestEvaluator("b", 1, replaced, null);
+		DesignSpaceExplorationEvaluator evaluator = evaluator(1, batch, single);
+		assertTrue(evaluator.isBatch());
+		assertFalse(evaluator(1, single).isBatch());
+
+		List<ImplementationWrapper> wrappers = Arrays.asList(new ImplementationWrapper(specification()),
+				new ImplementationWrapper(specification()), new ImplementationWrapper(specification()));
+		List<Objectives> objectives = evaluator.evaluate(wrappers);
+
+		assertEquals(1, batch.batches);
+		assertEquals(3, objectives.size());
+		for (int i = 0; i < wrappers.size(); i++) {
+			ImplementationWrapper wrapper = wrappers.get(i);
+			assertEquals(2, objectives.get(i).size());
+			assertSame(objectives.get(i), wrapper.getObjectives());
+			assertSame(replaced, wrapper.getImplementation());
+		}
+		assertEquals(3, evaluator.getTimings().get(batch).getEvaluations());
+		assertEquals(3, evaluator.getTimings().get(single).getEvaluations());
+
+		// evaluated wrappers are not passed again
+		evaluator.evaluate(wrappers);
+		assertEquals(1, batch.batches);
+	}
+
+	@Test
+	public void testBatchConcurrentLevel() {
+		final CyclicBarrier level = new CyclicBarrier(2);
+		TestEvaluator first = new TestEvaluator("energy", 0, null, level);
+		TestBatchEvaluator second = new TestBatchEvaluator("cost", 0) {
+			@Override
+			public List<Specification> evaluate(List<Specification> implementations, List<Objectives> objectives) {
+				try {
+					level.await(5, TimeUnit.SECONDS);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+				return super.evaluate(implementations, objectives);
+			}
+		};
+		DesignSpaceExplorationEvaluator evaluator = evaluator(2, first, second);
+
+		List<ImplementationWrapper> wrappers = Arrays.asList(new ImplementationWrapper(specification()));
+		List<Objectives> objectives = evaluator.evaluate(wrappers);
+
+		assertEquals(2, objectives.get(0).size());
+		assertNotNull(wrappers.get(0).getAttribute("energy:OBJECTIVE"));
+		assertNotNull(wrappers.get(0).getAttribute("cost:OBJECTIVE"));
+	}
+
+}
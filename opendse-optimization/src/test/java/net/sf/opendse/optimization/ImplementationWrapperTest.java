@@ -0,0 +1,94 @@
+package net.sf.opendse.optimization;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.google.inject.Provider;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+
+public class ImplementationWrapperTest {
+
+	protected static class CountingProvider implements Provider<Specification> {
+		int calls = 0;
+
+		@Override
+		public Specification get() {
+			calls++;
+			return new Specification(new Application<Task, Dependency>(), new Architecture<Resource, Link>(),
+					new Mappings<Task, Resource>());
+		}
+	}
+
+	@Test
+	public void testLazyMaterialization() {
+		CountingProvider provider = new CountingProvider();
+		ImplementationWrapper wrapper = ImplementationWrapper.lazy(provider);
+		assertFalse(wrapper.isMaterialized());
+		assertEquals(0, provider.calls);
+
+		Specification implementation = wrapper.getImplementation();
+		assertTrue(wrapper.isMaterialized());
+		assertSame(implementation, wrapper.getImplementation());
+		assertEquals(1, provider.calls);
+	}
+
+	@Test
+	public void testAttributeOverlay() {
+		CountingProvider provider = new CountingProvider();
+		ImplementationWrapper wrapper = ImplementationWrapper.lazy(provider);
+		wrapper.setAttribute("cost:OBJECTIVE", 3.0);
+		assertEquals(3.0, (Double) wrapper.getAttribute("cost:OBJECTIVE"), 0.0);
+		assertEquals(0, provider.calls);
+
+		Specification implementation = wrapper.getImplementation();
+		assertEquals(3.0, (Double) implementation.getAttribute("cost:OBJECTIVE"), 0.0);
+
+		wrapper.setAttribute("cost:OBJECTIVE", 4.0);
+		assertEquals(4.0, (Double) implementation.getAttribute("cost:OBJECTIVE"), 0.0);
+	}
+
+	@Test
+	public void testChainedProvider() {
+		CountingProvider provider = new CountingProvider();
+		ImplementationWrapper wrapper = ImplementationWrapper.lazy(provider);
+		final Provider<Specification> previous = wrapper.getProvider();
+		wrapper.setProvider(new Provider<Specification>() {
+			@Override
+			public Specification get() {
+				Specification implementation = previous.get();
+				implementation.setAttribute("decoded", true);
+				return implementation;
+			}
+		});
+		assertEquals(0, provider.calls);
+
+		assertTrue((Boolean) wrapper.getImplementation().getAttribute("decoded"));
+		assertEquals(1, provider.calls);
+		assertNull(wrapper.getProvider());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testSetProviderMaterialized() {
+		ImplementationWrapper wrapper = ImplementationWrapper.lazy(new CountingProvider());
+		wrapper.getImplementation();
+		wrapper.setProvider(new CountingProvider());
+	}
+
+	@Test
+	public void testInfeasible() {
+		ImplementationWrapper wrapper = new ImplementationWrapper(null);
+		assertTrue(wrapper.isMaterialized());
+		wrapper.setAttribute("cost:OBJECTIVE", 3.0);
+		assertNull(wrapper.getImplementation());
+		assertNull(wrapper.getAttribute("cost:OBJECTIVE"));
+	}
+}
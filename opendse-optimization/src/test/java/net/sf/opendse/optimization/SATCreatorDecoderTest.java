@@ -2,14 +2,23 @@ package net.sf.opendse.optimization;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Test;
+import org.mockito.Matchers;
 import org.opt4j.core.common.random.Rand;
 import org.opt4j.core.optimizer.Control;
+import org.opt4j.satdecoding.Model;
 import org.opt4j.satdecoding.SATManager;
 
 import net.sf.opendse.optimization.encoding.Interpreter;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 
 public class SATCreatorDecoderTest {
@@ -26,6 +35,54 @@ public class SATCreatorDecoderTest {
 		return result;
 	}
 	
+	@Test
+	public void testDecodingCache() {
+		VariableClassOrder order = mock(VariableClassOrder.class);
+		SATManager manager = mock(SATManager.class);
+		Rand random = mock(Rand.class);
+		SATConstraints constraints = mock(SATConstraints.class);
+		SpecificationWrapper specificationWrapper = mock(SpecificationWrapper.class);
+		Interpreter interpreter = mock(Interpreter.class);
+		Control control = mock(Control.class);
+		List<Object> variables = Arrays.<Object> asList("a", "b");
+		when(constraints.getVariables()).thenReturn(variables);
+		SATCreatorDecoder decoder = new SATCreatorDecoder(order, manager, random, constraints, specificationWrapper,
+				interpreter, control, true);
+		decoder.setCacheSize(10);
+
+		Model m1 = new Model();
+		m1.set("a", true);
+		m1.set("b", false);
+		Model m2 = new Model();
+		m2.set("a", true);
+		m2.set("b", false);
+		Model m3 = new Model();
+		m3.set("a", false);
+		m3.set("b", false);
+
+		// each model gets its own wrapper with the key of the model
+		ImplementationWrapper w1 = decoder.convertModel(m1);
+		ImplementationWrapper w2 = decoder.convertModel(m2);
+		ImplementationWrapper w3 = decoder.convertModel(m3);
+		assertNotSame(w1, w2);
+		assertEquals(w1.getKey(), w2.getKey());
+		assertNotEquals(w1.getKey(), w3.getKey());
+		assertEquals(0, decoder.getCache().size());
+
+		// the model is only decorated once the implementation is requested
+		verify(constraints, never()).decorate(Matchers.<Model> any());
+		w1.getImplementation();
+		verify(constraints, times(1)).decorate(m1);
+	}
+
+	@Test
+	public void testDecodingCacheDisabled() {
+		SATCreatorDecoder decoder = getObject();
+		assertNull(decoder.getCache());
+		decoder.setCacheSize(0);
+		assertNull(decoder.getCache());
+	}
+
 	@Test
 	public void testBoundsDefault() {
 		// default case: only object is in the list
@@ -0,0 +1,92 @@
+package net.sf.opendse.optimization.encoding;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Literal;
+
+import net.sf.opendse.model.ICommunication;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.optimization.encoding.Encoding.RoutingEncoding;
+import net.sf.opendse.optimization.encoding.variables.CommunicationVariable;
+
+public class CommunicationLearnTest {
+
+	protected static List<Constraint> createConstraints() {
+		Specification specification = EncodingTest.createSpecification(20, 4);
+		return EncodingTest.createEncoding(specification, RoutingEncoding.FLOW, 1).toConstraints();
+	}
+
+	@Test
+	public void testParallelEquivalence() {
+		List<Constraint> constraints = createConstraints();
+		CommunicationLearn sequential = new CommunicationLearn();
+		Set<Literal> expected = sequential.learn(constraints);
+		assertFalse(expected.isEmpty());
+
+		CommunicationLearn parallel = new CommunicationLearn();
+		parallel.setThreads(3);
+		assertEquals(expected, parallel.learn(constraints));
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		CommunicationLearn external = new CommunicationLearn(executor, 0, 0);
+		assertEquals(expected, external.learn(constraints));
+		assertFalse(executor.isShutdown());
+		executor.shutdown();
+
+		assertEquals(19, parallel.getTimings().size());
+		assertTrue(parallel.getIncomplete().isEmpty());
+	}
+
+	@Test
+	public void testPartialResultsKept() {
+		List<Constraint> constraints = createConstraints();
+		Set<Literal> expected = new CommunicationLearn().learn(constraints);
+
+		final Set<ICommunication> expired = new HashSet<ICommunication>();
+		CommunicationLearn learn = new CommunicationLearn() {
+			@Override
+			protected Set<Literal> learn(ICommunication communication, Map<Object, Set<Constraint>> map,
+					Set<CommunicationVariable> communicationVariables, long deadline) {
+				if (expired.isEmpty()) {
+					expired.add(communication);
+					// simulates a search that exceeds its time
+					return super.learn(communication, map, communicationVariables, 0);
+				}
+				return super.learn(communication, map, communicationVariables, deadline);
+			}
+		};
+		learn.setThreads(2);
+		Set<Literal> learned = learn.learn(constraints);
+
+		assertEquals(expired, learn.getIncomplete());
+		assertTrue(expected.containsAll(learned));
+		for (Literal literal : expected) {
+			CommunicationVariable var = (CommunicationVariable) literal.variable();
+			assertEquals(!expired.contains(var.getCommunication()), learned.contains(literal));
+		}
+	}
+
+	@Test
+	public void testBudgetExhausted() {
+		CommunicationLearn learn = new CommunicationLearn();
+		learn.setBudget(1);
+		learn.setTimeout(1);
+		List<Constraint> constraints = createConstraints();
+		Set<Literal> learned = learn.learn(constraints);
+		assertTrue(new CommunicationLearn().learn(constraints).containsAll(learned));
+		// every communication was either searched or skipped
+		Set<ICommunication> communications = new HashSet<ICommunication>(learn.getTimings().keySet());
+		communications.addAll(learn.getIncomplete());
+		assertEquals(19, communications.size());
+	}
+
+}
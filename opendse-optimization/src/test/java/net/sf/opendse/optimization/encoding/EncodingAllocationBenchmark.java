@@ -0,0 +1,49 @@
+package net.sf.opendse.optimization.encoding;
+
+import java.lang.management.ManagementFactory;
+
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.optimization.encoding.Encoding.RoutingEncoding;
+
+/**
+ * The {@code EncodingAllocationBenchmark} measures the heap allocated by the
+ * sequential {@link Encoding#toConstraints()} and the allocation rate for
+ * specifications with an increasing number of messages. The routing
+ * constraints iterate the cached directed links of each routing (see
+ * {@link net.sf.opendse.model.Models#getOutLinks}).
+ * 
+ */
+public class EncodingAllocationBenchmark {
+
+	protected static final int RUNS = 3;
+
+	public static void main(String[] args) {
+		int[] sizes = { 500, 1000, 2000 };
+
+		// warm-up
+		run(EncodingTest.createSpecification(sizes[0], 8));
+
+		System.out.println("messages\tms\tMB allocated\tMB/s");
+		for (int size : sizes) {
+			Specification specification = EncodingTest.createSpecification(size + 1, 8);
+			double[] result = run(specification);
+			System.out.printf("%d\t%.1f\t%.1f\t%.1f%n", size, result[0], result[1], result[1] / result[0] * 1000);
+		}
+	}
+
+	protected static double[] run(Specification specification) {
+		com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		long time = Long.MAX_VALUE;
+		long allocated = Long.MAX_VALUE;
+		for (int i = 0; i < RUNS; i++) {
+			long bytes = bean.getThreadAllocatedBytes(thread);
+			long start = System.nanoTime();
+			EncodingTest.createEncoding(specification, RoutingEncoding.FLOW, 1).toConstraints();
+			time = Math.min(time, System.nanoTime() - start);
+			allocated = Math.min(allocated, bean.getThreadAllocatedBytes(thread) - bytes);
+		}
+		return new double[] { time / 1e6, allocated / (1024.0 * 1024.0) };
+	}
+
+}
@@ -0,0 +1,50 @@
+package net.sf.opendse.optimization.encoding;
+
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.optimization.encoding.Encoding.RoutingEncoding;
+
+/**
+ * The {@code EncodingBenchmark} compares the time of the sequential and the
+ * parallel {@link Encoding#toConstraints()} for specifications with an
+ * increasing number of messages.
+ * 
+ */
+public class EncodingBenchmark {
+
+	protected static final int RUNS = 3;
+
+	public static void main(String[] args) {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		int[] sizes = { 500, 1000, 2000, 4000 };
+
+		// warm-up
+		run(EncodingTest.createSpecification(sizes[0], 8), threads);
+
+		System.out.println("messages\tms/sequential\tms/parallel(" + threads + ")\tspeedup");
+		for (int size : sizes) {
+			Specification specification = EncodingTest.createSpecification(size + 1, 8);
+			double[] result = run(specification, threads);
+			System.out.printf("%d\t%.1f\t%.1f\t%.2f%n", size, result[0], result[1], result[0] / result[1]);
+		}
+	}
+
+	protected static double[] run(Specification specification, int threads) {
+		long sequential = Long.MAX_VALUE;
+		long parallel = Long.MAX_VALUE;
+		for (int i = 0; i < RUNS; i++) {
+			long start = System.nanoTime();
+			int n0 = EncodingTest.createEncoding(specification, RoutingEncoding.FLOW, 1).toConstraints().size();
+			sequential = Math.min(sequential, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			int n1 = EncodingTest.createEncoding(specification, RoutingEncoding.FLOW, threads).toConstraints().size();
+			parallel = Math.min(parallel, System.nanoTime() - start);
+
+			if (n0 != n1) {
+				throw new IllegalStateException("Different number of constraints.");
+			}
+		}
+		return new double[] { sequential / 1e6, parallel / 1e6 };
+	}
+
+}
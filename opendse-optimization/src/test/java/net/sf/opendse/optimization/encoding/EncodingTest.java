@@ -0,0 +1,157 @@
+package net.sf.opendse.optimization.encoding;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Literal;
+import org.opt4j.satdecoding.Term;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.SpecificationWrapper;
+import net.sf.opendse.optimization.constraints.SpecificationConstraints;
+import net.sf.opendse.optimization.encoding.Encoding.RoutingEncoding;
+import net.sf.opendse.optimization.encoding.variables.LiteralCache;
+
+public class EncodingTest {
+
+	/**
+	 * Creates a specification with a chain of processes that communicate via
+	 * messages over a ring of resources. Every fifth message is a multicast.
+	 * 
+	 * @param processes
+	 *            the number of processes
+	 * @param resources
+	 *            the number of resources
+	 * @return the specification
+	 */
+	public static Specification createSpecification(int processes, int resources) {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		for (int i = 0; i < resources; i++) {
+			architecture.addVertex(new Resource("r" + i));
+		}
+		for (int i = 0; i < resources; i++) {
+			architecture.addEdge(new Link("l" + i), architecture.getVertex("r" + i),
+					architecture.getVertex("r" + ((i + 1) % resources)));
+		}
+
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		for (int i = 0; i < processes; i++) {
+			Task task = new Task("t" + i);
+			application.addVertex(task);
+			for (int j = 0; j < 2; j++) {
+				Resource resource = architecture.getVertex("r" + ((i + j * 3) % resources));
+				mappings.add(new Mapping<Task, Resource>("m" + i + "_" + j, task, resource));
+			}
+		}
+		for (int i = 0; i + 1 < processes; i++) {
+			Communication c = new Communication("c" + i);
+			application.addEdge(new Dependency("d" + i), application.getVertex("t" + i), c);
+			application.addEdge(new Dependency("d" + i + "_0"), c, application.getVertex("t" + (i + 1)));
+			if (i % 5 == 0 && i + 2 < processes) {
+				application.addEdge(new Dependency("d" + i + "_1"), c, application.getVertex("t" + (i + 2)));
+			}
+		}
+		return new Specification(application, architecture, mappings);
+	}
+
+	public static Encoding createEncoding(Specification specification, RoutingEncoding routingEncoding,
+			int threads) {
+		SpecificationWrapper wrapper = mock(SpecificationWrapper.class);
+		when(wrapper.getSpecification()).thenReturn(specification);
+		Encoding encoding = new Encoding(mock(SpecificationConstraints.class), routingEncoding, wrapper);
+		encoding.setThreads(threads);
+		return encoding;
+	}
+
+	protected static List<String> toSortedStrings(List<Constraint> constraints) {
+		List<String> result = new ArrayList<String>();
+		for (Constraint constraint : constraints) {
+			result.add(constraint.toString());
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	protected void testEquivalence(RoutingEncoding routingEncoding) {
+		Specification specification = createSpecification(60, 6);
+		List<Constraint> sequential = createEncoding(specification, routingEncoding, 1).toConstraints();
+		List<Constraint> parallel = createEncoding(specification, routingEncoding, 4).toConstraints();
+		assertFalse(sequential.isEmpty());
+		assertEquals(toSortedStrings(sequential), toSortedStrings(parallel));
+	}
+
+	@Test
+	public void testParallelEquivalenceFlow() {
+		testEquivalence(RoutingEncoding.FLOW);
+	}
+
+	@Test
+	public void testParallelEquivalenceHop() {
+		testEquivalence(RoutingEncoding.HOP);
+	}
+
+	@Test
+	public void testParallelDeterministic() {
+		Specification specification = createSpecification(60, 6);
+		List<Constraint> c0 = createEncoding(specification, RoutingEncoding.FLOW, 2).toConstraints();
+		List<Constraint> c1 = createEncoding(specification, RoutingEncoding.FLOW, 4).toConstraints();
+		assertEquals(c0.toString(), c1.toString());
+	}
+
+	@Test
+	public void testParallelMissingElements() {
+		Specification specification = createSpecification(30, 6);
+		// a resource without mappings and a communication without routing
+		Resource unmapped = new Resource("rx");
+		specification.getArchitecture().addEdge(new Link("lx"), specification.getArchitecture().getVertex("r0"),
+				unmapped);
+		Task c0 = specification.getApplication().getVertex("c0");
+		specification.getRoutings().remove(c0);
+
+		List<Constraint> parallel = createEncoding(specification, RoutingEncoding.FLOW, 4).toConstraints();
+		assertTrue(specification.getRoutings().getTasks().contains(c0));
+		assertTrue(specification.getMappings().get(unmapped).isEmpty());
+		List<Constraint> sequential = createEncoding(specification, RoutingEncoding.FLOW, 1).toConstraints();
+		assertEquals(toSortedStrings(sequential), toSortedStrings(parallel));
+	}
+
+	@Test
+	public void testParallelUsesActiveLiteralCache() {
+		Specification specification = createSpecification(20, 4);
+		LiteralCache cache = new LiteralCache();
+		LiteralCache previous = cache.activate();
+		List<Constraint> constraints;
+		try {
+			constraints = createEncoding(specification, RoutingEncoding.FLOW, 3).toConstraints();
+		} finally {
+			LiteralCache.restore(previous);
+		}
+		Map<Literal, Literal> unique = new IdentityHashMap<Literal, Literal>();
+		for (Constraint constraint : constraints) {
+			for (Term term : constraint) {
+				unique.put(term.getLiteral(), term.getLiteral());
+			}
+		}
+		assertEquals(cache.size(), unique.size());
+	}
+
+}
@@ -0,0 +1,67 @@
+package net.sf.opendse.optimization.encoding.common;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Literal;
+import org.opt4j.satdecoding.Model;
+import org.opt4j.satdecoding.TimeoutException;
+
+public class BinaryReachabilityTest {
+
+	protected static Set<Constraint> createConstraints() {
+		// a implies b
+		Constraint constraint = new Constraint(">=", 1);
+		constraint.add(new Literal("a", false));
+		constraint.add(new Literal("b", true));
+		return new HashSet<Constraint>(Arrays.asList(constraint));
+	}
+
+	protected static Set<Literal> createLiterals() {
+		return new HashSet<Literal>(Arrays.asList(new Literal("a", true), new Literal("a", false)));
+	}
+
+	@Test
+	public void testSearch() {
+		Set<Literal> learned = new BinaryReachability().search(createConstraints(), createLiterals(),
+				System.currentTimeMillis() + 60000);
+		assertNotNull(learned);
+		assertTrue(learned.isEmpty());
+	}
+
+	@Test
+	public void testSolverCallTimeout() {
+		BinaryReachability binaryReachability = new BinaryReachability() {
+			@Override
+			protected Model solve() throws TimeoutException {
+				try {
+					Thread.sleep(10000);
+				} catch (InterruptedException e) {
+					throw new TimeoutException();
+				}
+				return super.solve();
+			}
+		};
+		long start = System.currentTimeMillis();
+		Set<Literal> learned = binaryReachability.search(createConstraints(), createLiterals(), start + 100);
+		assertNull(learned);
+		assertTrue(System.currentTimeMillis() - start < 5000);
+	}
+
+	@Test
+	public void testSolverTimeoutIsIncomplete() {
+		BinaryReachability binaryReachability = new BinaryReachability() {
+			@Override
+			protected Model solve() throws TimeoutException {
+				throw new TimeoutException();
+			}
+		};
+		assertNull(binaryReachability.search(createConstraints(), createLiterals()));
+	}
+
+}
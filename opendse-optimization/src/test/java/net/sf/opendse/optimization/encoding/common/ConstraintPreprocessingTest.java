@@ -0,0 +1,170 @@
+package net.sf.opendse.optimization.encoding.common;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Literal;
+import org.opt4j.satdecoding.Model;
+import org.opt4j.satdecoding.Term;
+
+public class ConstraintPreprocessingTest {
+
+	protected static Literal p(String var) {
+		return new Literal(var, true);
+	}
+
+	protected static Literal n(String var) {
+		return new Literal(var, false);
+	}
+
+	protected static Constraint ge(int rhs, Literal... literals) {
+		Constraint constraint = new Constraint(">=", rhs);
+		for (Literal literal : literals) {
+			constraint.add(literal);
+		}
+		return constraint;
+	}
+
+	protected static List<Constraint> createConstraints() {
+		List<Constraint> constraints = new ArrayList<Constraint>();
+		constraints.add(ge(1, p("a")));
+		constraints.add(ge(1, n("a"), p("b")));
+		constraints.add(ge(1, p("x"), n("y")));
+		constraints.add(ge(1, n("x"), p("y")));
+		constraints.add(ge(2, p("x"), p("z"), p("w")));
+		constraints.add(ge(1, n("b"), p("y"), p("z")));
+		return constraints;
+	}
+
+	protected static List<Constraint> copy(Collection<Constraint> constraints) {
+		List<Constraint> list = new ArrayList<Constraint>();
+		for (Constraint constraint : constraints) {
+			list.add(constraint.copy());
+		}
+		return list;
+	}
+
+	protected static boolean isSatisfied(Constraint constraint, Model model) {
+		int sum = 0;
+		for (Term term : constraint) {
+			Literal literal = term.getLiteral();
+			Boolean value = model.get(literal.variable());
+			if (value != null && value == literal.phase()) {
+				sum += term.getCoefficient();
+			}
+		}
+		return sum >= constraint.getRhs();
+	}
+
+	@Test
+	public void testUnitsAndEqualities() {
+		ConstraintPreprocessing pp = new ConstraintPreprocessing(true, true, null, null, false);
+		pp.process(copy(createConstraints()));
+
+		assertTrue(pp.getUnits().containsAll(Arrays.asList(p("a"), p("b"))));
+		assertEquals(2, pp.getUnits().size());
+		assertEquals(1, pp.equalities.size());
+	}
+
+	@Test
+	public void testModelsSatisfyOriginalConstraints() {
+		List<Constraint> original = createConstraints();
+		ConstraintPreprocessing pp = new ConstraintPreprocessing(true, true, null, null, false);
+		Collection<Constraint> processed = pp.process(copy(original));
+
+		List<Object> vars = new ArrayList<Object>();
+		for (Constraint constraint : processed) {
+			for (Literal literal : constraint.getLiterals()) {
+				if (!vars.contains(literal.variable())) {
+					vars.add(literal.variable());
+				}
+			}
+		}
+
+		int solutions = 0;
+		for (int i = 0; i < (1 << vars.size()); i++) {
+			Model model = new Model();
+			for (int j = 0; j < vars.size(); j++) {
+				model.set(vars.get(j), (i & (1 << j)) != 0);
+			}
+			boolean satisfied = true;
+			for (Constraint constraint : processed) {
+				satisfied &= isSatisfied(constraint, model);
+			}
+			if (satisfied) {
+				solutions++;
+				Model decorated = pp.decorate(model);
+				for (Constraint constraint : original) {
+					assertTrue(constraint.toString(), isSatisfied(constraint, decorated));
+				}
+			}
+		}
+		assertTrue(solutions > 0);
+	}
+
+	@Test
+	public void testVariablesAfterProcess() {
+		ConstraintPreprocessing pp = new ConstraintPreprocessing(true, true, null, null, false);
+		Collection<Constraint> processed = pp.process(copy(createConstraints()));
+
+		Set<Object> variables = new HashSet<Object>();
+		for (Constraint constraint : processed) {
+			for (Literal literal : constraint.getLiterals()) {
+				variables.add(literal.variable());
+			}
+		}
+		assertFalse(variables.isEmpty());
+		assertEquals(variables, pp.variables());
+
+		// the returned set is a copy
+		pp.variables().clear();
+		assertEquals(variables, pp.variables());
+	}
+
+	@Test
+	public void testStatistics() {
+		ConstraintPreprocessing pp = new ConstraintPreprocessing(true, true, null, null, true);
+		pp.process(copy(createConstraints()));
+		ConstraintPreprocessing.Statistics statistics = pp.getStatistics();
+
+		assertTrue(statistics.getRounds() >= 1);
+		assertTrue(statistics.getExamined() >= 6);
+		assertTrue(statistics.getUnitPropagations() >= 2);
+		assertEquals(1, statistics.getEqualityPropagations());
+		assertEquals(2, statistics.getUnits());
+		assertEquals(1, statistics.getEqualities());
+		assertEquals(6, statistics.getBefore()[0]);
+		assertNotNull(statistics.getAfter());
+		assertTrue(statistics.toString().contains("Units 2 Equalities 1"));
+	}
+
+	@Test
+	public void testStatisticsReset() {
+		ConstraintPreprocessing pp = new ConstraintPreprocessing(true, true, null, null, false);
+		pp.statistics.rounds = 100;
+		pp.statistics.units = 100;
+		pp.statistics.before = new int[3];
+		pp.process(copy(createConstraints()));
+		ConstraintPreprocessing.Statistics statistics = pp.getStatistics();
+
+		assertTrue(statistics.getRounds() < 100);
+		assertEquals(2, statistics.getUnits());
+		assertNull(statistics.getBefore());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testProcessOnce() {
+		ConstraintPreprocessing pp = new ConstraintPreprocessing(true, true, null, null, false);
+		pp.process(copy(createConstraints()));
+		pp.process(copy(createConstraints()));
+	}
+
+}
@@ -0,0 +1,104 @@
+package net.sf.opendse.optimization.encoding.common;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+import org.opt4j.satdecoding.Constraint;
+import org.opt4j.satdecoding.Constraint.Operator;
+
+public class ConstraintStoreTest {
+
+	@Test
+	public void testRoundTrip() {
+		List<Constraint> constraints = ConstraintPreprocessingTest.createConstraints();
+		Constraint eq = new Constraint("=", 1);
+		eq.add(3, ConstraintPreprocessingTest.p("a"));
+		eq.add(ConstraintPreprocessingTest.n("z"));
+		constraints.add(eq);
+
+		ConstraintStore store = new ConstraintStore();
+		store.addAll(constraints);
+
+		assertEquals(constraints.size(), store.size());
+		assertEquals(6, store.getVariableCount());
+		assertEquals(constraints, store.toConstraints());
+		assertEquals(constraints, store.asConstraints());
+		assertEquals(Operator.EQ, store.getOperator(constraints.size() - 1));
+
+		store.trimToSize();
+		assertEquals(constraints, store.toConstraints());
+	}
+
+	@Test
+	public void testEncoding() {
+		ConstraintStore store = new ConstraintStore();
+		int c = store.add(ConstraintPreprocessingTest.ge(1, ConstraintPreprocessingTest.p("a"),
+				ConstraintPreprocessingTest.n("b")));
+
+		assertEquals(0, c);
+		assertEquals(2, store.size(0));
+		assertEquals(1, store.getRhs(0));
+		int a = store.indexOf("a");
+		int b = store.indexOf("b");
+		assertEquals(-1, store.indexOf("c"));
+		assertEquals(ConstraintStore.literal(a, true), store.getLiteral(0, 0));
+		assertEquals(ConstraintStore.literal(b, false), store.getLiteral(0, 1));
+		assertEquals(b, ConstraintStore.variableOf(store.getLiteral(0, 1)));
+		assertFalse(ConstraintStore.phaseOf(store.getLiteral(0, 1)));
+		assertEquals("b", store.getVariable(b));
+	}
+
+	@Test
+	public void testSharedDictionary() {
+		ConstraintStore store = new ConstraintStore();
+		store.addAll(ConstraintPreprocessingTest.createConstraints());
+		ConstraintStore other = new ConstraintStore(store);
+		assertEquals(store.getVariableCount(), other.getVariableCount());
+		assertEquals(store.indexOf("y"), other.indexOf("y"));
+		assertEquals(0, other.size());
+	}
+
+	@Test
+	public void testPreprocessing() {
+		ConstraintStore store = new ConstraintStore();
+		store.addAll(ConstraintPreprocessingTest.createConstraints());
+		ConstraintPreprocessing pp = new ConstraintPreprocessing(true, true, null, null, false);
+		ConstraintStore processed = pp.process(store);
+		assertTrue(processed.size() < store.size());
+		assertEquals(2, pp.getUnits().size());
+	}
+
+	@Test
+	public void testPreprocessingFromStore() {
+		ConstraintStore store = new ConstraintStore();
+		store.addAll(ConstraintPreprocessingTest.createConstraints());
+		int size = store.size();
+		ConstraintStore processed = new ConstraintPreprocessing(true, true, null, null, false).process(store);
+		assertEquals(size, store.size());
+
+		Collection<Constraint> expected = new ConstraintPreprocessing(true, true, null, null, false)
+				.process(new ArrayList<Constraint>(ConstraintPreprocessingTest.createConstraints()));
+		assertEquals(strings(expected), strings(processed.asConstraints()));
+	}
+
+	protected static Collection<String> strings(Collection<Constraint> constraints) {
+		Collection<String> strings = new HashSet<String>();
+		for (Constraint constraint : constraints) {
+			strings.add(constraint.toString());
+		}
+		return strings;
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testOutOfBounds() {
+		ConstraintStore store = new ConstraintStore();
+		store.add(ConstraintPreprocessingTest.ge(1, ConstraintPreprocessingTest.p("a")));
+		store.getLiteral(0, 1);
+	}
+
+}
@@ -0,0 +1,113 @@
+package net.sf.opendse.optimization.encoding.variables;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.opt4j.satdecoding.Literal;
+
+import net.sf.opendse.model.Resource;
+
+public class LiteralCacheTest {
+
+	@Test
+	public void testInterningInScope() {
+		Resource res = new Resource("r");
+		LiteralCache cache = new LiteralCache();
+		LiteralCache previous = cache.activate();
+		try {
+			assertSame(Variables.p(var(res)), Variables.p(var(res)));
+			assertSame(Variables.n(var(res)), Variables.n(var(res)));
+			assertNotEquals(Variables.p(var(res)), Variables.n(var(res)));
+		} finally {
+			LiteralCache.restore(previous);
+		}
+		assertNull(LiteralCache.getActive());
+		assertEquals(2, cache.size());
+		assertEquals(2, cache.getMisses());
+		assertEquals(4, cache.getHits());
+		assertTrue(cache.getEstimatedMemory() > 0);
+	}
+
+	@Test
+	public void testNoInterningOutOfScope() {
+		Resource res = new Resource("r");
+		Literal literal = Variables.p(var(res));
+		assertEquals(literal, Variables.p(var(res)));
+		assertNotSame(literal, Variables.p(var(res)));
+	}
+
+	@Test
+	public void testSeparateCaches() {
+		Resource res = new Resource("r");
+		LiteralCache first = new LiteralCache();
+		LiteralCache second = new LiteralCache();
+		LiteralCache previous = first.activate();
+		Literal literal = Variables.p(var(res));
+		second.activate();
+		assertNotSame(literal, Variables.p(var(res)));
+		LiteralCache.restore(first);
+		assertSame(literal, Variables.p(var(res)));
+		LiteralCache.restore(previous);
+		assertEquals(1, first.size());
+		assertEquals(1, second.size());
+	}
+
+	@Test
+	public void testRelease() {
+		LiteralCache cache = new LiteralCache();
+		Literal literal = cache.p("x");
+		cache.release();
+		assertTrue(cache.isReleased());
+		assertEquals(0, cache.size());
+		assertEquals(literal, cache.p("x"));
+		assertNotSame(literal, cache.p("x"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testConcurrentInterning() throws Exception {
+		final LiteralCache cache = new LiteralCache();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<List<Literal>>> futures = new ArrayList<Future<List<Literal>>>();
+		for (int t = 0; t < 4; t++) {
+			futures.add(executor.submit(new Callable<List<Literal>>() {
+				@Override
+				public List<Literal> call() {
+					LiteralCache previous = cache.activate();
+					try {
+						List<Literal> literals = new ArrayList<Literal>();
+						for (int i = 0; i < 1000; i++) {
+							literals.add(Variables.p("v" + i));
+						}
+						return literals;
+					} finally {
+						LiteralCache.restore(previous);
+					}
+				}
+			}));
+		}
+		List<Literal> first = futures.get(0).get();
+		for (Future<List<Literal>> future : futures) {
+			List<Literal> literals = future.get();
+			for (int i = 0; i < 1000; i++) {
+				assertSame(first.get(i), literals.get(i));
+			}
+		}
+		executor.shutdown();
+		assertEquals(1000, cache.size());
+		assertEquals(1000, cache.getMisses());
+		assertEquals(3000, cache.getHits());
+	}
+
+	protected static Object var(Resource res) {
+		return Variables.var(res);
+	}
+
+}
@@ -0,0 +1,54 @@
+package net.sf.opendse.optimization.evaluator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Stub worker for the {@link ExternalEvaluatorPool}. Answers pings with the
+ * objective declaration and each implementation with the number of
+ * implementations this process has evaluated so far. If a number is given as
+ * argument, the stub stops answering after this number of requests.
+ */
+public class ExternalEvaluatorPoolStub {
+
+	public static void main(String[] args) throws IOException {
+		InputStream in = new BufferedInputStream(System.in);
+		OutputStream out = new BufferedOutputStream(System.out);
+		int answers = args.length > 0 ? Integer.parseInt(args[0]) : Integer.MAX_VALUE;
+		int evaluated = 0;
+		while (true) {
+			byte[] request;
+			try {
+				request = ExternalEvaluatorPool.readFrame(in);
+			} catch (EOFException e) {
+				return;
+			}
+			if (answers-- <= 0) {
+				hang();
+			}
+			String value = "";
+			if (request.length > 0) {
+				evaluated++;
+				value = Integer.toString(evaluated);
+			}
+			String result = "<result><objectives><objective name=\"evaluated\" sign=\"MIN\">" + value
+					+ "</objective></objectives></result>";
+			ExternalEvaluatorPool.writeFrame(out, result.getBytes("UTF-8"));
+		}
+	}
+
+	protected static void hang() {
+		while (true) {
+			try {
+				Thread.sleep(Long.MAX_VALUE);
+			} catch (InterruptedException e) {
+				// keep hanging
+			}
+		}
+	}
+
+}
@@ -0,0 +1,186 @@
+package net.sf.opendse.optimization.evaluator;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Test;
+import org.opt4j.core.Objective;
+import org.opt4j.core.Objectives;
+
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+
+public class ExternalEvaluatorPoolTest {
+
+	protected static final Objective EVALUATED = new Objective("evaluated");
+
+	protected ExternalEvaluatorPool pool;
+
+	protected static String stubCommand() {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		return java + " -cp " + System.getProperty("java.class.path") + " "
+				+ ExternalEvaluatorPoolStub.class.getName();
+	}
+
+	protected static String stubCommand(int answers) {
+		return stubCommand() + " " + answers;
+	}
+
+	protected static Specification makeSpecification() {
+		return new Specification(new Application<Task, Dependency>(), new Architecture<Resource, Link>(),
+				new Mappings<Task, Resource>());
+	}
+
+	protected double evaluate() {
+		Objectives objectives = new Objectives();
+		pool.evaluate(makeSpecification(), objectives);
+		return objectives.get(EVALUATED).getDouble();
+	}
+
+	@After
+	public void close() {
+		if (pool != null) {
+			pool.close();
+		}
+	}
+
+	@Test
+	public void testFrames() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ExternalEvaluatorPool.writeFrame(out, "abc".getBytes("UTF-8"));
+		ExternalEvaluatorPool.writeFrame(out, new byte[0]);
+		ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+		assertEquals("abc", new String(ExternalEvaluatorPool.readFrame(in), "UTF-8"));
+		assertEquals(0, ExternalEvaluatorPool.readFrame(in).length);
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncatedFrame() throws IOException {
+		ExternalEvaluatorPool.readFrame(new ByteArrayInputStream("5\nab".getBytes("UTF-8")));
+	}
+
+	@Test
+	public void testWorkersArePersistent() {
+		pool = new ExternalEvaluatorPool(stubCommand(), 0, 1);
+		assertEquals(1.0, evaluate(), 0.0);
+		assertEquals(2.0, evaluate(), 0.0);
+		assertEquals(3.0, evaluate(), 0.0);
+	}
+
+	@Test
+	public void testCrashedWorkerIsRestarted() {
+		pool = new ExternalEvaluatorPool(stubCommand(), 0, 1);
+		assertEquals(1.0, evaluate(), 0.0);
+		pool.workers.get(0).process.destroy();
+		assertEquals(1.0, evaluate(), 0.0);
+		assertEquals(2.0, evaluate(), 0.0);
+	}
+
+	@Test
+	public void testCheckHealth() {
+		pool = new ExternalEvaluatorPool(stubCommand(), 0, 2);
+		assertEquals(0, pool.checkHealth());
+		pool.workers.get(1).destroy();
+		assertEquals(1, pool.checkHealth());
+		assertEquals(0, pool.checkHealth());
+	}
+
+	@Test
+	public void testConcurrentEvaluations() throws Exception {
+		pool = new ExternalEvaluatorPool(stubCommand(), 0, 2);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<Double>> results = new ArrayList<Future<Double>>();
+		for (int i = 0; i < 8; i++) {
+			results.add(executor.submit(new Callable<Double>() {
+				@Override
+				public Double call() {
+					return evaluate();
+				}
+			}));
+		}
+		double sum = 0;
+		for (Future<Double> result : results) {
+			sum += result.get();
+		}
+		executor.shutdown();
+		// every evaluation was answered and at most two processes were used
+		assertTrue(sum >= 2 * (1 + 2 + 3 + 4));
+		assertEquals(2, pool.workers.size());
+	}
+
+	@Test
+	public void testBatchEvaluation() {
+		pool = new ExternalEvaluatorPool(stubCommand(), 0, 2);
+		List<Specification> implementations = new ArrayList<Specification>();
+		List<Objectives> objectives = new ArrayList<Objectives>();
+		for (int i = 0; i < 6; i++) {
+			implementations.add(makeSpecification());
+			objectives.add(new Objectives());
+		}
+
+		List<Specification> results = pool.evaluate(implementations, objectives);
+
+		assertEquals(6, results.size());
+		double sum = 0;
+		for (Objectives o : objectives) {
+			sum += o.get(EVALUATED).getDouble();
+		}
+		// every implementation was answered by one of the two processes
+		assertTrue(sum >= 2 * (1 + 2 + 3));
+		assertEquals(2, pool.workers.size());
+		assertNotNull(pool.dispatchers);
+
+		pool.close();
+		assertNull(pool.dispatchers);
+	}
+
+	@Test(timeout = 30000)
+	public void testHungWorkerIsReplaced() {
+		// the worker answers the initial ping and hangs on the evaluation
+		pool = new ExternalEvaluatorPool(stubCommand(1), 0, 1, 1, 2000);
+		assertEquals(1.0, evaluate(), 0.0);
+		assertEquals(1, pool.workers.size());
+	}
+
+	@Test(timeout = 30000)
+	public void testCheckHealthRestartsHungWorker() {
+		pool = new ExternalEvaluatorPool(stubCommand(1), 0, 1, 1, 2000);
+		assertEquals(1, pool.checkHealth());
+		assertTrue(pool.workers.get(0).isAlive());
+	}
+
+	@Test
+	public void testCloseRemovesShutdownHook() {
+		pool = new ExternalEvaluatorPool(stubCommand(), 0, 1);
+		assertEquals(1.0, evaluate(), 0.0);
+		Thread hook = pool.shutdownHook;
+		assertNotNull(hook);
+
+		pool.close();
+		assertNull(pool.shutdownHook);
+		assertTrue(pool.workers.isEmpty());
+		assertFalse(Runtime.getRuntime().removeShutdownHook(hook));
+
+		// the pool is initialized again on demand
+		assertEquals(1.0, evaluate(), 0.0);
+		assertNotNull(pool.shutdownHook);
+	}
+
+}
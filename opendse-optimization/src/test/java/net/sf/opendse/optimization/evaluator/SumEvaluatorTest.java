@@ -0,0 +1,117 @@
+package net.sf.opendse.optimization.evaluator;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.opt4j.core.Objective;
+import org.opt4j.core.Objectives;
+
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.parameter.Parameters;
+
+public class SumEvaluatorTest {
+
+	protected Specification specification;
+	protected Specification implementation;
+
+	public SumEvaluatorTest() {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		Resource r1 = new Resource("r1");
+		r1.setAttribute("cost", 10);
+		r1.setAttribute("cost.static", 2.5);
+		r1.setAttribute("power", 3.0);
+		Resource r2 = new Resource("r2");
+		r2.setAttribute("cost", Parameters.range(5.0, 0.0, 10.0));
+		r2.setAttribute("name", "unused");
+		Resource r3 = new Resource("r3");
+		r3.setAttribute("cost", 100);
+		Link l = new Link("l");
+		l.setAttribute("power", 1.5);
+		architecture.addEdge(l, r1, r2, EdgeType.UNDIRECTED);
+		architecture.addVertex(r3);
+
+		Application<Task, Dependency> application = new Application<Task, Dependency>();
+		Task t = new Task("t");
+		application.addVertex(t);
+		Mappings<Task, Resource> mappings = new Mappings<Task, Resource>();
+		Mapping<Task, Resource> m = new Mapping<Task, Resource>("m", t, r1);
+		m.setAttribute("power", 0.5);
+		mappings.add(m);
+		specification = new Specification(application, architecture, mappings);
+
+		// r3 is not allocated, the parameter of r2 is set to 7
+		Architecture<Resource, Link> iarchitecture = new Architecture<Resource, Link>();
+		Resource i1 = new Resource(r1);
+		Resource i2 = new Resource(r2);
+		i2.setAttribute("cost", 7.0);
+		iarchitecture.addEdge(new Link(l), i1, i2, EdgeType.UNDIRECTED);
+		Mappings<Task, Resource> imappings = new Mappings<Task, Resource>();
+		imappings.add(new Mapping<Task, Resource>(m, t, i1));
+		implementation = new Specification(application, iarchitecture, imappings);
+	}
+
+	protected static double get(Objectives objectives, String name) {
+		for (Objective objective : objectives.getKeys()) {
+			if (objective.getName().equals(name)) {
+				return objectives.get(objective).getDouble();
+			}
+		}
+		throw new IllegalArgumentException(name);
+	}
+
+	@Test
+	public void testEvaluate() {
+		SumEvaluator evaluator = new SumEvaluator("cost,power", 0, true);
+		Objectives objectives = new Objectives();
+		evaluator.evaluate(implementation, objectives);
+
+		assertEquals(19.5, get(objectives, "cost"), 1e-9);
+		assertEquals(5.0, get(objectives, "power"), 1e-9);
+	}
+
+	@Test
+	public void testPrecompiled() {
+		SumEvaluator evaluator = new SumEvaluator("cost,power", 0, true, true);
+		evaluator.compile(specification);
+		Objectives objectives = new Objectives();
+		evaluator.evaluate(implementation, objectives);
+
+		assertEquals(2, objectives.size());
+		assertEquals(19.5, get(objectives, "cost"), 1e-9);
+		assertEquals(5.0, get(objectives, "power"), 1e-9);
+	}
+
+	@Test
+	public void testPrecompiledLocalOverride() {
+		SumEvaluator evaluator = new SumEvaluator("cost,power", 0, true, true);
+		evaluator.compile(specification);
+
+		// an earlier evaluator overrides a constant and adds a new value
+		for (Resource r : implementation.getArchitecture()) {
+			if (r.getId().equals("r1")) {
+				r.setAttribute("cost", 20);
+				r.setAttribute("power.dynamic", 1.0);
+			}
+		}
+
+		Objectives expected = new Objectives();
+		new SumEvaluator("cost,power", 0, true).evaluate(implementation, expected);
+		Objectives objectives = new Objectives();
+		evaluator.evaluate(implementation, objectives);
+
+		assertEquals(29.5, get(expected, "cost"), 1e-9);
+		assertEquals(6.0, get(expected, "power"), 1e-9);
+		assertEquals(get(expected, "cost"), get(objectives, "cost"), 1e-9);
+		assertEquals(get(expected, "power"), get(objectives, "power"), 1e-9);
+	}
+
+}
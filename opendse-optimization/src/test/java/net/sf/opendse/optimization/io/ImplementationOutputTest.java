@@ -0,0 +1,85 @@
+package net.sf.opendse.optimization.io;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.opt4j.core.Individual;
+import org.opt4j.core.optimizer.Archive;
+
+import net.sf.opendse.io.SpecificationWriter;
+import net.sf.opendse.model.Application;
+import net.sf.opendse.model.Architecture;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Link;
+import net.sf.opendse.model.Mappings;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Specification;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.optimization.ImplementationWrapper;
+import nu.xom.Builder;
+import nu.xom.Document;
+
+public class ImplementationOutputTest {
+
+	protected static Individual createIndividual(String resource) {
+		Architecture<Resource, Link> architecture = new Architecture<Resource, Link>();
+		architecture.addVertex(new Resource(resource));
+		Specification implementation = new Specification(new Application<Task, Dependency>(), architecture,
+				new Mappings<Task, Resource>());
+		Individual individual = mock(Individual.class);
+		when(individual.getPhenotype()).thenReturn(new ImplementationWrapper(implementation));
+		return individual;
+	}
+
+	protected static int count(InputStream in) throws Exception {
+		Document document = new Builder().build(in);
+		in.close();
+		return document.getRootElement().getChildElements("specification", SpecificationWriter.NS).size();
+	}
+
+	@Test
+	public void testArchive() throws Exception {
+		File file = File.createTempFile("implementations", ".xml");
+		file.deleteOnExit();
+		Archive archive = mock(Archive.class);
+		Individual i1 = createIndividual("r1");
+		Individual i2 = createIndividual("r2");
+		when(archive.iterator()).thenReturn(Arrays.asList(i1, i2).iterator());
+
+		ImplementationOutput output = new ImplementationOutput(archive, file.getPath());
+		output.optimizationStarted(null);
+		output.optimizationStopped(null);
+
+		Assert.assertEquals(2, count(new FileInputStream(file)));
+	}
+
+	@Test
+	public void testIncrementalGzip() throws Exception {
+		File file = File.createTempFile("implementations", ".xml.gz");
+		file.deleteOnExit();
+		Archive archive = mock(Archive.class);
+
+		ImplementationOutput output = new ImplementationOutput(archive, file.getPath());
+		output.setGzip(true);
+		output.setIncremental(true);
+		output.optimizationStarted(null);
+		verify(archive).addListener(output);
+		output.individualAdded(archive, createIndividual("r1"));
+		output.individualAdded(archive, createIndividual("r2"));
+		output.individualAdded(archive, createIndividual("r3"));
+		output.optimizationStopped(null);
+		verify(archive).removeListener(output);
+
+		Assert.assertEquals(3, count(new GZIPInputStream(new FileInputStream(file))));
+	}
+
+}